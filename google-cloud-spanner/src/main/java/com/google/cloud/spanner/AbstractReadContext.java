@@ -72,6 +72,8 @@ abstract class AbstractReadContext
     private ISpan span;
     private TraceWrapper tracer;
     private int defaultPrefetchChunks = SpannerOptions.Builder.DEFAULT_PREFETCH_CHUNKS;
+    private int maxAdaptivePrefetchChunks;
+    private SpannerRpcMetrics spannerRpcMetrics;
     private QueryOptions defaultQueryOptions = SpannerOptions.Builder.DEFAULT_QUERY_OPTIONS;
     private DecodeMode defaultDecodeMode = SpannerOptions.Builder.DEFAULT_DECODE_MODE;
     private DirectedReadOptions defaultDirectedReadOption;
@@ -110,6 +112,16 @@ abstract class AbstractReadContext
       return self();
     }
 
+    B setMaxAdaptivePrefetchChunks(int maxAdaptivePrefetchChunks) {
+      this.maxAdaptivePrefetchChunks = maxAdaptivePrefetchChunks;
+      return self();
+    }
+
+    B setSpannerRpcMetrics(SpannerRpcMetrics spannerRpcMetrics) {
+      this.spannerRpcMetrics = spannerRpcMetrics;
+      return self();
+    }
+
     B setDefaultQueryOptions(QueryOptions defaultQueryOptions) {
       this.defaultQueryOptions = defaultQueryOptions;
       return self();
@@ -156,6 +168,7 @@ abstract class AbstractReadContext
   static class SingleReadContext extends AbstractReadContext {
     static class Builder extends AbstractReadContext.Builder<Builder, SingleReadContext> {
       private TimestampBound bound;
+      @Nullable private StaleReadCache staleReadCache;
 
       private Builder() {}
 
@@ -164,6 +177,11 @@ abstract class AbstractReadContext
         return self();
       }
 
+      Builder setStaleReadCache(@Nullable StaleReadCache staleReadCache) {
+        this.staleReadCache = staleReadCache;
+        return self();
+      }
+
       @Override
       SingleReadContext build() {
         return new SingleReadContext(this);
@@ -185,9 +203,17 @@ abstract class AbstractReadContext
 
     private final Map<SpannerRpc.Option, ?> channelHint;
 
+    @Nullable private final StaleReadCache staleReadCache;
+
+    /** Set when the result of the read should be added to the {@link StaleReadCache}. */
+    private volatile boolean returnReadTimestamp;
+
+    private volatile Timestamp readTimestamp;
+
     private SingleReadContext(Builder builder) {
       super(builder);
       this.bound = builder.bound;
+      this.staleReadCache = builder.staleReadCache;
       // single use transaction have a single RPC and hence there is no need
       // of a channel hint. GAX will automatically choose a hint when used
       // with a multiplexed session to perform a round-robin channel selection. We are
@@ -210,6 +236,43 @@ abstract class AbstractReadContext
       used = true;
     }
 
+    @Override
+    ResultSet readInternalWithOptions(
+        String table,
+        @Nullable String index,
+        KeySet keys,
+        Iterable<String> columns,
+        Options readOptions,
+        ByteString partitionToken) {
+      StaleReadCache.CacheKey cacheKey =
+          staleReadCache == null
+              ? null
+              : StaleReadCache.createKey(
+                  session.getDatabaseId(),
+                  bound,
+                  table,
+                  index,
+                  keys,
+                  columns,
+                  readOptions,
+                  partitionToken);
+      if (cacheKey == null) {
+        return super.readInternalWithOptions(
+            table, index, keys, columns, readOptions, partitionToken);
+      }
+      ResultSet cachedResultSet = staleReadCache.get(cacheKey, bound);
+      if (cachedResultSet != null) {
+        // A read that is served from the cache also uses up this read context.
+        beforeReadOrQuery();
+        return cachedResultSet;
+      }
+      returnReadTimestamp = true;
+      return staleReadCache.cacheRows(
+          cacheKey,
+          super.readInternalWithOptions(table, index, keys, columns, readOptions, partitionToken),
+          () -> readTimestamp);
+    }
+
     @Override
     @Nullable
     TransactionSelector getTransactionSelector() {
@@ -217,11 +280,22 @@ abstract class AbstractReadContext
         // Default mode: no need to specify a transaction.
         return null;
       }
+      TransactionOptions.ReadOnly readOnly = bound.toProto();
+      if (returnReadTimestamp) {
+        readOnly = readOnly.toBuilder().setReturnReadTimestamp(true).build();
+      }
       return TransactionSelector.newBuilder()
-          .setSingleUse(TransactionOptions.newBuilder().setReadOnly(bound.toProto()))
+          .setSingleUse(TransactionOptions.newBuilder().setReadOnly(readOnly))
           .build();
     }
 
+    @Override
+    public void onTransactionMetadata(Transaction transaction, boolean shouldIncludeId) {
+      if (returnReadTimestamp && transaction.hasReadTimestamp()) {
+        readTimestamp = Timestamp.fromProto(transaction.getReadTimestamp());
+      }
+    }
+
     @Override
     Map<SpannerRpc.Option, ?> getTransactionChannelHint() {
       return channelHint;
@@ -444,6 +518,8 @@ abstract class AbstractReadContext
   ISpan span;
   TraceWrapper tracer;
   private final int defaultPrefetchChunks;
+  private final int maxAdaptivePrefetchChunks;
+  @Nullable private final SpannerRpcMetrics spannerRpcMetrics;
   private final QueryOptions defaultQueryOptions;
   private final DirectedReadOptions defaultDirectedReadOptions;
   private final DecodeMode defaultDecodeMode;
@@ -470,6 +546,8 @@ abstract class AbstractReadContext
     this.session = builder.session;
     this.rpc = builder.rpc;
     this.defaultPrefetchChunks = builder.defaultPrefetchChunks;
+    this.maxAdaptivePrefetchChunks = builder.maxAdaptivePrefetchChunks;
+    this.spannerRpcMetrics = builder.spannerRpcMetrics;
     this.defaultQueryOptions = builder.defaultQueryOptions;
     this.defaultDirectedReadOptions = builder.defaultDirectedReadOption;
     this.defaultDecodeMode = builder.defaultDecodeMode;
@@ -488,6 +566,11 @@ abstract class AbstractReadContext
     return seqNo.incrementAndGet();
   }
 
+  @Nullable
+  SpannerRpcMetrics getSpannerRpcMetrics() {
+    return spannerRpcMetrics;
+  }
+
   protected boolean isRouteToLeader() {
     return false;
   }
@@ -739,7 +822,9 @@ abstract class AbstractReadContext
             rpc.getExecuteQueryRetryableCodes()) {
           @Override
           CloseableIterator<PartialResultSet> startStream(@Nullable ByteString resumeToken) {
-            GrpcStreamIterator stream = new GrpcStreamIterator(statement, prefetchChunks);
+            GrpcStreamIterator stream =
+                new GrpcStreamIterator(
+                    statement, prefetchChunks, maxAdaptivePrefetchChunks, spannerRpcMetrics);
             if (partitionToken != null) {
               request.setPartitionToken(partitionToken);
             }
@@ -810,9 +895,14 @@ abstract class AbstractReadContext
   @Override
   public void close() {
     span.end();
+    boolean wasClosed;
     synchronized (lock) {
+      wasClosed = isClosed;
       isClosed = true;
     }
+    if (!wasClosed) {
+      session.onTransactionDone();
+    }
   }
 
   /**
@@ -908,7 +998,12 @@ abstract class AbstractReadContext
             rpc.getReadRetryableCodes()) {
           @Override
           CloseableIterator<PartialResultSet> startStream(@Nullable ByteString resumeToken) {
-            GrpcStreamIterator stream = new GrpcStreamIterator(prefetchChunks);
+            GrpcStreamIterator stream =
+                new GrpcStreamIterator(
+                    /* statement = */ null,
+                    prefetchChunks,
+                    maxAdaptivePrefetchChunks,
+                    spannerRpcMetrics);
             TransactionSelector selector = null;
             if (resumeToken != null) {
               builder.setResumeToken(resumeToken);
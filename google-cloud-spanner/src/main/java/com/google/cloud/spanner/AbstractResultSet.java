@@ -214,25 +214,31 @@ abstract class AbstractResultSet<R> extends AbstractStructReader implements Resu
    */
   abstract static class PrimitiveArray<T, A> extends AbstractList<T> {
     private final A data;
-    private final BitSet nulls;
+    /** The positions of the null elements, or null if the array contains no null elements. */
+    @Nullable private final BitSet nulls;
+
     private final int size;
 
     PrimitiveArray(ListValue protoList) {
       this.size = protoList.getValuesCount();
       A data = newArray(size);
-      BitSet nulls = new BitSet(size);
-      for (int i = 0; i < protoList.getValuesCount(); ++i) {
-        if (protoList.getValues(i).getKindCase() == KindCase.NULL_VALUE) {
+      BitSet nulls = null;
+      for (int i = 0; i < size; ++i) {
+        com.google.protobuf.Value protoValue = protoList.getValues(i);
+        if (protoValue.getKindCase() == KindCase.NULL_VALUE) {
+          if (nulls == null) {
+            nulls = new BitSet(size);
+          }
           nulls.set(i);
         } else {
-          setProto(data, i, protoList.getValues(i));
+          setProto(data, i, protoValue);
         }
       }
       this.data = data;
       this.nulls = nulls;
     }
 
-    PrimitiveArray(A data, BitSet nulls, int size) {
+    PrimitiveArray(A data, @Nullable BitSet nulls, int size) {
       this.data = data;
       this.nulls = nulls;
       this.size = size;
@@ -244,12 +250,14 @@ abstract class AbstractResultSet<R> extends AbstractStructReader implements Resu
 
     abstract T get(A array, int i);
 
+    abstract Value toValue(A array, @Nullable BitSet nulls);
+
     @Override
     public T get(int index) {
       if (index < 0 || index >= size) {
         throw new ArrayIndexOutOfBoundsException("index=" + index + " size=" + size);
       }
-      return nulls.get(index) ? null : get(data, index);
+      return nulls != null && nulls.get(index) ? null : get(data, index);
     }
 
     @Override
@@ -258,13 +266,21 @@ abstract class AbstractResultSet<R> extends AbstractStructReader implements Resu
     }
 
     A toPrimitiveArray(int columnIndex) {
-      if (nulls.length() > 0) {
+      if (nulls != null && nulls.length() > 0) {
         throw throwNotNull(columnIndex);
       }
       A r = newArray(size);
       System.arraycopy(data, 0, r, 0, size);
       return r;
     }
+
+    /**
+     * Returns an array {@link Value} that shares the backing array of this list, instead of boxing
+     * and copying each element. This is safe, as the backing array is never modified.
+     */
+    Value toValue() {
+      return toValue(data, nulls);
+    }
   }
 
   static class Int64Array extends PrimitiveArray<Long, long[]> {
@@ -290,6 +306,16 @@ abstract class AbstractResultSet<R> extends AbstractStructReader implements Resu
     Long get(long[] array, int i) {
       return array[i];
     }
+
+    @Override
+    Value toValue(long[] array, @Nullable BitSet nulls) {
+      return Value.wrapInt64Array(array, nulls);
+    }
+
+    /** Returns an {@code ARRAY<PG_OID>} value that shares the backing array of this list. */
+    Value toPgOidValue() {
+      return Value.wrapPgOidArray(super.data, super.nulls);
+    }
   }
 
   static class Float32Array extends PrimitiveArray<Float, float[]> {
@@ -315,6 +341,11 @@ abstract class AbstractResultSet<R> extends AbstractStructReader implements Resu
     Float get(float[] array, int i) {
       return array[i];
     }
+
+    @Override
+    Value toValue(float[] array, @Nullable BitSet nulls) {
+      return Value.wrapFloat32Array(array, nulls);
+    }
   }
 
   static class Float64Array extends PrimitiveArray<Double, double[]> {
@@ -340,6 +371,11 @@ abstract class AbstractResultSet<R> extends AbstractStructReader implements Resu
     Double get(double[] array, int i) {
       return array[i];
     }
+
+    @Override
+    Value toValue(double[] array, @Nullable BitSet nulls) {
+      return Value.wrapFloat64Array(array, nulls);
+    }
   }
 
   protected abstract GrpcStruct currRow();
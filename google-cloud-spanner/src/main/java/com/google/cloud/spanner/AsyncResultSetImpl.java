@@ -31,16 +31,14 @@ import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.spanner.v1.ResultSetMetadata;
 import com.google.spanner.v1.ResultSetStats;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -72,13 +70,16 @@ class AsyncResultSetImpl extends ForwardingStructReader implements ListenableAsy
   }
 
   static final int DEFAULT_BUFFER_SIZE = 10;
+  /** The buffer is pre-allocated, so very large buffer sizes are capped to this value. */
+  static final int MAX_BUFFER_SIZE = 1 << 16;
+
   private static final int MAX_WAIT_FOR_BUFFER_CONSUMPTION = 10;
   private static final SpannerException CANCELLED_EXCEPTION =
       SpannerExceptionFactory.newSpannerException(
           ErrorCode.CANCELLED, "This AsyncResultSet has been cancelled");
 
   private final Object monitor = new Object();
-  private boolean closed;
+  private volatile boolean closed;
 
   /**
    * {@link ExecutorProvider} provides executor services that are used to fetch data from the
@@ -88,7 +89,13 @@ class AsyncResultSetImpl extends ForwardingStructReader implements ListenableAsy
 
   private final ListeningScheduledExecutorService service;
 
-  private final BlockingDeque<Struct> buffer;
+  /**
+   * The rows that have been produced but not yet consumed. Rows are added by the producer and
+   * removed by the callback without taking the monitor. The callback executor guarantees that at
+   * most one thread consumes rows at any time.
+   */
+  private final SpscRingBuffer<Struct> buffer;
+
   private Struct currentRow;
   /** Supplies the underlying synchronous {@link ResultSet} that will be producing the rows. */
   private final Supplier<ResultSet> delegateResultSet;
@@ -111,9 +118,13 @@ class AsyncResultSetImpl extends ForwardingStructReader implements ListenableAsy
    * Listeners that will be called when the {@link AsyncResultSetImpl} has finished fetching all
    * rows and any underlying transaction or session can be closed.
    */
-  private Collection<Runnable> listeners = new LinkedList<>();
+  private final Collection<Runnable> listeners = new ArrayList<>(1);
 
-  private State state = State.INITIALIZED;
+  /**
+   * The current state of this result set. The state is only modified while holding the monitor, but
+   * it is volatile so producing and consuming a row can check it without taking the monitor.
+   */
+  private volatile State state = State.INITIALIZED;
 
   /**
    * This variable indicates whether all the results from the underlying result set have been read.
@@ -154,7 +165,13 @@ class AsyncResultSetImpl extends ForwardingStructReader implements ListenableAsy
     this.executorProvider = Preconditions.checkNotNull(executorProvider);
     this.delegateResultSet = Preconditions.checkNotNull(delegate);
     this.service = MoreExecutors.listeningDecorator(executorProvider.getExecutor());
-    this.buffer = new LinkedBlockingDeque<>(bufferSize);
+    if (bufferSize > MAX_BUFFER_SIZE) {
+      log.log(
+          Level.WARNING,
+          "bufferRows {0} exceeds the maximum of {1} rows for an AsyncResultSet, using {1} instead",
+          new Object[] {bufferSize, MAX_BUFFER_SIZE});
+    }
+    this.buffer = new SpscRingBuffer<>(Math.min(bufferSize, MAX_BUFFER_SIZE));
   }
 
   /**
@@ -200,6 +217,13 @@ class AsyncResultSetImpl extends ForwardingStructReader implements ListenableAsy
    */
   @Override
   public CursorState tryNext() throws SpannerException {
+    if (state == State.CONSUMING) {
+      // Fast path: Take the next row from the buffer without taking the monitor.
+      Struct row = buffer.poll();
+      if (row != null) {
+        return setCurrentRow(row);
+      }
+    }
     synchronized (monitor) {
       if (state == State.CANCELLED) {
         cursorReturnedDoneOrException = true;
@@ -221,17 +245,20 @@ class AsyncResultSetImpl extends ForwardingStructReader implements ListenableAsy
         return CursorState.DONE;
       }
     }
-    if (!buffer.isEmpty()) {
-      // Set the next row from the buffer as the current row of the StructReader.
-      replaceDelegate(currentRow = buffer.pop());
-      synchronized (monitor) {
-        bufferConsumptionLatch.countDown();
-      }
-      return CursorState.OK;
+    Struct row = buffer.poll();
+    if (row != null) {
+      return setCurrentRow(row);
     }
     return CursorState.NOT_READY;
   }
 
+  private CursorState setCurrentRow(Struct row) {
+    // Set the next row from the buffer as the current row of the StructReader.
+    replaceDelegate(currentRow = row);
+    bufferConsumptionLatch.countDown();
+    return CursorState.OK;
+  }
+
   private void closeDelegateResultSet() {
     try {
       delegateResultSet.get().close();
@@ -305,7 +332,13 @@ class AsyncResultSetImpl extends ForwardingStructReader implements ListenableAsy
                       break;
                     }
                     state = State.RUNNING;
-                    return;
+                    // The producer only takes the monitor to start the callback if it sees that
+                    // the state is no longer CONSUMING. A row that it added just before the state
+                    // was changed must therefore be picked up here.
+                    if (buffer.isEmpty()) {
+                      return;
+                    }
+                    state = State.CONSUMING;
                   }
                   break;
                 default:
@@ -347,11 +380,9 @@ class AsyncResultSetImpl extends ForwardingStructReader implements ListenableAsy
       try {
         while (!stop && hasNext) {
           try {
-            synchronized (monitor) {
-              stop = state.shouldStop;
-            }
+            stop = state.shouldStop;
             if (!stop) {
-              while (buffer.remainingCapacity() == 0 && !stop) {
+              while (buffer.size() >= buffer.capacity() && !stop) {
                 waitIfPaused();
                 // The buffer is full and we should let the callback consume a number of rows before
                 // we proceed with producing any more rows to prevent us from potentially waiting on
@@ -364,14 +395,19 @@ class AsyncResultSetImpl extends ForwardingStructReader implements ListenableAsy
                         Math.min(buffer.size() / 2 + 1, buffer.size()),
                         MAX_WAIT_FOR_BUFFER_CONSUMPTION));
                 bufferConsumptionLatch.await();
-                synchronized (monitor) {
-                  stop = state.shouldStop;
-                }
+                stop = state.shouldStop;
               }
             }
             if (!stop) {
-              buffer.put(delegateResultSet.get().getCurrentRowAsStruct());
-              startCallbackIfNecessary();
+              boolean added = buffer.offer(delegateResultSet.get().getCurrentRowAsStruct());
+              // This is the only thread that adds rows to the buffer, and the loop above waits
+              // until there is room for at least one more row, so this should never fail.
+              Preconditions.checkState(added, "The row buffer of the result set is full");
+              // There is no need to start the callback if it is already consuming rows. The
+              // callback checks the buffer once more before it stops consuming.
+              if (state != State.CONSUMING) {
+                startCallbackIfNecessary();
+              }
               hasNext = delegateResultSet.get().next();
             }
           } catch (Throwable e) {
@@ -580,12 +616,14 @@ class AsyncResultSetImpl extends ForwardingStructReader implements ListenableAsy
 
   @Override
   protected void checkValidState() {
-    synchronized (monitor) {
-      Preconditions.checkState(
-          state == State.SYNC || state == State.CONSUMING || state == State.CANCELLED,
-          "only allowed after a next() call or from within a ReadyCallback#cursorReady callback");
-      Preconditions.checkState(state != State.SYNC || !closed, "ResultSet is closed");
-    }
+    // This is called for every value that is read, and therefore does not take the monitor.
+    State currentState = state;
+    Preconditions.checkState(
+        currentState == State.SYNC
+            || currentState == State.CONSUMING
+            || currentState == State.CANCELLED,
+        "only allowed after a next() call or from within a ReadyCallback#cursorReady callback");
+    Preconditions.checkState(currentState != State.SYNC || !closed, "ResultSet is closed");
   }
 
   @Override
@@ -60,12 +60,15 @@ public class BatchClientImpl implements BatchClient {
                 sessionClient.getSpanner().getDefaultQueryOptions(sessionClient.getDatabaseId()))
             .setExecutorProvider(sessionClient.getSpanner().getAsyncExecutorProvider())
             .setDefaultPrefetchChunks(sessionClient.getSpanner().getDefaultPrefetchChunks())
+            .setMaxAdaptivePrefetchChunks(sessionClient.getSpanner().getMaxAdaptivePrefetchChunks())
+            .setSpannerRpcMetrics(sessionClient.getSpanner().getSpannerRpcMetrics())
             .setDefaultDecodeMode(sessionClient.getSpanner().getDefaultDecodeMode())
             .setDefaultDirectedReadOptions(
                 sessionClient.getSpanner().getOptions().getDirectedReadOptions())
             .setSpan(sessionClient.getSpanner().getTracer().getCurrentSpan())
             .setTracer(sessionClient.getSpanner().getTracer()),
-        checkNotNull(bound));
+        checkNotNull(bound),
+        sessionClient.getSpanner());
   }
 
   @Override
@@ -82,32 +85,40 @@ public class BatchClientImpl implements BatchClient {
                 sessionClient.getSpanner().getDefaultQueryOptions(sessionClient.getDatabaseId()))
             .setExecutorProvider(sessionClient.getSpanner().getAsyncExecutorProvider())
             .setDefaultPrefetchChunks(sessionClient.getSpanner().getDefaultPrefetchChunks())
+            .setMaxAdaptivePrefetchChunks(sessionClient.getSpanner().getMaxAdaptivePrefetchChunks())
+            .setSpannerRpcMetrics(sessionClient.getSpanner().getSpannerRpcMetrics())
             .setDefaultDecodeMode(sessionClient.getSpanner().getDefaultDecodeMode())
             .setDefaultDirectedReadOptions(
                 sessionClient.getSpanner().getOptions().getDirectedReadOptions())
             .setSpan(sessionClient.getSpanner().getTracer().getCurrentSpan())
             .setTracer(sessionClient.getSpanner().getTracer()),
-        batchTransactionId);
+        batchTransactionId,
+        sessionClient.getSpanner());
   }
 
   private static class BatchReadOnlyTransactionImpl extends MultiUseReadOnlyTransaction
       implements BatchReadOnlyTransaction {
     private final String sessionName;
     private final Map<SpannerRpc.Option, ?> options;
+    private final SpannerImpl spanner;
 
     BatchReadOnlyTransactionImpl(
-        MultiUseReadOnlyTransaction.Builder builder, TimestampBound bound) {
+        MultiUseReadOnlyTransaction.Builder builder, TimestampBound bound, SpannerImpl spanner) {
       super(builder.setTimestampBound(bound));
       this.sessionName = session.getName();
       this.options = session.getOptions();
+      this.spanner = spanner;
       initTransaction();
     }
 
     BatchReadOnlyTransactionImpl(
-        MultiUseReadOnlyTransaction.Builder builder, BatchTransactionId batchTransactionId) {
+        MultiUseReadOnlyTransaction.Builder builder,
+        BatchTransactionId batchTransactionId,
+        SpannerImpl spanner) {
       super(builder.setTransactionId(batchTransactionId.getTransactionId()));
       this.sessionName = session.getName();
       this.options = session.getOptions();
+      this.spanner = spanner;
     }
 
     @Override
@@ -230,6 +241,17 @@ public class BatchClientImpl implements BatchClient {
           partition.getPartitionToken());
     }
 
+    @Override
+    public PartitionedResultSet executePartitions(
+        List<Partition> partitions, PartitionExecutionOptions options) throws SpannerException {
+      return new ParallelPartitionResultSet<>(
+          partitions,
+          this::execute,
+          options,
+          getSpannerRpcMetrics(),
+          options.getExecutor() != null ? options.getExecutor() : spanner.getPartitionExecutor());
+    }
+
     /**
      * Closes the session as part of the cleanup. It is the responsibility of the caller to make a
      * call to this method once the transaction completes execution across all the channels (which
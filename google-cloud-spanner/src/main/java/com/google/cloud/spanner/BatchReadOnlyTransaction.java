@@ -16,6 +16,7 @@
 
 package com.google.cloud.spanner;
 
+import com.google.api.core.BetaApi;
 import com.google.cloud.spanner.Options.QueryOption;
 import com.google.cloud.spanner.Options.ReadOption;
 import java.util.List;
@@ -192,6 +193,45 @@ public interface BatchReadOnlyTransaction extends ReadOnlyTransaction {
    */
   ResultSet execute(Partition partition) throws SpannerException;
 
+  /**
+   * Executes the given partitions in parallel and returns the rows of all partitions as one
+   * streaming {@link PartitionedResultSet}. The partitions start executing directly. The number of
+   * partitions that are executed in parallel, the executor that is used, and whether the rows are
+   * returned in partition order can be configured with {@link PartitionExecutionOptions}. Each
+   * partition that is executed buffers at most the number of chunks that is configured with {@link
+   * SpannerOptions.Builder#setPrefetchChunks(int)} until its rows are read. Closing the returned
+   * {@link ResultSet} before all rows have been consumed cancels all partitions that are still
+   * running.
+   *
+   * <p>The returned {@link ResultSet} can be converted to an {@link AsyncResultSet} with {@link
+   * ResultSets#toAsyncResultSet(ResultSet)}.
+   *
+   * <pre>{@code
+   * final BatchReadOnlyTransaction txn =
+   *     batchClient.batchReadOnlyTransaction(TimestampBound.strong());
+   * List<Partition> partitions = txn.partitionQuery(PartitionOptions.getDefaultInstance(),
+   *     Statement.of("SELECT SingerId, FirstName, LastName FROM Singers"));
+   *
+   * try (ResultSet results = txn.executePartitions(partitions,
+   *     PartitionExecutionOptions.newBuilder().setMaxParallelism(8).build())) {
+   *   while (results.next()) {
+   *     long singerId = results.getLong(0);
+   *     String firstName = results.getString(1);
+   *     String lastName = results.getString(2);
+   *     System.out.println("[" + singerId + "] " + firstName + " " + lastName);
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param partitions the partitions to execute
+   * @param options the options for executing the partitions
+   */
+  @BetaApi
+  default PartitionedResultSet executePartitions(
+      List<Partition> partitions, PartitionExecutionOptions options) throws SpannerException {
+    return new ParallelPartitionResultSet<>(partitions, this::execute, options);
+  }
+
   /**
    * Returns a {@link BatchTransactionId} to be re-used across several machines/processes. This
    * BatchTransactionId guarantees the subsequent read/query to be executed at the same timestamp.
@@ -0,0 +1,484 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.cloud.spanner.SpannerExceptionFactory.newSpannerException;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.BetaApi;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.rpc.ServerStream;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Options.TransactionOption;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.rpc.Code;
+import com.google.spanner.v1.BatchWriteResponse;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Buffers independent blind writes and sends them to Spanner in batches. Each call to {@link
+ * #write(Iterable)} is added to the buffer as one {@link MutationGroup}, and returns a future for
+ * the commit timestamp of that group. The buffer is written to Spanner with {@link
+ * DatabaseClient#batchWriteAtLeastOnce(Iterable, TransactionOption...)} when it contains the
+ * maximum number of writes or mutations, or when the flush interval has passed since the first
+ * write in the buffer.
+ *
+ * <p>Each write is applied atomically, but independently of the other writes in the same batch. A
+ * write that fails does not cause other writes in the same batch to fail. As with {@link
+ * DatabaseClient#batchWriteAtLeastOnce(Iterable, TransactionOption...)}, writes may be applied more
+ * than once, and this writer should therefore only be used for idempotent writes, such as {@link
+ * Mutation.Op#INSERT_OR_UPDATE} and {@link Mutation.Op#REPLACE} mutations.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * try (BufferedMutationWriter writer =
+ *     BufferedMutationWriter.newBuilder(dbClient)
+ *         .setFlushInterval(Duration.ofMillis(5L))
+ *         .build()) {
+ *   ApiFuture<Timestamp> commitTimestamp =
+ *       writer.write(
+ *           Collections.singletonList(
+ *               Mutation.newInsertOrUpdateBuilder("Singers")
+ *                   .set("SingerId").to(1L)
+ *                   .set("Name").to("Alice")
+ *                   .build()));
+ * }
+ * }</pre>
+ */
+@BetaApi
+public final class BufferedMutationWriter implements AutoCloseable {
+  /** The maximum number of mutations that Spanner accepts in one commit. */
+  static final int MAX_MUTATIONS_PER_COMMIT = 80_000;
+
+  /** Builder for {@link BufferedMutationWriter}. */
+  public static final class Builder {
+    private final DatabaseClient client;
+    private int maxWritesPerBatch = 1000;
+    private int maxMutationsPerBatch = MAX_MUTATIONS_PER_COMMIT;
+    private Duration flushInterval = Duration.ofMillis(10L);
+    private int maxConcurrentBatches = 4;
+    private TransactionOption[] options = new TransactionOption[0];
+    private OpenTelemetry openTelemetry;
+
+    private Builder(DatabaseClient client) {
+      this.client = Preconditions.checkNotNull(client);
+    }
+
+    /**
+     * Sets the maximum number of calls to {@link BufferedMutationWriter#write(Iterable)} that are
+     * sent to Spanner in one batch. The default is 1000.
+     */
+    public Builder setMaxWritesPerBatch(int maxWritesPerBatch) {
+      Preconditions.checkArgument(maxWritesPerBatch > 0, "maxWritesPerBatch must be > 0");
+      this.maxWritesPerBatch = maxWritesPerBatch;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of mutations in one batch. Each column value in an insert, update or
+     * replace mutation and each delete mutation counts as one mutation. The default and maximum is
+     * 80,000, which is the maximum number of mutations that Spanner accepts in one commit.
+     */
+    public Builder setMaxMutationsPerBatch(int maxMutationsPerBatch) {
+      Preconditions.checkArgument(
+          maxMutationsPerBatch > 0 && maxMutationsPerBatch <= MAX_MUTATIONS_PER_COMMIT,
+          "maxMutationsPerBatch must be in the range [1, %s]",
+          MAX_MUTATIONS_PER_COMMIT);
+      this.maxMutationsPerBatch = maxMutationsPerBatch;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time that a write waits in the buffer before the buffer is sent to Spanner.
+     * The default is 10 milliseconds.
+     */
+    public Builder setFlushInterval(Duration flushInterval) {
+      Preconditions.checkNotNull(flushInterval);
+      Preconditions.checkArgument(!flushInterval.isNegative(), "flushInterval must be >= 0");
+      this.flushInterval = flushInterval;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of batches that are sent to Spanner in parallel. Batches that are
+     * ready while this number of batches is in flight wait until one of them has finished. The
+     * default is 4.
+     */
+    public Builder setMaxConcurrentBatches(int maxConcurrentBatches) {
+      Preconditions.checkArgument(maxConcurrentBatches > 0, "maxConcurrentBatches must be > 0");
+      this.maxConcurrentBatches = maxConcurrentBatches;
+      return this;
+    }
+
+    /**
+     * Sets the options that are used for each batch, for example {@link
+     * Options#priority(Options.RpcPriority)} or {@link Options#tag(String)}.
+     */
+    public Builder setOptions(TransactionOption... options) {
+      this.options = Preconditions.checkNotNull(options).clone();
+      return this;
+    }
+
+    /**
+     * Sets the {@link OpenTelemetry} instance that is used to record the flush latency and batch
+     * size of this writer. The default is {@link GlobalOpenTelemetry}. Metrics are only recorded if
+     * {@link SpannerOptions#enableOpenTelemetryMetrics()} has been called.
+     */
+    public Builder setOpenTelemetry(OpenTelemetry openTelemetry) {
+      this.openTelemetry = Preconditions.checkNotNull(openTelemetry);
+      return this;
+    }
+
+    public BufferedMutationWriter build() {
+      return new BufferedMutationWriter(this);
+    }
+  }
+
+  /** Returns a builder for a {@link BufferedMutationWriter} that writes to the given client. */
+  public static Builder newBuilder(DatabaseClient client) {
+    return new Builder(client);
+  }
+
+  private static final class BufferedWrite {
+    private final MutationGroup mutationGroup;
+    private final int numMutations;
+    private final SettableApiFuture<Timestamp> result = SettableApiFuture.create();
+
+    private BufferedWrite(MutationGroup mutationGroup, int numMutations) {
+      this.mutationGroup = mutationGroup;
+      this.numMutations = numMutations;
+    }
+  }
+
+  private final DatabaseClient client;
+  private final int maxWritesPerBatch;
+  private final int maxMutationsPerBatch;
+  private final Duration flushInterval;
+  private final TransactionOption[] options;
+  private final ScheduledExecutorService scheduler;
+  private final ExecutorService batchExecutor;
+  /** Limits the number of batches that are sent to Spanner in parallel. */
+  private final Semaphore batchPermits;
+
+  @Nullable private final LongHistogram flushLatencies;
+  @Nullable private final LongHistogram batchSizes;
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private List<BufferedWrite> buffer = new ArrayList<>();
+
+  @GuardedBy("lock")
+  private int bufferedMutations;
+
+  @GuardedBy("lock")
+  private ScheduledFuture<?> scheduledFlush;
+
+  /** Batches that are waiting for one of the {@link #batchPermits}. */
+  @GuardedBy("lock")
+  private final Queue<List<BufferedWrite>> pendingBatches = new ArrayDeque<>();
+
+  @GuardedBy("lock")
+  private final Set<ApiFuture<Timestamp>> inFlightWrites =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
+  @GuardedBy("lock")
+  private boolean closed;
+
+  private BufferedMutationWriter(Builder builder) {
+    this.client = builder.client;
+    this.maxWritesPerBatch = builder.maxWritesPerBatch;
+    this.maxMutationsPerBatch = builder.maxMutationsPerBatch;
+    this.flushInterval = builder.flushInterval;
+    this.options = builder.options;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+                "buffered-mutation-writer-scheduler", /* tryVirtualThreads = */ false));
+    this.batchExecutor = createBatchExecutor();
+    this.batchPermits = new Semaphore(builder.maxConcurrentBatches);
+    if (SpannerOptions.isEnabledOpenTelemetryMetrics()) {
+      OpenTelemetry openTelemetry =
+          builder.openTelemetry == null ? GlobalOpenTelemetry.get() : builder.openTelemetry;
+      Meter meter = openTelemetry.getMeter(MetricRegistryConstants.INSTRUMENTATION_SCOPE);
+      this.flushLatencies =
+          meter
+              .histogramBuilder(MetricRegistryConstants.SPANNER_WRITE_BATCH_FLUSH_LATENCY)
+              .ofLongs()
+              .setDescription(MetricRegistryConstants.SPANNER_WRITE_BATCH_FLUSH_LATENCY_DESCRIPTION)
+              .setUnit("ms")
+              .setExplicitBucketBoundariesAdvice(
+                  Arrays.asList(
+                      1L, 2L, 4L, 8L, 16L, 32L, 64L, 128L, 256L, 512L, 1024L, 2048L, 4096L, 8192L))
+              .build();
+      this.batchSizes =
+          meter
+              .histogramBuilder(MetricRegistryConstants.SPANNER_WRITE_BATCH_SIZE)
+              .ofLongs()
+              .setDescription(MetricRegistryConstants.SPANNER_WRITE_BATCH_SIZE_DESCRIPTION)
+              .setUnit(MetricRegistryConstants.COUNT)
+              .setExplicitBucketBoundariesAdvice(
+                  Arrays.asList(1L, 2L, 4L, 8L, 16L, 32L, 64L, 128L, 256L, 512L, 1024L))
+              .build();
+    } else {
+      this.flushLatencies = null;
+      this.batchSizes = null;
+    }
+  }
+
+  /**
+   * Adds the given mutations to the buffer as one {@link MutationGroup}. The mutations are applied
+   * atomically. The returned future is done when the mutations have been applied, or when applying
+   * them failed.
+   *
+   * @return a future for the commit timestamp of the mutations
+   * @throws IllegalStateException if this writer has been closed
+   */
+  public ApiFuture<Timestamp> write(Iterable<Mutation> mutations) {
+    MutationGroup mutationGroup = MutationGroup.of(mutations);
+    BufferedWrite write = new BufferedWrite(mutationGroup, countMutations(mutationGroup));
+    List<BufferedWrite> batch = null;
+    List<BufferedWrite> overflow = null;
+    synchronized (lock) {
+      Preconditions.checkState(!closed, "This writer has been closed");
+      if (!buffer.isEmpty() && bufferedMutations + write.numMutations > maxMutationsPerBatch) {
+        // Send the current buffer first to prevent it from exceeding the mutation limit.
+        overflow = takeBufferLocked();
+      }
+      buffer.add(write);
+      bufferedMutations += write.numMutations;
+      inFlightWrites.add(write.result);
+      if (buffer.size() >= maxWritesPerBatch || bufferedMutations >= maxMutationsPerBatch) {
+        batch = takeBufferLocked();
+      } else if (buffer.size() == 1) {
+        scheduledFlush =
+            scheduler.schedule(this::flushBuffer, flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+      }
+    }
+    write.result.addListener(
+        () -> removeInFlightWrite(write.result), MoreExecutors.directExecutor());
+    if (overflow != null) {
+      submit(overflow);
+    }
+    if (batch != null) {
+      submit(batch);
+    }
+    return write.result;
+  }
+
+  /**
+   * Sends all buffered writes to Spanner. The returned future is done when all writes that were
+   * added to this writer before this method was called are done.
+   */
+  public ApiFuture<Void> flush() {
+    List<ApiFuture<Timestamp>> writes;
+    synchronized (lock) {
+      writes = new ArrayList<>(inFlightWrites);
+    }
+    flushBuffer();
+    // Failures are reported by the future of each individual write.
+    return ApiFutures.transform(
+        ApiFutures.successfulAsList(writes), ignored -> null, MoreExecutors.directExecutor());
+  }
+
+  /**
+   * Sends all buffered writes to Spanner, waits until these have finished, and closes this writer.
+   * Any subsequent call to {@link #write(Iterable)} will fail.
+   */
+  @Override
+  public void close() {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    try {
+      SpannerApiFutures.get(flush());
+    } finally {
+      scheduler.shutdown();
+      batchExecutor.shutdown();
+    }
+  }
+
+  private void removeInFlightWrite(ApiFuture<Timestamp> write) {
+    synchronized (lock) {
+      inFlightWrites.remove(write);
+    }
+  }
+
+  private void flushBuffer() {
+    List<BufferedWrite> batch;
+    synchronized (lock) {
+      if (buffer.isEmpty()) {
+        return;
+      }
+      batch = takeBufferLocked();
+    }
+    submit(batch);
+  }
+
+  @GuardedBy("lock")
+  private List<BufferedWrite> takeBufferLocked() {
+    List<BufferedWrite> batch = buffer;
+    buffer = new ArrayList<>();
+    bufferedMutations = 0;
+    if (scheduledFlush != null) {
+      scheduledFlush.cancel(false);
+      scheduledFlush = null;
+    }
+    return batch;
+  }
+
+  /**
+   * Creates an executor that uses a new virtual thread for each batch if virtual threads are
+   * available, and otherwise a pool of daemon threads that grows and shrinks with the number of
+   * batches that are in flight. The number of batches in flight is limited by {@link
+   * #batchPermits}.
+   */
+  private static ExecutorService createBatchExecutor() {
+    ExecutorService virtualThreadExecutor =
+        ThreadFactoryUtil.tryCreateVirtualThreadPerTaskExecutor("buffered-mutation-writer");
+    if (virtualThreadExecutor != null) {
+      return virtualThreadExecutor;
+    }
+    return Executors.newCachedThreadPool(
+        ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+            "buffered-mutation-writer", /* tryVirtualThreads = */ false));
+  }
+
+  private void submit(List<BufferedWrite> batch) {
+    synchronized (lock) {
+      pendingBatches.add(batch);
+    }
+    startPendingBatches();
+  }
+
+  /** Starts pending batches until there are no more pending batches or no more permits. */
+  private void startPendingBatches() {
+    while (batchPermits.tryAcquire()) {
+      List<BufferedWrite> batch;
+      synchronized (lock) {
+        batch = pendingBatches.poll();
+      }
+      if (batch == null) {
+        batchPermits.release();
+        // Check again, as a batch that was added before the permit was released could not get a
+        // permit.
+        synchronized (lock) {
+          if (pendingBatches.isEmpty()) {
+            return;
+          }
+        }
+        continue;
+      }
+      batchExecutor.execute(
+          () -> {
+            try {
+              writeBatch(batch);
+            } finally {
+              batchPermits.release();
+              startPendingBatches();
+            }
+          });
+    }
+  }
+
+  private void writeBatch(List<BufferedWrite> batch) {
+    long startNanos = System.nanoTime();
+    try {
+      List<MutationGroup> mutationGroups = new ArrayList<>(batch.size());
+      for (BufferedWrite write : batch) {
+        mutationGroups.add(write.mutationGroup);
+      }
+      ServerStream<BatchWriteResponse> responses =
+          client.batchWriteAtLeastOnce(mutationGroups, options);
+      for (BatchWriteResponse response : responses) {
+        Timestamp commitTimestamp = Timestamp.fromProto(response.getCommitTimestamp());
+        for (int index : response.getIndexesList()) {
+          if (index < 0 || index >= batch.size()) {
+            continue;
+          }
+          if (response.getStatus().getCode() == Code.OK_VALUE) {
+            batch.get(index).result.set(commitTimestamp);
+          } else {
+            batch
+                .get(index)
+                .result
+                .setException(
+                    newSpannerException(
+                        ErrorCode.fromRpcStatus(response.getStatus()),
+                        response.getStatus().getMessage()));
+          }
+        }
+      }
+      for (BufferedWrite write : batch) {
+        // This is a no-op for all writes that have already received a response.
+        write.result.setException(
+            newSpannerException(
+                ErrorCode.INTERNAL, "No response was received for this mutation group"));
+      }
+    } catch (Throwable t) {
+      SpannerException exception = SpannerExceptionFactory.asSpannerException(t);
+      for (BufferedWrite write : batch) {
+        write.result.setException(exception);
+      }
+    } finally {
+      if (flushLatencies != null) {
+        flushLatencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        batchSizes.record(batch.size());
+      }
+    }
+  }
+
+  /** Returns the number of mutations in the given group, as counted by Spanner. */
+  private static int countMutations(MutationGroup mutationGroup) {
+    int count = 0;
+    for (Mutation mutation : mutationGroup.getMutations()) {
+      if (mutation.getOperation() == Mutation.Op.DELETE) {
+        count++;
+      } else {
+        for (String ignored : mutation.getColumns()) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+}
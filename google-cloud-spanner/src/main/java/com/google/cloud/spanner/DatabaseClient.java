@@ -16,6 +16,8 @@
 
 package com.google.cloud.spanner;
 
+import com.google.api.core.ApiFuture;
+import com.google.api.core.BetaApi;
 import com.google.api.gax.rpc.ServerStream;
 import com.google.cloud.Timestamp;
 import com.google.cloud.spanner.Options.RpcPriority;
@@ -49,6 +51,21 @@ public interface DatabaseClient {
     throw new UnsupportedOperationException("method should be overwritten");
   }
 
+  /**
+   * Returns a future that is done when the session pool of this client is ready to serve requests.
+   * The pool is ready when it has created {@link SessionPoolOptions#getMinSessions()} sessions,
+   * and, if {@link SessionPoolOptions.Builder#setWarmUpOnStartup(boolean)} is enabled, has executed
+   * a query on each gRPC channel that the sessions use. The future returns the timings of the
+   * different phases of the startup of the pool.
+   *
+   * <p>This can for example be used to let a readiness probe wait until the client has been warmed
+   * up. The future fails if the pool could not create any sessions.
+   */
+  @BetaApi
+  default ApiFuture<SessionPoolReadiness> getReadinessFuture() {
+    throw new UnsupportedOperationException("method should be overwritten");
+  }
+
   /**
    * Writes the given mutations atomically to the database.
    *
@@ -16,6 +16,7 @@
 
 package com.google.cloud.spanner;
 
+import com.google.api.core.ApiFuture;
 import com.google.api.gax.rpc.ServerStream;
 import com.google.cloud.Timestamp;
 import com.google.cloud.spanner.Options.TransactionOption;
@@ -36,6 +37,7 @@ class DatabaseClientImpl implements DatabaseClient {
   @VisibleForTesting final String clientId;
   @VisibleForTesting final SessionPool pool;
   @VisibleForTesting final MultiplexedSessionDatabaseClient multiplexedSessionDatabaseClient;
+  @VisibleForTesting @Nullable final PointReadBatcher pointReadBatcher;
 
   @VisibleForTesting
   DatabaseClientImpl(SessionPool pool, TraceWrapper tracer) {
@@ -52,10 +54,29 @@ class DatabaseClientImpl implements DatabaseClient {
       SessionPool pool,
       @Nullable MultiplexedSessionDatabaseClient multiplexedSessionDatabaseClient,
       TraceWrapper tracer) {
+    this(
+        clientId,
+        pool,
+        multiplexedSessionDatabaseClient,
+        tracer,
+        /* pointReadBatcherSettings = */ null);
+  }
+
+  DatabaseClientImpl(
+      String clientId,
+      SessionPool pool,
+      @Nullable MultiplexedSessionDatabaseClient multiplexedSessionDatabaseClient,
+      TraceWrapper tracer,
+      @Nullable PointReadBatcher.Settings pointReadBatcherSettings) {
     this.clientId = clientId;
     this.pool = pool;
     this.multiplexedSessionDatabaseClient = multiplexedSessionDatabaseClient;
     this.tracer = tracer;
+    this.pointReadBatcher =
+        pointReadBatcherSettings == null
+            ? null
+            : new PointReadBatcher(
+                this::singleUseWithoutBatching, this::getDialect, pointReadBatcherSettings);
   }
 
   @VisibleForTesting
@@ -83,6 +104,11 @@ class DatabaseClientImpl implements DatabaseClient {
     return pool.getDatabaseRole();
   }
 
+  @Override
+  public ApiFuture<SessionPoolReadiness> getReadinessFuture() {
+    return pool.getReadinessFuture();
+  }
+
   @Override
   public Timestamp write(final Iterable<Mutation> mutations) throws SpannerException {
     return writeWithOptions(mutations).getCommitTimestamp();
@@ -141,6 +167,10 @@ class DatabaseClientImpl implements DatabaseClient {
 
   @Override
   public ReadContext singleUse() {
+    if (pointReadBatcher != null) {
+      return pointReadBatcher.singleUse(
+          TimestampBound.strong(), () -> singleUseWithoutBatching(TimestampBound.strong()));
+    }
     ISpan span = tracer.spanBuilder(READ_ONLY_TRANSACTION);
     try (IScope s = tracer.withSpan(span)) {
       return getMultiplexedSession().singleUse();
@@ -153,6 +183,13 @@ class DatabaseClientImpl implements DatabaseClient {
 
   @Override
   public ReadContext singleUse(TimestampBound bound) {
+    if (pointReadBatcher != null) {
+      return pointReadBatcher.singleUse(bound, () -> singleUseWithoutBatching(bound));
+    }
+    return singleUseWithoutBatching(bound);
+  }
+
+  private ReadContext singleUseWithoutBatching(TimestampBound bound) {
     ISpan span = tracer.spanBuilder(READ_ONLY_TRANSACTION);
     try (IScope s = tracer.withSpan(span)) {
       return getMultiplexedSession().singleUse(bound);
@@ -292,6 +329,9 @@ class DatabaseClientImpl implements DatabaseClient {
   }
 
   ListenableFuture<Void> closeAsync(ClosedException closedException) {
+    if (this.pointReadBatcher != null) {
+      this.pointReadBatcher.close();
+    }
     if (this.multiplexedSessionDatabaseClient != null) {
       // This method is non-blocking.
       this.multiplexedSessionDatabaseClient.close();
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+
+/**
+ * Decoder for the TIMESTAMP and DATE values that are returned by Spanner. Spanner always returns
+ * timestamps in UTC in the format {@code yyyy-MM-ddTHH:mm:ss[.fffffffff]Z} and dates in the format
+ * {@code yyyy-MM-dd}. These formats are decoded directly, without the regular expressions and
+ * intermediate objects that {@link Timestamp#parseTimestamp(String)} and {@link
+ * Date#parseDate(String)} use. All other values are passed on to those methods.
+ */
+final class DateTimeDecoder {
+  private static final int DATE_LENGTH = 10;
+  private static final int MIN_TIMESTAMP_LENGTH = 20;
+  private static final int MAX_TIMESTAMP_LENGTH = 30;
+  private static final int SECONDS_PER_DAY = 86_400;
+  /** The number of days between 0000-03-01 and 1970-01-01. */
+  private static final int DAYS_0000_TO_1970 = 719_468;
+
+  private static final int[] NANOS_MULTIPLIERS = {
+    100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+  };
+
+  private DateTimeDecoder() {}
+
+  /** Decodes the given TIMESTAMP value. */
+  static Timestamp parseTimestamp(String value) {
+    int length = value.length();
+    if (length < MIN_TIMESTAMP_LENGTH
+        || length > MAX_TIMESTAMP_LENGTH
+        || length == MIN_TIMESTAMP_LENGTH + 1
+        || value.charAt(length - 1) != 'Z'
+        || value.charAt(10) != 'T'
+        || value.charAt(13) != ':'
+        || value.charAt(16) != ':'
+        || (length > MIN_TIMESTAMP_LENGTH && value.charAt(19) != '.')) {
+      return Timestamp.parseTimestamp(value);
+    }
+    int year = parseDigits(value, 0, 4);
+    int month = parseDigits(value, 5, 2);
+    int day = parseDigits(value, 8, 2);
+    int hour = parseDigits(value, 11, 2);
+    int minute = parseDigits(value, 14, 2);
+    int second = parseDigits(value, 17, 2);
+    int nanos = 0;
+    if (length > MIN_TIMESTAMP_LENGTH) {
+      int fractionDigits = length - MIN_TIMESTAMP_LENGTH - 1;
+      int fraction = parseDigits(value, MIN_TIMESTAMP_LENGTH, fractionDigits);
+      nanos = fraction < 0 ? -1 : fraction * NANOS_MULTIPLIERS[fractionDigits - 1];
+    }
+    if (!isValidDate(value, year, month, day)
+        || hour < 0
+        || hour > 23
+        || minute < 0
+        || minute > 59
+        || second < 0
+        || second > 59
+        || nanos < 0) {
+      return Timestamp.parseTimestamp(value);
+    }
+    long seconds =
+        daysSinceEpoch(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+    return Timestamp.ofTimeSecondsAndNanos(seconds, nanos);
+  }
+
+  /** Decodes the given DATE value. */
+  static Date parseDate(String value) {
+    if (value.length() != DATE_LENGTH) {
+      return Date.parseDate(value);
+    }
+    int year = parseDigits(value, 0, 4);
+    int month = parseDigits(value, 5, 2);
+    int day = parseDigits(value, 8, 2);
+    if (!isValidDate(value, year, month, day)) {
+      return Date.parseDate(value);
+    }
+    return Date.fromYearMonthDay(year, month, day);
+  }
+
+  private static boolean isValidDate(String value, int year, int month, int day) {
+    return value.charAt(4) == '-'
+        && value.charAt(7) == '-'
+        && year >= 1
+        && month >= 1
+        && month <= 12
+        && day >= 1
+        && day <= daysInMonth(year, month);
+  }
+
+  private static int daysInMonth(int year, int month) {
+    switch (month) {
+      case 2:
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  /** Returns the number of days between 1970-01-01 and the given date in the Gregorian calendar. */
+  private static long daysSinceEpoch(int year, int month, int day) {
+    // Count the years from March, so the leap day is the last day of the year.
+    int y = month <= 2 ? year - 1 : year;
+    int era = y / 400;
+    int yearOfEra = y - era * 400;
+    int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146_097L + dayOfEra - DAYS_0000_TO_1970;
+  }
+
+  /**
+   * Parses the given number of decimal digits starting at the given offset, and returns -1 if any
+   * of the characters is not a digit.
+   */
+  private static int parseDigits(String value, int offset, int count) {
+    int result = 0;
+    for (int i = offset; i < offset + count; i++) {
+      int digit = value.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      result = result * 10 + digit;
+    }
+    return result;
+  }
+}
@@ -32,4 +32,18 @@ public enum DecodeMode {
    * Decodes a columns of a row the first time the value of that column is retrieved from the row.
    */
   LAZY_PER_COL,
+  /**
+   * Decodes all columns of a row directly when a {@link ResultSet} is advanced to the next row with
+   * {@link ResultSet#next()}. Non-null BOOL, INT64, FLOAT64, FLOAT32, ENUM and PG_OID values are
+   * stored in a primitive array that is re-used for each row, instead of as a boxed object per
+   * value. Typed getters such as {@link ResultSet#getLong(int)} and {@link
+   * ResultSet#getDouble(int)} read directly from this array, which means that reading these values
+   * does not allocate any objects. This decode mode is recommended for queries that return a large
+   * number of rows with mostly numeric columns.
+   *
+   * <p>This decode mode does not keep the protobuf values of a row. It can therefore not be used
+   * for queries in read/write transactions in the Connection API, as these need the protobuf values
+   * to calculate the checksum of the result set.
+   */
+  DIRECT_UNBOXED,
 }
@@ -16,8 +16,6 @@
 
 package com.google.cloud.spanner;
 
-import static com.google.cloud.spanner.SessionImpl.NO_CHANNEL_HINT;
-
 import com.google.api.core.ApiFuture;
 import com.google.api.core.ApiFutures;
 import com.google.cloud.spanner.DelayedReadContext.DelayedReadOnlyTransaction;
@@ -55,7 +53,7 @@ class DelayedMultiplexedSessionTransaction extends AbstractMultiplexedSessionDat
             this.sessionFuture,
             sessionReference ->
                 new MultiplexedSessionTransaction(
-                        client, span, sessionReference, NO_CHANNEL_HINT, true)
+                        client, span, sessionReference, client.acquireChannel(), true)
                     .singleUse(),
             MoreExecutors.directExecutor()));
   }
@@ -67,7 +65,7 @@ class DelayedMultiplexedSessionTransaction extends AbstractMultiplexedSessionDat
             this.sessionFuture,
             sessionReference ->
                 new MultiplexedSessionTransaction(
-                        client, span, sessionReference, NO_CHANNEL_HINT, true)
+                        client, span, sessionReference, client.acquireChannel(), true)
                     .singleUse(bound),
             MoreExecutors.directExecutor()));
   }
@@ -79,7 +77,7 @@ class DelayedMultiplexedSessionTransaction extends AbstractMultiplexedSessionDat
             this.sessionFuture,
             sessionReference ->
                 new MultiplexedSessionTransaction(
-                        client, span, sessionReference, NO_CHANNEL_HINT, true)
+                        client, span, sessionReference, client.acquireChannel(), true)
                     .singleUseReadOnlyTransaction(),
             MoreExecutors.directExecutor()));
   }
@@ -91,7 +89,7 @@ class DelayedMultiplexedSessionTransaction extends AbstractMultiplexedSessionDat
             this.sessionFuture,
             sessionReference ->
                 new MultiplexedSessionTransaction(
-                        client, span, sessionReference, NO_CHANNEL_HINT, true)
+                        client, span, sessionReference, client.acquireChannel(), true)
                     .singleUseReadOnlyTransaction(bound),
             MoreExecutors.directExecutor()));
   }
@@ -103,7 +101,7 @@ class DelayedMultiplexedSessionTransaction extends AbstractMultiplexedSessionDat
             this.sessionFuture,
             sessionReference ->
                 new MultiplexedSessionTransaction(
-                        client, span, sessionReference, NO_CHANNEL_HINT, false)
+                        client, span, sessionReference, client.acquireChannel(), false)
                     .readOnlyTransaction(),
             MoreExecutors.directExecutor()));
   }
@@ -115,7 +113,7 @@ class DelayedMultiplexedSessionTransaction extends AbstractMultiplexedSessionDat
             this.sessionFuture,
             sessionReference ->
                 new MultiplexedSessionTransaction(
-                        client, span, sessionReference, NO_CHANNEL_HINT, false)
+                        client, span, sessionReference, client.acquireChannel(), false)
                     .readOnlyTransaction(bound),
             MoreExecutors.directExecutor()));
   }
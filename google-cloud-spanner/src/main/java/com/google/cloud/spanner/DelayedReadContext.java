@@ -17,6 +17,7 @@
 package com.google.cloud.spanner;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
 import com.google.api.core.ApiFutures;
 import com.google.cloud.Timestamp;
 import com.google.cloud.spanner.Options.QueryOption;
@@ -130,7 +131,24 @@ class DelayedReadContext<T extends ReadContext> implements ReadContext {
   }
 
   @Override
-  public void close() {}
+  public void close() {
+    // Close the actual read context when it is ready. This ends the span of the read context, and
+    // releases the channel that it uses.
+    ApiFutures.addCallback(
+        this.readContextFuture,
+        new ApiFutureCallback<T>() {
+          @Override
+          public void onFailure(Throwable t) {
+            // There is no read context to close.
+          }
+
+          @Override
+          public void onSuccess(T readContext) {
+            readContext.close();
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
 
   /**
    * Represents a {@link ReadContext} using a multiplexed session that is not yet ready. The
@@ -21,10 +21,8 @@ import com.google.cloud.spanner.AbstractResultSet.CloseableIterator;
 import com.google.cloud.spanner.spi.v1.SpannerRpc;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.AbstractIterator;
-import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.spanner.v1.PartialResultSet;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import io.opentelemetry.api.common.Attributes;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -39,8 +37,30 @@ class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
   private static final PartialResultSet END_OF_STREAM = PartialResultSet.newBuilder().build();
 
   private final ConsumerImpl consumer = new ConsumerImpl();
-  private final BlockingQueue<PartialResultSet> stream;
+  private final SpscRingBuffer<PartialResultSet> stream;
   private final Statement statement;
+  private final int minPrefetchChunks;
+  private final int maxPrefetchChunks;
+  @Nullable private final SpannerRpcMetrics metrics;
+
+  /**
+   * The number of chunks that the server is allowed to send before the consumer has read them. The
+   * window is fixed at minPrefetchChunks, unless maxPrefetchChunks is larger, in which case the
+   * window is adapted to the speed of the consumer.
+   */
+  private int prefetchWindow;
+
+  /** The number of chunks that have been requested from the server, but not yet consumed. */
+  private int outstandingRequests;
+
+  /**
+   * The time that the consumer has waited for the server after the first chunk was received. The
+   * initial wait for the first chunk is the latency of the query, and is not counted as a stall.
+   */
+  private long stallTimeNanos;
+
+  private boolean firstChunkReceived;
+  private boolean metricsRecorded;
 
   private SpannerRpc.StreamingCall call;
   private volatile boolean withBeginTransaction;
@@ -55,9 +75,29 @@ class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
 
   @VisibleForTesting
   GrpcStreamIterator(Statement statement, int prefetchChunks) {
+    this(statement, prefetchChunks, prefetchChunks, null);
+  }
+
+  /**
+   * Creates an iterator that initially allows the server to send {@code prefetchChunks} chunks
+   * before they have been consumed. The caller must request this number of chunks when the call is
+   * started. If {@code maxPrefetchChunks} is larger than {@code prefetchChunks}, the window grows
+   * up to {@code maxPrefetchChunks} if the consumer has to wait for the server, and shrinks back
+   * towards {@code prefetchChunks} if chunks pile up in the buffer.
+   */
+  GrpcStreamIterator(
+      Statement statement,
+      int prefetchChunks,
+      int maxPrefetchChunks,
+      @Nullable SpannerRpcMetrics metrics) {
     this.statement = statement;
+    this.minPrefetchChunks = prefetchChunks;
+    this.maxPrefetchChunks = Math.max(prefetchChunks, maxPrefetchChunks);
+    this.metrics = metrics;
+    this.prefetchWindow = prefetchChunks;
+    this.outstandingRequests = prefetchChunks;
     // One extra to allow for END_OF_STREAM message.
-    this.stream = new LinkedBlockingQueue<>(prefetchChunks + 1);
+    this.stream = new SpscRingBuffer<>(this.maxPrefetchChunks + 1);
   }
 
   protected final SpannerRpc.ResultStreamConsumer consumer() {
@@ -90,6 +130,7 @@ class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
     if (call != null) {
       call.cancel(message);
     }
+    recordMetrics();
   }
 
   @Override
@@ -100,6 +141,9 @@ class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
   @Override
   protected final PartialResultSet computeNext() {
     PartialResultSet next;
+    int numBufferedChunks = stream.size();
+    boolean stalled = firstChunkReceived && numBufferedChunks == 0;
+    long stallStartNanos = stalled ? System.nanoTime() : 0L;
     try {
       if (streamWaitTimeoutUnit != null) {
         next = stream.poll(streamWaitTimeoutValue, streamWaitTimeoutUnit);
@@ -114,13 +158,28 @@ class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
       // Treat interrupt as a request to cancel the read.
       throw SpannerExceptionFactory.propagateInterrupt(e);
     }
+    if (stalled) {
+      stallTimeNanos += System.nanoTime() - stallStartNanos;
+    }
+    firstChunkReceived = true;
     if (next != END_OF_STREAM) {
-      call.request(1);
+      outstandingRequests--;
+      if (maxPrefetchChunks > minPrefetchChunks) {
+        adjustPrefetchWindow(numBufferedChunks);
+      }
+      // Flow control messages are batched, so new chunks are only requested once half of the
+      // prefetch window has been consumed.
+      int missing = prefetchWindow - outstandingRequests;
+      if (missing >= Math.max(1, prefetchWindow / 2)) {
+        call.request(missing);
+        outstandingRequests += missing;
+      }
       return next;
     }
 
     // All done - close() no longer needs to cancel the call.
     call = null;
+    recordMetrics();
 
     if (error != null) {
       throw SpannerExceptionFactory.newSpannerException(error);
@@ -130,9 +189,41 @@ class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
     return null;
   }
 
+  /**
+   * Grows the prefetch window if the consumer had to wait for the server, and shrinks it if the
+   * consumer is slower than the server and the entire window was already buffered.
+   */
+  private void adjustPrefetchWindow(int numBufferedChunks) {
+    if (numBufferedChunks == 0) {
+      prefetchWindow = Math.min(maxPrefetchChunks, prefetchWindow * 2);
+    } else if (numBufferedChunks >= prefetchWindow) {
+      prefetchWindow = Math.max(minPrefetchChunks, prefetchWindow / 2);
+    }
+  }
+
+  @VisibleForTesting
+  int getPrefetchWindow() {
+    return prefetchWindow;
+  }
+
+  @VisibleForTesting
+  long getStallTimeNanos() {
+    return stallTimeNanos;
+  }
+
+  /** Records the prefetch metrics of this stream if adaptive prefetching is enabled. */
+  private void recordMetrics() {
+    if (metrics != null && maxPrefetchChunks > minPrefetchChunks && !metricsRecorded) {
+      metricsRecorded = true;
+      metrics.recordPrefetchWindowSize(prefetchWindow, Attributes.empty());
+      metrics.recordStreamStallTime(
+          TimeUnit.NANOSECONDS.toMillis(stallTimeNanos), Attributes.empty());
+    }
+  }
+
   private void addToStream(PartialResultSet results) {
     // We assume that nothing from the user will interrupt gRPC event threads.
-    Uninterruptibles.putUninterruptibly(stream, results);
+    stream.put(results);
   }
 
   private class ConsumerImpl implements SpannerRpc.ResultStreamConsumer {
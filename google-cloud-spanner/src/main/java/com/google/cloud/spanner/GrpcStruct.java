@@ -31,6 +31,7 @@ import com.google.cloud.spanner.AbstractResultSet.Int64Array;
 import com.google.cloud.spanner.AbstractResultSet.LazyByteArray;
 import com.google.cloud.spanner.Type.Code;
 import com.google.cloud.spanner.Type.StructField;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.io.CharSource;
@@ -56,12 +57,60 @@ class GrpcStruct extends Struct implements Serializable {
   private static final com.google.protobuf.Value NULL_VALUE =
       com.google.protobuf.Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
 
+  /**
+   * Placeholder in {@link #rowData} for a non-null value that is stored in {@link #primitiveValues}
+   * when {@link DecodeMode#DIRECT_UNBOXED} is used.
+   */
+  private static final Object PRIMITIVE_VALUE = new Object();
+
   private final Type type;
   private final List<Object> rowData;
   private final DecodeMode decodeMode;
   private final BitSet colDecoded;
+  /**
+   * The raw bits of all non-null BOOL, INT64, FLOAT64, FLOAT32, ENUM and PG_OID values in the
+   * current row. The array is only used for {@link DecodeMode#DIRECT_UNBOXED} and is re-used for
+   * each row.
+   */
+  private final long[] primitiveValues;
+  /**
+   * The dictionaries of recently decoded DATE and NUMERIC values per column. These are created when
+   * the first row is decoded, and are re-used for all rows of the result set.
+   */
+  private transient ValueDictionary[] dictionaries;
+
+  /**
+   * Whether DATE and NUMERIC values are looked up in {@link #dictionaries}. This is only the case
+   * for the struct that is re-used for all rows of a result set. Copies of a row decode their
+   * values without a dictionary, as a dictionary would only be used for that one row.
+   */
+  private final boolean useDictionaries;
+
   private boolean rowDecoded;
 
+  /**
+   * Small direct-mapped cache from the string representation of a value to the decoded value. A
+   * column with a limited number of distinct values, such as a DATE column, will then return the
+   * same instance for each occurrence of the same value, instead of parsing it again.
+   */
+  private static final class ValueDictionary {
+    private static final int SIZE = 64;
+
+    private final String[] keys = new String[SIZE];
+    private final Object[] values = new Object[SIZE];
+
+    Object get(String key, Function<String, Object> decoder) {
+      int index = key.hashCode() & (SIZE - 1);
+      if (key.equals(keys[index])) {
+        return values[index];
+      }
+      Object value = decoder.apply(key);
+      keys[index] = key;
+      values[index] = value;
+      return value;
+    }
+  }
+
   /**
    * Builds an immutable version of this struct using {@link Struct#newBuilder()} which is used as a
    * serialization proxy.
@@ -73,7 +122,7 @@ class GrpcStruct extends Struct implements Serializable {
       Type.StructField field = structFields.get(i);
       String fieldName = field.getName();
       ensureDecoded(i);
-      Object value = rowData.get(i);
+      Object value = getRowValue(i);
       Type fieldType = field.getType();
       switch (fieldType.getCode()) {
         case BOOL:
@@ -137,14 +186,31 @@ class GrpcStruct extends Struct implements Serializable {
               builder.set(fieldName).toBoolArray((Iterable<Boolean>) value);
               break;
             case INT64:
+              builder
+                  .set(fieldName)
+                  .to(
+                      value == null
+                          ? Value.int64Array((long[]) null)
+                          : ((Int64Array) value).toValue());
+              break;
             case ENUM:
               builder.set(fieldName).toInt64Array((Iterable<Long>) value);
               break;
             case FLOAT64:
-              builder.set(fieldName).toFloat64Array((Iterable<Double>) value);
+              builder
+                  .set(fieldName)
+                  .to(
+                      value == null
+                          ? Value.float64Array((double[]) null)
+                          : ((Float64Array) value).toValue());
               break;
             case FLOAT32:
-              builder.set(fieldName).toFloat32Array((Iterable<Float>) value);
+              builder
+                  .set(fieldName)
+                  .to(
+                      value == null
+                          ? Value.float32Array((float[]) null)
+                          : ((Float32Array) value).toValue());
               break;
             case NUMERIC:
               builder.set(fieldName).toNumericArray((Iterable<BigDecimal>) value);
@@ -162,7 +228,12 @@ class GrpcStruct extends Struct implements Serializable {
               builder.set(fieldName).toPgJsonbArray((Iterable<String>) value);
               break;
             case PG_OID:
-              builder.set(fieldName).toPgOidArray((Iterable<Long>) value);
+              builder
+                  .set(fieldName)
+                  .to(
+                      value == null
+                          ? Value.pgOidArray((long[]) null)
+                          : ((Int64Array) value).toPgOidValue());
               break;
             case BYTES:
             case PROTO:
@@ -212,7 +283,11 @@ class GrpcStruct extends Struct implements Serializable {
         /* rowDecoded = */ false,
         /* colDecoded = */ decodeMode == DecodeMode.LAZY_PER_COL
             ? new BitSet(type.getStructFields().size())
-            : null);
+            : null,
+        /* primitiveValues = */ decodeMode == DecodeMode.DIRECT_UNBOXED
+            ? new long[type.getStructFields().size()]
+            : null,
+        /* useDictionaries = */ true);
   }
 
   private GrpcStruct(
@@ -220,17 +295,49 @@ class GrpcStruct extends Struct implements Serializable {
       List<Object> rowData,
       DecodeMode decodeMode,
       boolean rowDecoded,
-      BitSet colDecoded) {
+      BitSet colDecoded,
+      long[] primitiveValues,
+      boolean useDictionaries) {
     this.type = type;
     this.rowData = rowData;
     this.decodeMode = decodeMode;
     this.rowDecoded = rowDecoded;
     this.colDecoded = colDecoded;
+    this.primitiveValues = primitiveValues;
+    this.useDictionaries = useDictionaries;
   }
 
   @Override
   public String toString() {
-    return this.rowData.toString();
+    if (primitiveValues == null) {
+      return this.rowData.toString();
+    }
+    List<Object> values = new ArrayList<>(rowData.size());
+    for (int i = 0; i < rowData.size(); i++) {
+      values.add(getRowValue(i));
+    }
+    return values.toString();
+  }
+
+  /**
+   * Returns the value of the given column in {@link #rowData}, boxing it if it is stored in {@link
+   * #primitiveValues}.
+   */
+  private Object getRowValue(int columnIndex) {
+    Object value = rowData.get(columnIndex);
+    if (value != PRIMITIVE_VALUE) {
+      return value;
+    }
+    switch (type.getStructFields().get(columnIndex).getType().getCode()) {
+      case BOOL:
+        return primitiveValues[columnIndex] != 0L;
+      case FLOAT64:
+        return Double.longBitsToDouble(primitiveValues[columnIndex]);
+      case FLOAT32:
+        return Float.intBitsToFloat((int) primitiveValues[columnIndex]);
+      default:
+        return primitiveValues[columnIndex];
+    }
   }
 
   boolean consumeRow(Iterator<com.google.protobuf.Value> iterator) {
@@ -251,7 +358,9 @@ class GrpcStruct extends Struct implements Serializable {
       }
       com.google.protobuf.Value value = iterator.next();
       if (decodeMode == DecodeMode.DIRECT) {
-        rowData.add(decodeValue(fieldType.getType(), value));
+        rowData.add(decodeColumnValue(fieldType.getType(), value, rowData.size()));
+      } else if (decodeMode == DecodeMode.DIRECT_UNBOXED) {
+        rowData.add(decodeUnboxedValue(fieldType.getType(), value, rowData.size()));
       } else {
         rowData.add(value);
       }
@@ -259,6 +368,67 @@ class GrpcStruct extends Struct implements Serializable {
     return true;
   }
 
+  /**
+   * Decodes the given value into {@link #primitiveValues} if the column has a primitive type, and
+   * returns {@link #PRIMITIVE_VALUE} as a placeholder. All other types are decoded as a normal
+   * object.
+   */
+  private Object decodeUnboxedValue(
+      Type fieldType, com.google.protobuf.Value proto, int columnIndex) {
+    if (proto.getKindCase() == KindCase.NULL_VALUE) {
+      return null;
+    }
+    switch (fieldType.getCode()) {
+      case BOOL:
+        checkType(fieldType, proto, KindCase.BOOL_VALUE);
+        primitiveValues[columnIndex] = proto.getBoolValue() ? 1L : 0L;
+        return PRIMITIVE_VALUE;
+      case INT64:
+      case PG_OID:
+      case ENUM:
+        checkType(fieldType, proto, KindCase.STRING_VALUE);
+        primitiveValues[columnIndex] = Long.parseLong(proto.getStringValue());
+        return PRIMITIVE_VALUE;
+      case FLOAT64:
+        primitiveValues[columnIndex] = Double.doubleToRawLongBits(valueProtoToFloat64(proto));
+        return PRIMITIVE_VALUE;
+      case FLOAT32:
+        primitiveValues[columnIndex] = Float.floatToRawIntBits(valueProtoToFloat32(proto));
+        return PRIMITIVE_VALUE;
+      default:
+        return decodeColumnValue(fieldType, proto, columnIndex);
+    }
+  }
+
+  /**
+   * Decodes the given value of a top-level column. DATE and NUMERIC values are looked up in the
+   * dictionary of the column before they are parsed, unless this struct is a copy of a row.
+   */
+  private Object decodeColumnValue(
+      Type fieldType, com.google.protobuf.Value proto, int columnIndex) {
+    if (useDictionaries && proto.getKindCase() == KindCase.STRING_VALUE) {
+      switch (fieldType.getCode()) {
+        case DATE:
+          return getDictionary(columnIndex).get(proto.getStringValue(), DateTimeDecoder::parseDate);
+        case NUMERIC:
+          return getDictionary(columnIndex).get(proto.getStringValue(), BigDecimal::new);
+        default:
+          break;
+      }
+    }
+    return decodeValue(fieldType, proto);
+  }
+
+  private ValueDictionary getDictionary(int columnIndex) {
+    if (dictionaries == null) {
+      dictionaries = new ValueDictionary[type.getStructFields().size()];
+    }
+    if (dictionaries[columnIndex] == null) {
+      dictionaries[columnIndex] = new ValueDictionary();
+    }
+    return dictionaries[columnIndex];
+  }
+
   private static Object decodeValue(Type fieldType, com.google.protobuf.Value proto) {
     if (proto.getKindCase() == KindCase.NULL_VALUE) {
       return null;
@@ -291,10 +461,10 @@ class GrpcStruct extends Struct implements Serializable {
         return new LazyByteArray(proto.getStringValue());
       case TIMESTAMP:
         checkType(fieldType, proto, KindCase.STRING_VALUE);
-        return Timestamp.parseTimestamp(proto.getStringValue());
+        return DateTimeDecoder.parseTimestamp(proto.getStringValue());
       case DATE:
         checkType(fieldType, proto, KindCase.STRING_VALUE);
-        return Date.parseDate(proto.getStringValue());
+        return DateTimeDecoder.parseDate(proto.getStringValue());
       case ARRAY:
         checkType(fieldType, proto, KindCase.LIST_VALUE);
         ListValue listValue = proto.getListValue();
@@ -372,7 +542,14 @@ class GrpcStruct extends Struct implements Serializable {
         new ArrayList<>(rowData),
         this.decodeMode,
         this.rowDecoded,
-        this.colDecoded == null ? null : (BitSet) this.colDecoded.clone());
+        this.colDecoded == null ? null : (BitSet) this.colDecoded.clone(),
+        this.primitiveValues == null ? null : this.primitiveValues.clone(),
+        /* useDictionaries = */ false);
+  }
+
+  @VisibleForTesting
+  boolean hasDictionaries() {
+    return dictionaries != null;
   }
 
   @Override
@@ -423,25 +600,41 @@ class GrpcStruct extends Struct implements Serializable {
   @Override
   protected boolean getBooleanInternal(int columnIndex) {
     ensureDecoded(columnIndex);
-    return (Boolean) rowData.get(columnIndex);
+    Object value = rowData.get(columnIndex);
+    if (value == PRIMITIVE_VALUE) {
+      return primitiveValues[columnIndex] != 0L;
+    }
+    return (Boolean) value;
   }
 
   @Override
   protected long getLongInternal(int columnIndex) {
     ensureDecoded(columnIndex);
-    return (Long) rowData.get(columnIndex);
+    Object value = rowData.get(columnIndex);
+    if (value == PRIMITIVE_VALUE) {
+      return primitiveValues[columnIndex];
+    }
+    return (Long) value;
   }
 
   @Override
   protected double getDoubleInternal(int columnIndex) {
     ensureDecoded(columnIndex);
-    return (Double) rowData.get(columnIndex);
+    Object value = rowData.get(columnIndex);
+    if (value == PRIMITIVE_VALUE) {
+      return Double.longBitsToDouble(primitiveValues[columnIndex]);
+    }
+    return (Double) value;
   }
 
   @Override
   protected float getFloatInternal(int columnIndex) {
     ensureDecoded(columnIndex);
-    return (Float) rowData.get(columnIndex);
+    Object value = rowData.get(columnIndex);
+    if (value == PRIMITIVE_VALUE) {
+      return Float.intBitsToFloat((int) primitiveValues[columnIndex]);
+    }
+    return (Float) value;
   }
 
   @Override
@@ -512,8 +705,9 @@ class GrpcStruct extends Struct implements Serializable {
       return;
     }
     Preconditions.checkState(
-        decodeMode != DecodeMode.DIRECT,
-        "Getting proto value is not supported when DecodeMode#DIRECT is used.");
+        decodeMode != DecodeMode.DIRECT && decodeMode != DecodeMode.DIRECT_UNBOXED,
+        "Getting proto value is not supported when DecodeMode#%s is used.",
+        decodeMode);
     Preconditions.checkState(
         !(decodeMode == DecodeMode.LAZY_PER_ROW && rowDecoded),
         "Getting proto value after the row has been decoded is not supported.");
@@ -527,17 +721,19 @@ class GrpcStruct extends Struct implements Serializable {
       for (int i = 0; i < rowData.size(); i++) {
         rowData.set(
             i,
-            decodeValue(
+            decodeColumnValue(
                 type.getStructFields().get(i).getType(),
-                (com.google.protobuf.Value) rowData.get(i)));
+                (com.google.protobuf.Value) rowData.get(i),
+                i));
       }
       rowDecoded = true;
     } else if (decodeMode == DecodeMode.LAZY_PER_COL && !colDecoded.get(columnIndex)) {
       rowData.set(
           columnIndex,
-          decodeValue(
+          decodeColumnValue(
               type.getStructFields().get(columnIndex).getType(),
-              (com.google.protobuf.Value) rowData.get(columnIndex)));
+              (com.google.protobuf.Value) rowData.get(columnIndex),
+              columnIndex));
       colDecoded.set(columnIndex);
     }
   }
@@ -593,15 +789,21 @@ class GrpcStruct extends Struct implements Serializable {
           case BOOL:
             return Value.boolArray(isNull ? null : getBooleanListInternal(columnIndex));
           case INT64:
-            return Value.int64Array(isNull ? null : getLongListInternal(columnIndex));
+            return isNull
+                ? Value.int64Array((long[]) null)
+                : getLongListInternal(columnIndex).toValue();
           case NUMERIC:
             return Value.numericArray(isNull ? null : getBigDecimalListInternal(columnIndex));
           case PG_NUMERIC:
             return Value.pgNumericArray(isNull ? null : getStringListInternal(columnIndex));
           case FLOAT64:
-            return Value.float64Array(isNull ? null : getDoubleListInternal(columnIndex));
+            return isNull
+                ? Value.float64Array((double[]) null)
+                : getDoubleListInternal(columnIndex).toValue();
           case FLOAT32:
-            return Value.float32Array(isNull ? null : getFloatListInternal(columnIndex));
+            return isNull
+                ? Value.float32Array((float[]) null)
+                : getFloatListInternal(columnIndex).toValue();
           case STRING:
             return Value.stringArray(isNull ? null : getStringListInternal(columnIndex));
           case JSON:
@@ -609,7 +811,9 @@ class GrpcStruct extends Struct implements Serializable {
           case PG_JSONB:
             return Value.pgJsonbArray(isNull ? null : getPgJsonbListInternal(columnIndex));
           case PG_OID:
-            return Value.pgOidArray(isNull ? null : getLongListInternal(columnIndex));
+            return isNull
+                ? Value.pgOidArray((long[]) null)
+                : getLongListInternal(columnIndex).toPgOidValue();
           case BYTES:
             return Value.bytesArray(isNull ? null : getBytesListInternal(columnIndex));
           case PROTO:
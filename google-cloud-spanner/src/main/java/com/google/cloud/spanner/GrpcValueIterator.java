@@ -20,6 +20,7 @@ import static com.google.cloud.spanner.SpannerExceptionFactory.newSpannerExcepti
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.cloud.spanner.AbstractResultSet.CloseableIterator;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.AbstractIterator;
 import com.google.protobuf.ListValue;
 import com.google.protobuf.Value.KindCase;
@@ -49,7 +50,6 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
     this.stream = stream;
   }
 
-  @SuppressWarnings("unchecked")
   @Override
   protected com.google.protobuf.Value computeNext() {
     if (!ensureReady(StreamValue.RESULT)) {
@@ -70,10 +70,11 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
       return value;
     }
 
-    Object merged =
-        kind == KindCase.STRING_VALUE
-            ? value.getStringValue()
-            : new ArrayList<>(value.getListValue().getValuesList());
+    // Collect all chunks first and merge them in one go at the end. Merging each chunk into the
+    // result as it arrives would copy the value that has been merged so far for every chunk, which
+    // is quadratic in the number of chunks.
+    List<com.google.protobuf.Value> chunks = new ArrayList<>();
+    chunks.add(value);
     while (current.getChunkedValue() && pos == current.getValuesCount()) {
       if (!ensureReady(StreamValue.RESULT)) {
         throw newSpannerException(
@@ -88,21 +89,9 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
                 + " but got: "
                 + newValue.getKindCase());
       }
-      if (kind == KindCase.STRING_VALUE) {
-        merged = merged + newValue.getStringValue();
-      } else {
-        concatLists(
-            (List<com.google.protobuf.Value>) merged, newValue.getListValue().getValuesList());
-      }
-    }
-    if (kind == KindCase.STRING_VALUE) {
-      return com.google.protobuf.Value.newBuilder().setStringValue((String) merged).build();
-    } else {
-      return com.google.protobuf.Value.newBuilder()
-          .setListValue(
-              ListValue.newBuilder().addAllValues((List<com.google.protobuf.Value>) merged))
-          .build();
+      chunks.add(newValue);
     }
+    return mergeChunks(chunks);
   }
 
   ResultSetMetadata getMetadata() throws SpannerException {
@@ -172,41 +161,70 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
     return stream.isWithBeginTransaction();
   }
 
-  /** @param a is a mutable list and b will be concatenated into a. */
-  private void concatLists(List<com.google.protobuf.Value> a, List<com.google.protobuf.Value> b) {
-    if (a.size() == 0 || b.size() == 0) {
-      a.addAll(b);
-      return;
-    } else {
-      com.google.protobuf.Value last = a.get(a.size() - 1);
-      com.google.protobuf.Value first = b.get(0);
-      KindCase lastKind = last.getKindCase();
-      KindCase firstKind = first.getKindCase();
-      if (isMergeable(lastKind) && lastKind == firstKind) {
-        com.google.protobuf.Value merged;
-        if (lastKind == KindCase.STRING_VALUE) {
-          String lastStr = last.getStringValue();
-          String firstStr = first.getStringValue();
-          merged =
-              com.google.protobuf.Value.newBuilder().setStringValue(lastStr + firstStr).build();
-        } else { // List
-          List<com.google.protobuf.Value> mergedList = new ArrayList<>();
-          mergedList.addAll(last.getListValue().getValuesList());
-          concatLists(mergedList, first.getListValue().getValuesList());
-          merged =
-              com.google.protobuf.Value.newBuilder()
-                  .setListValue(ListValue.newBuilder().addAllValues(mergedList))
-                  .build();
+  /**
+   * Merges the given chunks of a chunked value into one value. All chunks must be of the same kind,
+   * and that kind must be mergeable. The merge runs in linear time in the total size of the chunks.
+   */
+  @VisibleForTesting
+  static com.google.protobuf.Value mergeChunks(List<com.google.protobuf.Value> chunks) {
+    if (chunks.size() == 1) {
+      return chunks.get(0);
+    }
+    if (chunks.get(0).getKindCase() == KindCase.STRING_VALUE) {
+      return com.google.protobuf.Value.newBuilder().setStringValue(concatStrings(chunks)).build();
+    }
+    List<com.google.protobuf.Value> merged = new ArrayList<>();
+    // The last element of a list chunk is merged with the first element of the next chunk if both
+    // are mergeable and of the same kind. The pieces of the element that is currently being merged
+    // are collected in this list, so a large element that spans many chunks is also only merged
+    // once.
+    List<com.google.protobuf.Value> pieces = new ArrayList<>();
+    for (com.google.protobuf.Value chunk : chunks) {
+      List<com.google.protobuf.Value> values = chunk.getListValue().getValuesList();
+      if (values.isEmpty()) {
+        continue;
+      }
+      int start = 0;
+      if (!pieces.isEmpty() && values.get(0).getKindCase() == pieces.get(0).getKindCase()) {
+        pieces.add(values.get(0));
+        start = 1;
+      }
+      if (start < values.size()) {
+        if (!pieces.isEmpty()) {
+          merged.add(mergeChunks(pieces));
+          pieces = new ArrayList<>();
+        }
+        merged.addAll(values.subList(start, values.size() - 1));
+        com.google.protobuf.Value last = values.get(values.size() - 1);
+        if (isMergeable(last.getKindCase())) {
+          pieces.add(last);
+        } else {
+          merged.add(last);
         }
-        a.set(a.size() - 1, merged);
-        a.addAll(b.subList(1, b.size()));
-      } else {
-        a.addAll(b);
       }
     }
+    if (!pieces.isEmpty()) {
+      merged.add(mergeChunks(pieces));
+    }
+    return com.google.protobuf.Value.newBuilder()
+        .setListValue(ListValue.newBuilder().addAllValues(merged))
+        .build();
+  }
+
+  /** Concatenates the given string chunks into a buffer that is sized for the complete value. */
+  private static String concatStrings(List<com.google.protobuf.Value> chunks) {
+    int length = 0;
+    for (com.google.protobuf.Value chunk : chunks) {
+      length += chunk.getStringValue().length();
+    }
+    StringBuilder builder = new StringBuilder(length);
+    for (com.google.protobuf.Value chunk : chunks) {
+      builder.append(chunk.getStringValue());
+    }
+    return builder.toString();
   }
 
-  private boolean isMergeable(KindCase kind) {
+  private static boolean isMergeable(KindCase kind) {
     return kind == KindCase.STRING_VALUE || kind == KindCase.LIST_VALUE;
   }
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.cloud.spanner.MetricRegistryConstants.COUNT;
+import static com.google.cloud.spanner.MetricRegistryConstants.SPANNER_CHANNEL_TRANSACTIONS;
+import static com.google.cloud.spanner.MetricRegistryConstants.SPANNER_CHANNEL_TRANSACTIONS_DESCRIPTION;
+import static com.google.cloud.spanner.SessionImpl.NO_CHANNEL_HINT;
+
+import com.google.common.base.Preconditions;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongUpDownCounter;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import javax.annotation.Nullable;
+
+/**
+ * Selects the gRPC channel with the fewest in-flight transactions for transactions on a multiplexed
+ * session. A transaction keeps the channel that it was given until it is released, so all RPCs of
+ * the transaction use the same channel.
+ *
+ * <p>The selector does not use any locks. The number of in-flight transactions per channel is kept
+ * in an {@link AtomicIntegerArray}, and a channel is selected by scanning that array. Concurrent
+ * calls to {@link #acquire()} can therefore select the same channel, which only makes the balancing
+ * slightly less accurate. Channels with the same load are selected in round-robin order.
+ *
+ * <p>Each transaction holds a {@link Lease} for its channel. The lease is released when the
+ * transaction is closed. A transaction that is garbage collected without having been closed
+ * releases its channel the next time that a channel is acquired, so transactions that are never
+ * closed do not permanently skew the balancing.
+ */
+final class LeastLoadedChannelSelector implements AutoCloseable {
+  private static final AttributeKey<Long> CHANNEL = AttributeKey.longKey("channel");
+
+  private final AtomicIntegerArray numTransactions;
+  private final AtomicInteger nextStartChannel = new AtomicInteger();
+
+  /** All leases that have not yet been released. This keeps the leases themselves reachable. */
+  private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+
+  /** The leases of transactions that were garbage collected without having been closed. */
+  private final ReferenceQueue<Object> abandonedLeases = new ReferenceQueue<>();
+
+  @Nullable private final ObservableLongUpDownCounter transactionsCounter;
+
+  /** The channel that has been given to one transaction. */
+  final class Lease extends WeakReference<Object> {
+    private final int channel;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Lease(Object transaction, int channel) {
+      super(transaction, abandonedLeases);
+      this.channel = channel;
+    }
+
+    int getChannel() {
+      return channel;
+    }
+
+    /** Releases the channel of this lease. Calling this method more than once has no effect. */
+    void release() {
+      if (released.compareAndSet(false, true)) {
+        leases.remove(this);
+        LeastLoadedChannelSelector.this.release(channel);
+      }
+    }
+  }
+
+  LeastLoadedChannelSelector(int numChannels, @Nullable OpenTelemetry openTelemetry) {
+    Preconditions.checkArgument(numChannels >= 0, "numChannels must be >= 0");
+    this.numTransactions = new AtomicIntegerArray(numChannels);
+    if (numChannels > 0
+        && openTelemetry != null
+        && SpannerOptions.isEnabledOpenTelemetryMetrics()) {
+      Meter meter = openTelemetry.getMeter(MetricRegistryConstants.INSTRUMENTATION_SCOPE);
+      Attributes[] attributes = new Attributes[numChannels];
+      for (int channel = 0; channel < numChannels; channel++) {
+        attributes[channel] = Attributes.of(CHANNEL, (long) channel);
+      }
+      this.transactionsCounter =
+          meter
+              .upDownCounterBuilder(SPANNER_CHANNEL_TRANSACTIONS)
+              .setDescription(SPANNER_CHANNEL_TRANSACTIONS_DESCRIPTION)
+              .setUnit(COUNT)
+              .buildWithCallback(
+                  measurement -> {
+                    releaseAbandonedLeases();
+                    for (int channel = 0; channel < numChannels; channel++) {
+                      measurement.record(numTransactions.get(channel), attributes[channel]);
+                    }
+                  });
+    } else {
+      this.transactionsCounter = null;
+    }
+  }
+
+  /** Stops exporting the number of transactions per channel. */
+  @Override
+  public void close() {
+    if (transactionsCounter != null) {
+      transactionsCounter.close();
+    }
+  }
+
+  int getNumChannels() {
+    return numTransactions.length();
+  }
+
+  /** Returns the number of in-flight transactions on the given channel. */
+  int getNumTransactions(int channel) {
+    return numTransactions.get(channel);
+  }
+
+  /**
+   * Returns the channel with the fewest in-flight transactions, and registers a new transaction on
+   * that channel. The caller must either call {@link #release(int)} with the returned channel when
+   * the transaction has finished, or get a {@link #lease(Object, int)} for the channel. Returns
+   * {@link SessionImpl#NO_CHANNEL_HINT} if there are no channels.
+   */
+  int acquire() {
+    int numChannels = numTransactions.length();
+    if (numChannels == 0) {
+      return NO_CHANNEL_HINT;
+    }
+    releaseAbandonedLeases();
+    int start = Math.floorMod(nextStartChannel.getAndIncrement(), numChannels);
+    int channel = start;
+    int minTransactions = numTransactions.get(start);
+    for (int i = 1; i < numChannels && minTransactions > 0; i++) {
+      int candidate = (start + i) % numChannels;
+      int candidateTransactions = numTransactions.get(candidate);
+      if (candidateTransactions < minTransactions) {
+        channel = candidate;
+        minTransactions = candidateTransactions;
+      }
+    }
+    numTransactions.incrementAndGet(channel);
+    return channel;
+  }
+
+  /**
+   * Returns a lease for a channel that was returned by {@link #acquire()} for the given
+   * transaction. The channel is released when the lease is released, or when the transaction is
+   * garbage collected.
+   */
+  Lease lease(Object transaction, int channel) {
+    Lease lease = new Lease(transaction, channel);
+    leases.add(lease);
+    return lease;
+  }
+
+  /** Unregisters a transaction from the given channel. */
+  void release(int channel) {
+    if (channel != NO_CHANNEL_HINT) {
+      numTransactions.decrementAndGet(channel);
+    }
+  }
+
+  private void releaseAbandonedLeases() {
+    Reference<?> reference;
+    while ((reference = abandonedLeases.poll()) != null) {
+      ((Lease) reference).release();
+    }
+  }
+}
@@ -104,4 +104,32 @@ class MetricRegistryConstants {
   static final String SPANNER_GFE_HEADER_MISSING_COUNT = "spanner/gfe_header_missing_count";
   static final String SPANNER_GFE_HEADER_MISSING_COUNT_DESCRIPTION =
       "Number of RPC responses received without the server-timing header, most likely means that the RPC never reached Google's network";
+  static final String SPANNER_PREFETCH_WINDOW_SIZE = "spanner/prefetch_window_size";
+  static final String SPANNER_PREFETCH_WINDOW_SIZE_DESCRIPTION =
+      "The number of chunks that the server was allowed to prefetch for a streaming query or read when the stream finished";
+  static final String SPANNER_STREAM_STALL_TIME = "spanner/stream_stall_time";
+  static final String SPANNER_STREAM_STALL_TIME_DESCRIPTION =
+      "The total time that the consumer of a streaming query or read waited for the server to send more data";
+  static final String SPANNER_READ_CACHE_REQUESTS = "spanner/read_cache_requests";
+  static final String SPANNER_READ_CACHE_REQUESTS_DESCRIPTION =
+      "The number of cacheable stale reads, labeled by whether they were served from the cache";
+  static final String SPANNER_READ_CACHE_EVICTIONS = "spanner/read_cache_evictions";
+  static final String SPANNER_READ_CACHE_EVICTIONS_DESCRIPTION =
+      "The number of entries that were evicted from the read cache because it was full";
+  static final String SPANNER_WRITE_BATCH_FLUSH_LATENCY = "spanner/write_batch_flush_latency";
+  static final String SPANNER_WRITE_BATCH_FLUSH_LATENCY_DESCRIPTION =
+      "The time that it took to write a batch of buffered mutation groups to Spanner";
+  static final String SPANNER_WRITE_BATCH_SIZE = "spanner/write_batch_size";
+  static final String SPANNER_WRITE_BATCH_SIZE_DESCRIPTION =
+      "The number of buffered mutation groups that were written to Spanner in one batch";
+  static final String SPANNER_CHANNEL_TRANSACTIONS =
+      "spanner/multiplexed_session_channel_transactions";
+  static final String SPANNER_CHANNEL_TRANSACTIONS_DESCRIPTION =
+      "The number of in-flight transactions on multiplexed sessions per gRPC channel";
+  static final String SPANNER_PARTITION_ROWS = "spanner/partition_rows";
+  static final String SPANNER_PARTITION_ROWS_DESCRIPTION =
+      "The number of rows that have been returned by partitions that are executed in parallel";
+  static final String SPANNER_PARTITION_LATENCIES = "spanner/partition_latencies";
+  static final String SPANNER_PARTITION_LATENCIES_DESCRIPTION =
+      "The time that it took to execute a partition that is executed in parallel";
 }
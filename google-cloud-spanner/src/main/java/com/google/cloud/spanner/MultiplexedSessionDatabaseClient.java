@@ -16,8 +16,6 @@
 
 package com.google.cloud.spanner;
 
-import static com.google.cloud.spanner.SessionImpl.NO_CHANNEL_HINT;
-
 import com.google.api.core.ApiFuture;
 import com.google.api.core.ApiFutures;
 import com.google.api.core.SettableApiFuture;
@@ -28,7 +26,6 @@ import com.google.common.base.Preconditions;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
@@ -38,7 +35,6 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -61,18 +57,23 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
 
     private final boolean singleUse;
 
-    private final int singleUseChannelHint;
+    /**
+     * The lease of the channel that all RPCs of this transaction use. The channel is acquired from
+     * the {@link LeastLoadedChannelSelector} of the client, and released when the transaction is
+     * closed, or when the transaction is garbage collected without having been closed.
+     */
+    private final LeastLoadedChannelSelector.Lease channelLease;
 
     MultiplexedSessionTransaction(
         MultiplexedSessionDatabaseClient client,
         ISpan span,
         SessionReference sessionReference,
-        int singleUseChannelHint,
+        int channelHint,
         boolean singleUse) {
-      super(client.sessionClient.getSpanner(), sessionReference, singleUseChannelHint);
+      super(client.sessionClient.getSpanner(), sessionReference, channelHint);
       this.client = client;
       this.singleUse = singleUse;
-      this.singleUseChannelHint = singleUseChannelHint;
+      this.channelLease = client.channelSelector.lease(this, channelHint);
       setCurrentSpan(span);
     }
 
@@ -92,37 +93,42 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
     void onReadDone() {
       // This method is called whenever a ResultSet that was returned by this transaction is closed.
       // Close the active transaction if this is a single-use transaction. This ensures that the
-      // active span is ended.
+      // active span is ended and that the channel of the transaction is released.
       if (this.singleUse && getActiveTransaction() != null) {
         getActiveTransaction().close();
         setActive(null);
-        if (this.singleUseChannelHint != NO_CHANNEL_HINT) {
-          this.client.channelUsage.clear(this.singleUseChannelHint);
-        }
-        this.client.numCurrentSingleUseTransactions.decrementAndGet();
       }
     }
 
+    @Override
+    void onTransactionDone() {
+      this.channelLease.release();
+    }
+
     @Override
     public void close() {
       // no-op, we don't want to delete the multiplexed session.
     }
   }
 
-  /**
-   * Keeps track of which channels have been 'given' to single-use transactions for a given Spanner
-   * instance.
-   */
-  private static final Map<SpannerImpl, BitSet> CHANNEL_USAGE = new HashMap<>();
+  /** A {@link LeastLoadedChannelSelector} and the number of open clients that use it. */
+  private static final class SharedChannelSelector {
+    private final LeastLoadedChannelSelector selector;
+    private int numClients;
 
-  private final BitSet channelUsage;
-
-  private final int numChannels;
+    private SharedChannelSelector(LeastLoadedChannelSelector selector) {
+      this.selector = selector;
+    }
+  }
 
   /**
-   * The number of single-use read-only transactions currently running on this multiplexed session.
+   * Keeps track of the number of transactions on each channel for all multiplexed session clients
+   * of a given Spanner instance. The selector of a Spanner instance is removed and closed when the
+   * last client that uses it is closed.
    */
-  private final AtomicInteger numCurrentSingleUseTransactions = new AtomicInteger();
+  private static final Map<SpannerImpl, SharedChannelSelector> CHANNEL_SELECTORS = new HashMap<>();
+
+  private final LeastLoadedChannelSelector channelSelector;
 
   private boolean isClosed;
 
@@ -164,10 +170,17 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
 
   @VisibleForTesting
   MultiplexedSessionDatabaseClient(SessionClient sessionClient, Clock clock) {
-    this.numChannels = sessionClient.getSpanner().getOptions().getNumChannels();
-    synchronized (CHANNEL_USAGE) {
-      CHANNEL_USAGE.putIfAbsent(sessionClient.getSpanner(), new BitSet(numChannels));
-      this.channelUsage = CHANNEL_USAGE.get(sessionClient.getSpanner());
+    synchronized (CHANNEL_SELECTORS) {
+      SharedChannelSelector sharedChannelSelector =
+          CHANNEL_SELECTORS.computeIfAbsent(
+              sessionClient.getSpanner(),
+              spanner ->
+                  new SharedChannelSelector(
+                      new LeastLoadedChannelSelector(
+                          spanner.getOptions().getNumChannels(),
+                          spanner.getOptions().getOpenTelemetry())));
+      sharedChannelSelector.numClients++;
+      this.channelSelector = sharedChannelSelector.selector;
     }
     this.sessionExpirationDuration =
         Duration.ofMillis(
@@ -248,10 +261,29 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
       if (!this.isClosed) {
         this.isClosed = true;
         this.maintainer.stop();
+        releaseChannelSelector();
+      }
+    }
+  }
+
+  private void releaseChannelSelector() {
+    synchronized (CHANNEL_SELECTORS) {
+      SharedChannelSelector sharedChannelSelector =
+          CHANNEL_SELECTORS.get(this.sessionClient.getSpanner());
+      if (sharedChannelSelector != null
+          && sharedChannelSelector.selector == this.channelSelector
+          && --sharedChannelSelector.numClients == 0) {
+        CHANNEL_SELECTORS.remove(this.sessionClient.getSpanner());
+        this.channelSelector.close();
       }
     }
   }
 
+  @VisibleForTesting
+  LeastLoadedChannelSelector getChannelSelector() {
+    return this.channelSelector;
+  }
+
   @VisibleForTesting
   MultiplexedSessionMaintainer getMaintainer() {
     return this.maintainer;
@@ -296,7 +328,7 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
           // session, such as for example a DatabaseNotFound exception. We therefore do not need
           // any special handling of such errors.
           multiplexedSessionReference.get().get(),
-          singleUse ? getSingleUseChannelHint() : NO_CHANNEL_HINT,
+          acquireChannel(),
           singleUse);
     } catch (ExecutionException executionException) {
       throw SpannerExceptionFactory.asSpannerException(executionException.getCause());
@@ -310,22 +342,12 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
         this, tracer.getCurrentSpan(), multiplexedSessionReference.get());
   }
 
-  private int getSingleUseChannelHint() {
-    if (this.numCurrentSingleUseTransactions.incrementAndGet() > this.numChannels) {
-      return NO_CHANNEL_HINT;
-    }
-    synchronized (this.channelUsage) {
-      // Get the first unused channel.
-      int channel = this.channelUsage.nextClearBit(/* fromIndex = */ 0);
-      // BitSet returns an index larger than its original size if all the bits are set.
-      // This then means that all channels have already been assigned to single-use transactions,
-      // and that we should not use a specific channel, but rather pick a random one.
-      if (channel == this.numChannels) {
-        return NO_CHANNEL_HINT;
-      }
-      this.channelUsage.set(channel);
-      return channel;
-    }
+  /**
+   * Returns the channel that a new transaction should use. The channel is released when the
+   * transaction is closed.
+   */
+  int acquireChannel() {
+    return this.channelSelector.acquire();
   }
 
   @Override
@@ -16,9 +16,11 @@
 
 package com.google.cloud.spanner;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.api.core.BetaApi;
 import com.google.common.collect.ImmutableList;
 import com.google.protobuf.ListValue;
 import java.io.Serializable;
@@ -138,6 +140,30 @@ public final class Mutation implements Serializable {
     return new WriteBuilder(table, Op.REPLACE);
   }
 
+  /**
+   * Returns a builder that can be used to construct a large number of write mutations of type
+   * {@code operation} for the same set of {@code columns} in {@code table}. The column names are
+   * validated once, and all mutations that are created by the builder share the same list of
+   * columns. Consecutive mutations with the same list of columns are encoded as one write in the
+   * request that is sent to Spanner, and sharing the list of columns makes it cheap to detect this.
+   *
+   * <pre>
+   *     List&lt;Mutation&gt; mutations = Mutation.newBulkWriteBuilder(Op.INSERT, "T", "C1", "C2")
+   *         .addRow(Value.string("x1"), Value.string("y1"))
+   *         .addRow(Value.string("x2"), Value.string("y2"))
+   *         .build();
+   * </pre>
+   *
+   * @throws IllegalArgumentException if {@code operation} is {@link Op#DELETE}
+   * @throws IllegalStateException if any duplicate columns are present. Duplicate detection is
+   *     case-insensitive.
+   */
+  @BetaApi
+  public static BulkWriteBuilder newBulkWriteBuilder(
+      Op operation, String table, String... columns) {
+    return new BulkWriteBuilder(table, operation, ImmutableList.copyOf(columns));
+  }
+
   /**
    * Returns a mutation that will delete the row with primary key {@code key}. Exactly equivalent to
    * {@code delete(table, KeySet.singleKey(key))}.
@@ -212,16 +238,58 @@ public final class Mutation implements Serializable {
         throw new IllegalStateException("Incomplete binding for column " + currentColumn);
       }
     }
+  }
 
-    private void checkDuplicateColumns(ImmutableList<String> columnNames) {
-      Set<String> columnNameSet = new HashSet<>();
-      for (String columnName : columnNames) {
-        columnName = columnName.toLowerCase();
-        if (columnNameSet.contains(columnName)) {
-          throw new IllegalStateException("Duplicate column: " + columnName);
-        }
-        columnNameSet.add(columnName);
+  private static void checkDuplicateColumns(ImmutableList<String> columnNames) {
+    Set<String> columnNameSet = new HashSet<>();
+    for (String columnName : columnNames) {
+      columnName = columnName.toLowerCase();
+      if (columnNameSet.contains(columnName)) {
+        throw new IllegalStateException("Duplicate column: " + columnName);
       }
+      columnNameSet.add(columnName);
+    }
+  }
+
+  /**
+   * Builder for a list of {@link Op#INSERT}, {@link Op#INSERT_OR_UPDATE}, {@link Op#UPDATE}, or
+   * {@link Op#REPLACE} mutations that all write the same set of columns in the same table.
+   */
+  @BetaApi
+  public static class BulkWriteBuilder {
+    private final String table;
+    private final Op operation;
+    private final ImmutableList<String> columns;
+    private final ImmutableList.Builder<Mutation> mutations = ImmutableList.builder();
+
+    private BulkWriteBuilder(String table, Op operation, ImmutableList<String> columns) {
+      checkArgument(operation != Op.DELETE, "BulkWriteBuilder does not support DELETE mutations");
+      this.table = checkNotNull(table);
+      this.operation = checkNotNull(operation);
+      checkDuplicateColumns(columns);
+      this.columns = columns;
+    }
+
+    /**
+     * Adds a row to write. The {@code i}th value corresponds to the {@code i}th column of this
+     * builder.
+     *
+     * @throws IllegalArgumentException if the number of values is not equal to the number of
+     *     columns
+     */
+    public BulkWriteBuilder addRow(Value... values) {
+      checkArgument(
+          values.length == columns.size(),
+          "Expected %s values, but got %s",
+          columns.size(),
+          values.length);
+      mutations.add(new Mutation(table, operation, columns, ImmutableList.copyOf(values), null));
+      return this;
+    }
+
+    /** Returns the mutations that have been added to this builder. */
+    public ImmutableList<Mutation> build() {
+      return mutations.build();
     }
   }
 
@@ -145,6 +145,11 @@ public final class Options implements Serializable {
     return new FlowControlOption(prefetchChunks);
   }
 
+  /**
+   * Specifies the number of rows to buffer in an {@link AsyncResultSet} before the producer waits
+   * for the callback to consume rows. The buffer is allocated up front, and values larger than
+   * 65,536 rows are reduced to 65,536 rows. {@code bufferRows} should be greater than 0.
+   */
   public static ReadAndQueryOption bufferRows(int bufferRows) {
     Preconditions.checkArgument(bufferRows > 0, "bufferRows should be greater than 0");
     return new BufferRowsOption(bufferRows);
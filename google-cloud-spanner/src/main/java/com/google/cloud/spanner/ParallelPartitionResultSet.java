@@ -0,0 +1,548 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.InternalApi;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import com.google.spanner.v1.ResultSetMetadata;
+import com.google.spanner.v1.ResultSetStats;
+import io.opentelemetry.api.common.Attributes;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * {@link PartitionedResultSet} that executes a list of partitions with a bounded parallelism and
+ * merges the rows of all partitions into one stream.
+ *
+ * <p>A worker executes a partition and waits for the first row of the partition. It then hands the
+ * result set of the partition over to the reader, which reads the rows directly from that result
+ * set. Rows are therefore never copied between threads. The stream of a partition that has been
+ * handed over but not yet read continues to fetch data in the background until its prefetch buffer
+ * is full (see {@link SpannerOptions.Builder#setPrefetchChunks(int)}), which again stops the stream
+ * from requesting more data from Spanner until the reader gets to that partition.
+ *
+ * <p>At most {@code parallelism} partitions are started and not yet consumed at any time. A new
+ * partition is only started when the reader has consumed all rows of a partition, so the number of
+ * open streams and the number of workers adapt to the speed of the reader. Ordered result sets
+ * return the partitions in the order of the list of partitions. Unordered result sets return the
+ * partitions in the order that their first rows are received. The rows of one partition are always
+ * returned together.
+ *
+ * <p>Closing the result set, or encountering an error in one of the partitions, cancels all
+ * partitions that are still running.
+ *
+ * <p>Partitions are executed on the executor in the {@link PartitionExecutionOptions}, or otherwise
+ * on the executor of the {@link Spanner} instance or connection that created the result set. A
+ * result set that has neither creates its own executor, and shuts it down when it is closed.
+ *
+ * <p>The number of rows that are returned by the partitions and the execution time of each
+ * partition are recorded in the {@link SpannerRpcMetrics} of the client, if any.
+ */
+@InternalApi
+public final class ParallelPartitionResultSet<T> extends ForwardingStructReader
+    implements PartitionedResultSet {
+  private static final String THREAD_NAME_FORMAT = "spanner-partition-executor";
+
+  /**
+   * Creates an executor for executing partitions. The executor uses a new virtual thread for each
+   * partition if virtual threads are available, and otherwise a pool of daemon threads that grows
+   * and shrinks with the number of partitions that are being executed. The caller is responsible
+   * for shutting down the executor.
+   */
+  @InternalApi
+  public static ExecutorService createExecutor() {
+    ExecutorService virtualThreadExecutor =
+        ThreadFactoryUtil.tryCreateVirtualThreadPerTaskExecutor(THREAD_NAME_FORMAT);
+    if (virtualThreadExecutor != null) {
+      return virtualThreadExecutor;
+    }
+    return Executors.newCachedThreadPool(
+        ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(THREAD_NAME_FORMAT, false));
+  }
+
+  /**
+   * A partition that has been started by a worker. The result set of the partition is positioned on
+   * the first row, or is null if the partition did not return any rows.
+   */
+  private static final class StartedPartition {
+    private final int index;
+    @Nullable private final ResultSet resultSet;
+    private final long startNanos;
+    private long rowCount;
+
+    private StartedPartition(int index, @Nullable ResultSet resultSet, long startNanos) {
+      this.index = index;
+      this.resultSet = resultSet;
+      this.startNanos = startNanos;
+    }
+  }
+
+  /** Returns the result set of the partition that is currently being read. */
+  private static final class CurrentRow implements Supplier<ResultSet> {
+    private ResultSet resultSet;
+
+    @Override
+    public ResultSet get() {
+      Preconditions.checkState(resultSet != null, "next() call required");
+      return resultSet;
+    }
+  }
+
+  private final CurrentRow currentRow;
+  private final List<T> partitions;
+  private final Function<T, ResultSet> executeFunction;
+  private final int parallelism;
+
+  /**
+   * One buffer per partition in the window of started partitions for ordered result sets, and one
+   * shared buffer otherwise. The buffers contain the partitions that have been started but not yet
+   * read, and the errors of partitions that failed to start. A buffer never contains more than
+   * {@link #parallelism} elements, as that is the maximum number of partitions that are started and
+   * not yet consumed.
+   */
+  private final BlockingQueue<Object>[] buffers;
+
+  @Nullable private final SpannerRpcMetrics metrics;
+
+  private final Executor executor;
+
+  /**
+   * The executor that was created by this result set, because neither the options nor the client
+   * supplied one. This executor is shut down when the result set is closed.
+   */
+  @Nullable private final ExecutorService ownedExecutor;
+
+  private final AtomicInteger numActiveWorkers = new AtomicInteger();
+  private final AtomicInteger numFinishedPartitions = new AtomicInteger();
+  private final AtomicLongArray rowCounts;
+
+  /** The workers that are currently starting a partition. Also used to guard {@link #cancelled}. */
+  private final Set<Thread> workers = new HashSet<>();
+
+  private volatile boolean cancelled;
+  private volatile Type type;
+  private volatile ResultSetMetadata metadata;
+
+  /** The number of partitions that have been handed to a worker. Only used by the reader. */
+  private int numStartedPartitions;
+
+  /** The number of partitions that have been fully consumed by the reader of this result set. */
+  private int numConsumedPartitions;
+
+  /** The partition that is currently being read. */
+  private StartedPartition currentPartition;
+
+  /**
+   * True if the worker has moved the current partition to its first row, and it is not yet read.
+   */
+  private boolean firstRowPending;
+
+  private SpannerException error;
+  private boolean closed;
+
+  /**
+   * Creates a result set that starts executing the given partitions directly.
+   *
+   * @param partitions the partitions to execute
+   * @param executeFunction the function that is used to execute a single partition
+   * @param options the options for executing the partitions
+   */
+  public ParallelPartitionResultSet(
+      List<T> partitions,
+      Function<T, ResultSet> executeFunction,
+      PartitionExecutionOptions options) {
+    this(partitions, executeFunction, options, null);
+  }
+
+  /**
+   * Creates a result set that starts executing the given partitions directly.
+   *
+   * @param partitions the partitions to execute
+   * @param executeFunction the function that is used to execute a single partition
+   * @param options the options for executing the partitions
+   * @param metrics the metrics that are used to record the progress of the partitions, if any
+   */
+  public ParallelPartitionResultSet(
+      List<T> partitions,
+      Function<T, ResultSet> executeFunction,
+      PartitionExecutionOptions options,
+      @Nullable SpannerRpcMetrics metrics) {
+    this(partitions, executeFunction, options, metrics, null);
+  }
+
+  /**
+   * Creates a result set that starts executing the given partitions directly. The partitions are
+   * executed on the given default executor if the options do not specify an executor.
+   */
+  ParallelPartitionResultSet(
+      List<T> partitions,
+      Function<T, ResultSet> executeFunction,
+      PartitionExecutionOptions options,
+      @Nullable SpannerRpcMetrics metrics,
+      @Nullable Executor defaultExecutor) {
+    this(new CurrentRow(), partitions, executeFunction, options, metrics, defaultExecutor);
+  }
+
+  @SuppressWarnings("unchecked")
+  private ParallelPartitionResultSet(
+      CurrentRow currentRow,
+      List<T> partitions,
+      Function<T, ResultSet> executeFunction,
+      PartitionExecutionOptions options,
+      @Nullable SpannerRpcMetrics metrics,
+      @Nullable Executor defaultExecutor) {
+    super(currentRow);
+    Preconditions.checkNotNull(options);
+    this.currentRow = currentRow;
+    this.metrics = metrics;
+    this.partitions = ImmutableList.copyOf(Preconditions.checkNotNull(partitions));
+    this.executeFunction = Preconditions.checkNotNull(executeFunction);
+    this.rowCounts = new AtomicLongArray(this.partitions.size());
+    if (this.partitions.isEmpty()) {
+      this.parallelism = 0;
+    } else if (options.getMaxParallelism() == 0) {
+      // Dynamically determine parallelism.
+      this.parallelism =
+          Math.min(this.partitions.size(), Runtime.getRuntime().availableProcessors());
+    } else {
+      this.parallelism = Math.min(this.partitions.size(), options.getMaxParallelism());
+    }
+    this.buffers = new BlockingQueue[options.isOrdered() ? Math.max(1, this.parallelism) : 1];
+    for (int i = 0; i < this.buffers.length; i++) {
+      this.buffers[i] = new LinkedBlockingQueue<>();
+    }
+    Executor executor = options.getExecutor() == null ? defaultExecutor : options.getExecutor();
+    this.ownedExecutor = executor == null && this.parallelism > 0 ? createExecutor() : null;
+    this.executor = executor == null ? this.ownedExecutor : executor;
+    try {
+      startPartitions();
+    } catch (Throwable t) {
+      close();
+      throw t;
+    }
+  }
+
+  /** Returns the buffer for the partition with the given index. */
+  private BlockingQueue<Object> getBuffer(int partitionIndex) {
+    // The window guarantees that the partitions that use the same buffer of an ordered result set
+    // are never started at the same time.
+    return buffers[partitionIndex % buffers.length];
+  }
+
+  /**
+   * Starts partitions until {@link #parallelism} partitions have been started and not yet consumed,
+   * or all partitions have been started. A partition that is rejected by the executor is started
+   * again when the reader has consumed the next partition.
+   */
+  private void startPartitions() {
+    int limit = Math.min(partitions.size(), numConsumedPartitions + parallelism);
+    while (!cancelled && numStartedPartitions < limit) {
+      int index = numStartedPartitions;
+      numActiveWorkers.incrementAndGet();
+      try {
+        executor.execute(() -> startPartition(index));
+      } catch (RejectedExecutionException rejectedExecutionException) {
+        numActiveWorkers.decrementAndGet();
+        if (numStartedPartitions > numConsumedPartitions) {
+          // Continue with the partitions that have already been started.
+          return;
+        }
+        throw SpannerExceptionFactory.asSpannerException(rejectedExecutionException);
+      }
+      numStartedPartitions++;
+    }
+  }
+
+  /**
+   * Executes the partition with the given index and waits for its first row, and then hands the
+   * partition over to the reader.
+   */
+  private void startPartition(int index) {
+    Thread thread = Thread.currentThread();
+    synchronized (workers) {
+      if (cancelled) {
+        numActiveWorkers.decrementAndGet();
+        return;
+      }
+      workers.add(thread);
+    }
+    long startNanos = System.nanoTime();
+    Object result;
+    ResultSet resultSet = null;
+    try {
+      resultSet = executeFunction.apply(partitions.get(index));
+      boolean hasRow = resultSet.next();
+      // Make sure that the type and metadata are also set if none of the partitions return any
+      // rows.
+      setTypeAndMetadata(resultSet);
+      if (!hasRow) {
+        resultSet.close();
+        resultSet = null;
+      }
+      result = new StartedPartition(index, resultSet, startNanos);
+    } catch (Throwable t) {
+      closeQuietly(resultSet);
+      result = t;
+    }
+    try {
+      synchronized (workers) {
+        workers.remove(thread);
+        if (cancelled) {
+          // Clear any interrupt that was caused by cancelling this result set, so it does not leak
+          // into other tasks that run on the same (user-supplied) executor thread.
+          //noinspection ResultOfMethodCallIgnored
+          Thread.interrupted();
+          if (result instanceof StartedPartition) {
+            closeQuietly(((StartedPartition) result).resultSet);
+          }
+          return;
+        }
+        getBuffer(index).add(result);
+      }
+    } finally {
+      numActiveWorkers.decrementAndGet();
+    }
+  }
+
+  private void setTypeAndMetadata(ResultSet resultSet) {
+    if (type == null) {
+      synchronized (this) {
+        if (type == null) {
+          try {
+            metadata = resultSet.getMetadata();
+          } catch (UnsupportedOperationException ignore) {
+            // Result sets that are not returned by Spanner do not have any metadata.
+          }
+          type = resultSet.getType();
+        }
+      }
+    }
+  }
+
+  private static void closeQuietly(@Nullable ResultSet resultSet) {
+    if (resultSet != null) {
+      try {
+        resultSet.close();
+      } catch (Throwable ignore) {
+        // Ignore, as the partition is no longer needed.
+      }
+    }
+  }
+
+  /** Cancels all partitions that are still being started, and closes all started partitions. */
+  private void cancel() {
+    synchronized (workers) {
+      cancelled = true;
+      for (Thread worker : workers) {
+        // Interrupting a worker cancels the stream that it is waiting for.
+        worker.interrupt();
+      }
+    }
+    // Workers no longer add partitions to the buffers once the result set has been cancelled.
+    for (BlockingQueue<Object> buffer : buffers) {
+      for (Object element = buffer.poll(); element != null; element = buffer.poll()) {
+        if (element instanceof StartedPartition) {
+          closeQuietly(((StartedPartition) element).resultSet);
+        }
+      }
+    }
+    if (currentPartition != null) {
+      closeQuietly(currentPartition.resultSet);
+      currentPartition = null;
+    }
+    currentRow.resultSet = null;
+  }
+
+  /** Closes the current partition and starts the next partition, if any. */
+  private void finishCurrentPartition() {
+    StartedPartition partition = currentPartition;
+    currentPartition = null;
+    currentRow.resultSet = null;
+    closeQuietly(partition.resultSet);
+    numFinishedPartitions.incrementAndGet();
+    if (metrics != null) {
+      metrics.recordPartitionRows(partition.rowCount, Attributes.empty());
+      metrics.recordPartitionLatency(
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - partition.startNanos),
+          Attributes.empty());
+    }
+    numConsumedPartitions++;
+    startPartitions();
+  }
+
+  private SpannerException fail(Throwable t) {
+    error = SpannerExceptionFactory.asSpannerException(t);
+    cancel();
+    return error;
+  }
+
+  @Override
+  protected void checkValidState() {
+    Preconditions.checkState(!closed, "This result set has been closed");
+  }
+
+  @Override
+  public boolean next() throws SpannerException {
+    checkValidState();
+    if (error != null) {
+      throw error;
+    }
+    try {
+      while (true) {
+        if (currentPartition != null) {
+          boolean hasRow;
+          if (firstRowPending) {
+            firstRowPending = false;
+            hasRow = currentPartition.resultSet != null;
+          } else {
+            hasRow = currentPartition.resultSet.next();
+          }
+          if (hasRow) {
+            currentRow.resultSet = currentPartition.resultSet;
+            rowCounts.lazySet(currentPartition.index, ++currentPartition.rowCount);
+            return true;
+          }
+          finishCurrentPartition();
+        }
+        if (numConsumedPartitions >= partitions.size()) {
+          if (type == null) {
+            type = Type.struct();
+            metadata = ResultSetMetadata.getDefaultInstance();
+          }
+          return false;
+        }
+        Object next = getBuffer(numConsumedPartitions).take();
+        if (next instanceof Throwable) {
+          throw fail((Throwable) next);
+        }
+        currentPartition = (StartedPartition) next;
+        firstRowPending = true;
+      }
+    } catch (InterruptedException interruptedException) {
+      throw SpannerExceptionFactory.propagateInterrupt(interruptedException);
+    } catch (RuntimeException exception) {
+      if (exception == error) {
+        throw exception;
+      }
+      throw fail(exception);
+    }
+  }
+
+  @Override
+  public Struct getCurrentRowAsStruct() {
+    checkValidState();
+    return currentRow.get().getCurrentRowAsStruct();
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      cancel();
+      if (ownedExecutor != null) {
+        // Workers that are still running stop as soon as they notice that they have been cancelled.
+        ownedExecutor.shutdown();
+      }
+    }
+  }
+
+  @Override
+  public ResultSetStats getStats() {
+    throw new UnsupportedOperationException(
+        "ResultSetStats are available only for results returned from analyzeQuery() calls");
+  }
+
+  @Override
+  public ResultSetMetadata getMetadata() {
+    checkValidState();
+    Preconditions.checkState(type != null, "next() call required");
+    if (metadata == null) {
+      throw new UnsupportedOperationException(
+          "ResultSetMetadata are available only for results that were returned from Cloud Spanner");
+    }
+    return metadata;
+  }
+
+  @Override
+  public Type getType() {
+    checkValidState();
+    Preconditions.checkState(type != null, "next() call required");
+    return type;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return getType().getStructFields().size();
+  }
+
+  @Override
+  public int getColumnIndex(String columnName) {
+    return getType().getFieldIndex(columnName);
+  }
+
+  @Override
+  public Type getColumnType(int columnIndex) {
+    return getType().getStructFields().get(columnIndex).getType();
+  }
+
+  @Override
+  public Type getColumnType(String columnName) {
+    return getType().getStructFields().get(getColumnIndex(columnName)).getType();
+  }
+
+  @Override
+  public int getNumPartitions() {
+    return partitions.size();
+  }
+
+  @Override
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /** Returns the number of workers that are currently starting a partition. */
+  @VisibleForTesting
+  int getNumActiveWorkers() {
+    return numActiveWorkers.get();
+  }
+
+  @Override
+  public int getNumFinishedPartitions() {
+    return numFinishedPartitions.get();
+  }
+
+  @Override
+  public long getRowCount(int partitionIndex) {
+    Preconditions.checkElementIndex(partitionIndex, partitions.size());
+    return rowCounts.get(partitionIndex);
+  }
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.InternalApi;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Options.QueryOption;
+import com.google.cloud.spanner.Options.RpcPriority;
+import com.google.cloud.spanner.Type.StructField;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.WireFormat;
+import com.google.spanner.v1.DirectedReadOptions;
+import com.google.spanner.v1.ExecuteSqlRequest;
+import com.google.spanner.v1.RequestOptions;
+import com.google.spanner.v1.RequestOptions.Priority;
+import com.google.spanner.v1.TransactionSelector;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import javax.annotation.Nullable;
+
+/**
+ * For internal use only. Compact binary encoding of a {@link BatchTransactionId} and a query {@link
+ * Partition}.
+ *
+ * <p>The encoding consists of a version byte followed by a protobuf message with the following
+ * fields:
+ *
+ * <ol>
+ *   <li>An {@link ExecuteSqlRequest} that contains the session, the transaction id, the statement,
+ *       the partition token and all options of the partition that are sent to Spanner.
+ *   <li>The read timestamp of the transaction as a {@link com.google.protobuf.Timestamp}.
+ *   <li>The {@link PartitionOptions} as a {@link com.google.spanner.v1.PartitionOptions}.
+ *   <li>The number of chunks to prefetch.
+ *   <li>The number of rows to buffer.
+ *   <li>The name of the {@link DecodeMode}.
+ *   <li>Whether data boost is enabled.
+ * </ol>
+ *
+ * Fields that are not set are not included. Unknown fields are skipped during decoding, which
+ * allows later versions to add fields without changing the version byte.
+ */
+@InternalApi
+public final class PartitionEncoding {
+  /** The first byte of all encoded partitions in version 1 of this encoding. */
+  static final byte VERSION_1 = 1;
+
+  private static final int REQUEST_FIELD_NUMBER = 1;
+  private static final int READ_TIMESTAMP_FIELD_NUMBER = 2;
+  private static final int PARTITION_OPTIONS_FIELD_NUMBER = 3;
+  private static final int PREFETCH_CHUNKS_FIELD_NUMBER = 4;
+  private static final int BUFFER_ROWS_FIELD_NUMBER = 5;
+  private static final int DECODE_MODE_FIELD_NUMBER = 6;
+  private static final int DATA_BOOST_ENABLED_FIELD_NUMBER = 7;
+
+  private PartitionEncoding() {}
+
+  /**
+   * Returns true if the given bytes start with the version byte of an encoding that is supported by
+   * this class.
+   */
+  public static boolean isSupportedVersion(byte[] bytes) {
+    return bytes.length > 0 && bytes[0] == VERSION_1;
+  }
+
+  /**
+   * Encodes the given transaction id and partition, or returns null if the partition contains
+   * anything that cannot be represented in this encoding. This is the case for read partitions,
+   * untyped query parameters and read options. Callers should fall back to Java serialization for
+   * those partitions.
+   */
+  @Nullable
+  public static byte[] encode(BatchTransactionId transactionId, Partition partition) {
+    Statement statement = partition.getStatement();
+    Options options = partition.getQueryOptions();
+    if (statement == null || options == null || partition.getTable() != null) {
+      return null;
+    }
+    ExecuteSqlRequest.Builder request =
+        ExecuteSqlRequest.newBuilder()
+            .setSession(transactionId.getSessionId())
+            .setTransaction(
+                TransactionSelector.newBuilder().setId(transactionId.getTransactionId()))
+            .setSql(statement.getSql())
+            .setPartitionToken(partition.getPartitionToken());
+    if (!statement.getParameters().isEmpty()) {
+      com.google.protobuf.Struct.Builder params = request.getParamsBuilder();
+      for (Map.Entry<String, Value> param : statement.getParameters().entrySet()) {
+        Value value = param.getValue();
+        if (value == null || value.getType() == null || !isDecodable(value.getType())) {
+          return null;
+        }
+        params.putFields(param.getKey(), value.toProto());
+        request.putParamTypes(param.getKey(), value.getType().toProto());
+      }
+    }
+    if (statement.getQueryOptions() != null) {
+      request.setQueryOptions(statement.getQueryOptions());
+    }
+    if (options.hasPriority() || options.hasTag()) {
+      RequestOptions.Builder requestOptions = request.getRequestOptionsBuilder();
+      if (options.hasPriority()) {
+        requestOptions.setPriority(options.priority());
+      }
+      if (options.hasTag()) {
+        requestOptions.setRequestTag(options.tag());
+      }
+    }
+    if (options.hasDirectedReadOptions()) {
+      request.setDirectedReadOptions(options.directedReadOptions());
+    }
+    // Verify that the options can be reconstructed from the encoded values. This prevents options
+    // that are not included in this encoding from being silently dropped.
+    if (!options.equals(createOptions(request, options))) {
+      return null;
+    }
+
+    ExecuteSqlRequest requestProto = request.build();
+    com.google.protobuf.Timestamp readTimestamp = transactionId.getTimestamp().toProto();
+    com.google.spanner.v1.PartitionOptions partitionOptions = null;
+    if (partition.getPartitionOptions() != null) {
+      com.google.spanner.v1.PartitionOptions.Builder builder =
+          com.google.spanner.v1.PartitionOptions.newBuilder();
+      partition.getPartitionOptions().appendToProto(builder);
+      partitionOptions = builder.build();
+    }
+    int size =
+        1
+            + CodedOutputStream.computeMessageSize(REQUEST_FIELD_NUMBER, requestProto)
+            + CodedOutputStream.computeMessageSize(READ_TIMESTAMP_FIELD_NUMBER, readTimestamp);
+    if (partitionOptions != null) {
+      size +=
+          CodedOutputStream.computeMessageSize(PARTITION_OPTIONS_FIELD_NUMBER, partitionOptions);
+    }
+    if (options.hasPrefetchChunks()) {
+      size +=
+          CodedOutputStream.computeInt32Size(
+              PREFETCH_CHUNKS_FIELD_NUMBER, options.prefetchChunks());
+    }
+    if (options.hasBufferRows()) {
+      size += CodedOutputStream.computeInt32Size(BUFFER_ROWS_FIELD_NUMBER, options.bufferRows());
+    }
+    if (options.hasDecodeMode()) {
+      size +=
+          CodedOutputStream.computeStringSize(
+              DECODE_MODE_FIELD_NUMBER, options.decodeMode().name());
+    }
+    if (options.hasDataBoostEnabled()) {
+      size +=
+          CodedOutputStream.computeBoolSize(
+              DATA_BOOST_ENABLED_FIELD_NUMBER, options.dataBoostEnabled());
+    }
+
+    byte[] result = new byte[size];
+    result[0] = VERSION_1;
+    CodedOutputStream output = CodedOutputStream.newInstance(result, 1, size - 1);
+    try {
+      output.writeMessage(REQUEST_FIELD_NUMBER, requestProto);
+      output.writeMessage(READ_TIMESTAMP_FIELD_NUMBER, readTimestamp);
+      if (partitionOptions != null) {
+        output.writeMessage(PARTITION_OPTIONS_FIELD_NUMBER, partitionOptions);
+      }
+      if (options.hasPrefetchChunks()) {
+        output.writeInt32(PREFETCH_CHUNKS_FIELD_NUMBER, options.prefetchChunks());
+      }
+      if (options.hasBufferRows()) {
+        output.writeInt32(BUFFER_ROWS_FIELD_NUMBER, options.bufferRows());
+      }
+      if (options.hasDecodeMode()) {
+        output.writeString(DECODE_MODE_FIELD_NUMBER, options.decodeMode().name());
+      }
+      if (options.hasDataBoostEnabled()) {
+        output.writeBool(DATA_BOOST_ENABLED_FIELD_NUMBER, options.dataBoostEnabled());
+      }
+      output.checkNoSpaceLeft();
+    } catch (IOException ioException) {
+      // This should not happen, as the output is written to a byte array of the correct size.
+      throw SpannerExceptionFactory.newSpannerException(ioException);
+    }
+    return result;
+  }
+
+  /**
+   * Decodes the given bytes and passes the transaction id and partition to the given factory.
+   *
+   * @throws SpannerException with {@link ErrorCode#INVALID_ARGUMENT} if the bytes do not contain a
+   *     valid encoded partition
+   */
+  public static <T> T decode(
+      byte[] bytes, BiFunction<BatchTransactionId, Partition, T> partitionIdFactory) {
+    if (!isSupportedVersion(bytes)) {
+      throw SpannerExceptionFactory.newSpannerException(
+          ErrorCode.INVALID_ARGUMENT, "The id does not contain a valid PartitionId instance");
+    }
+    ExecuteSqlRequest.Builder request = ExecuteSqlRequest.newBuilder();
+    com.google.protobuf.Timestamp.Builder readTimestamp =
+        com.google.protobuf.Timestamp.newBuilder();
+    com.google.spanner.v1.PartitionOptions.Builder partitionOptions = null;
+    Integer prefetchChunks = null;
+    Integer bufferRows = null;
+    DecodeMode decodeMode = null;
+    Boolean dataBoostEnabled = null;
+    boolean hasRequest = false;
+    boolean hasReadTimestamp = false;
+    CodedInputStream input = CodedInputStream.newInstance(bytes, 1, bytes.length - 1);
+    try {
+      boolean done = false;
+      while (!done) {
+        int tag = input.readTag();
+        switch (WireFormat.getTagFieldNumber(tag)) {
+          case 0:
+            done = true;
+            break;
+          case REQUEST_FIELD_NUMBER:
+            input.readMessage(request, ExtensionRegistryLite.getEmptyRegistry());
+            hasRequest = true;
+            break;
+          case READ_TIMESTAMP_FIELD_NUMBER:
+            input.readMessage(readTimestamp, ExtensionRegistryLite.getEmptyRegistry());
+            hasReadTimestamp = true;
+            break;
+          case PARTITION_OPTIONS_FIELD_NUMBER:
+            partitionOptions = com.google.spanner.v1.PartitionOptions.newBuilder();
+            input.readMessage(partitionOptions, ExtensionRegistryLite.getEmptyRegistry());
+            break;
+          case PREFETCH_CHUNKS_FIELD_NUMBER:
+            prefetchChunks = input.readInt32();
+            break;
+          case BUFFER_ROWS_FIELD_NUMBER:
+            bufferRows = input.readInt32();
+            break;
+          case DECODE_MODE_FIELD_NUMBER:
+            decodeMode = DecodeMode.valueOf(input.readString());
+            break;
+          case DATA_BOOST_ENABLED_FIELD_NUMBER:
+            dataBoostEnabled = input.readBool();
+            break;
+          default:
+            input.skipField(tag);
+            break;
+        }
+      }
+    } catch (IOException | IllegalArgumentException exception) {
+      throw SpannerExceptionFactory.newSpannerException(
+          ErrorCode.INVALID_ARGUMENT, "The id does not contain a valid PartitionId instance");
+    }
+    if (!hasRequest || !hasReadTimestamp) {
+      throw SpannerExceptionFactory.newSpannerException(
+          ErrorCode.INVALID_ARGUMENT, "The id does not contain a valid PartitionId instance");
+    }
+
+    BatchTransactionId transactionId =
+        new BatchTransactionId(
+            request.getSession(),
+            request.getTransaction().getId(),
+            Timestamp.fromProto(readTimestamp.build()));
+    List<QueryOption> queryOptions = new ArrayList<>();
+    if (prefetchChunks != null) {
+      queryOptions.add(Options.prefetchChunks(prefetchChunks));
+    }
+    if (bufferRows != null) {
+      queryOptions.add(Options.bufferRows(bufferRows));
+    }
+    if (decodeMode != null) {
+      queryOptions.add(Options.decodeMode(decodeMode));
+    }
+    if (dataBoostEnabled != null) {
+      queryOptions.add(Options.dataBoostEnabled(dataBoostEnabled));
+    }
+    Partition partition =
+        Partition.createQueryPartition(
+            request.getPartitionToken(),
+            partitionOptions == null ? null : createPartitionOptions(partitionOptions.build()),
+            createStatement(request),
+            createOptions(request, queryOptions));
+    return partitionIdFactory.apply(transactionId, partition);
+  }
+
+  /**
+   * Returns the {@link Options} that the decoder creates for the given request and the client-side
+   * options in the given {@link Options}.
+   */
+  private static Options createOptions(ExecuteSqlRequest.Builder request, Options options) {
+    List<QueryOption> queryOptions = new ArrayList<>();
+    if (options.hasPrefetchChunks()) {
+      queryOptions.add(Options.prefetchChunks(options.prefetchChunks()));
+    }
+    if (options.hasBufferRows()) {
+      queryOptions.add(Options.bufferRows(options.bufferRows()));
+    }
+    if (options.hasDecodeMode()) {
+      queryOptions.add(Options.decodeMode(options.decodeMode()));
+    }
+    if (options.hasDataBoostEnabled()) {
+      queryOptions.add(Options.dataBoostEnabled(options.dataBoostEnabled()));
+    }
+    return createOptions(request, queryOptions);
+  }
+
+  private static Options createOptions(
+      ExecuteSqlRequest.Builder request, List<QueryOption> queryOptions) {
+    if (request.hasRequestOptions()) {
+      RequestOptions requestOptions = request.getRequestOptions();
+      if (requestOptions.getPriority() != Priority.PRIORITY_UNSPECIFIED) {
+        queryOptions.add(Options.priority(RpcPriority.fromProto(requestOptions.getPriority())));
+      }
+      if (!requestOptions.getRequestTag().isEmpty()) {
+        queryOptions.add(Options.tag(requestOptions.getRequestTag()));
+      }
+    }
+    if (request.hasDirectedReadOptions()) {
+      DirectedReadOptions directedReadOptions = request.getDirectedReadOptions();
+      queryOptions.add(Options.directedRead(directedReadOptions));
+    }
+    return Options.fromQueryOptions(queryOptions.toArray(new QueryOption[0]));
+  }
+
+  private static PartitionOptions createPartitionOptions(
+      com.google.spanner.v1.PartitionOptions proto) {
+    PartitionOptions.Builder builder = PartitionOptions.newBuilder();
+    if (proto.getPartitionSizeBytes() > 0L) {
+      builder.setPartitionSizeBytes(proto.getPartitionSizeBytes());
+    }
+    if (proto.getMaxPartitions() > 0L) {
+      builder.setMaxPartitions(proto.getMaxPartitions());
+    }
+    return builder.build();
+  }
+
+  private static Statement createStatement(ExecuteSqlRequest.Builder request) {
+    Statement.Builder builder = Statement.newBuilder(request.getSql());
+    if (request.hasQueryOptions()) {
+      builder.withQueryOptions(request.getQueryOptions());
+    }
+    Map<String, com.google.protobuf.Value> params = request.getParams().getFieldsMap();
+    if (!params.isEmpty()) {
+      // Decode all parameters as one row, so the values are decoded in exactly the same way as the
+      // values in a query result.
+      List<StructField> fields = new ArrayList<>(params.size());
+      ListValue.Builder row = ListValue.newBuilder();
+      for (Map.Entry<String, com.google.protobuf.Value> param : params.entrySet()) {
+        com.google.spanner.v1.Type type = request.getParamTypesMap().get(param.getKey());
+        if (type == null) {
+          throw SpannerExceptionFactory.newSpannerException(
+              ErrorCode.INVALID_ARGUMENT, "Missing type for parameter " + param.getKey());
+        }
+        fields.add(StructField.of(param.getKey(), Type.fromProto(type)));
+        row.addValues(param.getValue());
+      }
+      GrpcStruct struct = new GrpcStruct(Type.struct(fields), new ArrayList<>(), DecodeMode.DIRECT);
+      struct.consumeRow(row.getValuesList().iterator());
+      for (int i = 0; i < fields.size(); i++) {
+        builder.bind(fields.get(i).getName()).to(struct.getValue(i));
+      }
+    }
+    return builder.build();
+  }
+
+  /** Returns true if values of the given type can be decoded by {@link GrpcStruct}. */
+  private static boolean isDecodable(Type type) {
+    switch (type.getCode()) {
+      case UNRECOGNIZED:
+        return false;
+      case ARRAY:
+        return isDecodable(type.getArrayElementType());
+      case STRUCT:
+        for (StructField field : type.getStructFields()) {
+          if (!isDecodable(field.getType())) {
+            return false;
+          }
+        }
+        return true;
+      default:
+        return true;
+    }
+  }
+}
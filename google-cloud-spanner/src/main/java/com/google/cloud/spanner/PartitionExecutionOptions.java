@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.BetaApi;
+import com.google.common.base.Preconditions;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
+
+/**
+ * Defines how a list of {@link Partition}s is executed by {@link
+ * BatchReadOnlyTransaction#executePartitions(java.util.List, PartitionExecutionOptions)}.
+ */
+@BetaApi
+public class PartitionExecutionOptions {
+  private final int maxParallelism;
+  private final boolean ordered;
+  @Nullable private final Executor executor;
+
+  private PartitionExecutionOptions(Builder builder) {
+    this.maxParallelism = builder.maxParallelism;
+    this.ordered = builder.ordered;
+    this.executor = builder.executor;
+  }
+
+  /** Builder for {@link PartitionExecutionOptions} instances. */
+  public static class Builder {
+    private int maxParallelism;
+    private boolean ordered;
+    private Executor executor;
+
+    private Builder() {}
+
+    /**
+     * Sets the maximum number of partitions that are executed in parallel. The default is 0, which
+     * means that the number of available processors is used.
+     */
+    public Builder setMaxParallelism(int maxParallelism) {
+      Preconditions.checkArgument(maxParallelism >= 0, "maxParallelism must be >= 0");
+      this.maxParallelism = maxParallelism;
+      return this;
+    }
+
+    /**
+     * Sets whether the rows of the merged result set should be returned in the same order as the
+     * partitions. When false (the default), the partitions are returned in the order that their
+     * first rows are received. The rows of one partition are always returned together.
+     */
+    public Builder setOrdered(boolean ordered) {
+      this.ordered = ordered;
+      return this;
+    }
+
+    /**
+     * Sets the {@link Executor} that should be used to execute the partitions. The executor is not
+     * shut down by the client. If no executor is set, the client uses virtual threads if these are
+     * available, and otherwise a pool of daemon threads that is shut down when the {@link Spanner}
+     * instance is closed.
+     */
+    public Builder setExecutor(@Nullable Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    public PartitionExecutionOptions build() {
+      return new PartitionExecutionOptions(this);
+    }
+  }
+
+  public static PartitionExecutionOptions getDefaultInstance() {
+    return newBuilder().build();
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /** Returns the maximum number of partitions that are executed in parallel. */
+  public int getMaxParallelism() {
+    return maxParallelism;
+  }
+
+  /** Returns true if rows are returned in the same order as the partitions. */
+  public boolean isOrdered() {
+    return ordered;
+  }
+
+  /** Returns the {@link Executor} that is used to execute the partitions, if any. */
+  @Nullable
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "maxParallelism: %d, ordered: %s, executor: %s", maxParallelism, ordered, executor);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof PartitionExecutionOptions)) {
+      return false;
+    }
+    PartitionExecutionOptions that = (PartitionExecutionOptions) o;
+    return this.maxParallelism == that.maxParallelism
+        && this.ordered == that.ordered
+        && Objects.equals(this.executor, that.executor);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(maxParallelism, ordered, executor);
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.BetaApi;
+
+/**
+ * {@link ResultSet} that merges the results of multiple {@link Partition}s that are executed in
+ * parallel. Closing the result set before all rows have been consumed cancels all partitions that
+ * are still running.
+ */
+@BetaApi
+public interface PartitionedResultSet extends ResultSet {
+
+  /** Returns the number of partitions that this result set contains. */
+  int getNumPartitions();
+
+  /** Returns the maximum number of partitions that are executed in parallel. */
+  int getParallelism();
+
+  /**
+   * Returns the number of partitions that have finished fetching all their rows from Spanner. Rows
+   * of finished partitions can still be buffered in the result set.
+   */
+  int getNumFinishedPartitions();
+
+  /**
+   * Returns the number of rows that have been fetched from Spanner for the partition with the given
+   * index. The index refers to the position of the partition in the list that was used to create
+   * this result set.
+   */
+  long getRowCount(int partitionIndex);
+}
@@ -0,0 +1,701 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.cloud.spanner.AsyncResultSet.CallbackResponse;
+import com.google.cloud.spanner.AsyncResultSet.ReadyCallback;
+import com.google.cloud.spanner.Options.QueryOption;
+import com.google.cloud.spanner.Options.ReadOption;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import org.threeten.bp.Duration;
+
+/**
+ * Coalesces concurrent single-row point reads on single-use read contexts into reads of multiple
+ * keys. Point reads are grouped by table, index, columns and {@link TimestampBound}. A group is
+ * sent to Spanner as one read when it contains the maximum number of keys, or when the batching
+ * window has passed. The rows that are returned are then matched with the keys of the callers.
+ *
+ * <p>Matching a row with a key requires the values of the key columns. These are determined once
+ * for each table and index with a query on {@code INFORMATION_SCHEMA.INDEX_COLUMNS}, and are added
+ * to the columns of the batched read if the caller did not select them. Point reads on tables for
+ * which the key columns cannot be determined are not batched.
+ */
+class PointReadBatcher {
+  /** The settings for a {@link PointReadBatcher}. */
+  static final class Settings {
+    private final Duration window;
+    private final int maxBatchSize;
+    private final boolean batchCacheableReads;
+
+    /**
+     * @param window the time that a point read waits for other point reads
+     * @param maxBatchSize the maximum number of keys in one batch
+     * @param batchCacheableReads whether reads that could be served by the {@link StaleReadCache}
+     *     should be batched
+     */
+    Settings(Duration window, int maxBatchSize, boolean batchCacheableReads) {
+      Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be > 0");
+      this.window = Preconditions.checkNotNull(window);
+      this.maxBatchSize = maxBatchSize;
+      this.batchCacheableReads = batchCacheableReads;
+    }
+  }
+
+  private static final String GOOGLE_STANDARD_SQL_KEY_COLUMNS_QUERY =
+      "SELECT COLUMN_NAME\n"
+          + "FROM INFORMATION_SCHEMA.INDEX_COLUMNS\n"
+          + "WHERE TABLE_CATALOG='' AND TABLE_SCHEMA=@schema\n"
+          + "AND TABLE_NAME=@table AND INDEX_NAME=@index\n"
+          + "AND ORDINAL_POSITION IS NOT NULL\n"
+          + "ORDER BY ORDINAL_POSITION";
+  private static final String POSTGRESQL_KEY_COLUMNS_QUERY =
+      "select column_name\n"
+          + "from information_schema.index_columns\n"
+          + "where table_schema=$1 and table_name=$2 and index_name=$3\n"
+          + "and ordinal_position is not null\n"
+          + "order by ordinal_position";
+  private static final String PRIMARY_KEY_INDEX_NAME = "PRIMARY_KEY";
+
+  /** Identifies the keys of a table or index. */
+  private static final class IndexKey {
+    private final String table;
+    @Nullable private final String index;
+
+    private IndexKey(String table, @Nullable String index) {
+      this.table = table;
+      this.index = index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof IndexKey)) {
+        return false;
+      }
+      IndexKey other = (IndexKey) o;
+      return table.equals(other.table) && Objects.equals(index, other.index);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(table, index);
+    }
+  }
+
+  /** Identifies the point reads that can be included in the same batch. */
+  private static final class BatchKey {
+    private final TimestampBound bound;
+    private final IndexKey indexKey;
+    private final ImmutableList<String> columns;
+    /** The columns of the batched read. These are the columns plus any missing key columns. */
+    private final ImmutableList<String> readColumns;
+    /** The positions of the key columns in {@link #readColumns}. */
+    private final int[] keyColumnPositions;
+
+    private BatchKey(
+        TimestampBound bound,
+        IndexKey indexKey,
+        ImmutableList<String> columns,
+        ImmutableList<String> keyColumns) {
+      this.bound = bound;
+      this.indexKey = indexKey;
+      this.columns = columns;
+      ImmutableList.Builder<String> readColumnsBuilder =
+          ImmutableList.<String>builder().addAll(columns);
+      this.keyColumnPositions = new int[keyColumns.size()];
+      int numReadColumns = columns.size();
+      for (int i = 0; i < keyColumns.size(); i++) {
+        int position = indexOfIgnoreCase(columns, keyColumns.get(i));
+        if (position == -1) {
+          readColumnsBuilder.add(keyColumns.get(i));
+          position = numReadColumns++;
+        }
+        keyColumnPositions[i] = position;
+      }
+      this.readColumns = readColumnsBuilder.build();
+    }
+
+    private static int indexOfIgnoreCase(List<String> list, String value) {
+      for (int i = 0; i < list.size(); i++) {
+        if (list.get(i).equalsIgnoreCase(value)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof BatchKey)) {
+        return false;
+      }
+      BatchKey other = (BatchKey) o;
+      return bound.equals(other.bound)
+          && indexKey.equals(other.indexKey)
+          && columns.equals(other.columns);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(bound, indexKey, columns);
+    }
+  }
+
+  /** A batch of point reads that have not yet been sent to Spanner. */
+  private static final class Batch {
+    private final BatchKey batchKey;
+    /** The callers that are waiting for each key. */
+    private final Map<Key, List<SettableApiFuture<Struct>>> callers = new LinkedHashMap<>();
+
+    private Batch(BatchKey batchKey) {
+      this.batchKey = batchKey;
+    }
+
+    private void add(Key key, SettableApiFuture<Struct> result) {
+      callers.computeIfAbsent(key, ignored -> new ArrayList<>(1)).add(result);
+    }
+
+    private int size() {
+      return callers.size();
+    }
+  }
+
+  private final Function<TimestampBound, ReadContext> readContextFactory;
+  private final Supplier<Dialect> dialectSupplier;
+  private final Settings settings;
+  private final ScheduledExecutorService executor;
+  private final ConcurrentMap<IndexKey, ApiFuture<ImmutableList<String>>> keyColumns =
+      new ConcurrentHashMap<>();
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private final Map<BatchKey, Batch> pendingBatches = new HashMap<>();
+
+  private final AtomicLong numBatchedReads = new AtomicLong();
+
+  /**
+   * @param readContextFactory creates a single-use read context with the given bound that is not
+   *     batched
+   * @param dialectSupplier supplies the dialect of the database
+   * @param settings the settings for this batcher
+   */
+  PointReadBatcher(
+      Function<TimestampBound, ReadContext> readContextFactory,
+      Supplier<Dialect> dialectSupplier,
+      Settings settings) {
+    this.readContextFactory = readContextFactory;
+    this.dialectSupplier = dialectSupplier;
+    this.settings = settings;
+    this.executor =
+        Executors.newSingleThreadScheduledExecutor(
+            ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+                "spanner-point-read-batcher", /* tryVirtualThreads = */ false));
+  }
+
+  /**
+   * Returns a single-use {@link ReadContext} that batches the point reads that it executes. All
+   * other operations are executed on the read context that is returned by the given supplier. That
+   * read context is only created if it is actually used.
+   */
+  ReadContext singleUse(TimestampBound bound, Supplier<ReadContext> delegateSupplier) {
+    if (!settings.batchCacheableReads
+        && (bound.getMode() == TimestampBound.Mode.MAX_STALENESS
+            || bound.getMode() == TimestampBound.Mode.MIN_READ_TIMESTAMP)) {
+      // Let the stale read cache serve these reads.
+      return delegateSupplier.get();
+    }
+    return new BatchingReadContext(bound, delegateSupplier);
+  }
+
+  void close() {
+    // Execute all pending batches directly, instead of waiting for their window to pass.
+    List<Batch> batches;
+    synchronized (lock) {
+      batches = new ArrayList<>(pendingBatches.values());
+      pendingBatches.clear();
+    }
+    executor.shutdownNow();
+    for (Batch batch : batches) {
+      execute(batch);
+    }
+  }
+
+  /** Returns the number of point reads that have been sent to Spanner as part of a batch. */
+  @VisibleForTesting
+  long getNumBatchedReads() {
+    return numBatchedReads.get();
+  }
+
+  private ApiFuture<Struct> readRowAsync(
+      TimestampBound bound,
+      String table,
+      @Nullable String index,
+      Key key,
+      Iterable<String> columns) {
+    IndexKey indexKey = new IndexKey(table, index);
+    ImmutableList<String> columnList = ImmutableList.copyOf(columns);
+    return ApiFutures.transformAsync(
+        getKeyColumns(indexKey),
+        keyColumnList -> {
+          if (keyColumnList.size() != key.size()) {
+            // The key columns are unknown, or this is a read of a prefix of the key.
+            return readSingleRowAsync(bound, indexKey, key, columnList);
+          }
+          return addToBatch(new BatchKey(bound, indexKey, columnList, keyColumnList), key);
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  private ApiFuture<ImmutableList<String>> getKeyColumns(IndexKey indexKey) {
+    ApiFuture<ImmutableList<String>> result = keyColumns.get(indexKey);
+    if (result != null) {
+      return result;
+    }
+    // Get the dialect before calling computeIfAbsent, as it could block.
+    Dialect dialect = dialectSupplier.get();
+    return keyColumns.computeIfAbsent(indexKey, key -> queryKeyColumns(key, dialect));
+  }
+
+  private ApiFuture<ImmutableList<String>> queryKeyColumns(IndexKey indexKey, Dialect dialect) {
+    int separator = indexKey.table.lastIndexOf('.');
+    String schema =
+        separator == -1
+            ? (dialect == Dialect.POSTGRESQL ? "public" : "")
+            : indexKey.table.substring(0, separator);
+    String table = indexKey.table.substring(separator + 1);
+    String index = indexKey.index == null ? PRIMARY_KEY_INDEX_NAME : indexKey.index;
+    Statement statement =
+        dialect == Dialect.POSTGRESQL
+            ? Statement.newBuilder(POSTGRESQL_KEY_COLUMNS_QUERY)
+                .bind("p1")
+                .to(schema)
+                .bind("p2")
+                .to(table)
+                .bind("p3")
+                .to(index)
+                .build()
+            : Statement.newBuilder(GOOGLE_STANDARD_SQL_KEY_COLUMNS_QUERY)
+                .bind("schema")
+                .to(schema)
+                .bind("table")
+                .to(table)
+                .bind("index")
+                .to(index)
+                .build();
+    ApiFuture<List<String>> columns;
+    try (AsyncResultSet resultSet =
+        readContextFactory.apply(TimestampBound.strong()).executeQueryAsync(statement)) {
+      columns = resultSet.toListAsync(row -> row.getString(0), MoreExecutors.directExecutor());
+    } catch (Throwable t) {
+      columns = ApiFutures.immediateFailedFuture(t);
+    }
+    // Point reads on tables with unknown key columns are executed without batching.
+    return ApiFutures.catching(
+        ApiFutures.transform(columns, ImmutableList::copyOf, MoreExecutors.directExecutor()),
+        Throwable.class,
+        ignored -> ImmutableList.of(),
+        MoreExecutors.directExecutor());
+  }
+
+  private ApiFuture<Struct> addToBatch(BatchKey batchKey, Key key) {
+    SettableApiFuture<Struct> result = SettableApiFuture.create();
+    Batch full = null;
+    boolean schedule = false;
+    Batch batch;
+    synchronized (lock) {
+      batch = pendingBatches.get(batchKey);
+      if (batch == null) {
+        batch = new Batch(batchKey);
+        pendingBatches.put(batchKey, batch);
+        schedule = true;
+      }
+      batch.add(key, result);
+      if (batch.size() >= settings.maxBatchSize) {
+        pendingBatches.remove(batchKey);
+        full = batch;
+      }
+    }
+    if (full != null) {
+      execute(full);
+    } else if (schedule) {
+      Batch scheduled = batch;
+      try {
+        executor.schedule(() -> flush(scheduled), settings.window.toNanos(), TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException e) {
+        // The batcher has been closed.
+        flush(scheduled);
+      }
+    }
+    return result;
+  }
+
+  private void flush(Batch batch) {
+    synchronized (lock) {
+      if (!pendingBatches.remove(batch.batchKey, batch)) {
+        // The batch has already been executed because it was full.
+        return;
+      }
+    }
+    execute(batch);
+  }
+
+  private void execute(Batch batch) {
+    BatchKey batchKey = batch.batchKey;
+    if (batch.size() == 1) {
+      Entry<Key, List<SettableApiFuture<Struct>>> entry =
+          batch.callers.entrySet().iterator().next();
+      setResult(
+          entry.getValue(),
+          readSingleRowAsync(batchKey.bound, batchKey.indexKey, entry.getKey(), batchKey.columns));
+      return;
+    }
+    numBatchedReads.addAndGet(batch.size());
+    KeySet.Builder keySet = KeySet.newBuilder();
+    for (Key key : batch.callers.keySet()) {
+      keySet.addKey(key);
+    }
+    SettableApiFuture<List<Struct>> rows = SettableApiFuture.create();
+    try (AsyncResultSet resultSet =
+        batchKey.indexKey.index == null
+            ? readContextFactory
+                .apply(batchKey.bound)
+                .readAsync(batchKey.indexKey.table, keySet.build(), batchKey.readColumns)
+            : readContextFactory
+                .apply(batchKey.bound)
+                .readUsingIndexAsync(
+                    batchKey.indexKey.table,
+                    batchKey.indexKey.index,
+                    keySet.build(),
+                    batchKey.readColumns)) {
+      resultSet.setCallback(MoreExecutors.directExecutor(), new CollectRowsCallback(rows));
+    } catch (Throwable t) {
+      rows.setException(t);
+    }
+    ApiFutures.addCallback(
+        rows,
+        new ApiFutureCallback<List<Struct>>() {
+          @Override
+          public void onFailure(Throwable t) {
+            for (List<SettableApiFuture<Struct>> results : batch.callers.values()) {
+              for (SettableApiFuture<Struct> result : results) {
+                result.setException(t);
+              }
+            }
+          }
+
+          @Override
+          public void onSuccess(List<Struct> rows) {
+            distributeRows(batch, rows);
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  private void distributeRows(Batch batch, List<Struct> rows) {
+    BatchKey batchKey = batch.batchKey;
+    Map<Key, Struct> rowsByKey = new HashMap<>(rows.size());
+    Set<Key> duplicateKeys = new HashSet<>();
+    boolean allRowsMatched = true;
+    for (Struct row : rows) {
+      Key key = getKey(batchKey, row);
+      if (key == null || !batch.callers.containsKey(key)) {
+        allRowsMatched = false;
+      } else if (rowsByKey.put(key, row) != null) {
+        duplicateKeys.add(key);
+      }
+    }
+    for (Entry<Key, List<SettableApiFuture<Struct>>> entry : batch.callers.entrySet()) {
+      Key key = entry.getKey();
+      if (duplicateKeys.contains(key)) {
+        for (SettableApiFuture<Struct> result : entry.getValue()) {
+          result.setException(
+              SpannerExceptionFactory.newSpannerException(
+                  ErrorCode.INTERNAL, "Multiple rows returned for single key"));
+        }
+      } else if (rowsByKey.containsKey(key) || allRowsMatched) {
+        // If all rows were matched with a key, then there is no row for the remaining keys.
+        Struct row = rowsByKey.get(key);
+        Struct projected = row == null ? null : project(batchKey, row);
+        for (SettableApiFuture<Struct> result : entry.getValue()) {
+          result.set(projected);
+        }
+      } else {
+        // A row could not be matched with any of the keys of the callers, for example because the
+        // caller used a different type for a key part. Read the row separately to guarantee that
+        // the correct row is returned.
+        setResult(
+            entry.getValue(),
+            readSingleRowAsync(batchKey.bound, batchKey.indexKey, key, batchKey.columns));
+      }
+    }
+  }
+
+  private ApiFuture<Struct> readSingleRowAsync(
+      TimestampBound bound, IndexKey indexKey, Key key, ImmutableList<String> columns) {
+    try {
+      ReadContext readContext = readContextFactory.apply(bound);
+      return indexKey.index == null
+          ? readContext.readRowAsync(indexKey.table, key, columns)
+          : readContext.readRowUsingIndexAsync(indexKey.table, indexKey.index, key, columns);
+    } catch (Throwable t) {
+      return ApiFutures.immediateFailedFuture(t);
+    }
+  }
+
+  private static void setResult(List<SettableApiFuture<Struct>> results, ApiFuture<Struct> future) {
+    ApiFutures.addCallback(
+        future,
+        new ApiFutureCallback<Struct>() {
+          @Override
+          public void onFailure(Throwable t) {
+            for (SettableApiFuture<Struct> result : results) {
+              result.setException(t);
+            }
+          }
+
+          @Override
+          public void onSuccess(Struct row) {
+            for (SettableApiFuture<Struct> result : results) {
+              result.set(row);
+            }
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  /** Returns the key of the given row, or null if the key values cannot be converted to a key. */
+  @Nullable
+  private static Key getKey(BatchKey batchKey, Struct row) {
+    Key.Builder builder = Key.newBuilder();
+    for (int position : batchKey.keyColumnPositions) {
+      if (row.isNull(position)) {
+        builder.appendObject(null);
+        continue;
+      }
+      switch (row.getColumnType(position).getCode()) {
+        case BOOL:
+          builder.append(row.getBoolean(position));
+          break;
+        case INT64:
+          builder.append(row.getLong(position));
+          break;
+        case FLOAT32:
+          builder.append((double) row.getFloat(position));
+          break;
+        case FLOAT64:
+          builder.append(row.getDouble(position));
+          break;
+        case NUMERIC:
+          builder.append(row.getBigDecimal(position));
+          break;
+        case STRING:
+          builder.append(row.getString(position));
+          break;
+        case BYTES:
+          builder.append(row.getBytes(position));
+          break;
+        case TIMESTAMP:
+          builder.append(row.getTimestamp(position));
+          break;
+        case DATE:
+          builder.append(row.getDate(position));
+          break;
+        default:
+          return null;
+      }
+    }
+    return builder.build();
+  }
+
+  /** Removes any key columns that were added to the columns of the batched read. */
+  private static Struct project(BatchKey batchKey, Struct row) {
+    if (batchKey.readColumns.size() == batchKey.columns.size()) {
+      return row;
+    }
+    Struct.Builder builder = Struct.newBuilder();
+    List<Type.StructField> fields = row.getType().getStructFields();
+    for (int i = 0; i < batchKey.columns.size(); i++) {
+      builder.set(fields.get(i).getName()).to(row.getValue(i));
+    }
+    return builder.build();
+  }
+
+  /** Collects all rows of an {@link AsyncResultSet}. */
+  private static final class CollectRowsCallback implements ReadyCallback {
+    private final SettableApiFuture<List<Struct>> result;
+    private final List<Struct> rows = new ArrayList<>();
+
+    private CollectRowsCallback(SettableApiFuture<List<Struct>> result) {
+      this.result = result;
+    }
+
+    @Override
+    public CallbackResponse cursorReady(AsyncResultSet resultSet) {
+      try {
+        while (true) {
+          switch (resultSet.tryNext()) {
+            case DONE:
+              result.set(rows);
+              return CallbackResponse.DONE;
+            case NOT_READY:
+              return CallbackResponse.CONTINUE;
+            case OK:
+              rows.add(resultSet.getCurrentRowAsStruct());
+              break;
+            default:
+              throw new IllegalStateException();
+          }
+        }
+      } catch (Throwable t) {
+        result.setException(t);
+        return CallbackResponse.DONE;
+      }
+    }
+  }
+
+  /**
+   * Single-use {@link ReadContext} that sends point reads to the batcher, and all other operations
+   * to a lazily created delegate.
+   */
+  private final class BatchingReadContext implements ReadContext {
+    private final TimestampBound bound;
+    private final Supplier<ReadContext> delegateSupplier;
+
+    @GuardedBy("this")
+    private boolean used;
+
+    @GuardedBy("this")
+    private ReadContext delegate;
+
+    private BatchingReadContext(TimestampBound bound, Supplier<ReadContext> delegateSupplier) {
+      this.bound = bound;
+      this.delegateSupplier = delegateSupplier;
+    }
+
+    private synchronized void markUsed() {
+      Preconditions.checkState(
+          !used && delegate == null, "Cannot use a single-read ReadContext for multiple reads");
+      used = true;
+    }
+
+    private synchronized ReadContext getDelegate() {
+      Preconditions.checkState(!used, "Cannot use a single-read ReadContext for multiple reads");
+      if (delegate == null) {
+        delegate = delegateSupplier.get();
+      }
+      return delegate;
+    }
+
+    @Override
+    public ResultSet read(
+        String table, KeySet keys, Iterable<String> columns, ReadOption... options) {
+      return getDelegate().read(table, keys, columns, options);
+    }
+
+    @Override
+    public AsyncResultSet readAsync(
+        String table, KeySet keys, Iterable<String> columns, ReadOption... options) {
+      return getDelegate().readAsync(table, keys, columns, options);
+    }
+
+    @Override
+    public ResultSet readUsingIndex(
+        String table, String index, KeySet keys, Iterable<String> columns, ReadOption... options) {
+      return getDelegate().readUsingIndex(table, index, keys, columns, options);
+    }
+
+    @Override
+    public AsyncResultSet readUsingIndexAsync(
+        String table, String index, KeySet keys, Iterable<String> columns, ReadOption... options) {
+      return getDelegate().readUsingIndexAsync(table, index, keys, columns, options);
+    }
+
+    @Nullable
+    @Override
+    public Struct readRow(String table, Key key, Iterable<String> columns) {
+      return SpannerApiFutures.get(readRowAsync(table, key, columns));
+    }
+
+    @Override
+    public ApiFuture<Struct> readRowAsync(String table, Key key, Iterable<String> columns) {
+      markUsed();
+      return PointReadBatcher.this.readRowAsync(bound, table, null, key, columns);
+    }
+
+    @Nullable
+    @Override
+    public Struct readRowUsingIndex(String table, String index, Key key, Iterable<String> columns) {
+      return SpannerApiFutures.get(readRowUsingIndexAsync(table, index, key, columns));
+    }
+
+    @Override
+    public ApiFuture<Struct> readRowUsingIndexAsync(
+        String table, String index, Key key, Iterable<String> columns) {
+      markUsed();
+      return PointReadBatcher.this.readRowAsync(
+          bound, table, Preconditions.checkNotNull(index), key, columns);
+    }
+
+    @Override
+    public ResultSet executeQuery(Statement statement, QueryOption... options) {
+      return getDelegate().executeQuery(statement, options);
+    }
+
+    @Override
+    public AsyncResultSet executeQueryAsync(Statement statement, QueryOption... options) {
+      return getDelegate().executeQueryAsync(statement, options);
+    }
+
+    @Override
+    public ResultSet analyzeQuery(Statement statement, QueryAnalyzeMode queryMode) {
+      return getDelegate().analyzeQuery(statement, queryMode);
+    }
+
+    @Override
+    public synchronized void close() {
+      if (delegate != null) {
+        delegate.close();
+      }
+    }
+  }
+}
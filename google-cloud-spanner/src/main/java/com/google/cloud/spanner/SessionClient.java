@@ -107,6 +107,12 @@ class SessionClient implements AutoCloseable {
     return ImmutableMap.copyOf(tmp);
   }
 
+  /**
+   * The maximum number of sessions that Spanner returns for one BatchCreateSessions call. Requests
+   * for more sessions return only this number of sessions.
+   */
+  static final int MAX_SESSIONS_PER_BATCH_CREATE = 100;
+
   private final class BatchCreateSessionsRunnable implements Runnable {
     private final long channelHint;
     private final int sessionCount;
@@ -334,6 +340,27 @@ class SessionClient implements AutoCloseable {
    */
   void asyncBatchCreateSessions(
       final int sessionCount, boolean distributeOverChannels, SessionConsumer consumer) {
+    asyncBatchCreateSessions(sessionCount, distributeOverChannels, Integer.MAX_VALUE, consumer);
+  }
+
+  /**
+   * Asynchronously creates a batch of sessions that is distributed evenly over all available
+   * channels, using parallel gRPC calls that each create at most {@link
+   * #MAX_SESSIONS_PER_BATCH_CREATE} sessions. This is used to warm up a session pool, as it does
+   * not wait for one BatchCreateSessions call on a channel to finish before the next is started.
+   *
+   * @param sessionCount The number of sessions to create.
+   * @param consumer The {@link SessionConsumer} to use for callbacks when sessions are available.
+   */
+  void asyncBatchCreateSessionsInParallel(final int sessionCount, SessionConsumer consumer) {
+    asyncBatchCreateSessions(sessionCount, true, MAX_SESSIONS_PER_BATCH_CREATE, consumer);
+  }
+
+  private void asyncBatchCreateSessions(
+      final int sessionCount,
+      boolean distributeOverChannels,
+      int maxSessionsPerRpc,
+      SessionConsumer consumer) {
     int sessionCountPerChannel;
     int remainder;
     if (distributeOverChannels) {
@@ -359,11 +386,15 @@ class SessionClient implements AutoCloseable {
           createCountForChannel = sessionCountPerChannel + remainder;
         }
         if (createCountForChannel > 0 && numBeingCreated < sessionCount) {
+          long channelHint = sessionChannelCounter++;
           try {
-            executor.submit(
-                new BatchCreateSessionsRunnable(
-                    createCountForChannel, sessionChannelCounter++, consumer));
-            numBeingCreated += createCountForChannel;
+            while (createCountForChannel > 0) {
+              int createCountForRpc = Math.min(createCountForChannel, maxSessionsPerRpc);
+              executor.submit(
+                  new BatchCreateSessionsRunnable(createCountForRpc, channelHint, consumer));
+              numBeingCreated += createCountForRpc;
+              createCountForChannel -= createCountForRpc;
+            }
           } catch (Throwable t) {
             consumer.onSessionCreateFailure(t, sessionCount - numBeingCreated);
           }
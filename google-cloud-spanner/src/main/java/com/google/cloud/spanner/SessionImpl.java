@@ -307,9 +307,12 @@ class SessionImpl implements Session {
         SingleReadContext.newBuilder()
             .setSession(this)
             .setTimestampBound(bound)
+            .setStaleReadCache(spanner.getStaleReadCache())
             .setRpc(spanner.getRpc())
             .setDefaultQueryOptions(spanner.getDefaultQueryOptions(getDatabaseId()))
             .setDefaultPrefetchChunks(spanner.getDefaultPrefetchChunks())
+            .setMaxAdaptivePrefetchChunks(spanner.getMaxAdaptivePrefetchChunks())
+            .setSpannerRpcMetrics(spanner.getSpannerRpcMetrics())
             .setDefaultDecodeMode(spanner.getDefaultDecodeMode())
             .setDefaultDirectedReadOptions(spanner.getOptions().getDirectedReadOptions())
             .setSpan(currentSpan)
@@ -333,6 +336,8 @@ class SessionImpl implements Session {
             .setRpc(spanner.getRpc())
             .setDefaultQueryOptions(spanner.getDefaultQueryOptions(getDatabaseId()))
             .setDefaultPrefetchChunks(spanner.getDefaultPrefetchChunks())
+            .setMaxAdaptivePrefetchChunks(spanner.getMaxAdaptivePrefetchChunks())
+            .setSpannerRpcMetrics(spanner.getSpannerRpcMetrics())
             .setDefaultDecodeMode(spanner.getDefaultDecodeMode())
             .setDefaultDirectedReadOptions(spanner.getOptions().getDirectedReadOptions())
             .setSpan(currentSpan)
@@ -356,6 +361,8 @@ class SessionImpl implements Session {
             .setRpc(spanner.getRpc())
             .setDefaultQueryOptions(spanner.getDefaultQueryOptions(getDatabaseId()))
             .setDefaultPrefetchChunks(spanner.getDefaultPrefetchChunks())
+            .setMaxAdaptivePrefetchChunks(spanner.getMaxAdaptivePrefetchChunks())
+            .setSpannerRpcMetrics(spanner.getSpannerRpcMetrics())
             .setDefaultDecodeMode(spanner.getDefaultDecodeMode())
             .setDefaultDirectedReadOptions(spanner.getOptions().getDirectedReadOptions())
             .setSpan(currentSpan)
@@ -450,9 +457,12 @@ class SessionImpl implements Session {
         .setTransactionId(null)
         .setOptions(options)
         .setTrackTransactionStarter(spanner.getOptions().isTrackTransactionStarter())
+        .setParallelBeginTransaction(spanner.getOptions().isParallelBeginTransaction())
         .setRpc(spanner.getRpc())
         .setDefaultQueryOptions(spanner.getDefaultQueryOptions(getDatabaseId()))
         .setDefaultPrefetchChunks(spanner.getDefaultPrefetchChunks())
+        .setMaxAdaptivePrefetchChunks(spanner.getMaxAdaptivePrefetchChunks())
+        .setSpannerRpcMetrics(spanner.getSpannerRpcMetrics())
         .setDefaultDecodeMode(spanner.getDefaultDecodeMode())
         .setSpan(currentSpan)
         .setTracer(tracer)
@@ -484,6 +494,9 @@ class SessionImpl implements Session {
 
   void onReadDone() {}
 
+  /** Called once when a read context or read-only transaction on this session is closed. */
+  void onTransactionDone() {}
+
   TraceWrapper getTracer() {
     return tracer;
   }
@@ -53,7 +53,6 @@ import com.google.api.gax.core.ExecutorProvider;
 import com.google.api.gax.rpc.ServerStream;
 import com.google.cloud.Timestamp;
 import com.google.cloud.Tuple;
-import com.google.cloud.grpc.GrpcTransportOptions;
 import com.google.cloud.grpc.GrpcTransportOptions.ExecutorFactory;
 import com.google.cloud.spanner.Options.QueryOption;
 import com.google.cloud.spanner.Options.ReadOption;
@@ -156,6 +155,16 @@ class SessionPool {
     }
   }
 
+  /**
+   * Returns a future that is done when the initial sessions of the pool have been created, and, if
+   * warm-up on startup is enabled, all channels of these sessions have been primed.
+   */
+  ApiFuture<SessionPoolReadiness> getReadinessFuture() {
+    synchronized (lock) {
+      return readinessTracker.future;
+    }
+  }
+
   private abstract static class CachedResultSetSupplier implements Supplier<ResultSet> {
 
     private ResultSet cached;
@@ -2071,6 +2080,24 @@ class SessionPool {
           });
     }
 
+    private void primeChannelAsync() {
+      executor.submit(
+          () -> {
+            boolean primed = false;
+            try {
+              keepAlive();
+              primed = true;
+            } catch (Throwable t) {
+              logger.log(Level.FINE, "Failed to prime channel " + getChannel(), t);
+            } finally {
+              releaseSession(this, true);
+              synchronized (lock) {
+                readinessTracker.onChannelPrimed(primed);
+              }
+            }
+          });
+    }
+
     private Dialect determineDialect() {
       try (ResultSet dialectResultSet =
           delegate.singleUse().executeQuery(DETERMINE_DIALECT_STATEMENT)) {
@@ -2813,6 +2840,8 @@ class SessionPool {
   @VisibleForTesting Function<PooledSession, Void> longRunningSessionRemovedListener;
   @VisibleForTesting Function<SessionReference, Void> multiplexedSessionRemovedListener;
   private final CountDownLatch waitOnMinSessionsLatch;
+  private final ReadinessTracker readinessTracker = new ReadinessTracker();
+
   private final CountDownLatch waitOnMultiplexedSessionsLatch;
   private final SessionReplacementHandler pooledSessionReplacementHandler =
       new PooledSessionReplacementHandler();
@@ -2838,7 +2867,7 @@ class SessionPool {
     return createPool(
         sessionPoolOptions,
         spannerOptions.getDatabaseRole(),
-        ((GrpcTransportOptions) spannerOptions.getTransportOptions()).getExecutorFactory(),
+        SpannerOptions.getSessionExecutorFactory(spannerOptions),
         sessionClient,
         poolMaintainerClock == null ? new Clock() : poolMaintainerClock,
         Position.RANDOM,
@@ -3073,6 +3102,7 @@ class SessionPool {
 
   private void initPool() {
     synchronized (lock) {
+      readinessTracker.start();
       poolMaintainer.init();
       if (options.getMinSessions() > 0) {
         createSessions(options.getMinSessions(), true);
@@ -3477,6 +3507,7 @@ class SessionPool {
         throw new IllegalStateException("Close has already been invoked", this.closedException);
       }
       this.closedException = closedException;
+      readinessTracker.onClose();
       // Fail all pending waiters.
       WaiterFuture waiter = waiters.poll();
       while (waiter != null) {
@@ -3603,8 +3634,12 @@ class SessionPool {
         // calls and the session consumer consumes the returned sessions as they become available.
         // The batchCreateSessions method automatically spreads the sessions evenly over all
         // available channels.
-        sessionClient.asyncBatchCreateSessions(
-            sessionCount, distributeOverChannels, sessionConsumer);
+        if (distributeOverChannels && options.isWarmUpOnStartup()) {
+          sessionClient.asyncBatchCreateSessionsInParallel(sessionCount, sessionConsumer);
+        } else {
+          sessionClient.asyncBatchCreateSessions(
+              sessionCount, distributeOverChannels, sessionConsumer);
+        }
       } catch (Throwable t) {
         // Expose this to customer via a metric.
         numSessionsBeingCreated -= sessionCount;
@@ -3709,6 +3744,95 @@ class SessionPool {
     }
   }
 
+  /**
+   * Keeps track of the startup of the pool, and completes the readiness future of the pool when the
+   * initial sessions have been created and all channels that should be primed have executed their
+   * priming query. All methods must be called while holding the pool lock.
+   */
+  private final class ReadinessTracker {
+    private final SettableApiFuture<SessionPoolReadiness> future = SettableApiFuture.create();
+    private final Set<Integer> primedChannels = new HashSet<>();
+    private long startNanos;
+    private long sessionsCreatedNanos;
+    private long firstPrimeStartNanos;
+    private long lastPrimeEndNanos;
+    private boolean initialSessionsCreated;
+    private int numPendingPrimes;
+    private int numPrimedChannels;
+    private SpannerException failure;
+
+    void start() {
+      startNanos = System.nanoTime();
+      if (options.getMinSessions() <= 0) {
+        onInitialSessionsCreated();
+      }
+    }
+
+    /**
+     * Returns true if the given new session should be used to prime its channel. This is the case
+     * for the first session on each channel that is created during the startup of the pool.
+     */
+    boolean shouldPrimeChannel(PooledSession session) {
+      if (!options.isWarmUpOnStartup()
+          || initialSessionsCreated
+          || !primedChannels.add(session.getChannel())) {
+        return false;
+      }
+      if (primedChannels.size() == 1) {
+        firstPrimeStartNanos = System.nanoTime();
+      }
+      numPendingPrimes++;
+      return true;
+    }
+
+    void onChannelPrimed(boolean success) {
+      numPendingPrimes--;
+      if (success) {
+        numPrimedChannels++;
+      }
+      lastPrimeEndNanos = System.nanoTime();
+      maybeComplete();
+    }
+
+    void onCreateFailure(Throwable t) {
+      if (!initialSessionsCreated && failure == null) {
+        failure = asSpannerException(t);
+      }
+    }
+
+    void onInitialSessionsCreated() {
+      if (!initialSessionsCreated) {
+        initialSessionsCreated = true;
+        sessionsCreatedNanos = System.nanoTime();
+        maybeComplete();
+      }
+    }
+
+    void onClose() {
+      if (!future.isDone()) {
+        future.setException(newSpannerException(ErrorCode.INTERNAL, "Client has been closed"));
+      }
+    }
+
+    private void maybeComplete() {
+      if (!initialSessionsCreated || numPendingPrimes > 0 || future.isDone()) {
+        return;
+      }
+      if (allSessions.isEmpty() && failure != null) {
+        future.setException(failure);
+        return;
+      }
+      future.set(
+          new SessionPoolReadiness(
+              allSessions.size(),
+              numPrimedChannels,
+              java.time.Duration.ofNanos(sessionsCreatedNanos - startNanos),
+              java.time.Duration.ofNanos(
+                  primedChannels.isEmpty() ? 0L : lastPrimeEndNanos - firstPrimeStartNanos),
+              java.time.Duration.ofNanos(System.nanoTime() - startNanos)));
+    }
+  }
+
   /**
    * {@link SessionConsumer} that receives the created sessions from a {@link SessionClient} and
    * releases these into the pool. The session pool only needs one instance of this, as all sessions
@@ -3729,14 +3853,21 @@ class SessionPool {
         } else {
           Preconditions.checkState(totalSessions() <= options.getMaxSessions() - 1);
           allSessions.add(pooledSession);
+          boolean detectDialect = options.isAutoDetectDialect() && !detectDialectStarted;
+          boolean primeChannel =
+              !detectDialect && readinessTracker.shouldPrimeChannel(pooledSession);
           if (allSessions.size() >= minSessions) {
             waitOnMinSessionsLatch.countDown();
+            readinessTracker.onInitialSessionsCreated();
           }
-          if (options.isAutoDetectDialect() && !detectDialectStarted) {
+          if (detectDialect) {
             // Get the dialect of the underlying database if that has not yet been done. Note that
             // this method will release the session into the pool once it is done.
             detectDialectStarted = true;
             pooledSession.determineDialectAsync(SessionPool.this.dialect);
+          } else if (primeChannel) {
+            // Execute a query on the channel of this session before it is released into the pool.
+            pooledSession.primeChannelAsync();
           } else {
             // Release the session to a random position in the pool to prevent the case that a batch
             // of sessions that are affiliated with the same channel are all placed sequentially in
@@ -3758,9 +3889,11 @@ class SessionPool {
     public void onSessionCreateFailure(Throwable t, int createFailureForSessionCount) {
       synchronized (lock) {
         numSessionsBeingCreated -= createFailureForSessionCount;
+        readinessTracker.onCreateFailure(t);
         if (numSessionsBeingCreated == 0) {
           // Don't continue to block if no more sessions are being created.
           waitOnMinSessionsLatch.countDown();
+          readinessTracker.onInitialSessionsCreated();
         }
         if (isClosed()) {
           decrementPendingClosures(createFailureForSessionCount);
@@ -68,6 +68,7 @@ public class SessionPoolOptions {
   private final Duration acquireSessionTimeout;
   private final Position releaseToPosition;
   private final long randomizePositionQPSThreshold;
+  private final boolean warmUpOnStartup;
 
   /** Property for allowing mocking of session maintenance clock. */
   private final Clock poolMaintainerClock;
@@ -103,6 +104,7 @@ public class SessionPoolOptions {
     this.acquireSessionTimeout = builder.acquireSessionTimeout;
     this.releaseToPosition = builder.releaseToPosition;
     this.randomizePositionQPSThreshold = builder.randomizePositionQPSThreshold;
+    this.warmUpOnStartup = builder.warmUpOnStartup;
     this.inactiveTransactionRemovalOptions = builder.inactiveTransactionRemovalOptions;
     this.poolMaintainerClock = builder.poolMaintainerClock;
     this.useMultiplexedSession = builder.useMultiplexedSession;
@@ -139,6 +141,7 @@ public class SessionPoolOptions {
         && Objects.equals(this.acquireSessionTimeout, other.acquireSessionTimeout)
         && Objects.equals(this.releaseToPosition, other.releaseToPosition)
         && Objects.equals(this.randomizePositionQPSThreshold, other.randomizePositionQPSThreshold)
+        && Objects.equals(this.warmUpOnStartup, other.warmUpOnStartup)
         && Objects.equals(
             this.inactiveTransactionRemovalOptions, other.inactiveTransactionRemovalOptions)
         && Objects.equals(this.poolMaintainerClock, other.poolMaintainerClock)
@@ -171,6 +174,7 @@ public class SessionPoolOptions {
         this.acquireSessionTimeout,
         this.releaseToPosition,
         this.randomizePositionQPSThreshold,
+        this.warmUpOnStartup,
         this.inactiveTransactionRemovalOptions,
         this.poolMaintainerClock,
         this.useMultiplexedSession,
@@ -302,6 +306,11 @@ public class SessionPoolOptions {
     return randomizePositionQPSThreshold;
   }
 
+  @BetaApi
+  public boolean isWarmUpOnStartup() {
+    return warmUpOnStartup;
+  }
+
   @VisibleForTesting
   @InternalApi
   public boolean getUseMultiplexedSession() {
@@ -514,6 +523,8 @@ public class SessionPoolOptions {
      */
     private long randomizePositionQPSThreshold = 0L;
 
+    private boolean warmUpOnStartup = false;
+
     private boolean useMultiplexedSession = getUseMultiplexedSessionFromEnvVariable();
 
     private boolean useRandomChannelHint;
@@ -569,6 +580,7 @@ public class SessionPoolOptions {
       this.waitForMinSessions = options.waitForMinSessions;
       this.acquireSessionTimeout = options.acquireSessionTimeout;
       this.randomizePositionQPSThreshold = options.randomizePositionQPSThreshold;
+      this.warmUpOnStartup = options.warmUpOnStartup;
       this.inactiveTransactionRemovalOptions = options.inactiveTransactionRemovalOptions;
       this.poolMaintainerClock = options.poolMaintainerClock;
     }
@@ -886,6 +898,24 @@ public class SessionPoolOptions {
       return this;
     }
 
+    /**
+     * Sets whether the session pool should warm up all gRPC channels when it is created. The
+     * initial {@link #setMinSessions(int)} sessions are then created with parallel
+     * BatchCreateSessions calls of at most 100 sessions each, instead of one sequence of calls per
+     * channel. The first session that is created on each channel executes a {@code SELECT 1} query
+     * before it is added to the pool, so the connection to Spanner is fully established before the
+     * channel receives its first application request.
+     *
+     * <p>Use {@link DatabaseClient#getReadinessFuture()} to wait until the pool has been warmed up.
+     *
+     * <p>Defaults to false.
+     */
+    @BetaApi
+    public Builder setWarmUpOnStartup(boolean warmUpOnStartup) {
+      this.warmUpOnStartup = warmUpOnStartup;
+      return this;
+    }
+
     /** Build a SessionPoolOption object */
     public SessionPoolOptions build() {
       validate();
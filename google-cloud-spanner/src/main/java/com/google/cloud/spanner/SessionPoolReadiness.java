@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.BetaApi;
+import com.google.common.base.MoreObjects;
+import java.time.Duration;
+
+/**
+ * Describes how long it took for the session pool of a {@link DatabaseClient} to become ready. This
+ * is returned by {@link DatabaseClient#getReadinessFuture()} when the pool has created its initial
+ * sessions, and, if {@link SessionPoolOptions.Builder#setWarmUpOnStartup(boolean)} is enabled, has
+ * primed all gRPC channels that the sessions use.
+ */
+@BetaApi
+public final class SessionPoolReadiness {
+  private final int numSessions;
+  private final int numPrimedChannels;
+  private final Duration sessionCreationDuration;
+  private final Duration channelPrimingDuration;
+  private final Duration totalDuration;
+
+  SessionPoolReadiness(
+      int numSessions,
+      int numPrimedChannels,
+      Duration sessionCreationDuration,
+      Duration channelPrimingDuration,
+      Duration totalDuration) {
+    this.numSessions = numSessions;
+    this.numPrimedChannels = numPrimedChannels;
+    this.sessionCreationDuration = sessionCreationDuration;
+    this.channelPrimingDuration = channelPrimingDuration;
+    this.totalDuration = totalDuration;
+  }
+
+  /** Returns the number of sessions in the pool at the moment that the pool became ready. */
+  public int getNumSessions() {
+    return numSessions;
+  }
+
+  /**
+   * Returns the number of gRPC channels that successfully executed a query during the warm-up of
+   * the pool. This is always zero if warm-up on startup is disabled.
+   */
+  public int getNumPrimedChannels() {
+    return numPrimedChannels;
+  }
+
+  /**
+   * Returns the time between the creation of the pool and the moment that the initial sessions had
+   * been created.
+   */
+  public Duration getSessionCreationDuration() {
+    return sessionCreationDuration;
+  }
+
+  /**
+   * Returns the time between the start of the first and the end of the last query that was used to
+   * prime a gRPC channel. Channels are primed as soon as the first session on a channel has been
+   * created, which means that this phase overlaps with the creation of the sessions.
+   */
+  public Duration getChannelPrimingDuration() {
+    return channelPrimingDuration;
+  }
+
+  /** Returns the time between the creation of the pool and the moment that it became ready. */
+  public Duration getTotalDuration() {
+    return totalDuration;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("numSessions", numSessions)
+        .add("numPrimedChannels", numPrimedChannels)
+        .add("sessionCreationDuration", sessionCreationDuration)
+        .add("channelPrimingDuration", channelPrimingDuration)
+        .add("totalDuration", totalDuration)
+        .toString();
+  }
+}
@@ -22,7 +22,6 @@ import com.google.api.gax.paging.Page;
 import com.google.cloud.BaseService;
 import com.google.cloud.PageImpl;
 import com.google.cloud.PageImpl.NextPageFetcher;
-import com.google.cloud.grpc.GrpcTransportOptions;
 import com.google.cloud.spanner.SessionClient.SessionId;
 import com.google.cloud.spanner.SpannerOptions.CloseableExecutorProvider;
 import com.google.cloud.spanner.admin.database.v1.stub.DatabaseAdminStubSettings;
@@ -31,7 +30,6 @@ import com.google.cloud.spanner.spi.v1.GapicSpannerRpc;
 import com.google.cloud.spanner.spi.v1.SpannerRpc;
 import com.google.cloud.spanner.spi.v1.SpannerRpc.Paginated;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
@@ -48,12 +46,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
+import org.threeten.bp.Duration;
 import org.threeten.bp.Instant;
 
 /** Default implementation of the Cloud Spanner interface. */
@@ -105,6 +106,13 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
 
   private final CloseableExecutorProvider asyncExecutorProvider;
 
+  /** The executor for partitions of partitioned queries. Created when it is first used. */
+  @GuardedBy("this")
+  private ExecutorService partitionExecutor;
+
+  private final SpannerRpcMetrics spannerRpcMetrics;
+  @Nullable private final StaleReadCache staleReadCache;
+
   @GuardedBy("this")
   private final Map<DatabaseId, SessionClient> sessionClients = new HashMap<>();
 
@@ -133,9 +141,21 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
     super(options);
     this.gapicRpc = gapicRpc;
     this.asyncExecutorProvider =
-        MoreObjects.firstNonNull(
-            options.getAsyncExecutorProvider(),
-            SpannerOptions.createDefaultAsyncExecutorProvider());
+        options.getAsyncExecutorProvider() == null
+            ? SpannerOptions.createDefaultAsyncExecutorProvider(
+                options.isUseVirtualThreadsForAllExecutors())
+            : options.getAsyncExecutorProvider();
+    this.spannerRpcMetrics =
+        gapicRpc.getSpannerRpcMetrics() == null
+            ? new SpannerRpcMetrics(options.getOpenTelemetry())
+            : gapicRpc.getSpannerRpcMetrics();
+    this.staleReadCache =
+        options.getStaleReadCacheMaxBytes() > 0L
+            ? new StaleReadCache(
+                options.getStaleReadCacheMaxBytes(),
+                options.getStaleReadCacheMaxStaleness(),
+                options.getOpenTelemetry())
+            : null;
     this.dbAdminClient = new DatabaseAdminClientImpl(options.getProjectId(), gapicRpc);
     this.instanceClient =
         new InstanceAdminClientImpl(options.getProjectId(), gapicRpc, dbAdminClient);
@@ -155,6 +175,21 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
     return getOptions().getPrefetchChunks();
   }
 
+  /** Returns the maximum prefetch window for adaptive prefetching, or 0 if it is disabled. */
+  int getMaxAdaptivePrefetchChunks() {
+    return getOptions().getMaxAdaptivePrefetchChunks();
+  }
+
+  SpannerRpcMetrics getSpannerRpcMetrics() {
+    return spannerRpcMetrics;
+  }
+
+  /** Returns the cache for stale single-use reads, or null if the cache is disabled. */
+  @Nullable
+  StaleReadCache getStaleReadCache() {
+    return staleReadCache;
+  }
+
   DecodeMode getDefaultDecodeMode() {
     return getOptions().getDecodeMode();
   }
@@ -196,10 +231,7 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
         return sessionClients.get(db);
       } else {
         SessionClient client =
-            new SessionClient(
-                this,
-                db,
-                ((GrpcTransportOptions) getOptions().getTransportOptions()).getExecutorFactory());
+            new SessionClient(this, db, SpannerOptions.getSessionExecutorFactory(getOptions()));
         sessionClients.put(db, client);
         return client;
       }
@@ -296,7 +328,30 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
       String clientId,
       SessionPool pool,
       @Nullable MultiplexedSessionDatabaseClient multiplexedSessionClient) {
-    return new DatabaseClientImpl(clientId, pool, multiplexedSessionClient, tracer);
+    // A null or zero batching window disables point read batching.
+    Duration pointReadBatchingWindow = getOptions().getPointReadBatchingWindow();
+    PointReadBatcher.Settings pointReadBatcherSettings =
+        pointReadBatchingWindow == null || pointReadBatchingWindow.isZero()
+            ? null
+            : new PointReadBatcher.Settings(
+                pointReadBatchingWindow,
+                getOptions().getMaxPointReadBatchSize(),
+                /* batchCacheableReads = */ staleReadCache == null);
+    return new DatabaseClientImpl(
+        clientId, pool, multiplexedSessionClient, tracer, pointReadBatcherSettings);
+  }
+
+  /**
+   * Returns the executor that is used to execute the partitions of {@link
+   * BatchReadOnlyTransaction#executePartitions} if no specific executor has been set. The executor
+   * is shut down when this {@link Spanner} instance is closed.
+   */
+  synchronized Executor getPartitionExecutor() {
+    checkClosed();
+    if (partitionExecutor == null) {
+      partitionExecutor = ParallelPartitionResultSet.createExecutor();
+    }
+    return partitionExecutor;
   }
 
   @Override
@@ -330,6 +385,11 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
       }
       sessionClients.clear();
       asyncExecutorProvider.close();
+      synchronized (this) {
+        if (partitionExecutor != null) {
+          partitionExecutor.shutdown();
+        }
+      }
       try {
         if (timeout == Long.MAX_VALUE || !(gapicRpc instanceof GapicSpannerRpc)) {
           gapicRpc.shutdown();
@@ -34,6 +34,7 @@ import com.google.cloud.ServiceRpc;
 import com.google.cloud.TransportOptions;
 import com.google.cloud.grpc.GcpManagedChannelOptions;
 import com.google.cloud.grpc.GrpcTransportOptions;
+import com.google.cloud.grpc.GrpcTransportOptions.ExecutorFactory;
 import com.google.cloud.spanner.Options.DirectedReadOption;
 import com.google.cloud.spanner.Options.QueryOption;
 import com.google.cloud.spanner.Options.UpdateOption;
@@ -51,7 +52,6 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.spanner.v1.DirectedReadOptions;
 import com.google.spanner.v1.ExecuteSqlRequest;
 import com.google.spanner.v1.ExecuteSqlRequest.QueryOptions;
@@ -71,6 +71,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
@@ -113,6 +114,7 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
   private final GrpcInterceptorProvider interceptorProvider;
   private final SessionPoolOptions sessionPoolOptions;
   private final int prefetchChunks;
+  private final int maxAdaptivePrefetchChunks;
   private final DecodeMode decodeMode;
   private final int numChannels;
   private final String transportChannelExecutorThreadNameFormat;
@@ -148,6 +150,12 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
   private final boolean attemptDirectPath;
   private final DirectedReadOptions directedReadOptions;
   private final boolean useVirtualThreads;
+  private final boolean useVirtualThreadsForAllExecutors;
+  private final boolean parallelBeginTransaction;
+  private final long staleReadCacheMaxBytes;
+  private final Duration staleReadCacheMaxStaleness;
+  private final Duration pointReadBatchingWindow;
+  private final int maxPointReadBatchSize;
   private final OpenTelemetry openTelemetry;
 
   enum TracingFramework {
@@ -549,8 +557,16 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
    */
   @VisibleForTesting
   static CloseableExecutorProvider createDefaultAsyncExecutorProvider() {
+    return createDefaultAsyncExecutorProvider(/* useVirtualThreads = */ false);
+  }
+
+  /**
+   * Default {@link ExecutorProvider} for high-level async calls. The executor creates a new virtual
+   * thread for each task if useVirtualThreads is true and virtual threads are supported by the JVM.
+   */
+  static CloseableExecutorProvider createDefaultAsyncExecutorProvider(boolean useVirtualThreads) {
     return createAsyncExecutorProvider(
-        getDefaultAsyncExecutorProviderCoreThreadCount(), 60L, TimeUnit.SECONDS);
+        getDefaultAsyncExecutorProviderCoreThreadCount(), 60L, TimeUnit.SECONDS, useVirtualThreads);
   }
 
   @VisibleForTesting
@@ -589,10 +605,27 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
    */
   public static CloseableExecutorProvider createAsyncExecutorProvider(
       int poolSize, long keepAliveTime, TimeUnit unit) {
-    String format =
-        String.format("spanner-async-pool-%d-thread-%%d", DEFAULT_POOL_COUNT.incrementAndGet());
+    return createAsyncExecutorProvider(
+        poolSize, keepAliveTime, unit, /* useVirtualThreads = */ false);
+  }
+
+  private static CloseableExecutorProvider createAsyncExecutorProvider(
+      int poolSize, long keepAliveTime, TimeUnit unit, boolean useVirtualThreads) {
+    String baseNameFormat =
+        String.format("spanner-async-pool-%d-thread", DEFAULT_POOL_COUNT.incrementAndGet());
+    ExecutorService virtualThreadExecutor =
+        useVirtualThreads
+            ? ThreadFactoryUtil.tryCreateVirtualThreadPerTaskExecutor(baseNameFormat)
+            : null;
+    if (virtualThreadExecutor != null) {
+      return FixedCloseableExecutorProvider.create(
+          new ThreadPerTaskScheduledExecutorService(
+              virtualThreadExecutor,
+              ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+                  baseNameFormat + "-timer", true)));
+    }
     ThreadFactory threadFactory =
-        new ThreadFactoryBuilder().setDaemon(true).setNameFormat(format).build();
+        ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(baseNameFormat, false);
     ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(poolSize, threadFactory);
     executor.setKeepAliveTime(keepAliveTime, unit);
     executor.allowCoreThreadTimeOut(true);
@@ -617,6 +650,7 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
             ? builder.sessionPoolOptions
             : SessionPoolOptions.newBuilder().build();
     prefetchChunks = builder.prefetchChunks;
+    maxAdaptivePrefetchChunks = builder.maxAdaptivePrefetchChunks;
     decodeMode = builder.decodeMode;
     databaseRole = builder.databaseRole;
     sessionLabels = builder.sessionLabels;
@@ -652,6 +686,12 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     attemptDirectPath = builder.attemptDirectPath;
     directedReadOptions = builder.directedReadOptions;
     useVirtualThreads = builder.useVirtualThreads;
+    useVirtualThreadsForAllExecutors = builder.useVirtualThreadsForAllExecutors;
+    parallelBeginTransaction = builder.parallelBeginTransaction;
+    staleReadCacheMaxBytes = builder.staleReadCacheMaxBytes;
+    staleReadCacheMaxStaleness = builder.staleReadCacheMaxStaleness;
+    pointReadBatchingWindow = builder.pointReadBatchingWindow;
+    maxPointReadBatchSize = builder.maxPointReadBatchSize;
     openTelemetry = builder.openTelemetry;
   }
 
@@ -705,6 +745,7 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
   public static class Builder
       extends ServiceOptions.Builder<Spanner, SpannerOptions, SpannerOptions.Builder> {
     static final int DEFAULT_PREFETCH_CHUNKS = 4;
+    static final int DEFAULT_MAX_POINT_READ_BATCH_SIZE = 100;
     static final QueryOptions DEFAULT_QUERY_OPTIONS = QueryOptions.getDefaultInstance();
     // TODO: Set the default to DecodeMode.DIRECT before merging to keep the current default.
     //       It is currently set to LAZY_PER_COL so it is used in all tests.
@@ -735,6 +776,7 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     private String transportChannelExecutorThreadNameFormat = "Cloud-Spanner-TransportChannel-%d";
 
     private int prefetchChunks = DEFAULT_PREFETCH_CHUNKS;
+    private int maxAdaptivePrefetchChunks;
     private DecodeMode decodeMode = DEFAULT_DECODE_MODE;
     private SessionPoolOptions sessionPoolOptions;
     private String databaseRole;
@@ -761,6 +803,12 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     private boolean attemptDirectPath = true;
     private DirectedReadOptions directedReadOptions;
     private boolean useVirtualThreads = false;
+    private boolean useVirtualThreadsForAllExecutors = false;
+    private boolean parallelBeginTransaction = false;
+    private long staleReadCacheMaxBytes = 0L;
+    private Duration staleReadCacheMaxStaleness = Duration.ofMinutes(1L);
+    private Duration pointReadBatchingWindow = Duration.ZERO;
+    private int maxPointReadBatchSize = DEFAULT_MAX_POINT_READ_BATCH_SIZE;
     private OpenTelemetry openTelemetry;
 
     private static String createCustomClientLibToken(String token) {
@@ -803,6 +851,7 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
           options.transportChannelExecutorThreadNameFormat;
       this.sessionPoolOptions = options.sessionPoolOptions;
       this.prefetchChunks = options.prefetchChunks;
+      this.maxAdaptivePrefetchChunks = options.maxAdaptivePrefetchChunks;
       this.decodeMode = options.decodeMode;
       this.databaseRole = options.databaseRole;
       this.sessionLabels = options.sessionLabels;
@@ -825,6 +874,12 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
       this.attemptDirectPath = options.attemptDirectPath;
       this.directedReadOptions = options.directedReadOptions;
       this.useVirtualThreads = options.useVirtualThreads;
+      this.useVirtualThreadsForAllExecutors = options.useVirtualThreadsForAllExecutors;
+      this.parallelBeginTransaction = options.parallelBeginTransaction;
+      this.staleReadCacheMaxBytes = options.staleReadCacheMaxBytes;
+      this.staleReadCacheMaxStaleness = options.staleReadCacheMaxStaleness;
+      this.pointReadBatchingWindow = options.pointReadBatchingWindow;
+      this.maxPointReadBatchSize = options.maxPointReadBatchSize;
     }
 
     @Override
@@ -1231,6 +1286,28 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
       return this;
     }
 
+    /**
+     * Enables adaptive prefetching for reads and queries if set to a value that is larger than the
+     * prefetch chunks of a read or query. Each stream then starts with a prefetch window of {@code
+     * prefetchChunks}, and doubles the window up to {@code maxAdaptivePrefetchChunks} each time the
+     * consumer has to wait for the server to send more data. The window is halved again, but never
+     * below {@code prefetchChunks}, when the consumer is slower than the server and chunks pile up
+     * in the client. This gives fast consumers more throughput, without always buffering the
+     * maximum number of chunks for slow consumers.
+     *
+     * <p>The final window size and the total time that the consumer waited for data are recorded in
+     * the {@code spanner/prefetch_window_size} and {@code spanner/stream_stall_time} metrics if
+     * OpenTelemetry metrics are enabled.
+     *
+     * <p>The default is 0, which disables adaptive prefetching.
+     */
+    public Builder setMaxAdaptivePrefetchChunks(int maxAdaptivePrefetchChunks) {
+      Preconditions.checkArgument(
+          maxAdaptivePrefetchChunks >= 0, "maxAdaptivePrefetchChunks must be >= 0");
+      this.maxAdaptivePrefetchChunks = maxAdaptivePrefetchChunks;
+      return this;
+    }
+
     /**
      * Specifies how values that are returned from a query should be decoded and converted from
      * protobuf values into plain Java objects.
@@ -1321,6 +1398,131 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
       return this;
     }
 
+    /**
+     * Enables/disables the use of virtual threads for all executors that are created by the client.
+     * This includes the gRPC executor, the default executor for async calls, the executor that is
+     * used to create and maintain sessions, and the watchdog executor. Blocking calls on these
+     * executors will then not occupy a platform thread, which means that an application can run
+     * thousands of concurrent transactions without needing thousands of platform threads.
+     *
+     * <p>Executors that have been set explicitly, such as a custom async executor provider or a
+     * custom executor factory in the transport options, are not affected by this option. Setting
+     * this option only has any effect on Java 21 and higher. In all other cases, the option will be
+     * ignored.
+     */
+    @BetaApi
+    public Builder setUseVirtualThreadsForAllExecutors(boolean useVirtualThreadsForAllExecutors) {
+      this.useVirtualThreadsForAllExecutors = useVirtualThreadsForAllExecutors;
+      return this;
+    }
+
+    /**
+     * Instructs the client library to start each read/write transaction that is executed by a
+     * {@link TransactionRunner} with a BeginTransaction RPC that is sent when the transaction
+     * executes its first statement.
+     *
+     * <p>By default, the client library includes a BeginTransaction option with the first statement
+     * of a read/write transaction. All other statements in the same transaction must wait for this
+     * first statement to return a transaction id before they can proceed. This is efficient for
+     * transactions that execute their statements one by one, but it serializes transactions that
+     * start by executing multiple async statements at once. Enabling this option lets those
+     * statements only wait for the BeginTransaction RPC, and then execute in parallel.
+     *
+     * <p>Transactions that only execute a single statement, or that execute their statements one by
+     * one, can see a higher latency with this option, as the transaction then needs an additional
+     * round trip to Spanner. Transactions that only buffer mutations are not affected by this
+     * option, as these do not start a transaction before they are committed.
+     */
+    @BetaApi
+    public Builder setParallelBeginTransaction(boolean parallelBeginTransaction) {
+      this.parallelBeginTransaction = parallelBeginTransaction;
+      return this;
+    }
+
+    /**
+     * Enables a client-side cache for single-use point reads with a bounded staleness, and sets the
+     * (approximate) maximum number of bytes that the cache may use. The default is 0, which
+     * disables the cache.
+     *
+     * <p>The cache is used for {@link ReadContext#read}, {@link ReadContext#readUsingIndex}, {@link
+     * ReadContext#readRow} and {@link ReadContext#readRowUsingIndex} calls on a {@link
+     * DatabaseClient#singleUse(TimestampBound)} read context that read exactly one key without any
+     * read options, and that use a {@link TimestampBound#ofMaxStaleness(long,
+     * java.util.concurrent.TimeUnit)} or {@link
+     * TimestampBound#ofMinReadTimestamp(com.google.cloud.Timestamp)} bound. Such a read returns the
+     * result of an earlier read of the same key and columns without sending a request to Spanner,
+     * if the read timestamp of the earlier read satisfies the bound of the new read. The least
+     * recently used entries are evicted when the cache is full, and entries are removed when they
+     * are older than the maximum staleness that is set with {@link
+     * #setStaleReadCacheMaxStaleness(Duration)}.
+     *
+     * <p>Note that the staleness of a cached read is calculated with the clock of the client.
+     */
+    @BetaApi
+    public Builder setStaleReadCacheMaxBytes(long staleReadCacheMaxBytes) {
+      Preconditions.checkArgument(
+          staleReadCacheMaxBytes >= 0L, "staleReadCacheMaxBytes must be >= 0");
+      this.staleReadCacheMaxBytes = staleReadCacheMaxBytes;
+      return this;
+    }
+
+    /**
+     * Sets the time that a read is kept in the cache that is enabled with {@link
+     * #setStaleReadCacheMaxBytes(long)}. A cached read that is older than this cannot be used for
+     * reads with a maximum staleness that is less than or equal to this value, so it is removed
+     * from the cache. Set this to the largest maximum staleness that the application uses for
+     * cached reads. The default is 1 minute.
+     */
+    @BetaApi
+    public Builder setStaleReadCacheMaxStaleness(Duration staleReadCacheMaxStaleness) {
+      Preconditions.checkNotNull(staleReadCacheMaxStaleness);
+      Preconditions.checkArgument(
+          !staleReadCacheMaxStaleness.isNegative() && !staleReadCacheMaxStaleness.isZero(),
+          "staleReadCacheMaxStaleness must be positive");
+      this.staleReadCacheMaxStaleness = staleReadCacheMaxStaleness;
+      return this;
+    }
+
+    /**
+     * Enables automatic batching of single-row point reads, and sets the time that a point read
+     * waits for other point reads that can be included in the same batch. The default is zero,
+     * which disables batching.
+     *
+     * <p>When enabled, concurrent {@link ReadContext#readRow}, {@link ReadContext#readRowAsync},
+     * {@link ReadContext#readRowUsingIndex} and {@link ReadContext#readRowUsingIndexAsync} calls on
+     * {@link DatabaseClient#singleUse()} read contexts that read the same table or index and
+     * columns with the same {@link TimestampBound} are sent to Spanner as one read of multiple
+     * keys. The rows are then returned to each caller. This reduces the number of RPCs for
+     * applications that execute many small point reads in parallel, at the cost of a small
+     * additional latency for each read. The client executes one query per table and index on {@code
+     * INFORMATION_SCHEMA.INDEX_COLUMNS} to determine the key columns that are needed to return each
+     * row to the right caller.
+     *
+     * <p>Note that a batched read with an exact staleness is executed at the moment that the batch
+     * is sent to Spanner, which is at most the given window later than the moment that the read was
+     * requested.
+     */
+    @BetaApi
+    public Builder setPointReadBatchingWindow(Duration pointReadBatchingWindow) {
+      Preconditions.checkNotNull(pointReadBatchingWindow);
+      Preconditions.checkArgument(
+          !pointReadBatchingWindow.isNegative(), "pointReadBatchingWindow must not be negative");
+      this.pointReadBatchingWindow = pointReadBatchingWindow;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of keys in one batch of point reads. A batch is sent to Spanner as
+     * soon as it contains this number of keys, or when the window that is set with {@link
+     * #setPointReadBatchingWindow(Duration)} has passed. The default is 100.
+     */
+    @BetaApi
+    public Builder setMaxPointReadBatchSize(int maxPointReadBatchSize) {
+      Preconditions.checkArgument(maxPointReadBatchSize > 0, "maxPointReadBatchSize must be > 0");
+      this.maxPointReadBatchSize = maxPointReadBatchSize;
+      return this;
+    }
+
     @SuppressWarnings("rawtypes")
     @Override
     public SpannerOptions build() {
@@ -1563,6 +1765,96 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     return useVirtualThreads;
   }
 
+  @BetaApi
+  public boolean isUseVirtualThreadsForAllExecutors() {
+    return useVirtualThreadsForAllExecutors;
+  }
+
+  @BetaApi
+  public boolean isParallelBeginTransaction() {
+    return parallelBeginTransaction;
+  }
+
+  @BetaApi
+  public long getStaleReadCacheMaxBytes() {
+    return staleReadCacheMaxBytes;
+  }
+
+  @BetaApi
+  public Duration getStaleReadCacheMaxStaleness() {
+    return staleReadCacheMaxStaleness;
+  }
+
+  @BetaApi
+  public Duration getPointReadBatchingWindow() {
+    return pointReadBatchingWindow;
+  }
+
+  @BetaApi
+  public int getMaxPointReadBatchSize() {
+    return maxPointReadBatchSize;
+  }
+
+  /**
+   * Returns the {@link ExecutorFactory} that should be used for creating and maintaining sessions.
+   * This is the executor factory of the transport options, unless the client should use virtual
+   * threads for all executors and the transport options use the default executor factory.
+   */
+  static ExecutorFactory<ScheduledExecutorService> getSessionExecutorFactory(
+      SpannerOptions options) {
+    ExecutorFactory<ScheduledExecutorService> executorFactory =
+        ((GrpcTransportOptions) options.getTransportOptions()).getExecutorFactory();
+    if (options.isUseVirtualThreadsForAllExecutors()
+        && ThreadFactoryUtil.tryCreateVirtualThreadFactory("spanner-virtual-executor") != null
+        && executorFactory.getClass()
+            == getDefaultGrpcTransportOptions().getExecutorFactory().getClass()) {
+      return VirtualThreadExecutorFactory.INSTANCE;
+    }
+    return executorFactory;
+  }
+
+  /**
+   * {@link ExecutorFactory} that returns a shared {@link ScheduledExecutorService} that creates a
+   * new virtual thread for each task. The executor is shut down when it has been released by all
+   * users.
+   */
+  private static final class VirtualThreadExecutorFactory
+      implements ExecutorFactory<ScheduledExecutorService> {
+    private static final VirtualThreadExecutorFactory INSTANCE = new VirtualThreadExecutorFactory();
+
+    @GuardedBy("this")
+    private ScheduledExecutorService executor;
+
+    @GuardedBy("this")
+    private int numUsers;
+
+    @Override
+    public synchronized ScheduledExecutorService get() {
+      if (executor == null) {
+        ExecutorService virtualThreadExecutor =
+            ThreadFactoryUtil.tryCreateVirtualThreadPerTaskExecutor("spanner-virtual-executor");
+        Preconditions.checkState(
+            virtualThreadExecutor != null, "virtual threads are not supported on this JVM");
+        executor =
+            new ThreadPerTaskScheduledExecutorService(
+                virtualThreadExecutor,
+                ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+                    "spanner-virtual-executor-timer", true));
+      }
+      numUsers++;
+      return executor;
+    }
+
+    @Override
+    public synchronized void release(ScheduledExecutorService executor) {
+      Preconditions.checkArgument(executor == this.executor, "unknown executor");
+      if (--numUsers == 0) {
+        this.executor.shutdown();
+        this.executor = null;
+      }
+    }
+  }
+
   /** Returns the default query options to use for the specific database. */
   public QueryOptions getDefaultQueryOptions(DatabaseId databaseId) {
     // Use the specific query options for the database if any have been specified. These have
@@ -1584,6 +1876,10 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     return prefetchChunks;
   }
 
+  public int getMaxAdaptivePrefetchChunks() {
+    return maxAdaptivePrefetchChunks;
+  }
+
   public DecodeMode getDecodeMode() {
     return decodeMode;
   }
@@ -28,11 +28,19 @@ import java.util.List;
 public class SpannerRpcMetrics {
   private final LongHistogram gfeLatencies;
   private final LongCounter gfeHeaderMissingCount;
+  private final LongHistogram prefetchWindowSizes;
+  private final LongHistogram streamStallTimes;
+  private final LongCounter partitionRows;
+  private final LongHistogram partitionLatencies;
 
   public SpannerRpcMetrics(OpenTelemetry openTelemetry) {
     if (!SpannerOptions.isEnabledOpenTelemetryMetrics()) {
       gfeLatencies = null;
       gfeHeaderMissingCount = null;
+      prefetchWindowSizes = null;
+      streamStallTimes = null;
+      partitionRows = null;
+      partitionLatencies = null;
       return;
     }
 
@@ -56,6 +64,37 @@ public class SpannerRpcMetrics {
             .setDescription(MetricRegistryConstants.SPANNER_GFE_HEADER_MISSING_COUNT_DESCRIPTION)
             .setUnit(MetricRegistryConstants.COUNT)
             .build();
+    prefetchWindowSizes =
+        meter
+            .histogramBuilder(MetricRegistryConstants.SPANNER_PREFETCH_WINDOW_SIZE)
+            .ofLongs()
+            .setDescription(MetricRegistryConstants.SPANNER_PREFETCH_WINDOW_SIZE_DESCRIPTION)
+            .setUnit(MetricRegistryConstants.COUNT)
+            .setExplicitBucketBoundariesAdvice(
+                Arrays.asList(1L, 2L, 4L, 8L, 16L, 32L, 64L, 128L, 256L, 512L, 1024L))
+            .build();
+    streamStallTimes =
+        meter
+            .histogramBuilder(MetricRegistryConstants.SPANNER_STREAM_STALL_TIME)
+            .ofLongs()
+            .setDescription(MetricRegistryConstants.SPANNER_STREAM_STALL_TIME_DESCRIPTION)
+            .setUnit("ms")
+            .setExplicitBucketBoundariesAdvice(RPC_MILLIS_BUCKET_BOUNDARIES)
+            .build();
+    partitionRows =
+        meter
+            .counterBuilder(MetricRegistryConstants.SPANNER_PARTITION_ROWS)
+            .setDescription(MetricRegistryConstants.SPANNER_PARTITION_ROWS_DESCRIPTION)
+            .setUnit(MetricRegistryConstants.COUNT)
+            .build();
+    partitionLatencies =
+        meter
+            .histogramBuilder(MetricRegistryConstants.SPANNER_PARTITION_LATENCIES)
+            .ofLongs()
+            .setDescription(MetricRegistryConstants.SPANNER_PARTITION_LATENCIES_DESCRIPTION)
+            .setUnit("ms")
+            .setExplicitBucketBoundariesAdvice(RPC_MILLIS_BUCKET_BOUNDARIES)
+            .build();
   }
 
   @InternalApi
@@ -71,4 +110,32 @@ public class SpannerRpcMetrics {
       gfeHeaderMissingCount.add(value, attributes);
     }
   }
+
+  @InternalApi
+  public void recordPrefetchWindowSize(long value, Attributes attributes) {
+    if (prefetchWindowSizes != null) {
+      prefetchWindowSizes.record(value, attributes);
+    }
+  }
+
+  @InternalApi
+  public void recordStreamStallTime(long value, Attributes attributes) {
+    if (streamStallTimes != null) {
+      streamStallTimes.record(value, attributes);
+    }
+  }
+
+  @InternalApi
+  public void recordPartitionRows(long value, Attributes attributes) {
+    if (partitionRows != null) {
+      partitionRows.add(value, attributes);
+    }
+  }
+
+  @InternalApi
+  public void recordPartitionLatency(long value, Attributes attributes) {
+    if (partitionLatencies != null) {
+      partitionLatencies.record(value, attributes);
+    }
+  }
 }
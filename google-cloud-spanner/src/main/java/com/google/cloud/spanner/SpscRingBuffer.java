@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.Nullable;
+
+/**
+ * Bounded single-producer/single-consumer ring buffer that is used to hand over elements from a
+ * gRPC event thread to the thread that consumes a stream. Adding and removing an element does not
+ * allocate any objects and does not take any locks. A consumer that waits for an element to become
+ * available, and a producer that waits for space to become available, are parked and unparked by
+ * the other side.
+ *
+ * <p>The buffer is only safe to use with at most one thread calling {@link #put(Object)} and at
+ * most one thread calling {@link #take()} or {@link #poll(long, TimeUnit)} at any time.
+ */
+final class SpscRingBuffer<T> {
+  private final Object[] elements;
+  private final int mask;
+  private final int capacity;
+
+  /** The index of the next element that will be read by the consumer. */
+  private final AtomicLong head = new AtomicLong();
+
+  /** The index of the next element that will be written by the producer. */
+  private final AtomicLong tail = new AtomicLong();
+
+  private volatile Thread waitingConsumer;
+  private volatile Thread waitingProducer;
+
+  SpscRingBuffer(int capacity) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be > 0");
+    this.capacity = capacity;
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.elements = new Object[size];
+    this.mask = size - 1;
+  }
+
+  int capacity() {
+    return capacity;
+  }
+
+  int size() {
+    return (int) (tail.get() - head.get());
+  }
+
+  boolean isEmpty() {
+    return tail.get() == head.get();
+  }
+
+  /**
+   * Adds the given element to the buffer, waiting for space to become available if necessary. This
+   * method does not respond to interrupts, as it is only called by gRPC event threads.
+   */
+  void put(T element) {
+    Preconditions.checkNotNull(element);
+    long currentTail = tail.get();
+    if (currentTail - head.get() >= capacity) {
+      boolean interrupted = false;
+      waitingProducer = Thread.currentThread();
+      while (currentTail - head.get() >= capacity) {
+        LockSupport.park(this);
+        if (Thread.interrupted()) {
+          interrupted = true;
+        }
+      }
+      waitingProducer = null;
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    elements[(int) currentTail & mask] = element;
+    // This must be a volatile write to ensure that the read of waitingConsumer below is not
+    // reordered with it.
+    tail.set(currentTail + 1);
+    Thread consumer = waitingConsumer;
+    if (consumer != null) {
+      LockSupport.unpark(consumer);
+    }
+  }
+
+  /**
+   * Adds the given element to the buffer if there is space available, and otherwise returns false
+   * without waiting.
+   */
+  boolean offer(T element) {
+    Preconditions.checkNotNull(element);
+    long currentTail = tail.get();
+    if (currentTail - head.get() >= capacity) {
+      return false;
+    }
+    elements[(int) currentTail & mask] = element;
+    tail.set(currentTail + 1);
+    Thread consumer = waitingConsumer;
+    if (consumer != null) {
+      LockSupport.unpark(consumer);
+    }
+    return true;
+  }
+
+  /** Removes and returns the next element, or returns null if the buffer is empty. */
+  @Nullable
+  T poll() {
+    return pollNow();
+  }
+
+  /** Removes and returns the next element, waiting for one to become available if necessary. */
+  T take() throws InterruptedException {
+    T element = pollNow();
+    if (element != null) {
+      return element;
+    }
+    waitingConsumer = Thread.currentThread();
+    try {
+      while ((element = pollNow()) == null) {
+        LockSupport.park(this);
+        if (Thread.interrupted()) {
+          throw new InterruptedException();
+        }
+      }
+      return element;
+    } finally {
+      waitingConsumer = null;
+    }
+  }
+
+  /**
+   * Removes and returns the next element, waiting up to the given timeout for one to become
+   * available. Returns null if no element became available within the timeout.
+   */
+  T poll(long timeout, TimeUnit unit) throws InterruptedException {
+    T element = pollNow();
+    if (element != null) {
+      return element;
+    }
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    waitingConsumer = Thread.currentThread();
+    try {
+      while ((element = pollNow()) == null) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0L) {
+          return null;
+        }
+        LockSupport.parkNanos(this, remaining);
+        if (Thread.interrupted()) {
+          throw new InterruptedException();
+        }
+      }
+      return element;
+    } finally {
+      waitingConsumer = null;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T pollNow() {
+    long currentHead = head.get();
+    if (currentHead == tail.get()) {
+      return null;
+    }
+    int index = (int) currentHead & mask;
+    T element = (T) elements[index];
+    elements[index] = null;
+    head.set(currentHead + 1);
+    Thread producer = waitingProducer;
+    if (producer != null) {
+      LockSupport.unpark(producer);
+    }
+    return element;
+  }
+}
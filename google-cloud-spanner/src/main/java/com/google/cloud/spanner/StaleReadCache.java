@@ -0,0 +1,320 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.cloud.spanner.MetricRegistryConstants.COUNT;
+import static com.google.cloud.spanner.MetricRegistryConstants.SPANNER_READ_CACHE_EVICTIONS;
+import static com.google.cloud.spanner.MetricRegistryConstants.SPANNER_READ_CACHE_EVICTIONS_DESCRIPTION;
+import static com.google.cloud.spanner.MetricRegistryConstants.SPANNER_READ_CACHE_REQUESTS;
+import static com.google.cloud.spanner.MetricRegistryConstants.SPANNER_READ_CACHE_REQUESTS_DESCRIPTION;
+
+import com.google.cloud.Timestamp;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.protobuf.ByteString;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import org.threeten.bp.Duration;
+
+/**
+ * Size- and time-bounded cache for the results of single-use point reads with a bounded staleness.
+ * Entries are removed when they are older than the maximum staleness of the cache. A read that is
+ * served from this cache returns the rows of an earlier read of the same key and columns, if the
+ * read timestamp of that earlier read satisfies the {@link TimestampBound} of the new read.
+ *
+ * <p>Only reads of exactly one key without any {@link Options.ReadOption}s and with a {@link
+ * TimestampBound.Mode#MAX_STALENESS} or {@link TimestampBound.Mode#MIN_READ_TIMESTAMP} bound are
+ * cached. Reads with an exact staleness or read timestamp must see the data at one specific
+ * timestamp, which a cached row that was read at a different timestamp cannot guarantee.
+ */
+class StaleReadCache {
+  /** The (approximate) number of bytes that each entry uses in addition to the rows. */
+  private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+  private static final AttributeKey<String> RESULT = AttributeKey.stringKey("result");
+
+  /** The key of a cached read. */
+  static final class CacheKey {
+    private final DatabaseId databaseId;
+    private final String table;
+    @Nullable private final String index;
+    private final Key key;
+    private final ImmutableList<String> columns;
+
+    private CacheKey(
+        DatabaseId databaseId,
+        String table,
+        @Nullable String index,
+        Key key,
+        ImmutableList<String> columns) {
+      this.databaseId = databaseId;
+      this.table = table;
+      this.index = index;
+      this.key = key;
+      this.columns = columns;
+    }
+
+    private int estimateSize() {
+      int size = 2 * (table.length() + (index == null ? 0 : index.length()));
+      for (String column : columns) {
+        size += 2 * column.length();
+      }
+      for (Object part : key.getParts()) {
+        size += part instanceof String ? 2 * ((String) part).length() : 16;
+      }
+      return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) o;
+      return databaseId.equals(other.databaseId)
+          && table.equals(other.table)
+          && Objects.equals(index, other.index)
+          && key.equals(other.key)
+          && columns.equals(other.columns);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(databaseId, table, index, key, columns);
+    }
+  }
+
+  private static final class CachedRead {
+    private final Timestamp readTimestamp;
+    private final Type type;
+    private final ImmutableList<Struct> rows;
+    private final int weight;
+
+    private CachedRead(Timestamp readTimestamp, Type type, ImmutableList<Struct> rows, int weight) {
+      this.readTimestamp = readTimestamp;
+      this.type = type;
+      this.rows = rows;
+      this.weight = weight;
+    }
+  }
+
+  private final Cache<CacheKey, CachedRead> cache;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  StaleReadCache(long maxBytes, Duration maxStaleness, @Nullable OpenTelemetry openTelemetry) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Weigher<CacheKey, CachedRead>) (key, value) -> value.weight)
+            // A read that is older than the maximum staleness cannot satisfy any read with a
+            // maximum staleness that is less than or equal to that value.
+            .expireAfterWrite(maxStaleness.toNanos(), TimeUnit.NANOSECONDS)
+            .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+            .recordStats()
+            .build();
+    if (openTelemetry != null && SpannerOptions.isEnabledOpenTelemetryMetrics()) {
+      Meter meter = openTelemetry.getMeter(MetricRegistryConstants.INSTRUMENTATION_SCOPE);
+      Attributes hitAttributes = Attributes.of(RESULT, "hit");
+      Attributes missAttributes = Attributes.of(RESULT, "miss");
+      meter
+          .counterBuilder(SPANNER_READ_CACHE_REQUESTS)
+          .setDescription(SPANNER_READ_CACHE_REQUESTS_DESCRIPTION)
+          .setUnit(COUNT)
+          .buildWithCallback(
+              measurement -> {
+                measurement.record(hits.get(), hitAttributes);
+                measurement.record(misses.get(), missAttributes);
+              });
+      meter
+          .counterBuilder(SPANNER_READ_CACHE_EVICTIONS)
+          .setDescription(SPANNER_READ_CACHE_EVICTIONS_DESCRIPTION)
+          .setUnit(COUNT)
+          .buildWithCallback(measurement -> measurement.record(getEvictionCount()));
+    }
+  }
+
+  /**
+   * Returns the key for the given read, or null if the read cannot be served from the cache.
+   *
+   * @param databaseId the database that is read
+   * @param bound the timestamp bound of the read
+   * @param table the table that is read
+   * @param index the index that is used, or null if the read uses the primary key
+   * @param keys the keys that are read
+   * @param columns the columns that are read
+   * @param readOptions the options of the read
+   * @param partitionToken the partition token of the read, if any
+   */
+  @Nullable
+  static CacheKey createKey(
+      DatabaseId databaseId,
+      TimestampBound bound,
+      String table,
+      @Nullable String index,
+      KeySet keys,
+      Iterable<String> columns,
+      Options readOptions,
+      @Nullable ByteString partitionToken) {
+    if (bound.getMode() != TimestampBound.Mode.MAX_STALENESS
+        && bound.getMode() != TimestampBound.Mode.MIN_READ_TIMESTAMP) {
+      return null;
+    }
+    if (partitionToken != null
+        || keys.isAll()
+        || !Iterables.isEmpty(keys.getRanges())
+        || Iterables.size(keys.getKeys()) != 1
+        || !Options.fromReadOptions().equals(readOptions)) {
+      return null;
+    }
+    return new CacheKey(
+        databaseId,
+        table,
+        index,
+        Iterables.getOnlyElement(keys.getKeys()),
+        ImmutableList.copyOf(columns));
+  }
+
+  /**
+   * Returns a result set with the rows of an earlier read with the given key, or null if there is
+   * no earlier read that satisfies the given timestamp bound.
+   */
+  @Nullable
+  ResultSet get(CacheKey key, TimestampBound bound) {
+    CachedRead cachedRead = cache.getIfPresent(key);
+    if (cachedRead == null || !satisfies(cachedRead.readTimestamp, bound)) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return ResultSets.forRows(cachedRead.type, cachedRead.rows);
+  }
+
+  /**
+   * Returns a result set that adds the rows of the given result set to the cache when all rows have
+   * been consumed.
+   *
+   * @param key the key of the read
+   * @param delegate the result set that is returned by Spanner
+   * @param readTimestamp supplies the read timestamp of the read once all rows have been consumed
+   */
+  ResultSet cacheRows(CacheKey key, ResultSet delegate, Supplier<Timestamp> readTimestamp) {
+    return new ForwardingResultSet(delegate) {
+      private final List<Struct> rows = new ArrayList<>(1);
+      private boolean done;
+
+      @Override
+      public boolean next() throws SpannerException {
+        boolean hasNext = super.next();
+        if (hasNext) {
+          rows.add(getCurrentRowAsStruct());
+        } else if (!done) {
+          done = true;
+          put(key, getType(), rows, readTimestamp.get());
+        }
+        return hasNext;
+      }
+    };
+  }
+
+  private void put(CacheKey key, Type type, List<Struct> rows, @Nullable Timestamp readTimestamp) {
+    if (readTimestamp == null) {
+      return;
+    }
+    int weight = ENTRY_OVERHEAD_BYTES + key.estimateSize();
+    for (Struct row : rows) {
+      weight += estimateSize(row);
+    }
+    cache.put(key, new CachedRead(readTimestamp, type, ImmutableList.copyOf(rows), weight));
+  }
+
+  private static boolean satisfies(Timestamp readTimestamp, TimestampBound bound) {
+    switch (bound.getMode()) {
+      case MAX_STALENESS:
+        Timestamp now = Timestamp.now();
+        long nowMicros = now.getSeconds() * 1_000_000L + now.getNanos() / 1000;
+        long readMicros = readTimestamp.getSeconds() * 1_000_000L + readTimestamp.getNanos() / 1000;
+        return nowMicros - readMicros <= bound.getMaxStaleness(TimeUnit.MICROSECONDS);
+      case MIN_READ_TIMESTAMP:
+        return readTimestamp.compareTo(bound.getMinReadTimestamp()) >= 0;
+      default:
+        return false;
+    }
+  }
+
+  private static int estimateSize(Struct row) {
+    int size = 16;
+    for (int i = 0; i < row.getColumnCount(); i++) {
+      if (row.isNull(i)) {
+        size += 8;
+        continue;
+      }
+      switch (row.getColumnType(i).getCode()) {
+        case STRING:
+        case PG_NUMERIC:
+          // Java uses 2 bytes for each char.
+          size += 2 * row.getString(i).length();
+          break;
+        case BYTES:
+        case PROTO:
+          size += row.getBytes(i).length();
+          break;
+        case BOOL:
+        case INT64:
+        case FLOAT32:
+        case FLOAT64:
+        case ENUM:
+        case PG_OID:
+        case DATE:
+        case TIMESTAMP:
+          size += 16;
+          break;
+        default:
+          size += 2 * row.getValue(i).toString().length();
+      }
+    }
+    return size;
+  }
+
+  @VisibleForTesting
+  long getHitCount() {
+    return hits.get();
+  }
+
+  @VisibleForTesting
+  long getMissCount() {
+    return misses.get();
+  }
+
+  @VisibleForTesting
+  long getEvictionCount() {
+    return cache.stats().evictionCount();
+  }
+}
@@ -70,6 +70,14 @@ public final class Statement implements Serializable {
   public static final class Builder {
     final Map<String, Value> parameters;
     private final StringBuilder sqlBuffer;
+
+    /**
+     * The SQL string that was given to this builder, or null if the SQL has been modified by {@link
+     * #append(String)}. {@link #build()} returns a statement with this exact {@link String}
+     * instance, which allows caches to recognize the SQL string by reference.
+     */
+    private String sql;
+
     private String currentBinding;
     private final ValueBinder<Builder> binder = new Binder();
     private QueryOptions queryOptions;
@@ -77,10 +85,12 @@ public final class Statement implements Serializable {
     private Builder(String sql) {
       parameters = new HashMap<>();
       sqlBuffer = new StringBuilder(sql);
+      this.sql = sql;
     }
 
     private Builder(Statement statement) {
       sqlBuffer = new StringBuilder(statement.sql);
+      sql = statement.sql;
       parameters = new HashMap<>(statement.parameters);
       queryOptions =
           statement.queryOptions == null ? null : statement.queryOptions.toBuilder().build();
@@ -89,12 +99,14 @@ public final class Statement implements Serializable {
     /** Replaces the current SQL of this builder with the given string. */
     public Builder replace(String sql) {
       sqlBuffer.replace(0, sqlBuffer.length(), sql);
+      this.sql = sql;
       return this;
     }
 
     /** Appends {@code sqlFragment} to the statement. */
     public Builder append(String sqlFragment) {
       sqlBuffer.append(checkNotNull(sqlFragment));
+      sql = null;
       return this;
     }
 
@@ -119,7 +131,7 @@ public final class Statement implements Serializable {
       checkState(
           currentBinding == null, "Binding for parameter '%s' is incomplete.", currentBinding);
       return new Statement(
-          sqlBuffer.toString(),
+          sql == null ? sqlBuffer.toString() : sql,
           Collections.unmodifiableMap(new HashMap<>(parameters)),
           queryOptions);
     }
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ScheduledExecutorService} that runs all tasks on an executor that creates a new thread for
+ * each task, such as an executor for virtual threads. Delayed and periodic tasks are kept by a
+ * timer with a single thread that only hands the tasks over to the thread-per-task executor when
+ * they are due. Executions of a periodic task never overlap, as the next execution of a periodic
+ * task is only scheduled when the previous execution has finished.
+ */
+final class ThreadPerTaskScheduledExecutorService extends AbstractExecutorService
+    implements ScheduledExecutorService {
+  private final ExecutorService executor;
+  private final ScheduledThreadPoolExecutor timer;
+
+  ThreadPerTaskScheduledExecutorService(
+      ExecutorService executor, ThreadFactory timerThreadFactory) {
+    this.executor = Preconditions.checkNotNull(executor);
+    this.timer = new ScheduledThreadPoolExecutor(1, timerThreadFactory);
+    this.timer.setRemoveOnCancelPolicy(true);
+    this.timer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+  }
+
+  /** A task that is handed over to the thread-per-task executor by the timer. */
+  private class DelayedTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+    private volatile ScheduledFuture<?> timerFuture;
+
+    DelayedTask(Callable<V> callable) {
+      super(callable);
+    }
+
+    DelayedTask(Runnable runnable) {
+      super(runnable, null);
+    }
+
+    void schedule(long delayNanos) {
+      timerFuture = timer.schedule(this::handOver, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void handOver() {
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException rejectedExecutionException) {
+        cancel(false);
+      }
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      ScheduledFuture<?> future = timerFuture;
+      return future == null ? 0L : future.getDelay(unit);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      ScheduledFuture<?> future = timerFuture;
+      if (cancelled && future != null) {
+        future.cancel(false);
+      }
+      return cancelled;
+    }
+  }
+
+  /**
+   * A task that is scheduled again when it has finished. A positive period means a fixed rate, and
+   * a negative period a fixed delay.
+   */
+  private final class PeriodicTask extends DelayedTask<Void> {
+    private final long periodNanos;
+    private long nextRunNanos;
+
+    PeriodicTask(Runnable runnable, long initialDelayNanos, long periodNanos) {
+      super(runnable);
+      this.periodNanos = periodNanos;
+      this.nextRunNanos = System.nanoTime() + initialDelayNanos;
+    }
+
+    @Override
+    public void run() {
+      // runAndReset returns false if the task failed or was cancelled.
+      if (runAndReset()) {
+        nextRunNanos =
+            periodNanos > 0L ? nextRunNanos + periodNanos : System.nanoTime() - periodNanos;
+        try {
+          schedule(nextRunNanos - System.nanoTime());
+        } catch (RejectedExecutionException rejectedExecutionException) {
+          cancel(false);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    executor.execute(command);
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    return schedule(Executors.callable(Preconditions.checkNotNull(command)), delay, unit);
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    DelayedTask<V> task = new DelayedTask<>(Preconditions.checkNotNull(callable));
+    task.schedule(unit.toNanos(delay));
+    return task;
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(
+      Runnable command, long initialDelay, long period, TimeUnit unit) {
+    Preconditions.checkArgument(period > 0L, "period must be > 0");
+    return schedulePeriodic(command, unit.toNanos(initialDelay), unit.toNanos(period));
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(
+      Runnable command, long initialDelay, long delay, TimeUnit unit) {
+    Preconditions.checkArgument(delay > 0L, "delay must be > 0");
+    return schedulePeriodic(command, unit.toNanos(initialDelay), -unit.toNanos(delay));
+  }
+
+  private ScheduledFuture<?> schedulePeriodic(
+      Runnable command, long initialDelayNanos, long periodNanos) {
+    PeriodicTask task =
+        new PeriodicTask(Preconditions.checkNotNull(command), initialDelayNanos, periodNanos);
+    task.schedule(initialDelayNanos);
+    return task;
+  }
+
+  @Override
+  public void shutdown() {
+    timer.shutdown();
+    executor.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    List<Runnable> tasks = new ArrayList<>(timer.shutdownNow());
+    tasks.addAll(executor.shutdownNow());
+    return tasks;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return executor.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return timer.isTerminated() && executor.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    return timer.awaitTermination(timeout, unit)
+        && executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+  }
+}
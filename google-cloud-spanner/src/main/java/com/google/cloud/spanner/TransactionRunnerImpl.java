@@ -22,6 +22,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
 import com.google.api.core.ApiFutures;
 import com.google.api.core.SettableApiFuture;
 import com.google.cloud.Timestamp;
@@ -93,6 +94,7 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
       private ByteString transactionId;
       private Options options;
       private boolean trackTransactionStarter;
+      private boolean parallelBeginTransaction;
 
       private Builder() {}
 
@@ -116,6 +118,11 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
         return self();
       }
 
+      Builder setParallelBeginTransaction(boolean parallelBeginTransaction) {
+        this.parallelBeginTransaction = parallelBeginTransaction;
+        return self();
+      }
+
       @Override
       TransactionContextImpl build() {
         Preconditions.checkState(this.options != null, "Options must be set");
@@ -189,7 +196,8 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
     /**
      * transactionIdFuture will return the transaction id returned by the first statement in the
      * transaction if the BeginTransaction option is included with the first statement of the
-     * transaction.
+     * transaction, or the transaction id returned by the BeginTransaction RPC that was started by
+     * {@link #beginTransactionInBackground()}.
      */
     @VisibleForTesting volatile SettableApiFuture<ByteString> transactionIdFuture = null;
 
@@ -197,6 +205,14 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
     private final boolean trackTransactionStarter;
     private Exception transactionStarter;
 
+    /**
+     * Indicates whether this transaction should be started with a BeginTransaction RPC when the
+     * first statement is executed, instead of including the BeginTransaction option with the first
+     * statement. A transaction that does not execute any statements is started when it is
+     * committed, in the same way as when this option is disabled.
+     */
+    final boolean parallelBeginTransaction;
+
     volatile ByteString transactionId;
 
     private CommitResponse commitResponse;
@@ -208,6 +224,7 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
       super(builder);
       this.transactionId = builder.transactionId;
       this.trackTransactionStarter = builder.trackTransactionStarter;
+      this.parallelBeginTransaction = builder.parallelBeginTransaction;
       this.options = builder.options;
       this.finishedAsyncOperations.set(null);
       this.clock = builder.clock;
@@ -273,6 +290,43 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
       return res;
     }
 
+    /**
+     * Starts a BeginTransaction RPC without waiting for it to finish. All statements in this
+     * transaction wait for this RPC to return a transaction id, and are then executed without
+     * waiting for each other. This is a no-op if a transaction has already been started, or if the
+     * BeginTransaction option has already been included with a statement.
+     */
+    void beginTransactionInBackground() {
+      final SettableApiFuture<ByteString> transactionIdFuture;
+      synchronized (lock) {
+        if (this.transactionId != null || this.transactionIdFuture != null) {
+          return;
+        }
+        transactionIdFuture = SettableApiFuture.create();
+        this.transactionIdFuture = transactionIdFuture;
+        if (trackTransactionStarter) {
+          transactionStarter = new Exception("Requesting new transaction");
+        }
+      }
+      final SettableApiFuture<Void> res = SettableApiFuture.create();
+      createTxnAsync(res);
+      ApiFutures.addCallback(
+          res,
+          new ApiFutureCallback<Void>() {
+            @Override
+            public void onFailure(Throwable t) {
+              transactionIdFuture.setException(t);
+            }
+
+            @Override
+            public void onSuccess(Void result) {
+              // createTxnAsync sets the transactionId before it completes the future.
+              transactionIdFuture.set(transactionId);
+            }
+          },
+          MoreExecutors.directExecutor());
+    }
+
     private void createTxnAsync(final SettableApiFuture<Void> res) {
       span.addAnnotation("Creating Transaction");
       final ApiFuture<ByteString> fut = session.beginTransactionAsync(options, isRouteToLeader());
@@ -507,6 +561,11 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
       // has already been prepared by the session pool, or if this transaction has been marked
       // withInlineBegin and an earlier statement has already started a transaction.
       if (transactionId == null) {
+        if (parallelBeginTransaction) {
+          // Start the transaction with a separate RPC that all statements wait for, so statements
+          // that are executed at the same time do not have to wait for each other.
+          beginTransactionInBackground();
+        }
         try {
           ApiFuture<ByteString> tx = null;
           synchronized (lock) {
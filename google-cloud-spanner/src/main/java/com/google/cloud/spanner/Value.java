@@ -16,6 +16,7 @@
 
 package com.google.cloud.spanner;
 
+import com.google.api.core.BetaApi;
 import com.google.cloud.ByteArray;
 import com.google.cloud.Date;
 import com.google.cloud.Timestamp;
@@ -550,6 +551,41 @@ public abstract class Value implements Serializable {
     return float64ArrayFactory.create(v);
   }
 
+  /**
+   * Returns an {@code ARRAY<INT64>} value that is backed by the given array. The array is not
+   * copied, and may not be modified after calling this method.
+   *
+   * @param nulls the positions of the {@code null} elements in the array, or {@code null} if the
+   *     array does not contain any {@code null} elements
+   */
+  static Value wrapInt64Array(long[] v, @Nullable BitSet nulls) {
+    return int64ArrayFactory.wrap(v, nulls);
+  }
+
+  /**
+   * Returns an {@code ARRAY<PG_OID>} value that is backed by the given array. See {@link
+   * #wrapInt64Array(long[], BitSet)}.
+   */
+  static Value wrapPgOidArray(long[] v, @Nullable BitSet nulls) {
+    return pgOidArrayFactory.wrap(v, nulls);
+  }
+
+  /**
+   * Returns an {@code ARRAY<FLOAT32>} value that is backed by the given array. See {@link
+   * #wrapInt64Array(long[], BitSet)}.
+   */
+  static Value wrapFloat32Array(float[] v, @Nullable BitSet nulls) {
+    return float32ArrayFactory.wrap(v, nulls);
+  }
+
+  /**
+   * Returns an {@code ARRAY<FLOAT64>} value that is backed by the given array. See {@link
+   * #wrapInt64Array(long[], BitSet)}.
+   */
+  static Value wrapFloat64Array(double[] v, @Nullable BitSet nulls) {
+    return float64ArrayFactory.wrap(v, nulls);
+  }
+
   /**
    * Returns an {@code ARRAY<NUMERIC>} value.
    *
@@ -938,6 +974,16 @@ public abstract class Value implements Serializable {
    */
   public abstract List<Long> getInt64Array();
 
+  /**
+   * Returns the value of an {@code ARRAY<INT64>}-typed instance as a primitive array. This does not
+   * box the elements of the array, and returns a copy that may be modified by the caller.
+   *
+   * @throws IllegalStateException if {@code isNull()} or the value is not of the expected type
+   * @throws NullPointerException if any element of the array is {@code null}
+   */
+  @BetaApi
+  public abstract long[] getInt64PrimitiveArray();
+
   /**
    * Returns the value of an {@code ARRAY<FLOAT32>}-typed instance. While the returned list itself
    * will never be {@code null}, elements of that list may be null.
@@ -946,6 +992,16 @@ public abstract class Value implements Serializable {
    */
   public abstract List<Float> getFloat32Array();
 
+  /**
+   * Returns the value of an {@code ARRAY<FLOAT32>}-typed instance as a primitive array. This does
+   * not box the elements of the array, and returns a copy that may be modified by the caller.
+   *
+   * @throws IllegalStateException if {@code isNull()} or the value is not of the expected type
+   * @throws NullPointerException if any element of the array is {@code null}
+   */
+  @BetaApi
+  public abstract float[] getFloat32PrimitiveArray();
+
   /**
    * Returns the value of an {@code ARRAY<FLOAT64>}-typed instance. While the returned list itself
    * will never be {@code null}, elements of that list may be null.
@@ -954,6 +1010,16 @@ public abstract class Value implements Serializable {
    */
   public abstract List<Double> getFloat64Array();
 
+  /**
+   * Returns the value of an {@code ARRAY<FLOAT64>}-typed instance as a primitive array. This does
+   * not box the elements of the array, and returns a copy that may be modified by the caller.
+   *
+   * @throws IllegalStateException if {@code isNull()} or the value is not of the expected type
+   * @throws NullPointerException if any element of the array is {@code null}
+   */
+  @BetaApi
+  public abstract double[] getFloat64PrimitiveArray();
+
   /**
    * Returns the value of an {@code ARRAY<NUMERIC>}-typed instance. While the returned list itself
    * will never be {@code null}, elements of that list may be null.
@@ -1139,6 +1205,14 @@ public abstract class Value implements Serializable {
       return newValue(false, nulls, arr);
     }
 
+    /**
+     * Creates a value that is backed by the given array. The array is not copied, and may not be
+     * modified after calling this method.
+     */
+    Value wrap(A v, @Nullable BitSet nulls) {
+      return newValue(false, nulls == null || nulls.isEmpty() ? null : nulls, v);
+    }
+
     abstract A newArray(int size);
 
     abstract void set(A arr, int i, T value);
@@ -1333,16 +1407,31 @@ public abstract class Value implements Serializable {
       throw defaultGetter(Type.array(Type.int64()));
     }
 
+    @Override
+    public long[] getInt64PrimitiveArray() {
+      throw defaultGetter(Type.array(Type.int64()));
+    }
+
     @Override
     public List<Float> getFloat32Array() {
       throw defaultGetter(Type.array(Type.float32()));
     }
 
+    @Override
+    public float[] getFloat32PrimitiveArray() {
+      throw defaultGetter(Type.array(Type.float32()));
+    }
+
     @Override
     public List<Double> getFloat64Array() {
       throw defaultGetter(Type.array(Type.float64()));
     }
 
+    @Override
+    public double[] getFloat64PrimitiveArray() {
+      throw defaultGetter(Type.array(Type.float64()));
+    }
+
     @Override
     public List<BigDecimal> getNumericArray() {
       throw defaultGetter(Type.array(Type.numeric()));
@@ -2209,6 +2298,13 @@ public abstract class Value implements Serializable {
       return r;
     }
 
+    void checkNoNullElements() {
+      checkNotNull();
+      if (nulls != null && !nulls.isEmpty()) {
+        throw new NullPointerException("Array contains null element(s).");
+      }
+    }
+
     abstract int size();
 
     abstract T getValue(int i);
@@ -2315,6 +2411,12 @@ public abstract class Value implements Serializable {
       return getArray();
     }
 
+    @Override
+    public long[] getInt64PrimitiveArray() {
+      checkNoNullElements();
+      return values.clone();
+    }
+
     @Override
     public <T extends ProtocolMessageEnum> List<T> getProtoEnumArray(
         Function<Integer, ProtocolMessageEnum> method) {
@@ -2375,6 +2477,12 @@ public abstract class Value implements Serializable {
       return getArray();
     }
 
+    @Override
+    public float[] getFloat32PrimitiveArray() {
+      checkNoNullElements();
+      return values.clone();
+    }
+
     @Override
     boolean valueEquals(Value v) {
       Float32ArrayImpl that = (Float32ArrayImpl) v;
@@ -2415,6 +2523,12 @@ public abstract class Value implements Serializable {
       return getArray();
     }
 
+    @Override
+    public double[] getFloat64PrimitiveArray() {
+      checkNoNullElements();
+      return values.clone();
+    }
+
     @Override
     boolean valueEquals(Value v) {
       Float64ArrayImpl that = (Float64ArrayImpl) v;
@@ -2572,6 +2686,12 @@ public abstract class Value implements Serializable {
       return getArray();
     }
 
+    @Override
+    public long[] getInt64PrimitiveArray() {
+      checkNoNullElements();
+      return values.clone();
+    }
+
     @Override
     boolean valueEquals(Value v) {
       PgOidArrayImpl that = (PgOidArrayImpl) v;
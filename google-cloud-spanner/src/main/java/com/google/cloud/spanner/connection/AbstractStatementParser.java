@@ -258,7 +258,7 @@ public abstract class AbstractStatementParser {
       this.optionsFromHints = optionsFromHints;
     }
 
-    private ParsedStatement copy(Statement statement, QueryOptions defaultQueryOptions) {
+    ParsedStatement copy(Statement statement, QueryOptions defaultQueryOptions) {
       return new ParsedStatement(
           this.type,
           this.clientSideStatement,
@@ -269,7 +269,7 @@ public abstract class AbstractStatementParser {
           this.optionsFromHints);
     }
 
-    private ParsedStatement forCache() {
+    ParsedStatement forCache() {
       return new ParsedStatement(
           this.type,
           this.clientSideStatement,
@@ -421,6 +421,7 @@ public abstract class AbstractStatementParser {
   static final Set<String> selectStatements = ImmutableSet.of("SELECT", "WITH", "SHOW");
   static final Set<String> dmlStatements = ImmutableSet.of("INSERT", "UPDATE", "DELETE");
   private final Set<ClientSideStatementImpl> statements;
+  private final ClientSideStatementIndex statementIndex;
 
   /** The default maximum size of the statement cache in Mb. */
   public static final int DEFAULT_MAX_STATEMENT_CACHE_SIZE_MB = 5;
@@ -451,6 +452,7 @@ public abstract class AbstractStatementParser {
 
   AbstractStatementParser(Set<ClientSideStatementImpl> statements) {
     this.statements = Collections.unmodifiableSet(statements);
+    this.statementIndex = new ClientSideStatementIndex(statements);
     int maxCacheSize = getMaxStatementCacheSize();
     if (maxCacheSize > 0) {
       CacheBuilder<String, ParsedStatement> cacheBuilder =
@@ -494,17 +496,34 @@ public abstract class AbstractStatementParser {
   }
 
   ParsedStatement parse(Statement statement, QueryOptions defaultQueryOptions) {
-    if (statementCache == null) {
-      return internalParse(statement, defaultQueryOptions);
+    ParsedStatement parsedStatement = getCachedStatement(statement.getSql());
+    if (parsedStatement == null) {
+      return parseAndCache(statement, defaultQueryOptions);
     }
+    return parsedStatement.copy(statement, defaultQueryOptions);
+  }
 
-    ParsedStatement parsedStatement = statementCache.getIfPresent(statement.getSql());
-    if (parsedStatement == null) {
-      parsedStatement = internalParse(statement, defaultQueryOptions);
+  /**
+   * Returns the parsed statement for the given SQL string from the cache that is shared by all
+   * connections, or null if the statement is not in the cache. The returned statement does not
+   * contain any parameters or query options, and must be copied with {@link
+   * ParsedStatement#copy(Statement, QueryOptions)} before it is used.
+   */
+  @Nullable
+  ParsedStatement getCachedStatement(String sql) {
+    return statementCache == null ? null : statementCache.getIfPresent(sql);
+  }
+
+  /**
+   * Parses the given statement without checking whether it is already in the cache, and adds the
+   * result to the cache that is shared by all connections.
+   */
+  ParsedStatement parseAndCache(Statement statement, QueryOptions defaultQueryOptions) {
+    ParsedStatement parsedStatement = internalParse(statement, defaultQueryOptions);
+    if (statementCache != null) {
       statementCache.put(statement.getSql(), parsedStatement.forCache());
-      return parsedStatement;
     }
-    return parsedStatement.copy(statement, defaultQueryOptions);
+    return parsedStatement;
   }
 
   private ParsedStatement internalParse(Statement statement, QueryOptions defaultQueryOptions) {
@@ -543,12 +562,7 @@ public abstract class AbstractStatementParser {
    */
   @VisibleForTesting
   ClientSideStatementImpl parseClientSideStatement(String sql) {
-    for (ClientSideStatementImpl css : statements) {
-      if (css.matches(sql)) {
-        return css;
-      }
-    }
-    return null;
+    return statementIndex.find(sql);
   }
 
   /**
@@ -606,21 +620,32 @@ public abstract class AbstractStatementParser {
 
   private boolean statementStartsWith(String sql, Iterable<String> checkStatements) {
     Preconditions.checkNotNull(sql);
-    String[] tokens = sql.split("\\s+", 2);
-    int checkIndex = 0;
-    if (supportsExplain() && tokens[0].equalsIgnoreCase("EXPLAIN")) {
-      checkIndex = 1;
-    }
-    if (tokens.length > checkIndex) {
-      for (String check : checkStatements) {
-        if (tokens[checkIndex].equalsIgnoreCase(check)) {
-          return true;
-        }
+    // The token to check is the part of the statement before the first whitespace, or the entire
+    // remainder of the statement after EXPLAIN.
+    int start = 0;
+    int end = 0;
+    while (end < sql.length() && !ClientSideStatementIndex.isWhitespace(sql.charAt(end))) {
+      end++;
+    }
+    if (supportsExplain() && isToken(sql, start, end, "EXPLAIN")) {
+      if (end == sql.length()) {
+        return false;
+      }
+      start = ClientSideStatementIndex.skipWhitespace(sql, end);
+      end = sql.length();
+    }
+    for (String check : checkStatements) {
+      if (isToken(sql, start, end, check)) {
+        return true;
       }
     }
     return false;
   }
 
+  private static boolean isToken(String sql, int start, int end, String token) {
+    return end - start == token.length() && sql.regionMatches(true, start, token, 0, end - start);
+  }
+
   static final char SINGLE_QUOTE = '\'';
   static final char DOUBLE_QUOTE = '"';
   static final char BACKTICK_QUOTE = '`';
@@ -23,6 +23,7 @@ import com.google.cloud.spanner.ProtobufResultSet;
 import com.google.cloud.spanner.ResultSet;
 import com.google.cloud.spanner.SpannerException;
 import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.ThreadFactoryUtil;
 import com.google.cloud.spanner.Type;
 import com.google.cloud.spanner.Type.Code;
 import com.google.cloud.spanner.Type.StructField;
@@ -31,6 +32,10 @@ import com.google.cloud.spanner.connection.ReadWriteTransaction.RetriableStateme
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.Value;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -38,8 +43,14 @@ import java.nio.charset.CharsetEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
 
 /**
  * {@link ResultSet} implementation that keeps a running checksum that can be used to determine
@@ -56,28 +67,83 @@ import java.util.concurrent.atomic.AtomicLong;
  * values of the rows that have been consumed. A retry will succeed if the query returns the same
  * results for the already consumed rows.
  *
- * <p>The checksum of a {@link ResultSet} is the SHA256 checksum of the current row together with
- * the previous checksum value of the result set. The calculation of the checksum is executed in a
- * separate {@link Thread} to allow the checksum calculation to lag behind the actual consumption of
- * rows, and catch up again if the client slows down the consumption of rows, for example while
- * waiting for more data from Cloud Spanner. If the checksum calculation queue contains more than
- * {@link ChecksumExecutor#MAX_IN_CHECKSUM_QUEUE} items that have not yet been calculated, calls to
- * {@link ResultSet#next()} will slow down in order to allow the calculation to catch up.
+ * <p>The checksum of a {@link ResultSet} is the checksum of the current row together with the
+ * previous checksum value of the result set. The hash function that is used is determined by the
+ * {@link ChecksumAlgorithm} of the result set. The calculation of the checksum can optionally be
+ * executed in a separate {@link Thread} to allow the checksum calculation to lag behind the actual
+ * consumption of rows, and catch up again if the client slows down the consumption of rows, for
+ * example while waiting for more data from Cloud Spanner. If the checksum calculation queue
+ * contains more than {@link #MAX_PENDING_CHECKSUM_ROWS} rows that have not yet been calculated,
+ * calls to {@link ResultSet#next()} will block in order to allow the calculation to catch up.
  */
 @VisibleForTesting
 class ChecksumResultSet extends ReplaceableForwardingResultSet implements RetriableStatement {
+  /** The hash function that is used to calculate the checksum of a result set. */
+  enum ChecksumAlgorithm {
+    /**
+     * MD5 has a very low collision probability, but is relatively expensive to calculate. This is
+     * the default.
+     */
+    MD5,
+    /**
+     * 128-bit MurmurHash3 is a non-cryptographic hash function that is a lot cheaper to calculate
+     * than MD5, and that still has a low enough collision probability for detecting whether a query
+     * returned different results during a retry.
+     */
+    MURMUR3_128,
+  }
+
+  /**
+   * The maximum number of rows that may be waiting for their checksum to be calculated when the
+   * checksum is calculated in the background.
+   */
+  @VisibleForTesting static final int MAX_PENDING_CHECKSUM_ROWS = 1024;
+
+  /**
+   * Creates an executor for calculating checksums in the background. The executor is owned by the
+   * connection that creates it, and must be shut down when that connection is closed. Each result
+   * set uses a sequential executor on top of this executor, so the rows of one result set are
+   * always hashed in order.
+   */
+  static ExecutorService createChecksumExecutor() {
+    return Executors.newCachedThreadPool(
+        ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory("connection-checksum", true));
+  }
+
   private final ReadWriteTransaction transaction;
   private final AtomicLong numberOfNextCalls = new AtomicLong();
   private final ParsedStatement statement;
   private final AnalyzeMode analyzeMode;
   private final QueryOption[] options;
-  private final ChecksumCalculator checksumCalculator = new ChecksumCalculator();
+  private final ChecksumAlgorithm checksumAlgorithm;
+  private final ChecksumCalculator checksumCalculator;
+  @Nullable private final Executor checksumExecutor;
+  @Nullable private final Semaphore pendingChecksumRows;
+  private volatile Throwable checksumError;
+
+  ChecksumResultSet(
+      ReadWriteTransaction transaction,
+      ProtobufResultSet delegate,
+      ParsedStatement statement,
+      AnalyzeMode analyzeMode,
+      QueryOption... options) {
+    this(
+        transaction,
+        delegate,
+        statement,
+        analyzeMode,
+        ChecksumAlgorithm.MD5,
+        /* checksumExecutor = */ null,
+        options);
+  }
 
   ChecksumResultSet(
       ReadWriteTransaction transaction,
       ProtobufResultSet delegate,
       ParsedStatement statement,
       AnalyzeMode analyzeMode,
+      ChecksumAlgorithm checksumAlgorithm,
+      @Nullable Executor checksumExecutor,
       QueryOption... options) {
     super(delegate);
     Preconditions.checkNotNull(transaction);
@@ -89,6 +155,15 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
     this.statement = statement;
     this.analyzeMode = analyzeMode;
     this.options = options;
+    this.checksumAlgorithm = Preconditions.checkNotNull(checksumAlgorithm);
+    this.checksumCalculator = ChecksumCalculator.create(checksumAlgorithm);
+    if (checksumExecutor != null) {
+      this.checksumExecutor = MoreExecutors.newSequentialExecutor(checksumExecutor);
+      this.pendingChecksumRows = new Semaphore(MAX_PENDING_CHECKSUM_ROWS);
+    } else {
+      this.checksumExecutor = null;
+      this.pendingChecksumRows = null;
+    }
   }
 
   @Override
@@ -109,7 +184,11 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
       boolean res = ChecksumResultSet.super.next();
       // Only update the checksum if there was another row to be consumed.
       if (res) {
-        checksumCalculator.calculateNextChecksum(ChecksumResultSet.this);
+        if (checksumExecutor == null) {
+          checksumCalculator.calculateNextChecksum(ChecksumResultSet.this);
+        } else {
+          calculateNextChecksumAsync();
+        }
       }
       numberOfNextCalls.incrementAndGet();
       return res;
@@ -118,6 +197,44 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
 
   private final NextCallable nextCallable = new NextCallable();
 
+  /**
+   * Hands the protobuf values of the current row to the background checksum calculation. The values
+   * are immutable, so only the references need to be copied on the consumer thread.
+   */
+  private void calculateNextChecksumAsync() {
+    Type rowType = getType();
+    Value[] row = ChecksumCalculator.getProtobufValues(this);
+    pendingChecksumRows.acquireUninterruptibly();
+    try {
+      checksumExecutor.execute(
+          () -> {
+            try {
+              if (checksumError == null) {
+                checksumCalculator.calculateNextChecksum(rowType, row);
+              }
+            } catch (Throwable t) {
+              checksumError = t;
+            } finally {
+              pendingChecksumRows.release();
+            }
+          });
+    } catch (Throwable t) {
+      pendingChecksumRows.release();
+      throw SpannerExceptionFactory.asSpannerException(t);
+    }
+  }
+
+  /** Waits until the checksum has been calculated for all rows that have been consumed. */
+  private void awaitPendingChecksums() {
+    if (pendingChecksumRows != null) {
+      pendingChecksumRows.acquireUninterruptibly(MAX_PENDING_CHECKSUM_ROWS);
+      pendingChecksumRows.release(MAX_PENDING_CHECKSUM_ROWS);
+      if (checksumError != null) {
+        throw SpannerExceptionFactory.asSpannerException(checksumError);
+      }
+    }
+  }
+
   @Override
   public boolean next() {
     // Call next() with retry.
@@ -126,8 +243,9 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
 
   @VisibleForTesting
   byte[] getChecksum() {
-    // Getting the checksum from the checksumCalculator will create a clone of the current digest
-    // and return the checksum from the clone, so it is safe to return this value.
+    awaitPendingChecksums();
+    // Getting the checksum from the checksumCalculator will return a copy of the current checksum,
+    // so it is safe to return this value.
     return checksumCalculator.getChecksum();
   }
 
@@ -140,7 +258,7 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
   @Override
   public void retry(AbortedException aborted) throws AbortedException {
     // Execute the same query and consume the result set to the same point as the original.
-    ChecksumCalculator newChecksumCalculator = new ChecksumCalculator();
+    ChecksumCalculator newChecksumCalculator = ChecksumCalculator.create(checksumAlgorithm);
     ProtobufResultSet resultSet = null;
     long counter = 0L;
     try {
@@ -177,7 +295,7 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
     }
     // Check that we have the same number of rows and the same checksum.
     byte[] newChecksum = newChecksumCalculator.getChecksum();
-    byte[] currentChecksum = checksumCalculator.getChecksum();
+    byte[] currentChecksum = getChecksum();
     if (counter == numberOfNextCalls.get() && Arrays.equals(newChecksum, currentChecksum)) {
       // Checksum is ok, we only need to replace the delegate result set if it's still open.
       if (isClosed()) {
@@ -200,7 +318,7 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
    * consumer of the result set does not read all values, or is only reading the underlying protobuf
    * values.
    */
-  private static final class ChecksumCalculator {
+  private abstract static class ChecksumCalculator {
     // Use a buffer of max 1Mb to hash string data. This means that strings of up to 1Mb in size
     // will be hashed in one go, while strings larger than 1Mb will be chunked into pieces of at
     // most 1Mb and then fed into the digest. The digest internally creates a copy of the string
@@ -209,56 +327,72 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
     private static final int MAX_BUFFER_SIZE = 1 << 20;
 
     private boolean firstRow = true;
-    private final MessageDigest digest;
     private ByteBuffer buffer;
     private ByteBuffer float64Buffer;
 
-    ChecksumCalculator() {
-      try {
-        // This is safe, as all Java implementations are required to have MD5 implemented.
-        // See https://docs.oracle.com/javase/8/docs/api/java/security/MessageDigest.html
-        // MD5 requires less CPU power than SHA-256, and still offers a low enough collision
-        // probability for the use case at hand here.
-        digest = MessageDigest.getInstance("MD5");
-      } catch (Throwable t) {
-        throw SpannerExceptionFactory.asSpannerException(t);
+    static ChecksumCalculator create(ChecksumAlgorithm algorithm) {
+      switch (algorithm) {
+        case MD5:
+          return new Md5ChecksumCalculator();
+        case MURMUR3_128:
+          return new Murmur3ChecksumCalculator();
+        default:
+          throw SpannerExceptionFactory.newSpannerException(
+              ErrorCode.INVALID_ARGUMENT, "Unsupported checksum algorithm: " + algorithm);
       }
     }
 
-    private byte[] getChecksum() {
-      try {
-        // This is safe, as the MD5 MessageDigest is known to be cloneable.
-        MessageDigest clone = (MessageDigest) digest.clone();
-        return clone.digest();
-      } catch (CloneNotSupportedException e) {
-        throw SpannerExceptionFactory.asSpannerException(e);
-      }
-    }
+    /** Adds a single byte to the checksum of the current row. */
+    abstract void update(byte value);
 
-    private void calculateNextChecksum(ProtobufResultSet resultSet) {
-      if (firstRow) {
-        for (StructField field : resultSet.getType().getStructFields()) {
-          digest.update(field.getType().toString().getBytes(StandardCharsets.UTF_8));
-        }
-      }
-      for (int col = 0; col < resultSet.getColumnCount(); col++) {
-        Type type = resultSet.getColumnType(col);
+    /** Adds the remaining bytes in the given buffer to the checksum of the current row. */
+    abstract void update(ByteBuffer value);
+
+    /** Called when all values of a row have been added to the checksum. */
+    void finishRow() {}
+
+    /** Returns a copy of the checksum of all the rows that have been finished sofar. */
+    abstract byte[] getChecksum();
+
+    /** Returns the protobuf values of the current row of the given result set. */
+    static Value[] getProtobufValues(ProtobufResultSet resultSet) {
+      Value[] row = new Value[resultSet.getColumnCount()];
+      for (int col = 0; col < row.length; col++) {
         if (resultSet.canGetProtobufValue(col)) {
-          Value value = resultSet.getProtobufValue(col);
-          digest.update((byte) value.getKindCase().getNumber());
-          pushValue(type, value);
+          row[col] = resultSet.getProtobufValue(col);
         } else {
           // This will normally not happen, unless the user explicitly sets the decoding mode to
-          // DIRECT for a query in a read/write transaction. The default decoding mode in the
-          // Connection API is set to LAZY_PER_COL.
+          // DIRECT or DIRECT_UNBOXED for a query in a read/write transaction. The default decoding
+          // mode in the Connection API is set to LAZY_PER_COL.
           throw SpannerExceptionFactory.newSpannerException(
               ErrorCode.FAILED_PRECONDITION,
               "Failed to get the underlying protobuf value for the column "
                   + resultSet.getMetadata().getRowType().getFields(col).getName()
                   + ". "
-                  + "Executing queries with DecodeMode#DIRECT is not supported in read/write transactions.");
+                  + "Executing queries with DecodeMode#DIRECT or DecodeMode#DIRECT_UNBOXED is not"
+                  + " supported in read/write transactions.");
+        }
+      }
+      return row;
+    }
+
+    void calculateNextChecksum(ProtobufResultSet resultSet) {
+      calculateNextChecksum(resultSet.getType(), getProtobufValues(resultSet));
+    }
+
+    void calculateNextChecksum(Type rowType, Value[] row) {
+      List<StructField> fields = rowType.getStructFields();
+      if (firstRow) {
+        for (StructField field : fields) {
+          update(ByteBuffer.wrap(field.getType().toString().getBytes(StandardCharsets.UTF_8)));
         }
       }
+      for (int col = 0; col < row.length; col++) {
+        Value value = row[col];
+        update((byte) value.getKindCase().getNumber());
+        pushValue(fields.get(col).getType(), value);
+      }
+      finishRow();
       firstRow = false;
     }
 
@@ -271,7 +405,7 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
           // nothing needed, writing the KindCase is enough.
           break;
         case BOOL_VALUE:
-          digest.update(value.getBoolValue() ? (byte) 1 : 0);
+          update(value.getBoolValue() ? (byte) 1 : 0);
           break;
         case STRING_VALUE:
           putString(value.getStringValue());
@@ -286,12 +420,12 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
           }
           float64Buffer.putDouble(value.getNumberValue());
           float64Buffer.flip();
-          digest.update(float64Buffer);
+          update(float64Buffer);
           break;
         case LIST_VALUE:
           if (type.getCode() == Code.ARRAY) {
             for (Value item : value.getListValue().getValuesList()) {
-              digest.update((byte) item.getKindCase().getNumber());
+              update((byte) item.getKindCase().getNumber());
               pushValue(type.getArrayElementType(), item);
             }
           } else {
@@ -307,7 +441,7 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
               String name = type.getStructFields().get(col).getName();
               putString(name);
               Value item = value.getStructValue().getFieldsMap().get(name);
-              digest.update((byte) item.getKindCase().getNumber());
+              update((byte) item.getKindCase().getNumber());
               pushValue(type.getStructFields().get(col).getType(), item);
             }
           } else {
@@ -348,10 +482,81 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
         // Flip the buffer so we can read from the start.
         buffer.flip();
         // Put the bytes from the buffer into the digest.
-        digest.update(buffer);
+        update(buffer);
         // Flip the buffer again, so we can repeat and write to the start of the buffer again.
         buffer.flip();
       }
     }
   }
+
+  /** {@link ChecksumCalculator} that keeps a running MD5 digest of all rows. */
+  private static final class Md5ChecksumCalculator extends ChecksumCalculator {
+    private final MessageDigest digest;
+
+    Md5ChecksumCalculator() {
+      try {
+        // This is safe, as all Java implementations are required to have MD5 implemented.
+        // See https://docs.oracle.com/javase/8/docs/api/java/security/MessageDigest.html
+        // MD5 requires less CPU power than SHA-256, and still offers a low enough collision
+        // probability for the use case at hand here.
+        digest = MessageDigest.getInstance("MD5");
+      } catch (Throwable t) {
+        throw SpannerExceptionFactory.asSpannerException(t);
+      }
+    }
+
+    @Override
+    void update(byte value) {
+      digest.update(value);
+    }
+
+    @Override
+    void update(ByteBuffer value) {
+      digest.update(value);
+    }
+
+    @Override
+    byte[] getChecksum() {
+      try {
+        // This is safe, as the MD5 MessageDigest is known to be cloneable.
+        MessageDigest clone = (MessageDigest) digest.clone();
+        return clone.digest();
+      } catch (CloneNotSupportedException e) {
+        throw SpannerExceptionFactory.asSpannerException(e);
+      }
+    }
+  }
+
+  /**
+   * {@link ChecksumCalculator} that uses 128-bit MurmurHash3. A {@link Hasher} cannot be cloned, so
+   * the checksum of each row is calculated as the hash of the checksum of the previous row and the
+   * values of the row itself.
+   */
+  private static final class Murmur3ChecksumCalculator extends ChecksumCalculator {
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private Hasher hasher = HASH_FUNCTION.newHasher();
+    private byte[] checksum;
+
+    @Override
+    void update(byte value) {
+      hasher.putByte(value);
+    }
+
+    @Override
+    void update(ByteBuffer value) {
+      hasher.putBytes(value);
+    }
+
+    @Override
+    void finishRow() {
+      checksum = hasher.hash().asBytes();
+      hasher = HASH_FUNCTION.newHasher().putBytes(checksum);
+    }
+
+    @Override
+    byte[] getChecksum() {
+      return checksum == null ? null : checksum.clone();
+    }
+  }
 }
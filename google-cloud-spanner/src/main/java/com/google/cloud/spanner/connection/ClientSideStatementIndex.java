@@ -0,0 +1,186 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.connection;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+
+/**
+ * Keyword trie for {@link ClientSideStatementImpl}s. Each client-side statement is indexed by the
+ * fixed keywords that its regular expression starts with, for example {@code SHOW VARIABLE
+ * AUTOCOMMIT}. Finding the client-side statement for a SQL string then only requires reading the
+ * first keywords of the string, and only the regular expressions of the statements that start with
+ * those keywords are evaluated. Statements that start with any other keyword are never matched
+ * against any regular expression.
+ *
+ * <p>Statements whose regular expression does not start with a keyword that can be extracted, are
+ * evaluated for all SQL strings.
+ */
+class ClientSideStatementIndex {
+  /** Matches the case-insensitive start of a regular expression that is anchored at the start. */
+  private static final Pattern REGEX_START = Pattern.compile("\\(\\?[a-z]*i[a-z]*\\)\\\\A\\\\s\\*");
+  /** Matches a keyword, or a non-capturing group of alternative keywords. */
+  private static final Pattern REGEX_KEYWORDS =
+      Pattern.compile("([a-z_]+)|\\(\\?:([a-z_]+(?:\\|[a-z_]+)*)\\)");
+  /** Matches a keyword separator in a regular expression. */
+  private static final Pattern REGEX_SEPARATOR = Pattern.compile("\\\\s\\+");
+  /**
+   * Matches anything that may follow the last keyword in a regular expression, and that ensures
+   * that the keyword cannot be followed by another identifier character in a matching statement.
+   */
+  private static final Pattern REGEX_KEYWORD_END = Pattern.compile("(?:\\(\\?:|\\()?\\\\s");
+
+  private static final class Node {
+    private final Map<String, Node> children = new HashMap<>();
+    private final List<ClientSideStatementImpl> statements = new ArrayList<>();
+  }
+
+  private final Node root = new Node();
+  private final int maxDepth;
+
+  ClientSideStatementIndex(Collection<ClientSideStatementImpl> statements) {
+    int depth = 0;
+    for (ClientSideStatementImpl statement : statements) {
+      List<List<String>> keywords = extractKeywords(statement.getPattern().pattern());
+      add(root, keywords, 0, statement);
+      depth = Math.max(depth, keywords.size());
+    }
+    this.maxDepth = depth;
+  }
+
+  private static void add(
+      Node node, List<List<String>> keywords, int level, ClientSideStatementImpl statement) {
+    if (level == keywords.size()) {
+      node.statements.add(statement);
+      return;
+    }
+    for (String keyword : keywords.get(level)) {
+      add(node.children.computeIfAbsent(keyword, k -> new Node()), keywords, level + 1, statement);
+    }
+  }
+
+  /**
+   * Returns the keywords that each statement that matches the given regular expression must start
+   * with. Each element of the returned list contains the alternatives for the keyword at that
+   * position. The list is empty if no keywords can be extracted from the regular expression.
+   */
+  @VisibleForTesting
+  static List<List<String>> extractKeywords(String regex) {
+    Matcher start = REGEX_START.matcher(regex);
+    if (!start.lookingAt()) {
+      return Collections.emptyList();
+    }
+    List<List<String>> result = new ArrayList<>();
+    Matcher keywords = REGEX_KEYWORDS.matcher(regex);
+    Matcher separator = REGEX_SEPARATOR.matcher(regex);
+    Matcher keywordEnd = REGEX_KEYWORD_END.matcher(regex);
+    int position = start.end();
+    while (lookingAt(keywords, regex, position)) {
+      List<String> alternatives = new ArrayList<>();
+      if (keywords.group(1) != null) {
+        alternatives.add(keywords.group(1));
+      } else {
+        Collections.addAll(alternatives, keywords.group(2).split("\\|"));
+      }
+      if (!lookingAt(keywordEnd, regex, keywords.end())) {
+        break;
+      }
+      result.add(alternatives);
+      if (!lookingAt(separator, regex, keywords.end())) {
+        break;
+      }
+      position = separator.end();
+    }
+    return result;
+  }
+
+  private static boolean lookingAt(Matcher matcher, String input, int position) {
+    return matcher.region(position, input.length()).lookingAt();
+  }
+
+  /**
+   * Returns the client-side statement that matches the given SQL string, or null if it does not
+   * match any client-side statement.
+   */
+  @Nullable
+  ClientSideStatementImpl find(String sql) {
+    List<Node> path = new ArrayList<>(maxDepth + 1);
+    Node node = root;
+    path.add(node);
+    int position = skipWhitespace(sql, 0);
+    while (path.size() <= maxDepth && position < sql.length()) {
+      int end = position;
+      while (end < sql.length() && isKeywordChar(sql.charAt(end))) {
+        end++;
+      }
+      if (end == position) {
+        break;
+      }
+      node = node.children.get(toLowerCase(sql, position, end));
+      if (node == null) {
+        break;
+      }
+      path.add(node);
+      if (end == sql.length() || !isWhitespace(sql.charAt(end))) {
+        break;
+      }
+      position = skipWhitespace(sql, end);
+    }
+    // Try the most specific statements first.
+    for (int i = path.size() - 1; i >= 0; i--) {
+      for (ClientSideStatementImpl statement : path.get(i).statements) {
+        if (statement.matches(sql)) {
+          return statement;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static String toLowerCase(String sql, int start, int end) {
+    char[] chars = new char[end - start];
+    for (int i = start; i < end; i++) {
+      char c = sql.charAt(i);
+      chars[i - start] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+    return new String(chars);
+  }
+
+  private static boolean isKeywordChar(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+  }
+
+  /** Returns true if the character matches {@code \s} in a regular expression. */
+  static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  static int skipWhitespace(String sql, int position) {
+    while (position < sql.length() && isWhitespace(sql.charAt(position))) {
+      position++;
+    }
+    return position;
+  }
+}
@@ -35,6 +35,7 @@ import com.google.cloud.spanner.Options.QueryOption;
 import com.google.cloud.spanner.Options.ReadQueryUpdateTransactionOption;
 import com.google.cloud.spanner.Options.RpcPriority;
 import com.google.cloud.spanner.Options.UpdateOption;
+import com.google.cloud.spanner.ParallelPartitionResultSet;
 import com.google.cloud.spanner.PartitionOptions;
 import com.google.cloud.spanner.ReadContext.QueryAnalyzeMode;
 import com.google.cloud.spanner.ResultSet;
@@ -57,6 +58,8 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.spanner.v1.DirectedReadOptions;
 import com.google.spanner.v1.ExecuteSqlRequest.QueryOptions;
 import com.google.spanner.v1.ResultSetStats;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.OpenTelemetry;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -67,12 +70,15 @@ import java.util.List;
 import java.util.Set;
 import java.util.Stack;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 import org.threeten.bp.Instant;
 
 /** Implementation for {@link Connection}, the generic Spanner connection API (not JDBC). */
@@ -98,6 +104,7 @@ class ConnectionImpl implements Connection {
   private volatile LeakedConnectionException leakedException;;
   private final SpannerPool spannerPool;
   private AbstractStatementParser statementParser;
+  private StatementCache statementCache;
   /**
    * The {@link ConnectionStatementExecutor} is responsible for translating parsed {@link
    * ClientSideStatement}s into actual method calls on this {@link ConnectionImpl}. I.e. the {@link
@@ -126,6 +133,22 @@ class ConnectionImpl implements Connection {
    */
   private final StatementExecutor statementExecutor;
 
+  /**
+   * The executor for the partitions of partitioned queries that are executed by this connection.
+   * Created when it is first used, and shut down when the connection is closed. All access must
+   * synchronize on this connection.
+   */
+  @GuardedBy("this")
+  private ExecutorService partitionExecutor;
+
+  /**
+   * The executor for calculating the checksums of query results in read/write transactions in the
+   * background. Created when it is first used, and shut down when the connection is closed. All
+   * access must synchronize on this connection.
+   */
+  @GuardedBy("this")
+  private ExecutorService checksumExecutor;
+
   /**
    * The {@link ConnectionOptions} that were used to create this {@link ConnectionImpl}. This is
    * retained as it is used for getting a {@link Spanner} object and removing this connection from
@@ -326,6 +349,26 @@ class ConnectionImpl implements Connection {
     return this.statementParser;
   }
 
+  private StatementCache getStatementCache() {
+    if (this.statementCache == null) {
+      OpenTelemetry openTelemetry =
+          options.getOpenTelemetry() == null
+              ? GlobalOpenTelemetry.get()
+              : options.getOpenTelemetry();
+      this.statementCache =
+          new StatementCache(getStatementParser(), options.getStatementCacheSize(), openTelemetry);
+    }
+    return this.statementCache;
+  }
+
+  private ParsedStatement parse(Statement statement) {
+    return getStatementCache().parse(statement, null);
+  }
+
+  private ParsedStatement parse(Statement statement, QueryOptions defaultQueryOptions) {
+    return getStatementCache().parse(statement, defaultQueryOptions);
+  }
+
   @Override
   public void close() {
     try {
@@ -334,6 +377,14 @@ class ConnectionImpl implements Connection {
       // ignore and continue to close the connection.
     } finally {
       statementExecutor.shutdownNow();
+      synchronized (this) {
+        if (partitionExecutor != null) {
+          partitionExecutor.shutdownNow();
+        }
+        if (checksumExecutor != null) {
+          checksumExecutor.shutdownNow();
+        }
+      }
     }
   }
 
@@ -365,6 +416,12 @@ class ConnectionImpl implements Connection {
           // ignore and continue to close the connection.
         }
         statementExecutor.shutdown();
+        if (partitionExecutor != null) {
+          partitionExecutor.shutdown();
+        }
+        if (checksumExecutor != null) {
+          checksumExecutor.shutdown();
+        }
         leakedException = null;
         spannerPool.removeConnection(options, this);
         return ApiFutures.transform(
@@ -992,7 +1049,7 @@ class ConnectionImpl implements Connection {
   private StatementResult internalExecute(
       Statement statement, @Nullable Set<ResultType> allowedResultTypes) {
     ConnectionPreconditions.checkState(!isClosed(), CLOSED_ERROR_MSG);
-    ParsedStatement parsedStatement = getStatementParser().parse(statement, this.queryOptions);
+    ParsedStatement parsedStatement = parse(statement, this.queryOptions);
     checkResultTypeAllowed(parsedStatement, allowedResultTypes);
     switch (parsedStatement.getType()) {
       case CLIENT_SIDE:
@@ -1071,7 +1128,7 @@ class ConnectionImpl implements Connection {
   public AsyncStatementResult executeAsync(Statement statement) {
     Preconditions.checkNotNull(statement);
     ConnectionPreconditions.checkState(!isClosed(), CLOSED_ERROR_MSG);
-    ParsedStatement parsedStatement = getStatementParser().parse(statement, this.queryOptions);
+    ParsedStatement parsedStatement = parse(statement, this.queryOptions);
     switch (parsedStatement.getType()) {
       case CLIENT_SIDE:
         return AsyncStatementResultImpl.of(
@@ -1148,7 +1205,7 @@ class ConnectionImpl implements Connection {
   @Override
   public ResultSet partitionQuery(
       Statement query, PartitionOptions partitionOptions, QueryOption... options) {
-    ParsedStatement parsedStatement = getStatementParser().parse(query, this.queryOptions);
+    ParsedStatement parsedStatement = parse(query, this.queryOptions);
     if (parsedStatement.getType() != StatementType.QUERY) {
       throw SpannerExceptionFactory.newSpannerException(
           ErrorCode.INVALID_ARGUMENT,
@@ -1221,7 +1278,24 @@ class ConnectionImpl implements Connection {
     }
     // parallelism=0 means 'dynamically choose based on the number of available processors and the
     // number of partitions'.
-    return new MergedResultSet(this, partitionIds, maxPartitionedParallelism);
+    return new MergedResultSet(
+        this, partitionIds, maxPartitionedParallelism, getPartitionExecutor());
+  }
+
+  private synchronized Executor getPartitionExecutor() {
+    ConnectionPreconditions.checkState(!isClosed(), CLOSED_ERROR_MSG);
+    if (partitionExecutor == null) {
+      partitionExecutor = ParallelPartitionResultSet.createExecutor();
+    }
+    return partitionExecutor;
+  }
+
+  private synchronized Executor getChecksumExecutor() {
+    ConnectionPreconditions.checkState(!isClosed(), CLOSED_ERROR_MSG);
+    if (checksumExecutor == null) {
+      checksumExecutor = ChecksumResultSet.createChecksumExecutor();
+    }
+    return checksumExecutor;
   }
 
   /**
@@ -1233,7 +1307,7 @@ class ConnectionImpl implements Connection {
     Preconditions.checkNotNull(query);
     Preconditions.checkNotNull(analyzeMode);
     ConnectionPreconditions.checkState(!isClosed(), CLOSED_ERROR_MSG);
-    ParsedStatement parsedStatement = getStatementParser().parse(query, this.queryOptions);
+    ParsedStatement parsedStatement = parse(query, this.queryOptions);
     if (parsedStatement.isQuery() || parsedStatement.isUpdate()) {
       switch (parsedStatement.getType()) {
         case CLIENT_SIDE:
@@ -1272,7 +1346,7 @@ class ConnectionImpl implements Connection {
       CallType callType, Statement query, AnalyzeMode analyzeMode, QueryOption... options) {
     Preconditions.checkNotNull(query);
     ConnectionPreconditions.checkState(!isClosed(), CLOSED_ERROR_MSG);
-    ParsedStatement parsedStatement = getStatementParser().parse(query, this.queryOptions);
+    ParsedStatement parsedStatement = parse(query, this.queryOptions);
     if (parsedStatement.isQuery() || parsedStatement.isUpdate()) {
       switch (parsedStatement.getType()) {
         case CLIENT_SIDE:
@@ -1326,7 +1400,7 @@ class ConnectionImpl implements Connection {
   public long executeUpdate(Statement update) {
     Preconditions.checkNotNull(update);
     ConnectionPreconditions.checkState(!isClosed(), CLOSED_ERROR_MSG);
-    ParsedStatement parsedStatement = getStatementParser().parse(update);
+    ParsedStatement parsedStatement = parse(update);
     if (parsedStatement.isUpdate()) {
       switch (parsedStatement.getType()) {
         case UPDATE:
@@ -1354,7 +1428,7 @@ class ConnectionImpl implements Connection {
   public ApiFuture<Long> executeUpdateAsync(Statement update) {
     Preconditions.checkNotNull(update);
     ConnectionPreconditions.checkState(!isClosed(), CLOSED_ERROR_MSG);
-    ParsedStatement parsedStatement = getStatementParser().parse(update);
+    ParsedStatement parsedStatement = parse(update);
     if (parsedStatement.isUpdate()) {
       switch (parsedStatement.getType()) {
         case UPDATE:
@@ -1382,7 +1456,7 @@ class ConnectionImpl implements Connection {
   public ResultSetStats analyzeUpdate(Statement update, QueryAnalyzeMode analyzeMode) {
     Preconditions.checkNotNull(update);
     ConnectionPreconditions.checkState(!isClosed(), CLOSED_ERROR_MSG);
-    ParsedStatement parsedStatement = getStatementParser().parse(update);
+    ParsedStatement parsedStatement = parse(update);
     if (parsedStatement.isUpdate()) {
       switch (parsedStatement.getType()) {
         case UPDATE:
@@ -1406,7 +1480,7 @@ class ConnectionImpl implements Connection {
       Statement statement, QueryAnalyzeMode analyzeMode, UpdateOption... options) {
     Preconditions.checkNotNull(statement);
     ConnectionPreconditions.checkState(!isClosed(), CLOSED_ERROR_MSG);
-    ParsedStatement parsedStatement = getStatementParser().parse(statement);
+    ParsedStatement parsedStatement = parse(statement);
     switch (parsedStatement.getType()) {
       case UPDATE:
         return get(
@@ -1439,7 +1513,7 @@ class ConnectionImpl implements Connection {
     // Check that there are only DML statements in the input.
     List<ParsedStatement> parsedStatements = new LinkedList<>();
     for (Statement update : updates) {
-      ParsedStatement parsedStatement = getStatementParser().parse(update);
+      ParsedStatement parsedStatement = parse(update);
       switch (parsedStatement.getType()) {
         case UPDATE:
           parsedStatements.add(parsedStatement);
@@ -1692,6 +1766,9 @@ class ConnectionImpl implements Connection {
               .setDatabaseClient(dbClient)
               .setDelayTransactionStartUntilFirstWrite(delayTransactionStartUntilFirstWrite)
               .setRetryAbortsInternally(retryAbortsInternally)
+              .setChecksumAlgorithm(options.getChecksumAlgorithm())
+              .setChecksumExecutor(
+                  options.isAsyncChecksumCalculation() ? getChecksumExecutor() : null)
               .setSavepointSupport(savepointSupport)
               .setReturnCommitStats(returnCommitStats)
               .setMaxCommitDelay(maxCommitDelay)
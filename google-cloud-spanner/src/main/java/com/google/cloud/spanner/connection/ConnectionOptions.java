@@ -34,6 +34,7 @@ import com.google.cloud.spanner.Spanner;
 import com.google.cloud.spanner.SpannerException;
 import com.google.cloud.spanner.SpannerExceptionFactory;
 import com.google.cloud.spanner.SpannerOptions;
+import com.google.cloud.spanner.connection.ChecksumResultSet.ChecksumAlgorithm;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
@@ -193,6 +194,9 @@ public class ConnectionOptions {
   private static final boolean DEFAULT_AUTO_PARTITION_MODE = false;
   private static final int DEFAULT_MAX_PARTITIONS = 0;
   private static final int DEFAULT_MAX_PARTITIONED_PARALLELISM = 1;
+  private static final int DEFAULT_STATEMENT_CACHE_SIZE = 1024;
+  private static final ChecksumAlgorithm DEFAULT_CHECKSUM_ALGORITHM = ChecksumAlgorithm.MD5;
+  private static final boolean DEFAULT_ASYNC_CHECKSUM_CALCULATION = false;
 
   private static final String PLAIN_TEXT_PROTOCOL = "http:";
   private static final String HOST_PROTOCOL = "https:";
@@ -270,6 +274,9 @@ public class ConnectionOptions {
   public static final String MAX_PARTITIONS_PROPERTY_NAME = "maxPartitions";
   public static final String MAX_PARTITIONED_PARALLELISM_PROPERTY_NAME =
       "maxPartitionedParallelism";
+  public static final String STATEMENT_CACHE_SIZE_PROPERTY_NAME = "statementCacheSize";
+  public static final String CHECKSUM_ALGORITHM_PROPERTY_NAME = "checksumAlgorithm";
+  public static final String ASYNC_CHECKSUM_CALCULATION_PROPERTY_NAME = "asyncChecksumCalculation";
 
   private static final String GUARDED_CONNECTION_PROPERTY_ERROR_MESSAGE =
       "%s can only be used if the system property %s has been set to true. "
@@ -427,7 +434,29 @@ public class ConnectionOptions {
                       "The maximum number of partitions that will be executed in parallel "
                           + "for partitioned queries on this connection. Set this value to 0 to "
                           + "dynamically use the number of processors available in the runtime.",
-                      DEFAULT_MAX_PARTITIONED_PARALLELISM))));
+                      DEFAULT_MAX_PARTITIONED_PARALLELISM),
+                  ConnectionProperty.createIntProperty(
+                      STATEMENT_CACHE_SIZE_PROPERTY_NAME,
+                      "The number of parsed statements that are cached by this connection, in "
+                          + "addition to the statement cache that is shared by all connections. "
+                          + "Set this value to 0 to only use the shared statement cache.",
+                      DEFAULT_STATEMENT_CACHE_SIZE),
+                  new ConnectionProperty(
+                      CHECKSUM_ALGORITHM_PROPERTY_NAME,
+                      "The hash function that is used to calculate the checksum of query results "
+                          + "in read/write transactions. The checksum is used to verify that a "
+                          + "query returns the same results when an aborted transaction is "
+                          + "retried. MURMUR3_128 is a lot cheaper to calculate than MD5.",
+                      DEFAULT_CHECKSUM_ALGORITHM.name(),
+                      Arrays.stream(ChecksumAlgorithm.values())
+                          .map(Enum::name)
+                          .toArray(String[]::new)),
+                  ConnectionProperty.createBooleanProperty(
+                      ASYNC_CHECKSUM_CALCULATION_PROPERTY_NAME,
+                      "Calculate the checksum of query results in read/write transactions in a "
+                          + "background thread instead of in the thread that iterates over the "
+                          + "results.",
+                      DEFAULT_ASYNC_CHECKSUM_CALCULATION))));
 
   private static final Set<ConnectionProperty> INTERNAL_PROPERTIES =
       Collections.unmodifiableSet(
@@ -705,6 +734,9 @@ public class ConnectionOptions {
   private final boolean autoPartitionMode;
   private final int maxPartitions;
   private final int maxPartitionedParallelism;
+  private final int statementCacheSize;
+  private final ChecksumAlgorithm checksumAlgorithm;
+  private final boolean asyncChecksumCalculation;
 
   private final boolean autocommit;
   private final boolean readOnly;
@@ -765,6 +797,9 @@ public class ConnectionOptions {
     this.autoPartitionMode = parseAutoPartitionMode(this.uri);
     this.maxPartitions = parseMaxPartitions(this.uri);
     this.maxPartitionedParallelism = parseMaxPartitionedParallelism(this.uri);
+    this.statementCacheSize = parseStatementCacheSize(this.uri);
+    this.checksumAlgorithm = parseChecksumAlgorithm(this.uri);
+    this.asyncChecksumCalculation = parseAsyncChecksumCalculation(this.uri);
 
     this.instanceId = matcher.group(Builder.INSTANCE_GROUP);
     this.databaseName = matcher.group(Builder.DATABASE_GROUP);
@@ -1189,6 +1224,45 @@ public class ConnectionOptions {
     }
   }
 
+  @VisibleForTesting
+  static int parseStatementCacheSize(String uri) {
+    String stringValue = parseUriProperty(uri, STATEMENT_CACHE_SIZE_PROPERTY_NAME);
+    if (stringValue == null) {
+      return DEFAULT_STATEMENT_CACHE_SIZE;
+    }
+    try {
+      int value = Integer.parseInt(stringValue);
+      if (value < 0) {
+        throw SpannerExceptionFactory.newSpannerException(
+            ErrorCode.INVALID_ARGUMENT, "statementCacheSize must be >=0");
+      }
+      return value;
+    } catch (NumberFormatException numberFormatException) {
+      throw SpannerExceptionFactory.newSpannerException(
+          ErrorCode.INVALID_ARGUMENT, "Invalid value for statementCacheSize: " + stringValue);
+    }
+  }
+
+  @VisibleForTesting
+  static ChecksumAlgorithm parseChecksumAlgorithm(String uri) {
+    String value = parseUriProperty(uri, CHECKSUM_ALGORITHM_PROPERTY_NAME);
+    if (value == null) {
+      return DEFAULT_CHECKSUM_ALGORITHM;
+    }
+    try {
+      return ChecksumAlgorithm.valueOf(value.toUpperCase());
+    } catch (IllegalArgumentException illegalArgumentException) {
+      throw SpannerExceptionFactory.newSpannerException(
+          ErrorCode.INVALID_ARGUMENT, "Invalid value for checksumAlgorithm: " + value);
+    }
+  }
+
+  @VisibleForTesting
+  static boolean parseAsyncChecksumCalculation(String uri) {
+    String value = parseUriProperty(uri, ASYNC_CHECKSUM_CALCULATION_PROPERTY_NAME);
+    return value != null ? Boolean.parseBoolean(value) : DEFAULT_ASYNC_CHECKSUM_CALCULATION;
+  }
+
   @VisibleForTesting
   static RpcPriority parseRPCPriority(String uri) {
     String value = parseUriProperty(uri, RPC_PRIORITY_NAME);
@@ -1494,6 +1568,21 @@ public class ConnectionOptions {
     return this.maxPartitionedParallelism;
   }
 
+  /** The number of parsed statements that are cached per connection. */
+  int getStatementCacheSize() {
+    return this.statementCacheSize;
+  }
+
+  /** The hash function that is used for the checksum of results in read/write transactions. */
+  ChecksumAlgorithm getChecksumAlgorithm() {
+    return this.checksumAlgorithm;
+  }
+
+  /** Whether checksums of results in read/write transactions are calculated in the background. */
+  boolean isAsyncChecksumCalculation() {
+    return this.asyncChecksumCalculation;
+  }
+
   /** Interceptors that should be executed after each statement */
   List<StatementExecutionInterceptor> getStatementExecutionInterceptors() {
     return statementExecutionInterceptors;
@@ -19,6 +19,7 @@ package com.google.cloud.spanner.connection;
 import com.google.cloud.spanner.BatchTransactionId;
 import com.google.cloud.spanner.ErrorCode;
 import com.google.cloud.spanner.Partition;
+import com.google.cloud.spanner.PartitionEncoding;
 import com.google.cloud.spanner.SpannerExceptionFactory;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -48,13 +49,29 @@ public final class PartitionId implements Serializable {
 
   /**
    * Deserializes a string representation of a {@link PartitionId}. The string must have been
-   * created with the {@link #encodeToString(BatchTransactionId, Partition)} method.
+   * created with the {@link #encodeToString(BatchTransactionId, Partition)} method. Both the
+   * compact encoding and the Java serialization based encoding of older versions are supported.
    */
   public static PartitionId decodeFromString(String id) {
+    byte[] bytes;
+    try {
+      bytes = Base64.getUrlDecoder().decode(id);
+    } catch (IllegalArgumentException illegalArgumentException) {
+      throw SpannerExceptionFactory.newSpannerException(
+          ErrorCode.INVALID_ARGUMENT,
+          illegalArgumentException.getMessage(),
+          illegalArgumentException);
+    }
+    if (PartitionEncoding.isSupportedVersion(bytes)) {
+      return PartitionEncoding.decode(bytes, PartitionId::new);
+    }
+    return decodeFromSerializedBytes(bytes);
+  }
+
+  private static PartitionId decodeFromSerializedBytes(byte[] bytes) {
     AtomicBoolean classNameVerified = new AtomicBoolean(false);
     try (ObjectInputStream objectInputStream =
-        new ObjectInputStream(
-            new GZIPInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(id)))) {
+        new ObjectInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes))) {
           @Override
           protected Class<?> resolveClass(ObjectStreamClass desc)
               throws IOException, ClassNotFoundException {
@@ -81,9 +98,19 @@ public final class PartitionId implements Serializable {
   /**
    * @return A string-encoded version of this {@link PartitionId}. This encoded version can be sent
    *     to any other {@link Connection} to be executed there, including connections on different
-   *     hosts than the current host.
+   *     hosts than the current host. Query partitions are encoded in a compact protobuf-based
+   *     format. Partitions that cannot be represented in that format use Java serialization.
    */
   public static String encodeToString(BatchTransactionId transactionId, Partition partition) {
+    byte[] bytes = PartitionEncoding.encode(transactionId, partition);
+    if (bytes != null) {
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+    return encodeToSerializedString(transactionId, partition);
+  }
+
+  private static String encodeToSerializedString(
+      BatchTransactionId transactionId, Partition partition) {
     PartitionId id = new PartitionId(transactionId, partition);
     ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
     try (ObjectOutputStream objectOutputStream =
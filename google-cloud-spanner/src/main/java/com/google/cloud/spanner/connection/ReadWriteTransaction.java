@@ -49,6 +49,7 @@ import com.google.cloud.spanner.TransactionContext;
 import com.google.cloud.spanner.TransactionManager;
 import com.google.cloud.spanner.connection.AbstractStatementParser.ParsedStatement;
 import com.google.cloud.spanner.connection.AbstractStatementParser.StatementType;
+import com.google.cloud.spanner.connection.ChecksumResultSet.ChecksumAlgorithm;
 import com.google.cloud.spanner.connection.TransactionRetryListener.RetryResult;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
@@ -63,11 +64,13 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * Transaction that is used when a {@link Connection} is normal read/write mode (i.e. not autocommit
@@ -121,6 +124,8 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
   private final TransactionOption[] transactionOptions;
   private TransactionManager txManager;
   private final boolean retryAbortsInternally;
+  private final ChecksumAlgorithm checksumAlgorithm;
+  @Nullable private final Executor checksumExecutor;
   private final boolean delayTransactionStartUntilFirstWrite;
   private final SavepointSupport savepointSupport;
   private int transactionRetryAttempts;
@@ -153,6 +158,8 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
     private boolean useAutoSavepointsForEmulator;
     private DatabaseClient dbClient;
     private Boolean retryAbortsInternally;
+    private ChecksumAlgorithm checksumAlgorithm;
+    private Executor checksumExecutor;
     private boolean delayTransactionStartUntilFirstWrite;
     private boolean returnCommitStats;
     private Duration maxCommitDelay;
@@ -182,6 +189,21 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
       return this;
     }
 
+    /** Sets the checksum algorithm to use for query results. Null means the default (MD5). */
+    Builder setChecksumAlgorithm(@Nullable ChecksumAlgorithm checksumAlgorithm) {
+      this.checksumAlgorithm = checksumAlgorithm;
+      return this;
+    }
+
+    /**
+     * Sets the executor to use to calculate the checksums of query results in the background. Null
+     * means that checksums are calculated on the thread that consumes the results.
+     */
+    Builder setChecksumExecutor(@Nullable Executor checksumExecutor) {
+      this.checksumExecutor = checksumExecutor;
+      return this;
+    }
+
     Builder setReturnCommitStats(boolean returnCommitStats) {
       this.returnCommitStats = returnCommitStats;
       return this;
@@ -234,6 +256,9 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
     this.dbClient = builder.dbClient;
     this.delayTransactionStartUntilFirstWrite = builder.delayTransactionStartUntilFirstWrite;
     this.retryAbortsInternally = builder.retryAbortsInternally;
+    this.checksumAlgorithm =
+        builder.checksumAlgorithm == null ? ChecksumAlgorithm.MD5 : builder.checksumAlgorithm;
+    this.checksumExecutor = builder.checksumExecutor;
     this.savepointSupport = builder.savepointSupport;
     this.transactionRetryListeners = builder.transactionRetryListeners;
     this.transactionOptions = extractOptions(builder);
@@ -1203,6 +1228,7 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
       ParsedStatement statement,
       AnalyzeMode analyzeMode,
       QueryOption... options) {
-    return new ChecksumResultSet(this, delegate, statement, analyzeMode, options);
+    return new ChecksumResultSet(
+        this, delegate, statement, analyzeMode, checksumAlgorithm, checksumExecutor, options);
   }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.connection;
+
+import com.google.cloud.spanner.SpannerOptions;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.connection.AbstractStatementParser.ParsedStatement;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.spanner.v1.ExecuteSqlRequest.QueryOptions;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import javax.annotation.Nullable;
+
+/**
+ * Per-connection cache of parsed statements that sits in front of the statement cache of {@link
+ * AbstractStatementParser}, which is shared by all connections.
+ *
+ * <p>Applications and ORMs normally use the same {@link String} instance each time they execute a
+ * given statement. This cache is a direct-mapped table that is indexed by the identity hash code of
+ * the SQL string, and that only considers an entry a hit if it contains the exact same {@link
+ * String} instance. A lookup therefore never needs to hash or compare the contents of the SQL
+ * string. Statements that are not found in this cache are looked up in the shared cache, and parsed
+ * if they are not found there either.
+ *
+ * <p>Entries are immutable, which makes it safe to read and write the table from multiple threads
+ * without any locking. A concurrent update can at worst cause a cache miss.
+ */
+class StatementCache {
+  static final String INSTRUMENTATION_SCOPE = "cloud.google.com/java";
+  static final String STATEMENT_CACHE_HIT_COUNT = "spanner/connection/statement_cache_hit_count";
+  static final String STATEMENT_CACHE_HIT_COUNT_DESCRIPTION =
+      "The number of statements that were found in a statement cache";
+  static final String STATEMENT_CACHE_MISS_COUNT = "spanner/connection/statement_cache_miss_count";
+  static final String STATEMENT_CACHE_MISS_COUNT_DESCRIPTION =
+      "The number of statements that were not found in any statement cache and had to be parsed";
+  static final AttributeKey<String> TIER = AttributeKey.stringKey("tier");
+  private static final Attributes CONNECTION_TIER = Attributes.of(TIER, "connection");
+  private static final Attributes SHARED_TIER = Attributes.of(TIER, "shared");
+
+  private static final class Entry {
+    private final String sql;
+    private final ParsedStatement parsedStatement;
+
+    private Entry(String sql, ParsedStatement parsedStatement) {
+      this.sql = sql;
+      this.parsedStatement = parsedStatement;
+    }
+  }
+
+  private final AbstractStatementParser parser;
+  private final Entry[] entries;
+  private final int mask;
+  @Nullable private final LongCounter hitCount;
+  @Nullable private final LongCounter missCount;
+
+  /**
+   * Creates a cache for the given parser.
+   *
+   * @param parser the parser to use for statements that are not in this cache
+   * @param size the (minimum) number of entries in this cache. The actual size is rounded up to the
+   *     next power of two. A size of zero disables this cache, and only the shared cache of the
+   *     parser is used.
+   * @param openTelemetry the {@link OpenTelemetry} instance to use for recording cache hits and
+   *     misses, or null if no metrics should be recorded
+   */
+  StatementCache(AbstractStatementParser parser, int size, @Nullable OpenTelemetry openTelemetry) {
+    Preconditions.checkArgument(size >= 0, "size must be >= 0");
+    this.parser = Preconditions.checkNotNull(parser);
+    int tableSize = Integer.highestOneBit(size);
+    if (tableSize < size) {
+      tableSize <<= 1;
+    }
+    this.entries = new Entry[tableSize];
+    this.mask = tableSize - 1;
+    if (openTelemetry != null && SpannerOptions.isEnabledOpenTelemetryMetrics()) {
+      Meter meter = openTelemetry.getMeter(INSTRUMENTATION_SCOPE);
+      this.hitCount =
+          meter
+              .counterBuilder(STATEMENT_CACHE_HIT_COUNT)
+              .setDescription(STATEMENT_CACHE_HIT_COUNT_DESCRIPTION)
+              .setUnit("1")
+              .build();
+      this.missCount =
+          meter
+              .counterBuilder(STATEMENT_CACHE_MISS_COUNT)
+              .setDescription(STATEMENT_CACHE_MISS_COUNT_DESCRIPTION)
+              .setUnit("1")
+              .build();
+    } else {
+      this.hitCount = null;
+      this.missCount = null;
+    }
+  }
+
+  @VisibleForTesting
+  int getSize() {
+    return entries.length;
+  }
+
+  /** Parses the given statement, using the cached result if the statement has been seen before. */
+  @SuppressWarnings("ReferenceEquality")
+  ParsedStatement parse(Statement statement, @Nullable QueryOptions defaultQueryOptions) {
+    String sql = statement.getSql();
+    int index = entries.length == 0 ? -1 : System.identityHashCode(sql) & mask;
+    if (index >= 0) {
+      Entry entry = entries[index];
+      // Deliberately use reference equality, as the whole point of this cache is to skip comparing
+      // the contents of the SQL string.
+      if (entry != null && entry.sql == sql) {
+        recordHit(CONNECTION_TIER);
+        return entry.parsedStatement.copy(statement, defaultQueryOptions);
+      }
+    }
+    ParsedStatement parsedStatement = parser.getCachedStatement(sql);
+    ParsedStatement result;
+    if (parsedStatement == null) {
+      if (missCount != null) {
+        missCount.add(1L);
+      }
+      result = parser.parseAndCache(statement, defaultQueryOptions);
+      parsedStatement = result.forCache();
+    } else {
+      recordHit(SHARED_TIER);
+      result = parsedStatement.copy(statement, defaultQueryOptions);
+    }
+    if (index >= 0) {
+      entries[index] = new Entry(sql, parsedStatement);
+    }
+    return result;
+  }
+
+  private void recordHit(Attributes tier) {
+    if (hitCount != null) {
+      hitCount.add(1L, tier);
+    }
+  }
+}
@@ -69,6 +69,8 @@ import com.google.cloud.spanner.SpannerExceptionFactory;
 import com.google.cloud.spanner.SpannerOptions;
 import com.google.cloud.spanner.SpannerOptions.CallContextConfigurator;
 import com.google.cloud.spanner.SpannerOptions.CallCredentialsProvider;
+import com.google.cloud.spanner.SpannerRpcMetrics;
+import com.google.cloud.spanner.ThreadFactoryUtil;
 import com.google.cloud.spanner.admin.database.v1.stub.DatabaseAdminStub;
 import com.google.cloud.spanner.admin.database.v1.stub.DatabaseAdminStubSettings;
 import com.google.cloud.spanner.admin.database.v1.stub.GrpcDatabaseAdminCallableFactory;
@@ -88,7 +90,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.io.Resources;
 import com.google.common.util.concurrent.RateLimiter;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.iam.v1.GetIamPolicyRequest;
 import com.google.iam.v1.GetPolicyOptions;
 import com.google.iam.v1.Policy;
@@ -251,6 +252,7 @@ public class GapicSpannerRpc implements SpannerRpc {
   private final SpannerMetadataProvider metadataProvider;
   private final CallCredentialsProvider callCredentialsProvider;
   private final String compressorName;
+  private final SpannerRpcMetrics spannerRpcMetrics;
   private final Duration waitTimeout =
       systemProperty(PROPERTY_TIMEOUT_SECONDS, DEFAULT_TIMEOUT_SECONDS);
   private final Duration idleTimeout =
@@ -317,6 +319,7 @@ public class GapicSpannerRpc implements SpannerRpc {
     this.callCredentialsProvider = options.getCallCredentialsProvider();
     this.compressorName = options.getCompressorName();
     this.leaderAwareRoutingEnabled = options.isLeaderAwareRoutingEnabled();
+    this.spannerRpcMetrics = new SpannerRpcMetrics(options.getOpenTelemetry());
 
     if (initializeStubs) {
       // First check if SpannerOptions provides a TransportChannelProvider. Create one
@@ -339,7 +342,7 @@ public class GapicSpannerRpc implements SpannerRpc {
                   SpannerInterceptorProvider.create(
                           MoreObjects.firstNonNull(
                               options.getInterceptorProvider(),
-                              SpannerInterceptorProvider.createDefault(options.getOpenTelemetry())))
+                              SpannerInterceptorProvider.createDefault(spannerRpcMetrics)))
                       // This sets the response compressor (Server -> Client).
                       .withEncoding(compressorName))
               .setHeaderProvider(headerProviderWithUserAgent)
@@ -350,7 +353,7 @@ public class GapicSpannerRpc implements SpannerRpc {
         defaultChannelProviderBuilder.setAttemptDirectPath(true);
         defaultChannelProviderBuilder.setAttemptDirectPathXds();
       }
-      if (options.isUseVirtualThreads()) {
+      if (options.isUseVirtualThreads() || options.isUseVirtualThreadsForAllExecutors()) {
         ExecutorService executor =
             tryCreateVirtualThreadPerTaskExecutor("spanner-virtual-grpc-executor");
         if (executor != null) {
@@ -369,10 +372,8 @@ public class GapicSpannerRpc implements SpannerRpc {
 
       spannerWatchdog =
           Executors.newSingleThreadScheduledExecutor(
-              new ThreadFactoryBuilder()
-                  .setDaemon(true)
-                  .setNameFormat("Cloud-Spanner-WatchdogProvider-%d")
-                  .build());
+              ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+                  "Cloud-Spanner-WatchdogProvider", options.isUseVirtualThreadsForAllExecutors()));
       WatchdogProvider watchdogProvider =
           InstantiatingWatchdogProvider.create()
               .withExecutor(spannerWatchdog)
@@ -1639,6 +1640,11 @@ public class GapicSpannerRpc implements SpannerRpc {
     return spannerStub.deleteSessionCallable().futureCall(request, context);
   }
 
+  @Override
+  public SpannerRpcMetrics getSpannerRpcMetrics() {
+    return spannerRpcMetrics;
+  }
+
   @Override
   public RetrySettings getReadRetrySettings() {
     return readRetrySettings;
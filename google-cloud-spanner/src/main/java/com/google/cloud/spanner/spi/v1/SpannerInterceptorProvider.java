@@ -18,6 +18,7 @@ package com.google.cloud.spanner.spi.v1;
 import com.google.api.core.InternalApi;
 import com.google.api.core.ObsoleteApi;
 import com.google.api.gax.grpc.GrpcInterceptorProvider;
+import com.google.cloud.spanner.SpannerOptions;
 import com.google.cloud.spanner.SpannerRpcMetrics;
 import com.google.common.collect.ImmutableList;
 import io.grpc.ClientInterceptor;
@@ -46,11 +47,19 @@ public class SpannerInterceptorProvider implements GrpcInterceptorProvider {
   }
 
   public static SpannerInterceptorProvider createDefault(OpenTelemetry openTelemetry) {
+    return createDefault(new SpannerRpcMetrics(openTelemetry));
+  }
+
+  static SpannerInterceptorProvider createDefault(SpannerRpcMetrics spannerRpcMetrics) {
     List<ClientInterceptor> defaultInterceptorList = new ArrayList<>();
     defaultInterceptorList.add(new SpannerErrorInterceptor());
     defaultInterceptorList.add(
         new LoggingInterceptor(Logger.getLogger(GapicSpannerRpc.class.getName()), Level.FINER));
-    defaultInterceptorList.add(new HeaderInterceptor(new SpannerRpcMetrics(openTelemetry)));
+    // The HeaderInterceptor only records GFE metrics and is not needed if all metrics are disabled.
+    if (SpannerOptions.isEnabledOpenCensusMetrics()
+        || SpannerOptions.isEnabledOpenTelemetryMetrics()) {
+      defaultInterceptorList.add(new HeaderInterceptor(spannerRpcMetrics));
+    }
     return new SpannerInterceptorProvider(ImmutableList.copyOf(defaultInterceptorList));
   }
 
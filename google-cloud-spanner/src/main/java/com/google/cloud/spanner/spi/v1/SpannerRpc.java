@@ -27,6 +27,7 @@ import com.google.cloud.ServiceRpc;
 import com.google.cloud.spanner.BackupId;
 import com.google.cloud.spanner.Restore;
 import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.SpannerRpcMetrics;
 import com.google.cloud.spanner.admin.database.v1.stub.DatabaseAdminStub;
 import com.google.cloud.spanner.admin.database.v1.stub.DatabaseAdminStubSettings;
 import com.google.cloud.spanner.admin.instance.v1.stub.InstanceAdminStub;
@@ -355,6 +356,15 @@ public interface SpannerRpc extends ServiceRpc {
   ApiFuture<Empty> asyncDeleteSession(String sessionName, @Nullable Map<Option, ?> options)
       throws SpannerException;
 
+  /**
+   * Returns the {@link SpannerRpcMetrics} that are used by this {@link SpannerRpc}, or null if it
+   * does not record any metrics.
+   */
+  @Nullable
+  default SpannerRpcMetrics getSpannerRpcMetrics() {
+    return null;
+  }
+
   /** Returns the retry settings for streaming read operations. */
   default RetrySettings getReadRetrySettings() {
     return SpannerStubSettings.newBuilder().streamingReadSettings().getRetrySettings();
@@ -30,8 +30,10 @@ import com.google.api.gax.core.ExecutorProvider;
 import com.google.cloud.spanner.AsyncResultSet.CallbackResponse;
 import com.google.cloud.spanner.AsyncResultSet.CursorState;
 import com.google.cloud.spanner.AsyncResultSet.ReadyCallback;
+import com.google.cloud.spanner.Type.StructField;
 import com.google.common.base.Function;
 import com.google.common.collect.Range;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.CountDownLatch;
@@ -115,6 +117,18 @@ public class AsyncResultSetImplTest {
     }
   }
 
+  @Test
+  public void toListWithBufferSizeAboveMaximum() {
+    ResultSet delegate = mock(ResultSet.class);
+    when(delegate.next()).thenReturn(true, true, true, false);
+    when(delegate.getCurrentRowAsStruct()).thenReturn(mock(Struct.class));
+    try (AsyncResultSetImpl rs =
+        new AsyncResultSetImpl(simpleProvider, delegate, AsyncResultSetImpl.MAX_BUFFER_SIZE + 1)) {
+      List<Object> list = rs.toList(ignored -> new Object());
+      assertThat(list).hasSize(3);
+    }
+  }
+
   @Test
   public void toListPropagatesError() {
     ResultSet delegate = mock(ResultSet.class);
@@ -498,4 +512,26 @@ public class AsyncResultSetImplTest {
       rs.getResult().get(10L, TimeUnit.SECONDS);
     }
   }
+
+  @Test
+  public void allRowsAreDeliveredInOrderWithSmallBuffer() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    int numRows = 10_000;
+    List<Struct> rows = new ArrayList<>(numRows);
+    for (long id = 0L; id < numRows; id++) {
+      rows.add(Struct.newBuilder().set("ID").to(id).build());
+    }
+    Type type = Type.struct(StructField.of("ID", Type.int64()));
+    for (int bufferSize : new int[] {1, 2, AsyncResultSetImpl.DEFAULT_BUFFER_SIZE}) {
+      try (AsyncResultSetImpl rs =
+          new AsyncResultSetImpl(simpleProvider, ResultSets.forRows(type, rows), bufferSize)) {
+        List<Long> ids = rs.toListAsync(row -> row.getLong(0), executor).get(30L, TimeUnit.SECONDS);
+        assertEquals(numRows, ids.size());
+        for (int i = 0; i < numRows; i++) {
+          assertEquals(i, ids.get(i).longValue());
+        }
+      }
+    }
+    executor.shutdown();
+  }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.spanner.AbstractResultSet.CloseableIterator;
+import com.google.spanner.v1.PartialResultSet;
+import com.google.spanner.v1.ResultSetMetadata;
+import com.google.spanner.v1.StructType;
+import com.google.spanner.v1.StructType.Field;
+import com.google.spanner.v1.Transaction;
+import com.google.spanner.v1.TypeCode;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for reading large STRING and BYTES values that are split into multiple chunks by
+ * Spanner. The benchmarks are bound to the Maven profile `benchmark` and can be executed like this:
+ * <code>
+ * mvn clean test -DskipTests -Pbenchmark -Dbenchmark.name=ChunkedValueBenchmark
+ * </code>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, warmups = 0, jvmArgsAppend = "-Xmx4g")
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 3, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChunkedValueBenchmark {
+  /** Spanner splits values into chunks of at most 1MiB. */
+  private static final int MAX_CHUNK_SIZE = 1 << 20;
+
+  private static final AbstractResultSet.Listener NO_OP_LISTENER =
+      new AbstractResultSet.Listener() {
+        @Override
+        public void onTransactionMetadata(Transaction transaction, boolean shouldIncludeId) {}
+
+        @Override
+        public SpannerException onError(SpannerException e, boolean withBeginTransaction) {
+          return e;
+        }
+
+        @Override
+        public void onDone(boolean withBeginTransaction) {}
+      };
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkState {
+    @Param({"1024", "1048576", "16777216", "104857600"})
+    int valueSize;
+
+    @Param({"STRING", "BYTES"})
+    TypeCode typeCode;
+
+    List<PartialResultSet> partialResultSets;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      byte[] bytes = new byte[valueSize];
+      new Random(1L).nextBytes(bytes);
+      // Use the base64 string of the random bytes for both STRING and BYTES, so both types
+      // transfer the same amount of data.
+      String value = Base64.getEncoder().encodeToString(bytes);
+      // Always use at least 4 chunks, also for small values.
+      int chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE, value.length() / 4));
+      partialResultSets = new ArrayList<>();
+      for (int offset = 0; offset < value.length(); offset += chunkSize) {
+        PartialResultSet.Builder builder = PartialResultSet.newBuilder();
+        if (offset == 0) {
+          builder.setMetadata(
+              ResultSetMetadata.newBuilder()
+                  .setRowType(
+                      StructType.newBuilder()
+                          .addFields(
+                              Field.newBuilder()
+                                  .setName("value")
+                                  .setType(
+                                      com.google.spanner.v1.Type.newBuilder().setCode(typeCode)))));
+        }
+        int end = Math.min(value.length(), offset + chunkSize);
+        builder
+            .addValues(
+                com.google.protobuf.Value.newBuilder().setStringValue(value.substring(offset, end)))
+            .setChunkedValue(end < value.length());
+        partialResultSets.add(builder.build());
+      }
+    }
+  }
+
+  /** Measures reassembling the chunks and decoding the value. */
+  @Benchmark
+  public int readChunkedValue(BenchmarkState state) {
+    try (ResultSet resultSet =
+        new GrpcResultSet(new ListIterator(state.partialResultSets), NO_OP_LISTENER)) {
+      int size = 0;
+      while (resultSet.next()) {
+        size +=
+            state.typeCode == TypeCode.BYTES
+                ? resultSet.getBytes(0).length()
+                : resultSet.getString(0).length();
+      }
+      return size;
+    }
+  }
+
+  private static final class ListIterator implements CloseableIterator<PartialResultSet> {
+    private final Iterator<PartialResultSet> delegate;
+
+    private ListIterator(List<PartialResultSet> partialResultSets) {
+      this.delegate = partialResultSets.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return delegate.hasNext();
+    }
+
+    @Override
+    public PartialResultSet next() {
+      return delegate.next();
+    }
+
+    @Override
+    public void close(@Nullable String message) {}
+
+    @Override
+    public boolean isWithBeginTransaction() {
+      return false;
+    }
+  }
+}
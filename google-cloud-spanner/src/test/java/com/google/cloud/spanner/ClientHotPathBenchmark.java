@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.grpc.testing.LocalChannelProvider;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.spanner.AsyncResultSet.CallbackResponse;
+import com.google.cloud.spanner.MockSpannerServiceImpl.StatementResult;
+import com.google.cloud.spanner.connection.RandomResultSetGenerator;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessServerBuilder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks for client-side hot paths. The benchmarks use an in-process mock server without
+ * any simulated latency, so the results only reflect the time that is spent in the client. The
+ * benchmarks are bound to the Maven profile `benchmark` and can be executed like this: <code>
+ * mvn clean test -DskipTests -Pbenchmark -Dbenchmark.name=ClientHotPathBenchmark
+ * </code>
+ *
+ * <p>Add -Dbenchmark.profiler=gc to run the benchmarks with the JMH GC profiler to also report the
+ * allocation rate. The profile writes the results to the file that is set in the
+ * `benchmark.result.file` property. These results can be kept as a baseline and compared with the
+ * results of a later run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, warmups = 0)
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 3, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClientHotPathBenchmark {
+  private static final DatabaseId DATABASE_ID =
+      DatabaseId.of("my-project", "my-instance", "my-database");
+  private static final Statement SELECT_RANDOM = Statement.of("SELECT * FROM RANDOM_TABLE");
+
+  @State(Scope.Benchmark)
+  public static class DecodeModeState {
+    @Param({"DIRECT", "LAZY_PER_ROW", "LAZY_PER_COL", "DIRECT_UNBOXED"})
+    DecodeMode decodeMode;
+  }
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkState {
+    @Param({"100"})
+    int numRows;
+
+    private Server server;
+    private Spanner spanner;
+    private DatabaseClientImpl client;
+    private ExecutorService callbackExecutor;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      MockSpannerServiceImpl mockSpanner = new MockSpannerServiceImpl();
+      mockSpanner.setAbortProbability(0.0D);
+      mockSpanner.putStatementResult(
+          StatementResult.query(SELECT_RANDOM, new RandomResultSetGenerator(numRows).generate()));
+      String uniqueName = InProcessServerBuilder.generateName();
+      server = InProcessServerBuilder.forName(uniqueName).addService(mockSpanner).build().start();
+      spanner =
+          SpannerOptions.newBuilder()
+              .setProjectId(DATABASE_ID.getInstanceId().getProject())
+              .setChannelProvider(LocalChannelProvider.create(uniqueName))
+              .setCredentials(NoCredentials.getInstance())
+              .setSessionPoolOption(
+                  SessionPoolOptions.newBuilder().setMinSessions(100).setMaxSessions(100).build())
+              .build()
+              .getService();
+      client = (DatabaseClientImpl) spanner.getDatabaseClient(DATABASE_ID);
+      // Wait until the session pool has initialized.
+      while (client.pool.getNumberOfSessionsInPool()
+          < spanner.getOptions().getSessionPoolOptions().getMinSessions()) {
+        Thread.sleep(1L);
+      }
+      callbackExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+      callbackExecutor.shutdown();
+      spanner.close();
+      server.shutdown();
+      server.awaitTermination();
+    }
+  }
+
+  /** Measures checking out and releasing a session while other threads do the same. */
+  @Benchmark
+  @Threads(8)
+  public void sessionCheckoutAndRelease(BenchmarkState state) {
+    SessionPool.PooledSessionFuture session = state.client.pool.getSession();
+    session.get();
+    session.close();
+  }
+
+  /** Measures executing a query and decoding all values with the given {@link DecodeMode}. */
+  @Benchmark
+  public long decodeResultSet(BenchmarkState state, DecodeModeState decodeModeState) {
+    long numValues = 0L;
+    try (ResultSet resultSet =
+        state
+            .client
+            .singleUse()
+            .executeQuery(SELECT_RANDOM, Options.decodeMode(decodeModeState.decodeMode))) {
+      while (resultSet.next()) {
+        for (int col = 0; col < resultSet.getColumnCount(); col++) {
+          if (!resultSet.isNull(col)) {
+            resultSet.getValue(col);
+            numValues++;
+          }
+        }
+      }
+    }
+    return numValues;
+  }
+
+  /** Measures consuming a query result through {@link AsyncResultSet} callbacks. */
+  @Benchmark
+  public long asyncResultSetCallbacks(BenchmarkState state) throws Exception {
+    AtomicLong numRows = new AtomicLong();
+    try (AsyncResultSet resultSet = state.client.singleUse().executeQueryAsync(SELECT_RANDOM)) {
+      ApiFuture<Void> finished =
+          resultSet.setCallback(
+              state.callbackExecutor,
+              rs -> {
+                while (true) {
+                  switch (rs.tryNext()) {
+                    case OK:
+                      numRows.incrementAndGet();
+                      break;
+                    case DONE:
+                      return CallbackResponse.DONE;
+                    case NOT_READY:
+                      return CallbackResponse.CONTINUE;
+                  }
+                }
+              });
+      finished.get();
+    }
+    return numRows.get();
+  }
+}
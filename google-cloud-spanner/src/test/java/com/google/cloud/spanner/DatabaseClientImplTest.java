@@ -75,6 +75,7 @@ import com.google.protobuf.ByteString;
 import com.google.protobuf.ListValue;
 import com.google.protobuf.NullValue;
 import com.google.rpc.RetryInfo;
+import com.google.spanner.v1.BatchCreateSessionsRequest;
 import com.google.spanner.v1.BatchWriteRequest;
 import com.google.spanner.v1.BatchWriteResponse;
 import com.google.spanner.v1.BeginTransactionRequest;
@@ -5348,6 +5349,310 @@ public class DatabaseClientImplTest {
     return valuesBuilder.build();
   }
 
+  @Test
+  public void testWarmUpOnStartup() {
+    mockSpanner.putStatementResult(
+        StatementResult.query(Statement.of("SELECT 1"), MockSpannerTestUtil.SELECT1_RESULTSET));
+    int numChannels = 4;
+    int minSessions = 1000;
+    try (Spanner spanner =
+        SpannerOptions.newBuilder()
+            .setProjectId(TEST_PROJECT)
+            .setChannelProvider(channelProvider)
+            .setCredentials(NoCredentials.getInstance())
+            .setNumChannels(numChannels)
+            .setSessionPoolOption(
+                SessionPoolOptions.newBuilder()
+                    .setMinSessions(minSessions)
+                    .setMaxSessions(minSessions)
+                    .setWarmUpOnStartup(true)
+                    .build())
+            .build()
+            .getService()) {
+      DatabaseClient client =
+          spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+      SessionPoolReadiness readiness = get(client.getReadinessFuture());
+      assertEquals(minSessions, readiness.getNumSessions());
+      assertEquals(numChannels, readiness.getNumPrimedChannels());
+      assertTrue(
+          readiness.getTotalDuration().compareTo(readiness.getSessionCreationDuration()) >= 0);
+
+      // Each channel creates 250 sessions with three parallel requests of at most 100 sessions.
+      List<BatchCreateSessionsRequest> requests =
+          mockSpanner.getRequestsOfType(BatchCreateSessionsRequest.class);
+      assertEquals(numChannels * 3, requests.size());
+      for (BatchCreateSessionsRequest request : requests) {
+        assertTrue(request.getSessionCount() <= SessionClient.MAX_SESSIONS_PER_BATCH_CREATE);
+      }
+      // The first session on each channel executed a query to prime the channel.
+      assertEquals(
+          numChannels,
+          mockSpanner.getRequestsOfType(ExecuteSqlRequest.class).stream()
+              .filter(request -> request.getSql().equals("SELECT 1"))
+              .count());
+    }
+  }
+
+  @Test
+  public void testReadinessFutureWithoutWarmUp() {
+    DatabaseClient client =
+        spannerWithEmptySessionPool.getDatabaseClient(
+            DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+    SessionPoolReadiness readiness = get(client.getReadinessFuture());
+    assertEquals(0, readiness.getNumSessions());
+    assertEquals(0, readiness.getNumPrimedChannels());
+  }
+
+  @Test
+  public void testStaleReadCache() {
+    try (Spanner spanner =
+        SpannerOptions.newBuilder()
+            .setProjectId(TEST_PROJECT)
+            .setChannelProvider(channelProvider)
+            .setCredentials(NoCredentials.getInstance())
+            .setStaleReadCacheMaxBytes(1L << 20)
+            .build()
+            .getService()) {
+      DatabaseClient client =
+          spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+      // The mock server returns the min read timestamp as the read timestamp, so the cached row
+      // satisfies the bound of the following reads.
+      TimestampBound bound =
+          TimestampBound.ofMinReadTimestamp(Timestamp.ofTimeSecondsAndNanos(1_000L, 0));
+      Struct row = client.singleUse(bound).readRow(READ_TABLE_NAME, Key.of(1L), READ_COLUMN_NAMES);
+      assertNotNull(row);
+      // The first read requests the read timestamp, so it can be added to the cache.
+      ReadRequest request = mockSpanner.getRequestsOfType(ReadRequest.class).get(0);
+      assertTrue(request.getTransaction().getSingleUse().getReadOnly().getReturnReadTimestamp());
+
+      // Repeated reads of the same key with the same bound are served from the cache.
+      for (int i = 0; i < 5; i++) {
+        assertEquals(
+            row, client.singleUse(bound).readRow(READ_TABLE_NAME, Key.of(1L), READ_COLUMN_NAMES));
+        try (ResultSet resultSet =
+            client
+                .singleUse(bound)
+                .read(READ_TABLE_NAME, KeySet.singleKey(Key.of(1L)), READ_COLUMN_NAMES)) {
+          assertTrue(resultSet.next());
+          assertEquals(row, resultSet.getCurrentRowAsStruct());
+          assertFalse(resultSet.next());
+        }
+      }
+      assertEquals(1, mockSpanner.countRequestsOfType(ReadRequest.class));
+
+      // Strong and exact staleness reads are not served from the cache.
+      client.singleUse().readRow(READ_TABLE_NAME, Key.of(1L), READ_COLUMN_NAMES);
+      client
+          .singleUse(TimestampBound.ofExactStaleness(1L, TimeUnit.SECONDS))
+          .readRow(READ_TABLE_NAME, Key.of(1L), READ_COLUMN_NAMES);
+      assertEquals(3, mockSpanner.countRequestsOfType(ReadRequest.class));
+
+      StaleReadCache cache = ((SpannerImpl) spanner).getStaleReadCache();
+      assertNotNull(cache);
+      assertEquals(10L, cache.getHitCount());
+      assertEquals(1L, cache.getMissCount());
+    }
+  }
+
+  @Test
+  public void testStaleReadCacheExpiresEntries() throws InterruptedException {
+    try (Spanner spanner =
+        SpannerOptions.newBuilder()
+            .setProjectId(TEST_PROJECT)
+            .setChannelProvider(channelProvider)
+            .setCredentials(NoCredentials.getInstance())
+            .setStaleReadCacheMaxBytes(1L << 20)
+            .setStaleReadCacheMaxStaleness(Duration.ofMillis(1L))
+            .build()
+            .getService()) {
+      DatabaseClient client =
+          spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+      TimestampBound bound =
+          TimestampBound.ofMinReadTimestamp(Timestamp.ofTimeSecondsAndNanos(1_000L, 0));
+      assertNotNull(
+          client.singleUse(bound).readRow(READ_TABLE_NAME, Key.of(1L), READ_COLUMN_NAMES));
+      // The cached read is removed when it is older than the maximum staleness of the cache, even
+      // though it would still satisfy the bound of the next read.
+      Thread.sleep(10L);
+      assertNotNull(
+          client.singleUse(bound).readRow(READ_TABLE_NAME, Key.of(1L), READ_COLUMN_NAMES));
+      assertEquals(2, mockSpanner.countRequestsOfType(ReadRequest.class));
+
+      StaleReadCache cache = ((SpannerImpl) spanner).getStaleReadCache();
+      assertNotNull(cache);
+      assertEquals(0L, cache.getHitCount());
+      assertEquals(2L, cache.getMissCount());
+    }
+  }
+
+  @Test
+  public void testPointReadBatching() {
+    mockSpanner.putPartialStatementResult(
+        StatementResult.query(
+            Statement.of("SELECT COLUMN_NAME\nFROM INFORMATION_SCHEMA.INDEX_COLUMNS"),
+            com.google.spanner.v1.ResultSet.newBuilder()
+                .setMetadata(
+                    ResultSetMetadata.newBuilder()
+                        .setRowType(
+                            StructType.newBuilder()
+                                .addFields(
+                                    Field.newBuilder()
+                                        .setName("COLUMN_NAME")
+                                        .setType(Type.newBuilder().setCode(TypeCode.STRING)))))
+                .addRows(
+                    ListValue.newBuilder()
+                        .addValues(com.google.protobuf.Value.newBuilder().setStringValue("Key")))
+                .build()));
+    // The batched read also selects the key column, so the rows can be returned to each caller.
+    com.google.spanner.v1.ResultSet.Builder valueKeyResultSet =
+        com.google.spanner.v1.ResultSet.newBuilder()
+            .setMetadata(
+                ResultSetMetadata.newBuilder()
+                    .setRowType(
+                        StructType.newBuilder()
+                            .addFields(
+                                Field.newBuilder()
+                                    .setName("Value")
+                                    .setType(Type.newBuilder().setCode(TypeCode.STRING)))
+                            .addFields(
+                                Field.newBuilder()
+                                    .setName("Key")
+                                    .setType(Type.newBuilder().setCode(TypeCode.STRING)))));
+    for (int i = 1; i <= 3; i++) {
+      valueKeyResultSet.addRows(
+          ListValue.newBuilder()
+              .addValues(com.google.protobuf.Value.newBuilder().setStringValue("v" + i))
+              .addValues(com.google.protobuf.Value.newBuilder().setStringValue("k" + i)));
+    }
+    mockSpanner.putStatementResult(
+        StatementResult.read(
+            READ_TABLE_NAME,
+            KeySet.singleKey(Key.of()),
+            Arrays.asList("Value", "Key"),
+            valueKeyResultSet.build()));
+
+    try (Spanner spanner =
+        SpannerOptions.newBuilder()
+            .setProjectId(TEST_PROJECT)
+            .setChannelProvider(channelProvider)
+            .setCredentials(NoCredentials.getInstance())
+            .setPointReadBatchingWindow(Duration.ofSeconds(10L))
+            .setMaxPointReadBatchSize(4)
+            .build()
+            .getService()) {
+      DatabaseClientImpl client =
+          (DatabaseClientImpl)
+              spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+      List<ApiFuture<Struct>> rows = new ArrayList<>();
+      for (String key : Arrays.asList("k1", "k2", "k3", "k4")) {
+        rows.add(
+            client
+                .singleUse()
+                .readRowAsync(READ_TABLE_NAME, Key.of(key), Collections.singletonList("Value")));
+      }
+      // The batch is sent as soon as it contains the maximum number of keys.
+      for (int i = 0; i < 3; i++) {
+        assertEquals(Struct.newBuilder().set("Value").to("v" + (i + 1)).build(), get(rows.get(i)));
+      }
+      assertNull(get(rows.get(3)));
+      assertEquals(4L, client.pointReadBatcher.getNumBatchedReads());
+
+      List<ReadRequest> requests = mockSpanner.getRequestsOfType(ReadRequest.class);
+      assertEquals(1, requests.size());
+      assertEquals(4, requests.get(0).getKeySet().getKeysCount());
+      assertEquals(Arrays.asList("Value", "Key"), requests.get(0).getColumnsList());
+      assertEquals(
+          1L,
+          mockSpanner.getRequestsOfType(ExecuteSqlRequest.class).stream()
+              .filter(request -> request.getSql().contains("INFORMATION_SCHEMA.INDEX_COLUMNS"))
+              .count());
+
+      // A single-use read context can only be used for one point read.
+      ReadContext readContext = client.singleUse();
+      readContext.readRowAsync(READ_TABLE_NAME, Key.of("k1"), READ_COLUMN_NAMES);
+      assertThrows(
+          IllegalStateException.class,
+          () -> readContext.readRow(READ_TABLE_NAME, Key.of("k2"), READ_COLUMN_NAMES));
+    }
+  }
+
+  @Test
+  public void testBufferedMutationWriter() {
+    DatabaseClient client =
+        spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+    try (BufferedMutationWriter writer =
+        BufferedMutationWriter.newBuilder(client)
+            .setMaxWritesPerBatch(4)
+            .setFlushInterval(java.time.Duration.ofMinutes(1L))
+            .build()) {
+      // The buffer is sent as soon as it contains the maximum number of writes.
+      List<ApiFuture<Timestamp>> commitTimestamps = new ArrayList<>();
+      for (long id = 0L; id < 4L; id++) {
+        commitTimestamps.add(
+            writer.write(
+                Collections.singletonList(
+                    Mutation.newInsertOrUpdateBuilder("FOO").set("ID").to(id).build())));
+      }
+      for (ApiFuture<Timestamp> commitTimestamp : commitTimestamps) {
+        assertNotNull(get(commitTimestamp));
+      }
+      // A buffer that is not full is sent when the writer is flushed.
+      ApiFuture<Timestamp> commitTimestamp =
+          writer.write(
+              Collections.singletonList(
+                  Mutation.newInsertOrUpdateBuilder("FOO").set("ID").to(4L).build()));
+      get(writer.flush());
+      assertTrue(commitTimestamp.isDone());
+    }
+    List<BatchWriteRequest> requests = mockSpanner.getRequestsOfType(BatchWriteRequest.class);
+    assertEquals(2, requests.size());
+    assertEquals(4, requests.get(0).getMutationGroupsCount());
+    assertEquals(1, requests.get(1).getMutationGroupsCount());
+
+    mockSpanner.clearRequests();
+    BufferedMutationWriter writer =
+        BufferedMutationWriter.newBuilder(client).setMaxMutationsPerBatch(3).build();
+    // Each write contains two mutations, so the second write does not fit in the same batch.
+    writer.write(
+        Collections.singletonList(
+            Mutation.newInsertOrUpdateBuilder("FOO").set("ID").to(1L).set("NAME").to("a").build()));
+    writer.write(
+        Collections.singletonList(
+            Mutation.newInsertOrUpdateBuilder("FOO").set("ID").to(2L).set("NAME").to("b").build()));
+    writer.close();
+    requests = mockSpanner.getRequestsOfType(BatchWriteRequest.class);
+    assertEquals(2, requests.size());
+    assertEquals(1, requests.get(0).getMutationGroupsCount());
+    assertEquals(1, requests.get(1).getMutationGroupsCount());
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            writer.write(
+                Collections.singletonList(
+                    Mutation.newInsertOrUpdateBuilder("FOO").set("ID").to(3L).build())));
+
+    // Batches that cannot be sent because the maximum number of batches is in flight are sent
+    // when a batch has finished.
+    mockSpanner.clearRequests();
+    List<ApiFuture<Timestamp>> results = new ArrayList<>();
+    try (BufferedMutationWriter singleBatchWriter =
+        BufferedMutationWriter.newBuilder(client)
+            .setMaxWritesPerBatch(1)
+            .setMaxConcurrentBatches(1)
+            .build()) {
+      for (long id = 0L; id < 5L; id++) {
+        results.add(
+            singleBatchWriter.write(
+                Collections.singletonList(
+                    Mutation.newInsertOrUpdateBuilder("FOO").set("ID").to(id).build())));
+      }
+    }
+    for (ApiFuture<Timestamp> result : results) {
+      assertNotNull(get(result));
+    }
+    assertEquals(5, mockSpanner.getRequestsOfType(BatchWriteRequest.class).size());
+  }
+
   private boolean isMultiplexedSessionsEnabled() {
     if (spanner.getOptions() == null || spanner.getOptions().getSessionPoolOptions() == null) {
       return false;
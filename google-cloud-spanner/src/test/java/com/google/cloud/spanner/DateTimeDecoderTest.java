@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class DateTimeDecoderTest {
+
+  @Test
+  public void testParseTimestamp() {
+    for (String value :
+        new String[] {
+          "0001-01-01T00:00:00Z",
+          "9999-12-31T23:59:59.999999999Z",
+          "1970-01-01T00:00:00Z",
+          "1969-12-31T23:59:59.9Z",
+          "2000-02-29T12:30:45.123Z",
+          "2024-03-01T00:00:00.000001Z",
+          "2100-02-28T10:11:12.12345678Z",
+          // This is not in the format that Spanner returns, and is handled by the fallback.
+          "2024-03-01T00:00:00+01:00",
+        }) {
+      assertEquals(value, Timestamp.parseTimestamp(value), DateTimeDecoder.parseTimestamp(value));
+    }
+  }
+
+  @Test
+  public void testParseRandomTimestamps() {
+    Random random = new Random(1L);
+    long minSeconds = Timestamp.MIN_VALUE.getSeconds();
+    long maxSeconds = Timestamp.MAX_VALUE.getSeconds();
+    for (int i = 0; i < 10_000; i++) {
+      long seconds = minSeconds + (long) (random.nextDouble() * (maxSeconds - minSeconds));
+      int nanos = random.nextBoolean() ? 0 : random.nextInt(1_000_000_000);
+      Timestamp timestamp = Timestamp.ofTimeSecondsAndNanos(seconds, nanos);
+      assertEquals(timestamp, DateTimeDecoder.parseTimestamp(timestamp.toString()));
+    }
+  }
+
+  @Test
+  public void testParseInvalidTimestamp() {
+    for (String value :
+        new String[] {
+          "2024-13-01T00:00:00Z",
+          "2024-01-01T00:60:00Z",
+          "0000-01-01T00:00:00Z",
+          "2024-01-01 00:00:00Z",
+          "2024-01-01T00:00:00.1234567890Z",
+        }) {
+      assertThrows(value, RuntimeException.class, () -> DateTimeDecoder.parseTimestamp(value));
+    }
+  }
+
+  @Test
+  public void testParseDate() {
+    for (String value :
+        new String[] {"0001-01-01", "9999-12-31", "1970-01-01", "2000-02-29", "2024-12-31"}) {
+      assertEquals(value, Date.parseDate(value), DateTimeDecoder.parseDate(value));
+    }
+  }
+
+  @Test
+  public void testParseInvalidDate() {
+    for (String value : new String[] {"2024/01/01", "2024-1-1", "20240101"}) {
+      assertThrows(value, RuntimeException.class, () -> DateTimeDecoder.parseDate(value));
+    }
+  }
+}
@@ -35,6 +35,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.ListValue;
 import com.google.spanner.v1.ExecuteSqlRequest.QueryMode;
 import com.google.spanner.v1.PartialResultSet;
 import com.google.spanner.v1.QueryPlan;
@@ -49,6 +50,9 @@ import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.annotation.Nullable;
 import org.junit.Before;
 import org.junit.Test;
@@ -112,6 +116,122 @@ public class GrpcResultSetTest {
     assertTrue(exception.getMessage(), exception.getMessage().contains("stream wait timeout"));
   }
 
+  @Test
+  public void testFlowControlRequestsAreBatched() {
+    List<Integer> requests = new ArrayList<>();
+    GrpcStreamIterator iterator = new GrpcStreamIterator(4);
+    iterator.setCall(
+        new SpannerRpc.StreamingCall() {
+          @Override
+          public ApiCallContext getCallContext() {
+            return GrpcCallContext.createDefault();
+          }
+
+          @Override
+          public void cancel(@Nullable String message) {}
+
+          @Override
+          public void request(int numMessages) {
+            requests.add(numMessages);
+          }
+        },
+        false);
+    SpannerRpc.ResultStreamConsumer streamConsumer = iterator.consumer();
+    for (int round = 0; round < 2; round++) {
+      for (int chunk = 0; chunk < 4; chunk++) {
+        streamConsumer.onPartialResultSet(PartialResultSet.getDefaultInstance());
+      }
+      for (int chunk = 0; chunk < 4; chunk++) {
+        iterator.next();
+      }
+    }
+    // A prefetch window of 4 chunks means that 2 new chunks are requested for every 2 chunks that
+    // have been consumed.
+    assertEquals(Arrays.asList(2, 2, 2, 2), requests);
+
+    streamConsumer.onPartialResultSet(PartialResultSet.getDefaultInstance());
+    streamConsumer.onCompleted();
+    iterator.next();
+    assertThat(iterator.hasNext()).isFalse();
+    assertEquals(Arrays.asList(2, 2, 2, 2), requests);
+  }
+
+  @Test
+  public void testAdaptivePrefetchWindow() throws Exception {
+    List<Integer> requests = new ArrayList<>();
+    GrpcStreamIterator iterator =
+        new GrpcStreamIterator(
+            /* statement = */ null,
+            /* prefetchChunks = */ 2,
+            /* maxPrefetchChunks = */ 8,
+            /* metrics = */ null);
+    iterator.setCall(
+        new SpannerRpc.StreamingCall() {
+          @Override
+          public ApiCallContext getCallContext() {
+            return GrpcCallContext.createDefault();
+          }
+
+          @Override
+          public void cancel(@Nullable String message) {}
+
+          @Override
+          public void request(int numMessages) {
+            requests.add(numMessages);
+          }
+        },
+        false);
+    SpannerRpc.ResultStreamConsumer streamConsumer = iterator.consumer();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // The consumer has to wait for the first chunk, which should double the prefetch window.
+      Future<?> producer =
+          executor.submit(
+              () -> {
+                Thread.sleep(50L);
+                streamConsumer.onPartialResultSet(PartialResultSet.getDefaultInstance());
+                return null;
+              });
+      iterator.next();
+      producer.get();
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(4, iterator.getPrefetchWindow());
+    assertEquals(Collections.singletonList(3), requests);
+    // Waiting for the first chunk is not counted as a stall.
+    assertEquals(0L, iterator.getStallTimeNanos());
+
+    // Fill the entire window. This indicates that the consumer is slower than the server, and
+    // should shrink the prefetch window.
+    for (int i = 0; i < 4; i++) {
+      streamConsumer.onPartialResultSet(PartialResultSet.getDefaultInstance());
+    }
+    iterator.next();
+    assertEquals(2, iterator.getPrefetchWindow());
+    assertEquals(Collections.singletonList(3), requests);
+
+    // Consume all buffered chunks and then wait for the server.
+    for (int i = 0; i < 3; i++) {
+      iterator.next();
+    }
+    executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> producer =
+          executor.submit(
+              () -> {
+                Thread.sleep(50L);
+                streamConsumer.onPartialResultSet(PartialResultSet.getDefaultInstance());
+                return null;
+              });
+      iterator.next();
+      producer.get();
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(iterator.getStallTimeNanos()).isGreaterThan(0L);
+  }
+
   @Test
   public void metadata() {
     Type rowType = Type.struct(Type.StructField.of("f", Type.string()));
@@ -385,6 +505,63 @@ public class GrpcResultSetTest {
         input -> input.getStructList(0));
   }
 
+  @Test
+  public void multiResponseChunkingStringArrayElementInManyChunks() {
+    com.google.protobuf.Value element1 = Value.string("abc").toProto();
+    com.google.protobuf.Value element2 = Value.string("def").toProto();
+    com.google.protobuf.Value element3 = Value.string("ghi").toProto();
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(
+                makeMetadata(Type.struct(Type.StructField.of("f", Type.array(Type.string())))))
+            .addValues(listValue(Value.string("a").toProto(), element1))
+            .setChunkedValue(true)
+            .build());
+    // The second element is split across three chunks.
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder().addValues(listValue(element2)).setChunkedValue(true).build());
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder().addValues(listValue()).setChunkedValue(true).build());
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .addValues(listValue(element3, Value.string("b").toProto()))
+            .setChunkedValue(false)
+            .build());
+    consumer.onCompleted();
+
+    assertThat(resultSet.next()).isTrue();
+    assertThat(resultSet.getStringList(0)).containsExactly("a", "abcdefghi", "b").inOrder();
+    assertThat(resultSet.next()).isFalse();
+  }
+
+  @Test
+  public void mergeChunksOfNestedLists() {
+    com.google.protobuf.Value chunk1 =
+        listValue(
+            Value.string("x").toProto(),
+            listValue(Value.string("a").toProto(), Value.string("b").toProto()));
+    com.google.protobuf.Value chunk2 =
+        listValue(listValue(Value.string("c").toProto(), Value.string("d").toProto()));
+    com.google.protobuf.Value chunk3 =
+        listValue(listValue(Value.string("e").toProto()), Value.bool(true).toProto());
+
+    assertEquals(
+        listValue(
+            Value.string("x").toProto(),
+            listValue(
+                Value.string("a").toProto(),
+                Value.string("bc").toProto(),
+                Value.string("de").toProto()),
+            Value.bool(true).toProto()),
+        GrpcValueIterator.mergeChunks(Arrays.asList(chunk1, chunk2, chunk3)));
+  }
+
+  private static com.google.protobuf.Value listValue(com.google.protobuf.Value... values) {
+    return com.google.protobuf.Value.newBuilder()
+        .setListValue(ListValue.newBuilder().addAllValues(Arrays.asList(values)))
+        .build();
+  }
+
   @Test
   public void profileResultInFinalResultSet() {
     Map<String, com.google.protobuf.Value> statsMap =
@@ -735,6 +912,65 @@ public class GrpcResultSetTest {
     assertThat(resultSet.getDate(0)).isEqualTo(Date.fromYearMonthDay(2018, 5, 29));
   }
 
+  @Test
+  public void getDateAndNumericReturnSameInstanceForRepeatedValues() {
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(
+                makeMetadata(
+                    Type.struct(
+                        Type.StructField.of("d", Type.date()),
+                        Type.StructField.of("n", Type.numeric()))))
+            .addValues(Value.date(Date.fromYearMonthDay(2018, 5, 29)).toProto())
+            .addValues(Value.numeric(new BigDecimal("3.14")).toProto())
+            .addValues(Value.date(Date.fromYearMonthDay(2018, 5, 29)).toProto())
+            .addValues(Value.numeric(new BigDecimal("3.14")).toProto())
+            .addValues(Value.date(Date.fromYearMonthDay(2018, 5, 30)).toProto())
+            .addValues(Value.numeric(new BigDecimal("2.72")).toProto())
+            .build());
+    consumer.onCompleted();
+
+    assertThat(resultSet.next()).isTrue();
+    Date date = resultSet.getDate(0);
+    BigDecimal numeric = resultSet.getBigDecimal(1);
+    assertThat(resultSet.next()).isTrue();
+    assertThat(resultSet.getDate(0)).isSameInstanceAs(date);
+    assertThat(resultSet.getBigDecimal(1)).isSameInstanceAs(numeric);
+    assertThat(resultSet.next()).isTrue();
+    assertThat(resultSet.getDate(0)).isEqualTo(Date.fromYearMonthDay(2018, 5, 30));
+    assertThat(resultSet.getBigDecimal(1)).isEqualTo(new BigDecimal("2.72"));
+  }
+
+  @Test
+  public void copiedRowsDoNotUseDictionaries() {
+    GrpcStreamIterator stream = new GrpcStreamIterator(10);
+    GrpcResultSet resultSet =
+        new GrpcResultSet(stream, new NoOpListener(), DecodeMode.LAZY_PER_COL);
+    stream
+        .consumer()
+        .onPartialResultSet(
+            PartialResultSet.newBuilder()
+                .setMetadata(
+                    makeMetadata(
+                        Type.struct(
+                            Type.StructField.of("d", Type.date()),
+                            Type.StructField.of("n", Type.numeric()))))
+                .addValues(Value.date(Date.fromYearMonthDay(2018, 5, 29)).toProto())
+                .addValues(Value.numeric(new BigDecimal("3.14")).toProto())
+                .build());
+    stream.consumer().onCompleted();
+
+    assertThat(resultSet.next()).isTrue();
+    GrpcStruct copy = (GrpcStruct) resultSet.getCurrentRowAsStruct();
+    assertThat(copy.getDate(0)).isEqualTo(Date.fromYearMonthDay(2018, 5, 29));
+    assertThat(copy.getBigDecimal(1)).isEqualTo(new BigDecimal("3.14"));
+    assertThat(copy.hasDictionaries()).isFalse();
+
+    assertThat(resultSet.getDate(0)).isEqualTo(Date.fromYearMonthDay(2018, 5, 29));
+    assertThat(resultSet.currRow().hasDictionaries()).isTrue();
+    resultSet.close();
+  }
+
   @Test
   public void getTimestamp() {
     consumer.onPartialResultSet(
@@ -894,6 +1130,43 @@ public class GrpcResultSetTest {
     assertThat(resultSet.getLongArray(0)).isEqualTo(longArray);
   }
 
+  @Test
+  public void getValueOfPrimitiveArrays() {
+    Value int64Array = Value.int64Array(Arrays.asList(1L, null, 3L));
+    Value float32Array = Value.float32Array(new float[] {1.1f, 2.2f});
+    Value float64Array = Value.float64Array(Arrays.asList(null, 2.2d));
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(
+                makeMetadata(
+                    Type.struct(
+                        Type.StructField.of("i", Type.array(Type.int64())),
+                        Type.StructField.of("f32", Type.array(Type.float32())),
+                        Type.StructField.of("f64", Type.array(Type.float64())))))
+            .addValues(int64Array.toProto())
+            .addValues(float32Array.toProto())
+            .addValues(float64Array.toProto())
+            .addValues(Value.int64Array((long[]) null).toProto())
+            .addValues(Value.float32Array((float[]) null).toProto())
+            .addValues(Value.float64Array((double[]) null).toProto())
+            .build());
+    consumer.onCompleted();
+
+    assertThat(resultSet.next()).isTrue();
+    assertThat(resultSet.getValue(0)).isEqualTo(int64Array);
+    assertThat(resultSet.getValue(1)).isEqualTo(float32Array);
+    assertThat(resultSet.getValue(1).getFloat32PrimitiveArray())
+        .usingTolerance(0.0)
+        .containsExactly(new float[] {1.1f, 2.2f})
+        .inOrder();
+    assertThat(resultSet.getValue(2)).isEqualTo(float64Array);
+    assertThat(resultSet.getValue(2).toProto()).isEqualTo(float64Array.toProto());
+    assertThat(resultSet.next()).isTrue();
+    assertThat(resultSet.getValue(0).isNull()).isTrue();
+    assertThat(resultSet.getValue(1).isNull()).isTrue();
+    assertThat(resultSet.getValue(2).isNull()).isTrue();
+  }
+
   @Test
   public void getDoubleArray() {
     double[] doubleArray = {Double.MAX_VALUE, Double.MIN_VALUE, 111, 333, 444, 0, -1, -2234};
@@ -1039,6 +1312,9 @@ public class GrpcResultSetTest {
     consumer.onCompleted();
     assertThat(resultSet.next()).isTrue();
     assertThat(resultSet.getLongArray(0)).isEqualTo(longArray);
+    assertThat(resultSet.getValue(0)).isEqualTo(Value.pgOidArray(longArray));
+    assertThat(resultSet.getCurrentRowAsStruct().getValue(0))
+        .isEqualTo(Value.pgOidArray(longArray));
   }
 
   @Test
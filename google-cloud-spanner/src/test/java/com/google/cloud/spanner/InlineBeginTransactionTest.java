@@ -470,6 +470,71 @@ public class InlineBeginTransactionTest {
 
   @RunWith(JUnit4.class)
   public static class InlineBeginTransactionWithoutExecutorTest extends InlineBeginTransactionTest {
+    @Test
+    public void testParallelBeginTransaction() {
+      try (Spanner parallelBeginSpanner =
+          SpannerOptions.newBuilder()
+              .setProjectId("[PROJECT]")
+              .setChannelProvider(channelProvider)
+              .setCredentials(NoCredentials.getInstance())
+              .setParallelBeginTransaction(true)
+              .build()
+              .getService()) {
+        DatabaseClient client =
+            parallelBeginSpanner.getDatabaseClient(
+                DatabaseId.of("[PROJECT]", "[INSTANCE]", "[DATABASE]"));
+        List<Long> updateCounts =
+            client
+                .readWriteTransaction()
+                .run(
+                    transaction ->
+                        get(
+                            ApiFutures.allAsList(
+                                ImmutableList.of(
+                                    transaction.executeUpdateAsync(UPDATE_STATEMENT),
+                                    transaction.executeUpdateAsync(UPDATE_STATEMENT)))));
+        assertEquals(ImmutableList.of(UPDATE_COUNT, UPDATE_COUNT), updateCounts);
+      }
+      // The transaction is started by a BeginTransaction RPC, and none of the statements include a
+      // BeginTransaction option.
+      assertThat(countRequests(BeginTransactionRequest.class)).isEqualTo(1);
+      assertThat(countTransactionsStarted()).isEqualTo(1);
+      for (AbstractMessage request : mockSpanner.getRequests()) {
+        if (request instanceof ExecuteSqlRequest) {
+          assertTrue(((ExecuteSqlRequest) request).getTransaction().hasId());
+        }
+      }
+    }
+
+    @Test
+    public void testParallelBeginTransactionWithOnlyMutations() {
+      try (Spanner parallelBeginSpanner =
+          SpannerOptions.newBuilder()
+              .setProjectId("[PROJECT]")
+              .setChannelProvider(channelProvider)
+              .setCredentials(NoCredentials.getInstance())
+              .setParallelBeginTransaction(true)
+              .build()
+              .getService()) {
+        DatabaseClient client =
+            parallelBeginSpanner.getDatabaseClient(
+                DatabaseId.of("[PROJECT]", "[INSTANCE]", "[DATABASE]"));
+        client
+            .readWriteTransaction()
+            .run(
+                transaction -> {
+                  transaction.buffer(Mutation.newInsertBuilder("FOO").set("ID").to(1L).build());
+                  // The transaction is not started until it is committed.
+                  assertNull(((TransactionContextImpl) transaction).transactionIdFuture);
+                  return null;
+                });
+      }
+      // A transaction that only buffers mutations is started when it is committed, in the same way
+      // as without parallel BeginTransaction.
+      assertThat(countRequests(BeginTransactionRequest.class)).isEqualTo(1);
+      assertThat(countRequests(CommitRequest.class)).isEqualTo(1);
+    }
+
     @Test
     public void testInlinedBeginTx() {
       DatabaseClient client =
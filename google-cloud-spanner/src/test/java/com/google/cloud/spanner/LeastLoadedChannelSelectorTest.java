@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.cloud.spanner.MetricRegistryConstants.SPANNER_CHANNEL_TRANSACTIONS;
+import static com.google.cloud.spanner.SessionImpl.NO_CHANNEL_HINT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class LeastLoadedChannelSelectorTest {
+
+  @Test
+  public void testSpreadsTransactionsEvenly() {
+    LeastLoadedChannelSelector selector = new LeastLoadedChannelSelector(4, null);
+    for (int i = 0; i < 12; i++) {
+      selector.acquire();
+    }
+    for (int channel = 0; channel < 4; channel++) {
+      assertEquals(3, selector.getNumTransactions(channel));
+    }
+  }
+
+  @Test
+  public void testSelectsLeastLoadedChannel() {
+    LeastLoadedChannelSelector selector = new LeastLoadedChannelSelector(4, null);
+    for (int i = 0; i < 8; i++) {
+      selector.acquire();
+    }
+    selector.release(2);
+    selector.release(2);
+    selector.release(1);
+
+    assertEquals(2, selector.acquire());
+    assertEquals(1, selector.getNumTransactions(2));
+    int channel = selector.acquire();
+    assertTrue(channel == 1 || channel == 2);
+    assertEquals(2, selector.getNumTransactions(channel));
+  }
+
+  @Test
+  public void testNoChannels() {
+    LeastLoadedChannelSelector selector = new LeastLoadedChannelSelector(0, null);
+    assertEquals(NO_CHANNEL_HINT, selector.acquire());
+    selector.release(NO_CHANNEL_HINT);
+    assertEquals(0, selector.getNumChannels());
+  }
+
+  @Test
+  public void testReleaseLeaseTwice() {
+    LeastLoadedChannelSelector selector = new LeastLoadedChannelSelector(2, null);
+    Object transaction = new Object();
+    LeastLoadedChannelSelector.Lease lease = selector.lease(transaction, selector.acquire());
+    assertEquals(1, selector.getNumTransactions(lease.getChannel()));
+
+    lease.release();
+    lease.release();
+    assertEquals(0, selector.getNumTransactions(lease.getChannel()));
+  }
+
+  @Test
+  public void testAbandonedLeaseIsReleased() throws InterruptedException {
+    LeastLoadedChannelSelector selector = new LeastLoadedChannelSelector(1, null);
+    // Lease a channel for a transaction that is never closed.
+    selector.lease(new Object(), selector.acquire());
+    assertEquals(1, selector.getNumTransactions(0));
+
+    for (int i = 0; i < 100 && selector.getNumTransactions(0) > 0; i++) {
+      System.gc();
+      Thread.sleep(10L);
+      // Acquiring a channel releases the channels of transactions that have been garbage
+      // collected.
+      selector.release(selector.acquire());
+    }
+    assertEquals(0, selector.getNumTransactions(0));
+  }
+
+  @Test
+  public void testCloseStopsExportingMetrics() {
+    SpannerOptions.enableOpenTelemetryMetrics();
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(metricReader).build();
+    try {
+      LeastLoadedChannelSelector selector =
+          new LeastLoadedChannelSelector(
+              2, OpenTelemetrySdk.builder().setMeterProvider(meterProvider).build());
+      selector.acquire();
+      assertTrue(hasMetric(metricReader.collectAllMetrics(), SPANNER_CHANNEL_TRANSACTIONS));
+
+      selector.close();
+      assertFalse(hasMetric(metricReader.collectAllMetrics(), SPANNER_CHANNEL_TRANSACTIONS));
+    } finally {
+      meterProvider.close();
+    }
+  }
+
+  private static boolean hasMetric(Collection<MetricData> metrics, String name) {
+    return metrics.stream().anyMatch(metric -> metric.getName().equals(name));
+  }
+
+  @Test
+  public void testConcurrentAcquireAndRelease() throws Exception {
+    int numChannels = 8;
+    LeastLoadedChannelSelector selector = new LeastLoadedChannelSelector(numChannels, null);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 8; thread++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < 10_000; i++) {
+                    selector.release(selector.acquire());
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    for (int channel = 0; channel < numChannels; channel++) {
+      assertEquals(0, selector.getNumTransactions(channel));
+    }
+  }
+}
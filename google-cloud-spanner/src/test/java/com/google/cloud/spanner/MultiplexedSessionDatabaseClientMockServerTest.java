@@ -33,6 +33,7 @@ import com.google.spanner.v1.ExecuteSqlRequest;
 import com.google.spanner.v1.Session;
 import io.grpc.Status;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -283,6 +284,45 @@ public class MultiplexedSessionDatabaseClientMockServerTest extends AbstractMock
     assertFalse(session2.getMultiplexed());
   }
 
+  @Test
+  public void testTransactionsAreSpreadOverChannels() {
+    DatabaseClientImpl client =
+        (DatabaseClientImpl) spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+    assertNotNull(client.multiplexedSessionDatabaseClient);
+    LeastLoadedChannelSelector selector =
+        client.multiplexedSessionDatabaseClient.getChannelSelector();
+    int numChannels = selector.getNumChannels();
+    assertTrue(numChannels > 1);
+
+    // Multi-use read-only transactions keep their channel until they are closed.
+    List<ReadOnlyTransaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 2 * numChannels; i++) {
+      ReadOnlyTransaction transaction = client.readOnlyTransaction();
+      try (ResultSet resultSet = transaction.executeQuery(STATEMENT)) {
+        //noinspection StatementWithEmptyBody
+        while (resultSet.next()) {
+          // ignore
+        }
+      }
+      transactions.add(transaction);
+    }
+    for (int channel = 0; channel < numChannels; channel++) {
+      assertEquals(2, selector.getNumTransactions(channel));
+    }
+
+    // Single-use transactions release their channel when the result set has been consumed.
+    try (ResultSet resultSet = client.singleUse().executeQuery(STATEMENT)) {
+      //noinspection StatementWithEmptyBody
+      while (resultSet.next()) {
+        // ignore
+      }
+    }
+    transactions.forEach(ReadOnlyTransaction::close);
+    for (int channel = 0; channel < numChannels; channel++) {
+      assertEquals(0, selector.getNumTransactions(channel));
+    }
+  }
+
   private void waitForSessionToBeReplaced(DatabaseClientImpl client) {
     assertNotNull(client.multiplexedSessionDatabaseClient);
     SessionReference sessionReference =
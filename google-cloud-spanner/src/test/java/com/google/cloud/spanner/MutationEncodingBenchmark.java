@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.spanner.Mutation.Op;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for building and encoding large batches of write mutations. Compares creating one
+ * {@link Mutation.WriteBuilder} per row with using a {@link Mutation.BulkWriteBuilder}. The
+ * benchmarks are bound to the Maven profile `benchmark` and can be executed like this: <code>
+ * mvn clean test -DskipTests -Pbenchmark -Dbenchmark.name=MutationEncodingBenchmark
+ * </code>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, warmups = 0)
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 3, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MutationEncodingBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkState {
+    @Param({"1000", "100000"})
+    int numRows;
+  }
+
+  @Benchmark
+  public List<com.google.spanner.v1.Mutation> writeBuilderPerRow(BenchmarkState state) {
+    List<Mutation> mutations = new ArrayList<>(state.numRows);
+    for (int row = 0; row < state.numRows; row++) {
+      mutations.add(
+          Mutation.newInsertOrUpdateBuilder("Singers")
+              .set("SingerId")
+              .to(row)
+              .set("FirstName")
+              .to("First" + row)
+              .set("LastName")
+              .to("Last" + row)
+              .set("Rating")
+              .to(row * 0.5d)
+              .build());
+    }
+    List<com.google.spanner.v1.Mutation> proto = new ArrayList<>(1);
+    Mutation.toProto(mutations, proto);
+    return proto;
+  }
+
+  @Benchmark
+  public List<com.google.spanner.v1.Mutation> bulkWriteBuilder(BenchmarkState state) {
+    Mutation.BulkWriteBuilder builder =
+        Mutation.newBulkWriteBuilder(
+            Op.INSERT_OR_UPDATE, "Singers", "SingerId", "FirstName", "LastName", "Rating");
+    for (int row = 0; row < state.numRows; row++) {
+      builder.addRow(
+          Value.int64(row),
+          Value.string("First" + row),
+          Value.string("Last" + row),
+          Value.float64(row * 0.5d));
+    }
+    List<com.google.spanner.v1.Mutation> proto = new ArrayList<>(1);
+    Mutation.toProto(builder.build(), proto);
+    return proto;
+  }
+}
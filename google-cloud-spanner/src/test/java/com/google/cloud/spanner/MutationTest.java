@@ -375,6 +375,47 @@ public class MutationTest {
                 + " values { values { string_value: 'V5' } } }"));
   }
 
+  @Test
+  public void bulkWriteBuilder() {
+    List<Mutation> mutations =
+        Mutation.newBulkWriteBuilder(Mutation.Op.INSERT_OR_UPDATE, "T", "C1", "C2")
+            .addRow(Value.string("V1"), Value.int64(1L))
+            .addRow(Value.string("V2"), Value.int64(2L))
+            .build();
+
+    assertThat(mutations)
+        .containsExactly(
+            Mutation.newInsertOrUpdateBuilder("T").set("C1").to("V1").set("C2").to(1L).build(),
+            Mutation.newInsertOrUpdateBuilder("T").set("C1").to("V2").set("C2").to(2L).build())
+        .inOrder();
+
+    List<com.google.spanner.v1.Mutation> proto = new ArrayList<>();
+    Mutation.toProto(mutations, proto);
+
+    assertThat(proto.size()).isEqualTo(1);
+    MatcherAssert.assertThat(
+        proto.get(0),
+        matchesProto(
+            "insert_or_update { table: 'T' columns: 'C1' columns: 'C2'"
+                + " values { values { string_value: 'V1' } values { string_value: '1' } }"
+                + " values { values { string_value: 'V2' } values { string_value: '2' } } }"));
+  }
+
+  @Test
+  public void bulkWriteBuilderInvalidArguments() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Mutation.newBulkWriteBuilder(Mutation.Op.DELETE, "T", "C1"));
+    assertThrows(
+        IllegalStateException.class,
+        () -> Mutation.newBulkWriteBuilder(Mutation.Op.INSERT, "T", "C1", "c1"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            Mutation.newBulkWriteBuilder(Mutation.Op.INSERT, "T", "C1", "C2")
+                .addRow(Value.string("V1")));
+  }
+
   @Test
   public void toProtoCoalescingChangeOfOperation() {
     List<Mutation> mutations =
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.spanner.Type.StructField;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ParallelPartitionResultSetTest {
+  private static final Type TYPE =
+      Type.struct(StructField.of("PARTITION", Type.int64()), StructField.of("ROW", Type.int64()));
+
+  private static ResultSet createResultSet(int partition, int numRows) {
+    List<Struct> rows = new ArrayList<>(numRows);
+    for (int row = 0; row < numRows; row++) {
+      rows.add(Struct.newBuilder().set("PARTITION").to(partition).set("ROW").to(row).build());
+    }
+    return ResultSets.forRows(TYPE, rows);
+  }
+
+  private static List<Integer> partitions(int numPartitions) {
+    return IntStream.range(0, numPartitions).boxed().collect(Collectors.toList());
+  }
+
+  @Test
+  public void testUnorderedReturnsAllRows() {
+    int numPartitions = 10;
+    int numRows = 100;
+    try (ParallelPartitionResultSet<Integer> resultSet =
+        new ParallelPartitionResultSet<>(
+            partitions(numPartitions),
+            partition -> createResultSet(partition, numRows),
+            PartitionExecutionOptions.newBuilder().setMaxParallelism(4).build())) {
+      int[] rowsPerPartition = new int[numPartitions];
+      while (resultSet.next()) {
+        rowsPerPartition[(int) resultSet.getLong("PARTITION")]++;
+      }
+      assertEquals(TYPE, resultSet.getType());
+      assertEquals(numPartitions, resultSet.getNumPartitions());
+      assertEquals(4, resultSet.getParallelism());
+      assertEquals(numPartitions, resultSet.getNumFinishedPartitions());
+      for (int partition = 0; partition < numPartitions; partition++) {
+        assertEquals(numRows, rowsPerPartition[partition]);
+        assertEquals(numRows, resultSet.getRowCount(partition));
+      }
+    }
+  }
+
+  @Test
+  public void testOrderedReturnsRowsInPartitionOrder() {
+    int numPartitions = 8;
+    int numRows = 50;
+    try (ResultSet resultSet =
+        new ParallelPartitionResultSet<>(
+            partitions(numPartitions),
+            partition -> createResultSet(partition, numRows),
+            PartitionExecutionOptions.newBuilder().setMaxParallelism(3).setOrdered(true).build())) {
+      for (int partition = 0; partition < numPartitions; partition++) {
+        for (int row = 0; row < numRows; row++) {
+          assertTrue(resultSet.next());
+          assertEquals(partition, resultSet.getLong("PARTITION"));
+          assertEquals(row, resultSet.getLong("ROW"));
+        }
+      }
+      assertFalse(resultSet.next());
+    }
+  }
+
+  @Test
+  public void testOrderedOnlyStartsPartitionsInWindow() throws InterruptedException {
+    assertOnlyStartsPartitionsInWindow(/* ordered = */ true);
+  }
+
+  @Test
+  public void testUnorderedOnlyStartsPartitionsInWindow() throws InterruptedException {
+    assertOnlyStartsPartitionsInWindow(/* ordered = */ false);
+  }
+
+  private void assertOnlyStartsPartitionsInWindow(boolean ordered) throws InterruptedException {
+    int numPartitions = 10;
+    AtomicInteger numStartedPartitions = new AtomicInteger();
+    CountDownLatch workersFinished = new CountDownLatch(2);
+    ExecutorService threadPool = Executors.newCachedThreadPool();
+    // Counts down when a worker has started a partition.
+    Executor executor =
+        command ->
+            threadPool.execute(
+                () -> {
+                  try {
+                    command.run();
+                  } finally {
+                    workersFinished.countDown();
+                  }
+                });
+    try (ParallelPartitionResultSet<Integer> resultSet =
+        new ParallelPartitionResultSet<>(
+            partitions(numPartitions),
+            partition -> {
+              numStartedPartitions.incrementAndGet();
+              return createResultSet(partition, 1);
+            },
+            PartitionExecutionOptions.newBuilder()
+                .setMaxParallelism(2)
+                .setOrdered(ordered)
+                .setExecutor(executor)
+                .build())) {
+      // Only the partitions in the window are started as long as nothing is being read. A new
+      // partition is only started when the reader has consumed a partition.
+      assertTrue(workersFinished.await(10L, TimeUnit.SECONDS));
+      assertEquals(0, resultSet.getNumActiveWorkers());
+      assertEquals(2, numStartedPartitions.get());
+
+      int[] rowsPerPartition = new int[numPartitions];
+      for (int partition = 0; partition < numPartitions; partition++) {
+        assertTrue(resultSet.next());
+        if (ordered) {
+          assertEquals(partition, resultSet.getLong("PARTITION"));
+        }
+        rowsPerPartition[(int) resultSet.getLong("PARTITION")]++;
+        // The window only moves when the reader has consumed a partition.
+        assertTrue(numStartedPartitions.get() <= partition + 2);
+      }
+      assertFalse(resultSet.next());
+      assertEquals(numPartitions, numStartedPartitions.get());
+      for (int partition = 0; partition < numPartitions; partition++) {
+        assertEquals(1, rowsPerPartition[partition]);
+      }
+    } finally {
+      threadPool.shutdown();
+      assertTrue(threadPool.awaitTermination(10L, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testGetStatsIsNotSupported() {
+    try (ResultSet resultSet =
+        new ParallelPartitionResultSet<>(
+            partitions(2),
+            partition -> createResultSet(partition, 1),
+            PartitionExecutionOptions.getDefaultInstance())) {
+      //noinspection StatementWithEmptyBody
+      while (resultSet.next()) {}
+      assertThrows(UnsupportedOperationException.class, resultSet::getStats);
+    }
+  }
+
+  @Test
+  public void testNoPartitions() {
+    try (PartitionedResultSet resultSet =
+        new ParallelPartitionResultSet<Integer>(
+            Collections.emptyList(),
+            partition -> {
+              throw new AssertionError("should not be called");
+            },
+            PartitionExecutionOptions.getDefaultInstance())) {
+      assertFalse(resultSet.next());
+      assertEquals(0, resultSet.getColumnCount());
+      assertEquals(0, resultSet.getParallelism());
+    }
+  }
+
+  @Test
+  public void testUsesCustomExecutor() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      try (ResultSet resultSet =
+          new ParallelPartitionResultSet<>(
+              partitions(5),
+              partition -> createResultSet(partition, 10),
+              PartitionExecutionOptions.newBuilder().setExecutor(executor).build())) {
+        int count = 0;
+        while (resultSet.next()) {
+          count++;
+        }
+        assertEquals(50, count);
+      }
+      // The executor is not shut down by the result set.
+      assertFalse(executor.isShutdown());
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testErrorIsPropagated() {
+    Function<Integer, ResultSet> executeFunction =
+        partition -> {
+          if (partition == 2) {
+            throw SpannerExceptionFactory.newSpannerException(ErrorCode.INTERNAL, "test error");
+          }
+          return createResultSet(partition, 10);
+        };
+    try (ResultSet resultSet =
+        new ParallelPartitionResultSet<>(
+            partitions(4),
+            executeFunction,
+            PartitionExecutionOptions.newBuilder().setOrdered(true).build())) {
+      SpannerException exception =
+          assertThrows(
+              SpannerException.class,
+              () -> {
+                //noinspection StatementWithEmptyBody
+                while (resultSet.next()) {}
+              });
+      assertEquals(ErrorCode.INTERNAL, exception.getErrorCode());
+      // The result set continues to throw the same error.
+      assertEquals(exception, assertThrows(SpannerException.class, resultSet::next));
+    }
+  }
+
+  @Test
+  public void testCloseCancelsRunningPartitions() throws InterruptedException {
+    int numPartitions = 4;
+    CountDownLatch closedLatch = new CountDownLatch(numPartitions);
+    Function<Integer, ResultSet> executeFunction =
+        partition ->
+            new ForwardingResultSet(createResultSet(partition, 10_000)) {
+              @Override
+              public void close() {
+                super.close();
+                closedLatch.countDown();
+              }
+            };
+    PartitionedResultSet resultSet =
+        new ParallelPartitionResultSet<>(
+            partitions(numPartitions),
+            executeFunction,
+            PartitionExecutionOptions.newBuilder().setMaxParallelism(numPartitions).build());
+    assertTrue(resultSet.next());
+    resultSet.close();
+    // All partitions should be closed without having been read to the end.
+    assertTrue(closedLatch.await(10L, TimeUnit.SECONDS));
+    for (int partition = 0; partition < numPartitions; partition++) {
+      assertTrue(resultSet.getRowCount(partition) < 10_000);
+    }
+    assertThrows(IllegalStateException.class, resultSet::next);
+  }
+
+  @Test
+  public void testWorkerDoesNotBlockOnSlowReader() throws InterruptedException {
+    int numPartitions = 4;
+    int numRows = 10_000;
+    CountDownLatch workersFinished = new CountDownLatch(2);
+    ExecutorService threadPool = Executors.newCachedThreadPool();
+    Executor executor =
+        command ->
+            threadPool.execute(
+                () -> {
+                  try {
+                    command.run();
+                  } finally {
+                    workersFinished.countDown();
+                  }
+                });
+    try (ParallelPartitionResultSet<Integer> resultSet =
+        new ParallelPartitionResultSet<>(
+            partitions(numPartitions),
+            partition -> createResultSet(partition, numRows),
+            PartitionExecutionOptions.newBuilder()
+                .setMaxParallelism(2)
+                .setExecutor(executor)
+                .build())) {
+      // The workers only wait for the first row of their partition, and then hand the partition
+      // over to the reader. They do not keep a thread busy while nothing is being read.
+      assertTrue(workersFinished.await(10L, TimeUnit.SECONDS));
+      assertEquals(0, resultSet.getNumActiveWorkers());
+      assertEquals(0, resultSet.getNumFinishedPartitions());
+      for (int partition = 0; partition < numPartitions; partition++) {
+        assertEquals(0L, resultSet.getRowCount(partition));
+      }
+
+      int count = 0;
+      while (resultSet.next()) {
+        count++;
+      }
+      assertEquals(numPartitions * numRows, count);
+      assertEquals(numPartitions, resultSet.getNumFinishedPartitions());
+    } finally {
+      threadPool.shutdown();
+      assertTrue(threadPool.awaitTermination(10L, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testEmptyPartitions() {
+    try (ParallelPartitionResultSet<Integer> resultSet =
+        new ParallelPartitionResultSet<>(
+            partitions(5),
+            partition -> createResultSet(partition, partition % 2),
+            PartitionExecutionOptions.newBuilder().setOrdered(true).build())) {
+      for (int partition = 1; partition < 5; partition += 2) {
+        assertTrue(resultSet.next());
+        assertEquals(partition, resultSet.getLong("PARTITION"));
+      }
+      assertFalse(resultSet.next());
+      assertEquals(TYPE, resultSet.getType());
+      assertEquals(5, resultSet.getNumFinishedPartitions());
+    }
+  }
+
+  @Test
+  public void testGetCurrentRowAsStruct() {
+    int numRows = 1_000;
+    try (ResultSet resultSet =
+        new ParallelPartitionResultSet<>(
+            partitions(3),
+            partition -> createResultSet(partition, numRows),
+            PartitionExecutionOptions.newBuilder().setOrdered(true).build())) {
+      for (int partition = 0; partition < 3; partition++) {
+        for (int row = 0; row < numRows; row++) {
+          assertTrue(resultSet.next());
+          assertEquals(partition, resultSet.getLong("PARTITION"));
+          assertEquals(row, resultSet.getLong("ROW"));
+          assertEquals(row, resultSet.getCurrentRowAsStruct().getLong("ROW"));
+        }
+      }
+      assertFalse(resultSet.next());
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.ByteArray;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Options.RpcPriority;
+import com.google.cloud.spanner.connection.PartitionId;
+import com.google.protobuf.ByteString;
+import com.google.spanner.v1.DirectedReadOptions;
+import com.google.spanner.v1.DirectedReadOptions.IncludeReplicas;
+import com.google.spanner.v1.DirectedReadOptions.ReplicaSelection;
+import com.google.spanner.v1.ExecuteSqlRequest.QueryOptions;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map.Entry;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PartitionEncodingTest {
+  private static final BatchTransactionId TRANSACTION_ID =
+      new BatchTransactionId(
+          "projects/p/instances/i/databases/d/sessions/s",
+          ByteString.copyFromUtf8("transaction-id"),
+          Timestamp.ofTimeSecondsAndNanos(1_700_000_000L, 123_456_789));
+  private static final ByteString PARTITION_TOKEN = ByteString.copyFromUtf8("partition-token");
+
+  private static Partition roundTrip(Partition partition) {
+    byte[] bytes = PartitionEncoding.encode(TRANSACTION_ID, partition);
+    assertNotNull(bytes);
+    assertTrue(PartitionEncoding.isSupportedVersion(bytes));
+    Entry<BatchTransactionId, Partition> decoded =
+        PartitionEncoding.decode(bytes, SimpleEntry::new);
+    assertEquals(TRANSACTION_ID, decoded.getKey());
+    assertEquals(partition, decoded.getValue());
+    return decoded.getValue();
+  }
+
+  @Test
+  public void testQueryPartitionWithoutParameters() {
+    roundTrip(
+        Partition.createQueryPartition(
+            PARTITION_TOKEN,
+            PartitionOptions.getDefaultInstance(),
+            Statement.of("SELECT * FROM Singers"),
+            Options.fromQueryOptions()));
+  }
+
+  @Test
+  public void testQueryPartitionWithParameters() {
+    Statement statement =
+        Statement.newBuilder("SELECT * FROM AllTypes WHERE 1=1")
+            .bind("bool")
+            .to(true)
+            .bind("int64")
+            .to(100L)
+            .bind("float64")
+            .to(3.14d)
+            .bind("numeric")
+            .to(new BigDecimal("3.140"))
+            .bind("string")
+            .to("test")
+            .bind("json")
+            .to(Value.json("{\"key\": \"value\"}"))
+            .bind("bytes")
+            .to(ByteArray.copyFrom("test"))
+            .bind("timestamp")
+            .to(Timestamp.ofTimeMicroseconds(1_000_000L))
+            .bind("date")
+            .to(Date.fromYearMonthDay(2024, 2, 29))
+            .bind("null_string")
+            .to((String) null)
+            .bind("int64_array")
+            .toInt64Array(Arrays.asList(1L, null, 3L))
+            .bind("string_array")
+            .toStringArray(Arrays.asList("one", "two"))
+            .build();
+    Partition partition =
+        roundTrip(
+            Partition.createQueryPartition(
+                PARTITION_TOKEN,
+                PartitionOptions.newBuilder().setMaxPartitions(100L).build(),
+                statement,
+                Options.fromQueryOptions()));
+    assertEquals(statement.getParameters(), partition.getStatement().getParameters());
+  }
+
+  @Test
+  public void testQueryPartitionWithOptions() {
+    Partition partition =
+        roundTrip(
+            Partition.createQueryPartition(
+                PARTITION_TOKEN,
+                PartitionOptions.newBuilder()
+                    .setPartitionSizeBytes(1_000_000L)
+                    .setMaxPartitions(10L)
+                    .build(),
+                Statement.newBuilder("SELECT * FROM Singers")
+                    .withQueryOptions(QueryOptions.newBuilder().setOptimizerVersion("1").build())
+                    .build(),
+                Options.fromQueryOptions(
+                    Options.prefetchChunks(10),
+                    Options.bufferRows(20),
+                    Options.priority(RpcPriority.LOW),
+                    Options.tag("my-tag"),
+                    Options.dataBoostEnabled(true),
+                    Options.decodeMode(DecodeMode.LAZY_PER_COL),
+                    Options.directedRead(
+                        DirectedReadOptions.newBuilder()
+                            .setIncludeReplicas(
+                                IncludeReplicas.newBuilder()
+                                    .addReplicaSelections(
+                                        ReplicaSelection.newBuilder().setLocation("us-east1")))
+                            .build()))));
+    assertEquals(DecodeMode.LAZY_PER_COL, partition.getQueryOptions().decodeMode());
+  }
+
+  @Test
+  public void testReadPartitionIsNotEncoded() {
+    assertNull(
+        PartitionEncoding.encode(
+            TRANSACTION_ID,
+            Partition.createReadPartition(
+                PARTITION_TOKEN,
+                PartitionOptions.getDefaultInstance(),
+                "Singers",
+                null,
+                KeySet.all(),
+                Arrays.asList("SingerId", "Name"),
+                Options.fromReadOptions())));
+  }
+
+  @Test
+  public void testUntypedParameterIsNotEncoded() {
+    assertNull(
+        PartitionEncoding.encode(
+            TRANSACTION_ID,
+            Partition.createQueryPartition(
+                PARTITION_TOKEN,
+                PartitionOptions.getDefaultInstance(),
+                Statement.newBuilder("SELECT * FROM Singers WHERE Id=@id")
+                    .bind("id")
+                    .to(
+                        Value.untyped(
+                            com.google.protobuf.Value.newBuilder().setStringValue("1").build()))
+                    .build(),
+                Options.fromQueryOptions())));
+  }
+
+  @Test
+  public void testDecodeInvalidBytes() {
+    SpannerException exception =
+        assertThrows(
+            SpannerException.class,
+            () ->
+                PartitionEncoding.decode(
+                    new byte[] {PartitionEncoding.VERSION_1, 10, 100}, SimpleEntry::new));
+    assertEquals(ErrorCode.INVALID_ARGUMENT, exception.getErrorCode());
+  }
+
+  @Test
+  public void testPartitionIdUsesCompactEncoding() throws IOException {
+    Partition partition =
+        Partition.createQueryPartition(
+            PARTITION_TOKEN,
+            PartitionOptions.getDefaultInstance(),
+            Statement.newBuilder("SELECT * FROM Singers WHERE Id=@id").bind("id").to(1L).build(),
+            Options.fromQueryOptions(Options.dataBoostEnabled(true)));
+    String compact = PartitionId.encodeToString(TRANSACTION_ID, partition);
+    PartitionId partitionId = PartitionId.decodeFromString(compact);
+    assertEquals(TRANSACTION_ID, partitionId.getTransactionId());
+    assertEquals(partition, partitionId.getPartition());
+    assertArrayEquals(
+        PartitionEncoding.encode(TRANSACTION_ID, partition),
+        Base64.getUrlDecoder().decode(compact));
+
+    // Ids that were encoded with Java serialization by older versions can still be decoded.
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    try (ObjectOutputStream objectOutputStream =
+        new ObjectOutputStream(new GZIPOutputStream(byteArrayOutputStream))) {
+      objectOutputStream.writeObject(partitionId);
+    }
+    String serialized = Base64.getUrlEncoder().encodeToString(byteArrayOutputStream.toByteArray());
+    assertEquals(partitionId, PartitionId.decodeFromString(serialized));
+    assertTrue(compact.length() < serialized.length());
+  }
+}
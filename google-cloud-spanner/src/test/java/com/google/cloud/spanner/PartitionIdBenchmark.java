@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.connection.PartitionId;
+import com.google.protobuf.ByteString;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for encoding and decoding {@link PartitionId}s with the compact encoding and with the
+ * Java serialization based encoding of older versions. The benchmarks are bound to the Maven
+ * profile `benchmark` and can be executed like this: <code>
+ * mvn clean test -DskipTests -Pbenchmark -Dbenchmark.name=PartitionIdBenchmark
+ * </code>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, warmups = 0)
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 3, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PartitionIdBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkState {
+    BatchTransactionId transactionId;
+    Partition partition;
+    PartitionId partitionId;
+    String compactId;
+    String serializedId;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+      // Partition tokens that are returned by Spanner are opaque byte strings of a few hundred
+      // bytes.
+      byte[] partitionToken = new byte[300];
+      new Random(1L).nextBytes(partitionToken);
+      transactionId =
+          new BatchTransactionId(
+              "projects/my-project/instances/my-instance/databases/my-database/sessions/"
+                  + "AH0ePvVIWcp1z2fwJNSsyTCKSFFmeBUo5UmHtxpTaWoRr-eAm1ohxbrBZCBSKpNoTX8o",
+              ByteString.copyFrom(partitionToken, 0, 32),
+              Timestamp.now());
+      partition =
+          Partition.createQueryPartition(
+              ByteString.copyFrom(partitionToken),
+              PartitionOptions.newBuilder().setMaxPartitions(10_000L).build(),
+              Statement.newBuilder(
+                      "SELECT SingerId, FirstName, LastName, BirthDate FROM Singers "
+                          + "WHERE LastName LIKE @prefix AND BirthDate > @birthDate")
+                  .bind("prefix")
+                  .to("A%")
+                  .bind("birthDate")
+                  .to(com.google.cloud.Date.fromYearMonthDay(1980, 1, 1))
+                  .build(),
+              Options.fromQueryOptions(Options.dataBoostEnabled(true)));
+      compactId = PartitionId.encodeToString(transactionId, partition);
+      partitionId = PartitionId.decodeFromString(compactId);
+      serializedId = encodeSerialized(partitionId);
+    }
+  }
+
+  @Benchmark
+  public String encodeCompact(BenchmarkState state) {
+    return PartitionId.encodeToString(state.transactionId, state.partition);
+  }
+
+  @Benchmark
+  public String encodeSerialized(BenchmarkState state) throws IOException {
+    return encodeSerialized(state.partitionId);
+  }
+
+  @Benchmark
+  public PartitionId decodeCompact(BenchmarkState state) {
+    return PartitionId.decodeFromString(state.compactId);
+  }
+
+  @Benchmark
+  public PartitionId decodeSerialized(BenchmarkState state) {
+    return PartitionId.decodeFromString(state.serializedId);
+  }
+
+  /** Encodes the given id in the same way as older versions of {@link PartitionId}. */
+  private static String encodeSerialized(PartitionId id) throws IOException {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    try (ObjectOutputStream objectOutputStream =
+        new ObjectOutputStream(new GZIPOutputStream(byteArrayOutputStream))) {
+      objectOutputStream.writeObject(id);
+    }
+    return Base64.getUrlEncoder().encodeToString(byteArrayOutputStream.toByteArray());
+  }
+}
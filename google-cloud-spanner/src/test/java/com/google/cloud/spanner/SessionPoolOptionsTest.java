@@ -287,4 +287,18 @@ public class SessionPoolOptionsTest {
             .build()
             .getMultiplexedSessionMaintenanceDuration());
   }
+
+  @Test
+  public void testWarmUpOnStartup() {
+    assertFalse(SessionPoolOptions.newBuilder().build().isWarmUpOnStartup());
+    assertTrue(
+        SessionPoolOptions.newBuilder().setWarmUpOnStartup(true).build().isWarmUpOnStartup());
+    assertTrue(
+        SessionPoolOptions.newBuilder()
+            .setWarmUpOnStartup(true)
+            .build()
+            .toBuilder()
+            .build()
+            .isWarmUpOnStartup());
+  }
 }
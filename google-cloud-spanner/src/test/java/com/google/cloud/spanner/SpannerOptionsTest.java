@@ -37,6 +37,8 @@ import com.google.api.gax.rpc.UnaryCallSettings;
 import com.google.cloud.NoCredentials;
 import com.google.cloud.ServiceOptions;
 import com.google.cloud.TransportOptions;
+import com.google.cloud.grpc.GrpcTransportOptions;
+import com.google.cloud.grpc.GrpcTransportOptions.ExecutorFactory;
 import com.google.cloud.spanner.SpannerOptions.FixedCloseableExecutorProvider;
 import com.google.cloud.spanner.SpannerOptions.SpannerCallContextTimeoutConfigurator;
 import com.google.cloud.spanner.admin.database.v1.stub.DatabaseAdminStubSettings;
@@ -132,12 +134,14 @@ public class SpannerOptionsTest {
             .setHost(host)
             .setProjectId(projectId)
             .setPrefetchChunks(2)
+            .setMaxAdaptivePrefetchChunks(16)
             .setSessionLabels(labels)
             .setOpenTelemetry(openTelemetry)
             .build();
     assertThat(options.getHost()).isEqualTo(host);
     assertThat(options.getProjectId()).isEqualTo(projectId);
     assertThat(options.getPrefetchChunks()).isEqualTo(2);
+    assertThat(options.getMaxAdaptivePrefetchChunks()).isEqualTo(16);
     assertThat(options.getSessionLabels()).containsExactlyEntriesIn(labels);
     assertThat(options.getOpenTelemetry()).isEqualTo(openTelemetry);
   }
@@ -1007,6 +1011,57 @@ public class SpannerOptionsTest {
                 propertyName, "", SpannerOptions::getDefaultAsyncExecutorProviderCoreThreadCount));
   }
 
+  @Test
+  public void testUseVirtualThreadsForAllExecutors() {
+    SpannerOptions defaultOptions =
+        SpannerOptions.newBuilder()
+            .setProjectId("test-project")
+            .setCredentials(NoCredentials.getInstance())
+            .build();
+    assertFalse(defaultOptions.isUseVirtualThreadsForAllExecutors());
+    assertSame(
+        ((GrpcTransportOptions) defaultOptions.getTransportOptions()).getExecutorFactory(),
+        SpannerOptions.getSessionExecutorFactory(defaultOptions));
+
+    SpannerOptions options =
+        defaultOptions.toBuilder().setUseVirtualThreadsForAllExecutors(true).build();
+    assertTrue(options.isUseVirtualThreadsForAllExecutors());
+    assertTrue(options.toBuilder().build().isUseVirtualThreadsForAllExecutors());
+    ExecutorFactory<ScheduledExecutorService> executorFactory =
+        SpannerOptions.getSessionExecutorFactory(options);
+    if (ThreadFactoryUtil.tryCreateVirtualThreadFactory("test") == null) {
+      // Virtual threads are not supported on this JVM, so the default executor should be used.
+      assertSame(
+          ((GrpcTransportOptions) options.getTransportOptions()).getExecutorFactory(),
+          executorFactory);
+    } else {
+      // The executor should be shared between all users, and be shut down when it has been
+      // released by all of them.
+      ScheduledExecutorService executor1 = executorFactory.get();
+      ScheduledExecutorService executor2 = executorFactory.get();
+      assertSame(executor1, executor2);
+      executorFactory.release(executor1);
+      assertFalse(executor1.isShutdown());
+      executorFactory.release(executor2);
+      assertTrue(executor1.isShutdown());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testUseVirtualThreadsForAllExecutorsWithCustomExecutorFactory() {
+    ExecutorFactory<ScheduledExecutorService> executorFactory = mock(ExecutorFactory.class);
+    SpannerOptions options =
+        SpannerOptions.newBuilder()
+            .setProjectId("test-project")
+            .setCredentials(NoCredentials.getInstance())
+            .setTransportOptions(
+                GrpcTransportOptions.newBuilder().setExecutorFactory(executorFactory).build())
+            .setUseVirtualThreadsForAllExecutors(true)
+            .build();
+    assertSame(executorFactory, SpannerOptions.getSessionExecutorFactory(options));
+  }
+
   static <V> V runWithSystemProperty(
       String propertyName, String propertyValue, Callable<V> callable) throws Exception {
     String currentValue = System.getProperty(propertyName);
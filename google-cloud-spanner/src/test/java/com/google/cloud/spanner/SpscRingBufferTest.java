@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SpscRingBufferTest {
+
+  @Test
+  public void testInvalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new SpscRingBuffer<Integer>(0));
+  }
+
+  @Test
+  public void testPutAndTake() throws InterruptedException {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(3);
+    assertTrue(buffer.isEmpty());
+    buffer.put(1);
+    buffer.put(2);
+    buffer.put(3);
+    assertEquals(3, buffer.size());
+    assertFalse(buffer.isEmpty());
+
+    assertEquals(Integer.valueOf(1), buffer.take());
+    assertEquals(Integer.valueOf(2), buffer.take());
+    assertEquals(Integer.valueOf(3), buffer.poll(1L, TimeUnit.MILLISECONDS));
+    assertTrue(buffer.isEmpty());
+  }
+
+  @Test
+  public void testPollTimeout() throws InterruptedException {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(1);
+    assertNull(buffer.poll(1L, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testOfferAndPoll() {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(2);
+    assertNull(buffer.poll());
+    assertTrue(buffer.offer(1));
+    assertTrue(buffer.offer(2));
+    assertFalse(buffer.offer(3));
+    assertEquals(Integer.valueOf(1), buffer.poll());
+    assertTrue(buffer.offer(3));
+    assertEquals(Integer.valueOf(2), buffer.poll());
+    assertEquals(Integer.valueOf(3), buffer.poll());
+    assertNull(buffer.poll());
+  }
+
+  @Test
+  public void testTakeIsInterruptible() {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(1);
+    Thread.currentThread().interrupt();
+    assertThrows(InterruptedException.class, buffer::take);
+    assertFalse(Thread.interrupted());
+  }
+
+  @Test
+  public void testPutWaitsForSpace() throws Exception {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(1);
+    buffer.put(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      CountDownLatch started = new CountDownLatch(1);
+      Future<?> producer =
+          executor.submit(
+              () -> {
+                started.countDown();
+                buffer.put(2);
+              });
+      started.await();
+      assertEquals(Integer.valueOf(1), buffer.take());
+      producer.get(10L, TimeUnit.SECONDS);
+      assertEquals(Integer.valueOf(2), buffer.take());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testConcurrentProducerAndConsumer() throws Exception {
+    int numElements = 100_000;
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(5);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> producer =
+          executor.submit(
+              () -> {
+                for (int i = 0; i < numElements; i++) {
+                  buffer.put(i);
+                }
+              });
+      for (int i = 0; i < numElements; i++) {
+        assertEquals(Integer.valueOf(i), buffer.take());
+      }
+      producer.get(10L, TimeUnit.SECONDS);
+      assertTrue(buffer.isEmpty());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -42,6 +42,18 @@ public class StatementTest {
     reserializeAndAssert(stmt);
   }
 
+  @Test
+  public void sqlInstanceIsKept() {
+    String sql = "SELECT 1";
+    assertThat(Statement.of(sql).getSql()).isSameInstanceAs(sql);
+    assertThat(Statement.newBuilder(sql).bind("p1").to(1L).build().getSql()).isSameInstanceAs(sql);
+    assertThat(Statement.of(sql).toBuilder().build().getSql()).isSameInstanceAs(sql);
+    assertThat(Statement.newBuilder("SELECT 2").replace(sql).build().getSql())
+        .isSameInstanceAs(sql);
+    assertThat(Statement.newBuilder(sql).append(" FROM foo").build().getSql())
+        .isEqualTo("SELECT 1 FROM foo");
+  }
+
   @Test
   public void serialization() {
     Statement stmt =
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ThreadPerTaskScheduledExecutorServiceTest {
+  private ThreadPerTaskScheduledExecutorService executor;
+
+  @Before
+  public void createExecutor() {
+    executor =
+        new ThreadPerTaskScheduledExecutorService(
+            Executors.newCachedThreadPool(), Executors.defaultThreadFactory());
+  }
+
+  @After
+  public void shutdownExecutor() throws InterruptedException {
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testScheduleRunsOnTaskThread() throws Exception {
+    ScheduledFuture<Thread> future =
+        executor.schedule(Thread::currentThread, 10L, TimeUnit.MILLISECONDS);
+
+    Thread thread = future.get(10L, TimeUnit.SECONDS);
+    assertTrue(future.isDone());
+    assertNotSame(Thread.currentThread(), thread);
+  }
+
+  @Test
+  public void testCancelDelayedTask() {
+    AtomicBoolean ran = new AtomicBoolean();
+    ScheduledFuture<?> future = executor.schedule(() -> ran.set(true), 1L, TimeUnit.HOURS);
+    assertTrue(future.getDelay(TimeUnit.MINUTES) > 0L);
+
+    assertTrue(future.cancel(false));
+    assertTrue(future.isCancelled());
+    assertThrows(CancellationException.class, future::get);
+    assertFalse(ran.get());
+  }
+
+  @Test
+  public void testPeriodicTaskDoesNotOverlap() throws InterruptedException {
+    AtomicInteger running = new AtomicInteger();
+    AtomicBoolean overlapped = new AtomicBoolean();
+    CountDownLatch executions = new CountDownLatch(5);
+    ScheduledFuture<?> future =
+        executor.scheduleAtFixedRate(
+            () -> {
+              if (running.incrementAndGet() > 1) {
+                overlapped.set(true);
+              }
+              try {
+                // Take longer than the period of the task.
+                Thread.sleep(5L);
+              } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+              }
+              running.decrementAndGet();
+              executions.countDown();
+            },
+            0L,
+            1L,
+            TimeUnit.MILLISECONDS);
+
+    assertTrue(executions.await(10L, TimeUnit.SECONDS));
+    assertTrue(future.cancel(false));
+    assertFalse(overlapped.get());
+  }
+
+  @Test
+  public void testPeriodicTaskStopsAfterFailure() throws InterruptedException {
+    AtomicInteger executions = new AtomicInteger();
+    CountDownLatch failed = new CountDownLatch(1);
+    ScheduledFuture<?> future =
+        executor.scheduleWithFixedDelay(
+            () -> {
+              executions.incrementAndGet();
+              failed.countDown();
+              throw new IllegalStateException("test");
+            },
+            0L,
+            1L,
+            TimeUnit.MILLISECONDS);
+
+    assertTrue(failed.await(10L, TimeUnit.SECONDS));
+    Thread.sleep(20L);
+    assertEquals(1, executions.get());
+    assertTrue(future.isDone());
+  }
+
+  @Test
+  public void testShutdown() throws InterruptedException {
+    executor.scheduleAtFixedRate(() -> {}, 0L, 1L, TimeUnit.SECONDS);
+    executor.schedule(() -> {}, 1L, TimeUnit.HOURS);
+    executor.shutdown();
+    assertTrue(executor.isShutdown());
+    // Delayed and periodic tasks do not keep the executor alive after it has been shut down.
+    assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+    assertTrue(executor.isTerminated());
+  }
+}
@@ -23,6 +23,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
@@ -48,6 +49,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
@@ -1026,6 +1028,63 @@ public class ValueTest {
     assertThat(e.getMessage()).contains("Expected: ARRAY<INT64> actual: ARRAY<FLOAT64>");
   }
 
+  @Test
+  public void primitiveArrays() {
+    long[] longs = new long[] {1L, 2L};
+    Value int64Array = Value.int64Array(longs);
+    assertArrayEquals(longs, int64Array.getInt64PrimitiveArray());
+    assertNotSame(int64Array.getInt64PrimitiveArray(), int64Array.getInt64PrimitiveArray());
+    assertArrayEquals(longs, Value.pgOidArray(longs).getInt64PrimitiveArray());
+    assertArrayEquals(
+        new float[] {.1f, .2f},
+        Value.float32Array(new float[] {.1f, .2f}).getFloat32PrimitiveArray(),
+        0f);
+    assertArrayEquals(
+        new double[] {.1d, .2d},
+        Value.float64Array(new double[] {.1d, .2d}).getFloat64PrimitiveArray(),
+        0d);
+
+    assertThrows(
+        NullPointerException.class,
+        () -> Value.int64Array(Arrays.asList(1L, null)).getInt64PrimitiveArray());
+    assertThrows(
+        NullPointerException.class,
+        () -> Value.float64Array(Arrays.asList(.1d, null)).getFloat64PrimitiveArray());
+    assertThrows(
+        IllegalStateException.class,
+        () -> Value.float32Array((float[]) null).getFloat32PrimitiveArray());
+    IllegalStateException e =
+        assertThrows(
+            IllegalStateException.class,
+            () -> Value.float64Array(new double[] {.1d}).getInt64PrimitiveArray());
+    assertThat(e.getMessage()).contains("Expected: ARRAY<INT64> actual: ARRAY<FLOAT64>");
+  }
+
+  @Test
+  public void wrappedPrimitiveArraysEqualCopiedArrays() {
+    BitSet nulls = new BitSet();
+    nulls.set(1);
+    assertEquals(
+        Value.int64Array(Arrays.asList(1L, null, 3L)),
+        Value.wrapInt64Array(new long[] {1L, 0L, 3L}, nulls));
+    assertEquals(
+        Value.float32Array(Arrays.asList(.1f, null, .3f)),
+        Value.wrapFloat32Array(new float[] {.1f, 0f, .3f}, nulls));
+    assertEquals(
+        Value.float64Array(Arrays.asList(.1d, null, .3d)),
+        Value.wrapFloat64Array(new double[] {.1d, 0d, .3d}, nulls));
+    assertEquals(
+        Value.pgOidArray(Arrays.asList(1L, null, 3L)),
+        Value.wrapPgOidArray(new long[] {1L, 0L, 3L}, nulls));
+
+    // An empty BitSet is equivalent to no null elements.
+    Value wrapped = Value.wrapFloat64Array(new double[] {.1d, .2d}, new BitSet());
+    Value copied = Value.float64Array(new double[] {.1d, .2d});
+    assertEquals(copied, wrapped);
+    assertEquals(copied.hashCode(), wrapped.hashCode());
+    assertEquals(copied.toProto(), wrapped.toProto());
+  }
+
   @Test
   public void numericArray() {
     Value v =
@@ -16,6 +16,7 @@
 
 package com.google.cloud.spanner.connection;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,17 +39,33 @@ import com.google.cloud.spanner.Type;
 import com.google.cloud.spanner.Type.StructField;
 import com.google.cloud.spanner.Value;
 import com.google.cloud.spanner.connection.AbstractStatementParser.ParsedStatement;
+import com.google.cloud.spanner.connection.ChecksumResultSet.ChecksumAlgorithm;
 import com.google.common.collect.ImmutableList;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 @RunWith(JUnit4.class)
 public class ChecksumResultSetTest {
+  private static ExecutorService checksumExecutor;
+
+  @BeforeClass
+  public static void createChecksumExecutor() {
+    checksumExecutor = ChecksumResultSet.createChecksumExecutor();
+  }
+
+  @AfterClass
+  public static void shutdownChecksumExecutor() {
+    checksumExecutor.shutdown();
+  }
+
   private static final Struct DIFFERENT_NON_NULL_VALUES =
       Struct.newBuilder()
           .set("boolVal")
@@ -131,6 +148,72 @@ public class ChecksumResultSetTest {
 
   @Test
   public void testRetry() {
+    testRetry(ChecksumAlgorithm.MD5, false);
+  }
+
+  @Test
+  public void testRetryWithMurmur3() {
+    testRetry(ChecksumAlgorithm.MURMUR3_128, false);
+  }
+
+  @Test
+  public void testRetryWithAsyncChecksumCalculation() {
+    testRetry(ChecksumAlgorithm.MD5, true);
+    testRetry(ChecksumAlgorithm.MURMUR3_128, true);
+  }
+
+  @Test
+  public void testAsyncChecksumEqualsSyncChecksum() {
+    for (ChecksumAlgorithm algorithm : ChecksumAlgorithm.values()) {
+      byte[] syncChecksum = consumeAndGetChecksum(algorithm, false);
+      byte[] asyncChecksum = consumeAndGetChecksum(algorithm, true);
+      assertArrayEquals(algorithm.name(), syncChecksum, asyncChecksum);
+    }
+  }
+
+  private static byte[] consumeAndGetChecksum(
+      ChecksumAlgorithm algorithm, boolean asyncChecksumCalculation) {
+    ReadWriteTransaction transaction = mock(ReadWriteTransaction.class);
+    when(transaction.runWithRetry(any(Callable.class)))
+        .thenAnswer(invocationOnMock -> ((Callable<?>) invocationOnMock.getArgument(0)).call());
+    when(transaction.getStatementExecutor()).thenReturn(mock(StatementExecutor.class));
+    ParsedStatement parsedStatement = mock(ParsedStatement.class);
+    when(parsedStatement.getStatement()).thenReturn(Statement.of("select * from foo"));
+    // Use more rows than the max number of pending rows to also verify that next() blocks when the
+    // checksum calculation falls behind.
+    ImmutableList.Builder<Struct> rows = ImmutableList.builder();
+    for (int row = 0; row < 3 * ChecksumResultSet.MAX_PENDING_CHECKSUM_ROWS; row++) {
+      rows.add(
+          Struct.newBuilder()
+              .set("id")
+              .to(row)
+              .set("value")
+              .to("value" + row)
+              .set("array")
+              .toFloat64Array(new double[] {row, row * 0.5d})
+              .build());
+    }
+    Type type =
+        Type.struct(
+            StructField.of("id", Type.int64()),
+            StructField.of("value", Type.string()),
+            StructField.of("array", Type.array(Type.float64())));
+    try (ChecksumResultSet resultSet =
+        new ChecksumResultSet(
+            transaction,
+            DirectExecuteResultSet.ofResultSet(ResultSets.forRows(type, rows.build())),
+            parsedStatement,
+            AnalyzeMode.NONE,
+            algorithm,
+            asyncChecksumCalculation ? checksumExecutor : null)) {
+      while (resultSet.next()) {
+        // Just consume the results.
+      }
+      return resultSet.getChecksum();
+    }
+  }
+
+  private void testRetry(ChecksumAlgorithm algorithm, boolean asyncChecksumCalculation) {
     Type type =
         Type.struct(
             Type.StructField.of("boolVal", Type.bool()),
@@ -330,7 +413,9 @@ public class ChecksumResultSetTest {
             transaction,
             DirectExecuteResultSet.ofResultSet(queryResult),
             parsedStatement,
-            AnalyzeMode.NONE);
+            AnalyzeMode.NONE,
+            algorithm,
+            asyncChecksumCalculation ? checksumExecutor : null);
     assertTrue(resultSet.next());
     assertTrue(resultSet.next());
 
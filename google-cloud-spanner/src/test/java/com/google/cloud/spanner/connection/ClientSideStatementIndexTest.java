@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.google.cloud.spanner.Dialect;
+import com.google.common.collect.ImmutableList;
+import java.util.Locale;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class ClientSideStatementIndexTest {
+
+  @Parameter public Dialect dialect;
+
+  @Parameters(name = "dialect = {0}")
+  public static Object[] data() {
+    return Dialect.values();
+  }
+
+  private Set<ClientSideStatementImpl> statements;
+  private ClientSideStatementIndex index;
+
+  @Before
+  public void setup() {
+    statements = AbstractStatementParser.getInstance(dialect).getClientSideStatements();
+    index = new ClientSideStatementIndex(statements);
+  }
+
+  private ClientSideStatementImpl findLinear(String sql) {
+    for (ClientSideStatementImpl statement : statements) {
+      if (statement.matches(sql)) {
+        return statement;
+      }
+    }
+    return null;
+  }
+
+  @Test
+  public void testAllStatementsAreIndexed() {
+    for (ClientSideStatementImpl statement : statements) {
+      assertFalse(
+          statement.toString(),
+          ClientSideStatementIndex.extractKeywords(statement.getPattern().pattern()).isEmpty());
+    }
+  }
+
+  @Test
+  public void testFindExampleStatements() {
+    for (ClientSideStatementImpl statement : statements) {
+      for (String example : statement.getExampleStatements()) {
+        for (String sql :
+            new String[] {
+              example,
+              example.toUpperCase(Locale.ENGLISH),
+              example.toLowerCase(Locale.ENGLISH),
+              "  \t\n" + example,
+              example.replace(" ", "\t"),
+              example.replace(" ", "\n  "),
+              example + "  ",
+              example + " foo",
+              "foo " + example,
+            }) {
+          assertSame(sql, findLinear(sql), index.find(sql));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFindOtherStatements() {
+    for (String sql :
+        new String[] {
+          "",
+          " ",
+          "select 1",
+          "insert into foo (id) values (1)",
+          "create table foo (id int64) primary key (id)",
+          "set",
+          "settings",
+          "show",
+          "show variable",
+          "show variable foo",
+          "begintransaction",
+          "run batches",
+        }) {
+      assertSame(sql, findLinear(sql), index.find(sql));
+    }
+    assertNull(index.find("select 1"));
+    assertNull(index.find("settings"));
+  }
+
+  @Test
+  public void testExtractKeywords() {
+    assertEquals(
+        ImmutableList.of(
+            ImmutableList.of("show"), ImmutableList.of("variable"), ImmutableList.of("autocommit")),
+        ClientSideStatementIndex.extractKeywords(
+            "(?is)\\A\\s*show\\s+variable\\s+autocommit\\s*\\z"));
+    assertEquals(
+        ImmutableList.of(ImmutableList.of("begin", "start")),
+        ClientSideStatementIndex.extractKeywords(
+            "(?is)\\A\\s*(?:begin|start)(?:\\s+transaction)?\\s*\\z"));
+    assertEquals(
+        ImmutableList.of(ImmutableList.of("partition")),
+        ClientSideStatementIndex.extractKeywords("(?is)\\A\\s*partition(\\s+|\\()(.*)\\z"));
+    assertEquals(
+        ImmutableList.of(ImmutableList.of("show")),
+        ClientSideStatementIndex.extractKeywords(
+            "(?is)\\A\\s*show\\s+(?:variable\\s+)?spanner\\.read_only_staleness\\s*\\z"));
+    // Optional keywords and case-sensitive expressions cannot be indexed.
+    assertEquals(
+        ImmutableList.of(),
+        ClientSideStatementIndex.extractKeywords("(?is)\\A\\s*(?:begin|start)?\\s*\\z"));
+    assertEquals(
+        ImmutableList.of(), ClientSideStatementIndex.extractKeywords("\\A\\s*begin\\s*\\z"));
+  }
+}
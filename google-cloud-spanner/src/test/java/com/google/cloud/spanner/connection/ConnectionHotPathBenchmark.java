@@ -0,0 +1,202 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.connection;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.google.cloud.spanner.Dialect;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.ResultSetsHelper;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.connection.AbstractStatementParser.ParsedStatement;
+import com.google.cloud.spanner.connection.ChecksumResultSet.ChecksumAlgorithm;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks for hot paths in the Connection API that do not need a server. The benchmarks
+ * are bound to the Maven profile `benchmark` and can be executed like this: <code>
+ * mvn clean test -DskipTests -Pbenchmark -Dbenchmark.name=ConnectionHotPathBenchmark
+ * </code>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, warmups = 0)
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 3, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConnectionHotPathBenchmark {
+  private static final Statement[] STATEMENTS =
+      new Statement[] {
+        Statement.of("SELECT * FROM Singers WHERE SingerId=@id"),
+        Statement.of(
+            "/* comment */ SELECT s.FirstName, a.Title FROM Singers s "
+                + "JOIN Albums a ON s.SingerId=a.SingerId WHERE s.LastName LIKE 'A%'"),
+        Statement.of("UPDATE Singers SET LastName='Doe' WHERE SingerId=1"),
+        Statement.of("INSERT INTO Singers (SingerId, FirstName) VALUES (1, 'John') THEN RETURN *"),
+        Statement.of("SET AUTOCOMMIT = FALSE"),
+        Statement.of("SHOW VARIABLE READ_ONLY_STALENESS"),
+        Statement.of("BEGIN TRANSACTION"),
+        Statement.of("CREATE TABLE Foo (Id INT64) PRIMARY KEY (Id)"),
+      };
+
+  @State(Scope.Benchmark)
+  public static class ParserState {
+    @Param({"GOOGLE_STANDARD_SQL", "POSTGRESQL"})
+    Dialect dialect;
+
+    AbstractStatementParser parser;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      parser = AbstractStatementParser.getInstance(dialect);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class ChecksumOptionsState {
+    // JMH cannot access the enum of the package-private ChecksumResultSet from its generated code.
+    @Param({"MD5", "MURMUR3_128"})
+    String checksumAlgorithmName;
+
+    @Param({"false", "true"})
+    boolean asyncChecksumCalculation;
+
+    ChecksumAlgorithm checksumAlgorithm;
+    ExecutorService checksumExecutor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      checksumAlgorithm = ChecksumAlgorithm.valueOf(checksumAlgorithmName);
+      checksumExecutor =
+          asyncChecksumCalculation ? ChecksumResultSet.createChecksumExecutor() : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+      if (checksumExecutor != null) {
+        checksumExecutor.shutdown();
+      }
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class ChecksumState {
+    @Param({"100"})
+    int numRows;
+
+    com.google.spanner.v1.ResultSet proto;
+    ReadWriteTransaction transaction;
+    ParsedStatement parsedStatement;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+      proto = new RandomResultSetGenerator(numRows).generate();
+      // Use a stub-only mock, as recording all invocations would skew the results.
+      transaction = mock(ReadWriteTransaction.class, withSettings().stubOnly());
+      when(transaction.runWithRetry(any(Callable.class)))
+          .thenAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call());
+      when(transaction.getStatementExecutor())
+          .thenReturn(mock(StatementExecutor.class, withSettings().stubOnly()));
+      parsedStatement =
+          AbstractStatementParser.getInstance(Dialect.GOOGLE_STANDARD_SQL)
+              .parse(Statement.of("SELECT * FROM RANDOM_TABLE"));
+    }
+  }
+
+  /**
+   * Measures classifying a mix of queries, DML, DDL and client-side statements that are already in
+   * the statement cache of the parser. This is the path that is taken by applications that execute
+   * the same statements repeatedly.
+   */
+  @Benchmark
+  public int parseCachedStatements(ParserState state) {
+    int numQueries = 0;
+    for (Statement statement : STATEMENTS) {
+      if (state.parser.parse(statement).isQuery()) {
+        numQueries++;
+      }
+    }
+    return numQueries;
+  }
+
+  /**
+   * Measures parsing and classifying a mix of queries, DML, DDL and client-side statements that are
+   * not in the statement cache of the parser. This is the path that is taken for each statement
+   * that is executed for the first time.
+   */
+  @Benchmark
+  public int parseUncachedStatements(ParserState state) {
+    int numQueries = 0;
+    for (Statement statement : STATEMENTS) {
+      if (state.parser.parseAndCache(statement, null).isQuery()) {
+        numQueries++;
+      }
+    }
+    return numQueries;
+  }
+
+  /** Measures iterating over a result set without calculating a checksum, for comparison. */
+  @Benchmark
+  public long iterateResultSet(ChecksumState state) {
+    return consume(ResultSetsHelper.fromProto(state.proto));
+  }
+
+  /** Measures iterating over a result set while calculating the retry checksum. */
+  @Benchmark
+  public long iterateChecksumResultSet(ChecksumState state, ChecksumOptionsState optionsState) {
+    ChecksumResultSet resultSet =
+        new ChecksumResultSet(
+            state.transaction,
+            DirectExecuteResultSet.ofResultSet(ResultSetsHelper.fromProto(state.proto)),
+            state.parsedStatement,
+            AnalyzeMode.NONE,
+            optionsState.checksumAlgorithm,
+            optionsState.checksumExecutor);
+    long numRows = consume(resultSet);
+    // Include the time that it takes to finish the checksum calculation in the background.
+    resultSet.getChecksum();
+    return numRows;
+  }
+
+  private static long consume(ResultSet resultSet) {
+    long numRows = 0L;
+    try (ResultSet closeable = resultSet) {
+      while (closeable.next()) {
+        numRows++;
+      }
+    }
+    return numRows;
+  }
+}
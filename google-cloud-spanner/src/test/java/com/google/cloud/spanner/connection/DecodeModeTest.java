@@ -56,8 +56,8 @@ public class DecodeModeTest extends AbstractMockServerTest {
           connection.setAutocommit(autocommit);
 
           int receivedRows = 0;
-          // DecodeMode#DIRECT is not supported in read/write transactions, as the protobuf value is
-          // used for checksum calculation.
+          // DecodeMode#DIRECT and DecodeMode#DIRECT_UNBOXED are not supported in read/write
+          // transactions, as the protobuf value is used for checksum calculation.
           try (ResultSet direct =
                   connection.executeQuery(
                       statement,
@@ -67,10 +67,20 @@ public class DecodeModeTest extends AbstractMockServerTest {
               ResultSet lazyPerRow =
                   connection.executeQuery(statement, Options.decodeMode(DecodeMode.LAZY_PER_ROW));
               ResultSet lazyPerCol =
-                  connection.executeQuery(statement, Options.decodeMode(DecodeMode.LAZY_PER_COL))) {
-            while (direct.next() && lazyPerRow.next() && lazyPerCol.next()) {
+                  connection.executeQuery(statement, Options.decodeMode(DecodeMode.LAZY_PER_COL));
+              ResultSet directUnboxed =
+                  connection.executeQuery(
+                      statement,
+                      !readonly && !autocommit
+                          ? Options.decodeMode(DecodeMode.LAZY_PER_COL)
+                          : Options.decodeMode(DecodeMode.DIRECT_UNBOXED))) {
+            while (direct.next()
+                && lazyPerRow.next()
+                && lazyPerCol.next()
+                && directUnboxed.next()) {
               assertEquals(direct.getColumnCount(), lazyPerRow.getColumnCount());
               assertEquals(direct.getColumnCount(), lazyPerCol.getColumnCount());
+              assertEquals(direct.getColumnCount(), directUnboxed.getColumnCount());
               for (int col = 0; col < direct.getColumnCount(); col++) {
                 // Test getting the entire row as a struct both as the first thing we do, and as the
                 // last thing we do. This ensures that the method works as expected both when a row
@@ -79,14 +89,20 @@ public class DecodeModeTest extends AbstractMockServerTest {
                 if (col % 2 == 0) {
                   assertEquals(direct.getCurrentRowAsStruct(), lazyPerRow.getCurrentRowAsStruct());
                   assertEquals(direct.getCurrentRowAsStruct(), lazyPerCol.getCurrentRowAsStruct());
+                  assertEquals(
+                      direct.getCurrentRowAsStruct(), directUnboxed.getCurrentRowAsStruct());
                 }
                 assertEquals(direct.isNull(col), lazyPerRow.isNull(col));
                 assertEquals(direct.isNull(col), lazyPerCol.isNull(col));
+                assertEquals(direct.isNull(col), directUnboxed.isNull(col));
                 assertEquals(direct.getValue(col), lazyPerRow.getValue(col));
                 assertEquals(direct.getValue(col), lazyPerCol.getValue(col));
+                assertEquals(direct.getValue(col), directUnboxed.getValue(col));
                 if (col % 2 == 1) {
                   assertEquals(direct.getCurrentRowAsStruct(), lazyPerRow.getCurrentRowAsStruct());
                   assertEquals(direct.getCurrentRowAsStruct(), lazyPerCol.getCurrentRowAsStruct());
+                  assertEquals(
+                      direct.getCurrentRowAsStruct(), directUnboxed.getCurrentRowAsStruct());
                 }
               }
               receivedRows++;
@@ -103,6 +119,15 @@ public class DecodeModeTest extends AbstractMockServerTest {
 
   @Test
   public void testDecodeModeDirect_failsInReadWriteTransaction() {
+    assertDecodeModeFailsInReadWriteTransaction(DecodeMode.DIRECT);
+  }
+
+  @Test
+  public void testDecodeModeDirectUnboxed_failsInReadWriteTransaction() {
+    assertDecodeModeFailsInReadWriteTransaction(DecodeMode.DIRECT_UNBOXED);
+  }
+
+  private void assertDecodeModeFailsInReadWriteTransaction(DecodeMode decodeMode) {
     int numRows = 1;
     RandomResultSetGenerator generator = new RandomResultSetGenerator(numRows);
     String sql = "select * from random";
@@ -113,7 +138,7 @@ public class DecodeModeTest extends AbstractMockServerTest {
     try (Connection connection = createConnection()) {
       connection.setAutocommit(false);
       try (ResultSet resultSet =
-          connection.executeQuery(statement, Options.decodeMode(DecodeMode.DIRECT))) {
+          connection.executeQuery(statement, Options.decodeMode(decodeMode))) {
         SpannerException exception = assertThrows(SpannerException.class, resultSet::next);
         assertEquals(ErrorCode.FAILED_PRECONDITION, exception.getErrorCode());
         assertTrue(
@@ -121,7 +146,8 @@ public class DecodeModeTest extends AbstractMockServerTest {
             exception
                 .getMessage()
                 .contains(
-                    "Executing queries with DecodeMode#DIRECT is not supported in read/write transactions."));
+                    "Executing queries with DecodeMode#DIRECT or DecodeMode#DIRECT_UNBOXED is not"
+                        + " supported in read/write transactions."));
       }
     }
   }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.cloud.spanner.Dialect;
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.connection.AbstractStatementParser.ParsedStatement;
+import com.google.cloud.spanner.connection.AbstractStatementParser.StatementType;
+import com.google.spanner.v1.ExecuteSqlRequest.QueryOptions;
+import java.util.UUID;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class StatementCacheTest {
+
+  private static String uniqueQuery() {
+    return "SELECT * FROM Foo WHERE Id='" + UUID.randomUUID() + "'";
+  }
+
+  @Test
+  public void testSizeIsRoundedUpToPowerOfTwo() {
+    AbstractStatementParser parser = AbstractStatementParser.getInstance(Dialect.POSTGRESQL);
+    assertEquals(0, new StatementCache(parser, 0, null).getSize());
+    assertEquals(1, new StatementCache(parser, 1, null).getSize());
+    assertEquals(4, new StatementCache(parser, 3, null).getSize());
+    assertEquals(1024, new StatementCache(parser, 1024, null).getSize());
+    assertEquals(2048, new StatementCache(parser, 1025, null).getSize());
+    assertThrows(IllegalArgumentException.class, () -> new StatementCache(parser, -1, null));
+  }
+
+  @Test
+  public void testSameInstanceIsConnectionCacheHit() {
+    AbstractStatementParser parser =
+        spy(AbstractStatementParser.getInstance(Dialect.GOOGLE_STANDARD_SQL));
+    StatementCache cache = new StatementCache(parser, 16, null);
+    String sql = uniqueQuery();
+
+    ParsedStatement first = cache.parse(Statement.of(sql), QueryOptions.getDefaultInstance());
+    ParsedStatement second = cache.parse(Statement.of(sql), QueryOptions.getDefaultInstance());
+
+    assertTrue(first.isQuery());
+    assertTrue(second.isQuery());
+    assertEquals(first.getSqlWithoutComments(), second.getSqlWithoutComments());
+    verify(parser, times(1)).parseAndCache(any(Statement.class), any(QueryOptions.class));
+    verify(parser, times(1)).getCachedStatement(sql);
+  }
+
+  @Test
+  public void testEqualStringIsSharedCacheHit() {
+    AbstractStatementParser parser =
+        spy(AbstractStatementParser.getInstance(Dialect.GOOGLE_STANDARD_SQL));
+    StatementCache cache = new StatementCache(parser, 16, null);
+    String sql = uniqueQuery();
+    String copy = new String(sql);
+
+    cache.parse(Statement.of(sql), QueryOptions.getDefaultInstance());
+    ParsedStatement parsed = cache.parse(Statement.of(copy), QueryOptions.getDefaultInstance());
+
+    assertTrue(parsed.isQuery());
+    verify(parser, times(1)).parseAndCache(any(Statement.class), any(QueryOptions.class));
+    verify(parser, times(2)).getCachedStatement(sql);
+  }
+
+  @Test
+  public void testDisabledCacheUsesSharedCache() {
+    AbstractStatementParser parser =
+        spy(AbstractStatementParser.getInstance(Dialect.GOOGLE_STANDARD_SQL));
+    StatementCache cache = new StatementCache(parser, 0, null);
+    String sql = uniqueQuery();
+
+    cache.parse(Statement.of(sql), QueryOptions.getDefaultInstance());
+    cache.parse(Statement.of(sql), QueryOptions.getDefaultInstance());
+
+    verify(parser, times(1)).parseAndCache(any(Statement.class), any(QueryOptions.class));
+    verify(parser, times(2)).getCachedStatement(sql);
+  }
+
+  @Test
+  public void testClientSideStatementIsNotParsedAgain() {
+    AbstractStatementParser parser = spy(AbstractStatementParser.getInstance(Dialect.POSTGRESQL));
+    StatementCache cache = new StatementCache(parser, 16, null);
+    String sql = "show transaction isolation level";
+
+    cache.parse(Statement.of(sql), null);
+    ParsedStatement parsed = cache.parse(Statement.of(sql), null);
+
+    assertEquals(StatementType.CLIENT_SIDE, parsed.getType());
+    verify(parser, never()).parse(any(Statement.class));
+  }
+
+  @Test
+  public void testParseStatementCacheSize() {
+    assertEquals(
+        1024,
+        ConnectionOptions.parseStatementCacheSize(
+            "cloudspanner:/projects/p/instances/i/databases/d"));
+    assertEquals(
+        0,
+        ConnectionOptions.parseStatementCacheSize(
+            "cloudspanner:/projects/p/instances/i/databases/d?statementCacheSize=0"));
+    assertEquals(
+        100,
+        ConnectionOptions.parseStatementCacheSize(
+            "cloudspanner:/projects/p/instances/i/databases/d?statementCacheSize=100"));
+    SpannerException exception =
+        assertThrows(
+            SpannerException.class,
+            () ->
+                ConnectionOptions.parseStatementCacheSize(
+                    "cloudspanner:/projects/p/instances/i/databases/d?statementCacheSize=-1"));
+    assertEquals(ErrorCode.INVALID_ARGUMENT, exception.getErrorCode());
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.spi.v1;
+
+import static com.google.cloud.spanner.spi.v1.HeaderInterceptor.parseServerTimingDuration;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class HeaderInterceptorTest {
+
+  @Test
+  public void testParseServerTimingDuration() {
+    assertEquals(123L, parseServerTimingDuration("gfet4t7; dur=123"));
+    assertEquals(0L, parseServerTimingDuration("dur=0"));
+    assertEquals(42L, parseServerTimingDuration("gfet4t7; dur=42ms"));
+    assertEquals(Long.MAX_VALUE, parseServerTimingDuration("dur=" + Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testParseServerTimingDurationUsesLastDuration() {
+    assertEquals(2L, parseServerTimingDuration("a; dur=1, b; dur=2"));
+    // A 'dur=' that is not followed by any digits is skipped.
+    assertEquals(1L, parseServerTimingDuration("a; dur=1, b; dur=abc"));
+    assertEquals(1L, parseServerTimingDuration("a; dur=1, b; dur="));
+  }
+
+  @Test
+  public void testParseServerTimingDurationWithoutDuration() {
+    assertEquals(-1L, parseServerTimingDuration(""));
+    assertEquals(-1L, parseServerTimingDuration("gfet4t7"));
+    assertEquals(-1L, parseServerTimingDuration("dur="));
+    assertEquals(-1L, parseServerTimingDuration("dur=-1"));
+  }
+
+  @Test
+  public void testParseServerTimingDurationOverflow() {
+    assertThrows(
+        NumberFormatException.class, () -> parseServerTimingDuration("dur=9223372036854775808"));
+  }
+}